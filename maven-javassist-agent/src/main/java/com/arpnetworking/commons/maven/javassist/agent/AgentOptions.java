@@ -0,0 +1,123 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.agent;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Options of the java agent. The agent arguments are a comma separated list
+ * of {@code key=value} pairs in which the {@code processor}, {@code include}
+ * and {@code exclude} keys may be repeated; for example:
+ * {@code processor=com.example.Processor,include=com.example.*,cacheDirectory=target/javassist-agent}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class AgentOptions {
+
+    /**
+     * Parse the agent arguments.
+     *
+     * @param arguments The agent arguments; may be {@code null} if none were given.
+     * @return The {@code AgentOptions} instance.
+     * @throws IllegalArgumentException if the arguments are invalid.
+     */
+    static AgentOptions parse(@Nullable final String arguments) {
+        final AgentOptions options = new AgentOptions();
+        if (arguments != null) {
+            for (final String option : arguments.split(",")) {
+                if (!option.isEmpty()) {
+                    options.parseOption(option);
+                }
+            }
+        }
+        if (options._processors.isEmpty()) {
+            throw new IllegalArgumentException("No processor specified");
+        }
+        return options;
+    }
+
+    private void parseOption(final String option) {
+        final int separator = option.indexOf('=');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid option: " + option);
+        }
+        final String value = option.substring(separator + 1);
+        switch (option.substring(0, separator)) {
+            case "processor":
+                _processors.add(value);
+                break;
+            case "include":
+                _includes.add(value);
+                break;
+            case "exclude":
+                _excludes.add(value);
+                break;
+            case "cacheDirectory":
+                _cacheDirectory = Paths.get(value);
+                break;
+            case "cacheMaximumSize":
+                _cacheMaximumSize = value;
+                break;
+            case "verbose":
+                _verbose = Boolean.parseBoolean(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + option);
+        }
+    }
+
+    List<String> getProcessors() {
+        return Collections.unmodifiableList(_processors);
+    }
+
+    List<String> getIncludes() {
+        return Collections.unmodifiableList(_includes);
+    }
+
+    List<String> getExcludes() {
+        return Collections.unmodifiableList(_excludes);
+    }
+
+    @Nullable
+    Path getCacheDirectory() {
+        return _cacheDirectory;
+    }
+
+    String getCacheMaximumSize() {
+        return _cacheMaximumSize;
+    }
+
+    boolean isVerbose() {
+        return _verbose;
+    }
+
+    private AgentOptions() {}
+
+    private final List<String> _processors = new ArrayList<>();
+    private final List<String> _includes = new ArrayList<>();
+    private final List<String> _excludes = new ArrayList<>();
+    @Nullable
+    private Path _cacheDirectory;
+    private String _cacheMaximumSize = DEFAULT_CACHE_MAXIMUM_SIZE;
+    private boolean _verbose;
+
+    private static final String DEFAULT_CACHE_MAXIMUM_SIZE = "1G";
+}
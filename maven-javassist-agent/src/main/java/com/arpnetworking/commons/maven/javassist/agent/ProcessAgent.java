@@ -0,0 +1,84 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.agent;
+
+import com.arpnetworking.commons.maven.javassist.engine.BuildChanges;
+import com.arpnetworking.commons.maven.javassist.engine.PrintStreamLog;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingEngine;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingException;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingOptions;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingTransformer;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessorConfiguration;
+
+import java.lang.instrument.Instrumentation;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Java agent applying processors to classes as they are loaded instead of
+ * rewriting class directories; for example, in development and test runs.
+ * Only classes which are actually loaded are processed. With a cache
+ * directory the transformed classes are kept across virtual machines so
+ * later runs skip Javassist for classes which have not changed.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessAgent {
+
+    /**
+     * Agent entry point when started with {@code -javaagent}.
+     *
+     * @param agentArgs The agent arguments.
+     * @param instrumentation The {@code Instrumentation} instance.
+     * @throws ProcessingException if the processors or the cache cannot be created.
+     */
+    public static void premain(final String agentArgs, final Instrumentation instrumentation)
+            throws ProcessingException {
+        final ProcessingTransformer transformer = createTransformer(
+                AgentOptions.parse(agentArgs),
+                ClassLoader.getSystemClassLoader());
+        Runtime.getRuntime().addShutdownHook(new Thread(transformer::end, "javassist-agent-shutdown"));
+        instrumentation.addTransformer(transformer);
+    }
+
+    /* package private */ static ProcessingTransformer createTransformer(
+            final AgentOptions options,
+            final ClassLoader classLoader)
+            throws ProcessingException {
+        // Processors are begun with the working directory as output directory
+        final ProcessingOptions processingOptions = new ProcessingOptions(Paths.get("").toAbsolutePath());
+        final List<ProcessorConfiguration> processors = new ArrayList<>();
+        for (final String className : options.getProcessors()) {
+            final ProcessorConfiguration configuration = new ProcessorConfiguration();
+            configuration.setClassName(className);
+            processors.add(configuration);
+        }
+        processingOptions.setProcessors(processors);
+        processingOptions.setIncludes(options.getIncludes());
+        processingOptions.setExcludes(options.getExcludes());
+        processingOptions.setThreads(AGENT_THREADS);
+        processingOptions.setCacheDirectory(options.getCacheDirectory());
+        processingOptions.setCacheMaximumSize(options.getCacheMaximumSize());
+        final PrintStreamLog log = new PrintStreamLog(System.err, options.isVerbose());
+        return new ProcessingEngine(processingOptions, BuildChanges.FULL, log).createTransformer(classLoader);
+    }
+
+    private ProcessAgent() {}
+
+    // Reported to the processors; classes are loaded by the application threads
+    private static final String AGENT_THREADS = "1C";
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.agent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for {@link AgentOptions}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class AgentOptionsTest {
+
+    @Test
+    public void testParse() {
+        final AgentOptions options = AgentOptions.parse(
+                "processor=com.example.A,processor=com.example.B,,include=com.example.*,exclude=*Test,"
+                        + "cacheDirectory=target/cache,cacheMaximumSize=2M,verbose=true");
+
+        Assert.assertEquals(Arrays.asList("com.example.A", "com.example.B"), options.getProcessors());
+        Assert.assertEquals(Collections.singletonList("com.example.*"), options.getIncludes());
+        Assert.assertEquals(Collections.singletonList("*Test"), options.getExcludes());
+        Assert.assertEquals(Paths.get("target/cache"), options.getCacheDirectory());
+        Assert.assertEquals("2M", options.getCacheMaximumSize());
+        Assert.assertTrue(options.isVerbose());
+    }
+
+    @Test
+    public void testParseDefaults() {
+        final AgentOptions options = AgentOptions.parse("processor=com.example.A");
+
+        Assert.assertTrue(options.getIncludes().isEmpty());
+        Assert.assertTrue(options.getExcludes().isEmpty());
+        Assert.assertNull(options.getCacheDirectory());
+        Assert.assertEquals("1G", options.getCacheMaximumSize());
+        Assert.assertFalse(options.isVerbose());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNoArguments() {
+        AgentOptions.parse(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseEmptyArguments() {
+        AgentOptions.parse(",,");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNoProcessor() {
+        AgentOptions.parse("include=com.example.*");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseUnknownOption() {
+        AgentOptions.parse("processor=com.example.A,unknown=value");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidOption() {
+        AgentOptions.parse("processor=com.example.A,=value");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMissingSeparator() {
+        AgentOptions.parse("processor");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMissingSeparatorAfterProcessor() {
+        AgentOptions.parse("processor=com.example.A,verbose");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseUnknownOptionCase() {
+        AgentOptions.parse("Processor=com.example.A");
+    }
+}
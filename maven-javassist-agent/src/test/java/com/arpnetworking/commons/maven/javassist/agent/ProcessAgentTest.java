@@ -0,0 +1,162 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.agent;
+
+import com.arpnetworking.commons.maven.javassist.Processed;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingException;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingTransformer;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.ClassFile;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Tests for {@link ProcessAgent}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessAgentTest {
+
+    @Test
+    public void testCreateTransformer() throws ProcessingException, IOException, CannotCompileException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        final ProcessingTransformer transformer = ProcessAgent.createTransformer(
+                AgentOptions.parse("processor=" + AgentTestProcessor.class.getName()
+                        + ",include=com.example.*,exclude=*Test,cacheDirectory=" + cacheDirectory),
+                getClass().getClassLoader());
+
+        final byte[] output = transformer.transform(
+                getClass().getClassLoader(),
+                "com/example/agent/Foo",
+                null,
+                null,
+                new ClassPool(true).makeClass("com.example.agent.Foo").toBytecode());
+        Assert.assertNotNull(output);
+        Assert.assertTrue(isProcessed(output));
+        Assert.assertEquals(1, countEntries(cacheDirectory));
+
+        Assert.assertNull(transformer.transform(
+                getClass().getClassLoader(),
+                "com/example/agent/FooTest",
+                null,
+                null,
+                new ClassPool(true).makeClass("com.example.agent.FooTest").toBytecode()));
+        transformer.end();
+    }
+
+    @Test
+    public void testCreateTransformerSkipped() throws ProcessingException, CannotCompileException, IOException {
+        final ProcessingTransformer transformer = ProcessAgent.createTransformer(
+                AgentOptions.parse("processor=" + AgentTestProcessor.class.getName()),
+                getClass().getClassLoader());
+        final byte[] classFile = new ClassPool(true).makeClass("com.example.agent.Foo").toBytecode();
+
+        // Bootstrap and platform classes
+        Assert.assertNull(transformer.transform(null, "com/example/agent/Foo", null, null, classFile));
+        Assert.assertNull(transformer.transform(
+                ClassLoader.getPlatformClassLoader(),
+                "com/example/agent/Foo",
+                null,
+                null,
+                classFile));
+        // Redefinitions
+        Assert.assertNull(transformer.transform(
+                getClass().getClassLoader(),
+                "com/example/agent/Foo",
+                Object.class,
+                null,
+                classFile));
+        Assert.assertNotNull(transformer.transform(
+                getClass().getClassLoader(),
+                "com/example/agent/Foo",
+                null,
+                null,
+                classFile));
+        transformer.end();
+    }
+
+    @Test
+    public void testCreateTransformerReentrant() throws ProcessingException, CannotCompileException, IOException {
+        final ProcessingTransformer transformer = ProcessAgent.createTransformer(
+                AgentOptions.parse("processor=" + ReentrantAgentTestProcessor.class.getName()),
+                getClass().getClassLoader());
+        final byte[] nestedClassFile = new ClassPool(true).makeClass("com.example.agent.Bar").toBytecode();
+        ReentrantAgentTestProcessor.NESTED_TRANSFORM.set(() -> transformer.transform(
+                getClass().getClassLoader(),
+                "com/example/agent/Bar",
+                null,
+                null,
+                nestedClassFile));
+        try {
+            final byte[] output = transformer.transform(
+                    getClass().getClassLoader(),
+                    "com/example/agent/Foo",
+                    null,
+                    null,
+                    new ClassPool(true).makeClass("com.example.agent.Foo").toBytecode());
+
+            // A class loaded while processing another is left as it is
+            Assert.assertNotNull(output);
+            Assert.assertTrue(isProcessed(output));
+            Assert.assertTrue(ReentrantAgentTestProcessor.NESTED_TRANSFORMED.get());
+            Assert.assertNull(ReentrantAgentTestProcessor.NESTED_OUTPUT.get());
+            Assert.assertTrue(isProcessed(transformer.transform(
+                    getClass().getClassLoader(),
+                    "com/example/agent/Bar",
+                    null,
+                    null,
+                    nestedClassFile)));
+        } finally {
+            ReentrantAgentTestProcessor.NESTED_TRANSFORM.set(null);
+            transformer.end();
+        }
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void testCreateTransformerProcessorNotFound() throws ProcessingException {
+        ProcessAgent.createTransformer(
+                AgentOptions.parse("processor=com.example.Missing"),
+                getClass().getClassLoader());
+    }
+
+    private static boolean isProcessed(final byte[] bytecode) throws IOException {
+        final ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(bytecode)));
+        final AttributeInfo attribute = classFile.getAttribute(AnnotationsAttribute.invisibleTag);
+        return attribute instanceof AnnotationsAttribute
+                && ((AnnotationsAttribute) attribute).getAnnotation(Processed.class.getName()) != null;
+    }
+
+    private static long countEntries(final Path cacheDirectory) throws IOException {
+        try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+            return paths.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+}
@@ -0,0 +1,260 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Options of a command line invocation. Arguments of the form
+ * {@code @file} are replaced by the lines of the file as Bazel passes
+ * worker arguments in such parameter files.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class CommandLineOptions {
+
+    /**
+     * Parse the command line arguments.
+     *
+     * @param arguments The command line arguments.
+     * @return The {@code CommandLineOptions} instance.
+     * @throws IllegalArgumentException if the arguments are invalid.
+     * @throws IOException if a parameter file cannot be read.
+     */
+    static CommandLineOptions parse(final List<String> arguments) throws IOException {
+        final CommandLineOptions options = new CommandLineOptions();
+        final Iterator<String> iterator = expandParameterFiles(arguments).iterator();
+        while (iterator.hasNext()) {
+            options.parseOption(iterator.next(), iterator);
+        }
+        if (options._inputs.isEmpty()) {
+            throw new IllegalArgumentException("No input specified");
+        }
+        if (options._output == null) {
+            throw new IllegalArgumentException("No output specified");
+        }
+        if (options._processors.isEmpty()) {
+            throw new IllegalArgumentException("No processor specified");
+        }
+        if (options.isJarOutput() && (options._inputs.size() != 1 || !isJar(options._inputs.get(0)))) {
+            throw new IllegalArgumentException("A jar output requires a single jar input");
+        }
+        if (!options.isJarOutput() && options._inputs.stream().anyMatch(CommandLineOptions::isJar)) {
+            throw new IllegalArgumentException("A jar input requires a jar output");
+        }
+        return options;
+    }
+
+    private void parseOption(final String option, final Iterator<String> iterator) {
+        switch (option) {
+            case "--classpath":
+                for (final String element : value(option, iterator).split(File.pathSeparator)) {
+                    if (!element.isEmpty()) {
+                        _classpath.add(element);
+                    }
+                }
+                break;
+            case "--input":
+                _inputs.add(Paths.get(value(option, iterator)));
+                break;
+            case "--output":
+                _output = Paths.get(value(option, iterator));
+                break;
+            case "--processor":
+                _processors.add(value(option, iterator));
+                break;
+            case "--include":
+                _includes.add(value(option, iterator));
+                break;
+            case "--exclude":
+                _excludes.add(value(option, iterator));
+                break;
+            case "--threads":
+                _threads = value(option, iterator);
+                break;
+            case "--slow-class-threshold":
+                _slowClassThreshold = seconds(option, value(option, iterator));
+                break;
+            case "--class-timeout":
+                _classTimeout = seconds(option, value(option, iterator));
+                break;
+            case "--order-by-hierarchy":
+                _orderByHierarchy = true;
+                break;
+            case "--aggregate-failures":
+                _aggregateFailures = true;
+                break;
+            case "--share-dependency-class-pool":
+                _shareDependencyClassPool = true;
+                break;
+            case "--verbose":
+                _verbose = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + option);
+        }
+    }
+
+    private static String value(final String option, final Iterator<String> iterator) {
+        if (!iterator.hasNext()) {
+            throw new IllegalArgumentException("Missing value for option: " + option);
+        }
+        return iterator.next();
+    }
+
+    private static long seconds(final String option, final String value) {
+        try {
+            final long seconds = Long.parseLong(value);
+            if (seconds >= 0) {
+                return seconds;
+            }
+        } catch (final NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid seconds for option: " + option);
+    }
+
+    private static List<String> expandParameterFiles(final List<String> arguments) throws IOException {
+        final List<String> expanded = new ArrayList<>();
+        for (final String argument : arguments) {
+            if (argument.startsWith("@")) {
+                for (final String line : Files.readAllLines(Paths.get(argument.substring(1)), StandardCharsets.UTF_8)) {
+                    if (!line.isEmpty()) {
+                        expanded.add(line);
+                    }
+                }
+            } else {
+                expanded.add(argument);
+            }
+        }
+        return expanded;
+    }
+
+    private static boolean isJar(final Path path) {
+        return path.toString().endsWith(JAR_SUFFIX);
+    }
+
+    List<String> getClasspath() {
+        return Collections.unmodifiableList(_classpath);
+    }
+
+    List<Path> getInputs() {
+        return Collections.unmodifiableList(_inputs);
+    }
+
+    Path getOutput() {
+        if (_output == null) {
+            throw new IllegalStateException("No output specified");
+        }
+        return _output;
+    }
+
+    boolean isJarOutput() {
+        return _output != null && isJar(_output);
+    }
+
+    List<String> getProcessors() {
+        return Collections.unmodifiableList(_processors);
+    }
+
+    List<String> getIncludes() {
+        return Collections.unmodifiableList(_includes);
+    }
+
+    List<String> getExcludes() {
+        return Collections.unmodifiableList(_excludes);
+    }
+
+    String getThreads() {
+        return _threads;
+    }
+
+    long getSlowClassThreshold() {
+        return _slowClassThreshold;
+    }
+
+    long getClassTimeout() {
+        return _classTimeout;
+    }
+
+    boolean isOrderByHierarchy() {
+        return _orderByHierarchy;
+    }
+
+    boolean isAggregateFailures() {
+        return _aggregateFailures;
+    }
+
+    boolean isShareDependencyClassPool() {
+        return _shareDependencyClassPool;
+    }
+
+    boolean isVerbose() {
+        return _verbose;
+    }
+
+    private CommandLineOptions() {}
+
+    private final List<String> _classpath = new ArrayList<>();
+    private final List<Path> _inputs = new ArrayList<>();
+    @Nullable
+    private Path _output;
+    private final List<String> _processors = new ArrayList<>();
+    private final List<String> _includes = new ArrayList<>();
+    private final List<String> _excludes = new ArrayList<>();
+    private String _threads = "1";
+    private long _slowClassThreshold = DEFAULT_SLOW_CLASS_THRESHOLD;
+    private long _classTimeout;
+    private boolean _orderByHierarchy;
+    private boolean _aggregateFailures;
+    private boolean _shareDependencyClassPool;
+    private boolean _verbose;
+
+    private static final String JAR_SUFFIX = ".jar";
+    private static final long DEFAULT_SLOW_CLASS_THRESHOLD = 60;
+
+    /**
+     * Usage of the command line.
+     */
+    static final String USAGE = String.join(
+            System.lineSeparator(),
+            "Usage: java -jar javassist-cli.jar [options]",
+            "       java -jar javassist-cli.jar --persistent_worker [options]",
+            "  --classpath <path>               Class path of the processors and the dependencies of the input",
+            "  --input <path>                   Class directory or jar to process; may be repeated for directories",
+            "  --output <path>                  Class directory or, for a jar input, jar to write processed classes to",
+            "  --processor <class>              ClassProcessor implementation to apply; may be repeated",
+            "  --include <glob>                 Class names to include; may be repeated",
+            "  --exclude <glob>                 Class names to exclude; may be repeated",
+            "  --threads <threads>              Processing threads as for the plugin's threads parameter (default 1)",
+            "  --slow-class-threshold <seconds> Log classes processed for longer with a stack sample (default 60)",
+            "  --class-timeout <seconds>        Fail if a class is processed for longer (default 0 for none)",
+            "  --order-by-hierarchy             Process supertypes before their subtypes",
+            "  --aggregate-failures             Process all classes and report every failure",
+            "  --share-dependency-class-pool    Parse dependency jars once per worker; dependency classes are frozen",
+            "  --verbose                        Log debug messages",
+            "  @<file>                          Read further arguments from a file, one per line");
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.cli;
+
+import com.arpnetworking.commons.maven.javassist.engine.ProcessorCache;
+import com.arpnetworking.commons.maven.javassist.engine.SharedClassPools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves requests of the Bazel persistent worker protocol one at a time
+ * until the end of the request stream. The arguments the worker was
+ * started with are prepended to those of each request, and the output
+ * logged by a request is returned in its response. The JVM, the processors
+ * in the {@link ProcessorCache} and the {@link SharedClassPools} stay warm
+ * across requests.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class PersistentWorker {
+
+    /**
+     * Constructor.
+     *
+     * @param startupArguments The arguments the worker was started with.
+     * @param processorCache The {@code ProcessorCache} shared by all requests.
+     * @param sharedClassPools The {@code SharedClassPools} shared by all requests.
+     */
+    PersistentWorker(
+            final List<String> startupArguments,
+            final ProcessorCache processorCache,
+            final SharedClassPools sharedClassPools) {
+        _startupArguments = startupArguments;
+        _processorCache = processorCache;
+        _sharedClassPools = sharedClassPools;
+    }
+
+    /**
+     * Serve requests until the end of the request stream.
+     *
+     * @param inputStream The stream to read requests from.
+     * @param outputStream The stream to write responses to.
+     * @throws IOException if a request cannot be read or a response cannot be written.
+     */
+    void run(final InputStream inputStream, final OutputStream outputStream) throws IOException {
+        while (true) {
+            final WorkerProtocol.WorkRequest request = WorkerProtocol.readRequest(inputStream);
+            if (request == null) {
+                return;
+            }
+            // Cancellation is not supported so Bazel never sends cancel
+            // requests; any received are ignored as the request completes
+            if (!request.isCancel()) {
+                final List<String> arguments = new ArrayList<>(_startupArguments);
+                arguments.addAll(request.getArguments());
+                final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                final int exitCode;
+                try (PrintStream output = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+                    exitCode = ProcessCommand.execute(arguments, output, _processorCache, _sharedClassPools);
+                }
+                WorkerProtocol.writeResponse(
+                        outputStream,
+                        request.getRequestId(),
+                        exitCode,
+                        buffer.toString(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private final List<String> _startupArguments;
+    private final ProcessorCache _processorCache;
+    private final SharedClassPools _sharedClassPools;
+}
@@ -0,0 +1,235 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.cli;
+
+import com.arpnetworking.commons.maven.javassist.engine.BuildChanges;
+import com.arpnetworking.commons.maven.javassist.engine.PrintStreamLog;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingEngine;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingException;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingLog;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingOptions;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessorCache;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessorConfiguration;
+import com.arpnetworking.commons.maven.javassist.engine.SharedClassPools;
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command line entry point processing classes with the same
+ * {@link ProcessingEngine} as the Maven plugin, so that builds which do not
+ * use Maven such as Bazel or plain javac need not fork a Maven JVM to run a
+ * {@code ClassProcessor}. The inputs are copied to the output, which is then
+ * processed in place, so that the inputs are left unmodified as Bazel
+ * requires. Processors are loaded from the command line class path only
+ * and are reused from the {@link ProcessorCache} across executions. Started
+ * with {@code --persistent_worker} it serves the Bazel persistent worker
+ * protocol over standard input and output instead.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessCommand {
+
+    /**
+     * Main entry point.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(final String[] args) {
+        final List<String> arguments = Arrays.asList(args);
+        if (arguments.contains(PERSISTENT_WORKER)) {
+            // Anything else written to standard output would corrupt the
+            // worker protocol
+            final PrintStream standardOutput = System.out;
+            System.setOut(System.err);
+            System.exit(runWorker(arguments, System.in, standardOutput, System.err));
+        }
+        System.exit(executeOnce(arguments, System.err));
+    }
+
+    /* package private */ static int executeOnce(final List<String> arguments, final PrintStream output) {
+        try (ProcessorCache processorCache = new ProcessorCache();
+             SharedClassPools sharedClassPools = new SharedClassPools()) {
+            return execute(arguments, output, processorCache, sharedClassPools);
+        } catch (final IOException e) {
+            output.println("Unable to close processor class loaders or dependency jars: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+
+    /* package private */ static int runWorker(
+            final List<String> arguments,
+            final InputStream inputStream,
+            final OutputStream outputStream,
+            final PrintStream errorStream) {
+        final List<String> startupArguments = new ArrayList<>(arguments);
+        startupArguments.remove(PERSISTENT_WORKER);
+        // The processor class loaders and dependency jars are closed once the
+        // request stream ends
+        try (ProcessorCache processorCache = new ProcessorCache();
+             SharedClassPools sharedClassPools = new SharedClassPools()) {
+            new PersistentWorker(startupArguments, processorCache, sharedClassPools).run(inputStream, outputStream);
+            return EXIT_SUCCESS;
+        } catch (final IOException e) {
+            errorStream.println("Persistent worker failed: " + e.getMessage());
+            return EXIT_FAILURE;
+        }
+    }
+
+    /* package private */ static int execute(
+            final List<String> arguments,
+            final PrintStream output,
+            final ProcessorCache processorCache,
+            final SharedClassPools sharedClassPools) {
+        final CommandLineOptions options;
+        try {
+            options = CommandLineOptions.parse(arguments);
+        } catch (final IllegalArgumentException | IOException e) {
+            output.println(e.getMessage());
+            output.println(CommandLineOptions.USAGE);
+            return EXIT_USAGE;
+        }
+        final ProcessingLog log = new PrintStreamLog(output, options.isVerbose());
+        try {
+            copyInputs(options);
+            final ProcessingOptions processingOptions = createOptions(options, processorCache, sharedClassPools);
+            new ProcessingEngine(processingOptions, BuildChanges.FULL, log).execute();
+            return EXIT_SUCCESS;
+        } catch (final ProcessingException e) {
+            log.error(e.getMessage(), e);
+            return EXIT_FAILURE;
+            // CHECKSTYLE.OFF: IllegalCatch
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            // A persistent worker must outlive a failed request
+            log.error("Class processing failed", e);
+            return EXIT_FAILURE;
+        }
+    }
+
+    /* package private */ static ProcessingOptions createOptions(
+            final CommandLineOptions options,
+            final ProcessorCache processorCache,
+            final SharedClassPools sharedClassPools) {
+        final ProcessingOptions processingOptions = new ProcessingOptions(getOutputDirectory(options));
+        processingOptions.setClasspathElementsToProcess(ImmutableList.of(options.getOutput().toString()));
+        processingOptions.setClasspathElementsToLoad(
+                ImmutableList.<String>builder()
+                        .add(options.getOutput().toString())
+                        .addAll(options.getClasspath())
+                        .build());
+        processingOptions.setProcessorClasspath(options.getClasspath());
+        processingOptions.setProcessorCache(processorCache);
+        // Only consulted for incremental processing and performance reports
+        // which the command line does not enable
+        processingOptions.setManifestFile(Paths.get(options.getOutput() + ".manifest"));
+        final List<ProcessorConfiguration> processors = new ArrayList<>();
+        for (final String className : options.getProcessors()) {
+            final ProcessorConfiguration configuration = new ProcessorConfiguration();
+            configuration.setClassName(className);
+            processors.add(configuration);
+        }
+        processingOptions.setProcessors(processors);
+        processingOptions.setIncludes(options.getIncludes());
+        processingOptions.setExcludes(options.getExcludes());
+        processingOptions.setThreads(options.getThreads());
+        processingOptions.setSlowClassThreshold(Duration.ofSeconds(options.getSlowClassThreshold()));
+        processingOptions.setClassTimeout(Duration.ofSeconds(options.getClassTimeout()));
+        processingOptions.setOrderByHierarchy(options.isOrderByHierarchy());
+        processingOptions.setAggregateFailures(options.isAggregateFailures());
+        if (options.isShareDependencyClassPool()) {
+            processingOptions.setSharedClassPools(sharedClassPools);
+        }
+        if (options.isJarOutput()) {
+            processingOptions.setJars(ImmutableList.of(options.getOutput()));
+        }
+        return processingOptions;
+    }
+
+    private static Path getOutputDirectory(final CommandLineOptions options) {
+        final Path output = options.getOutput().toAbsolutePath();
+        if (options.isJarOutput()) {
+            final Path parent = output.getParent();
+            if (parent != null) {
+                return parent;
+            }
+        }
+        return output;
+    }
+
+    private static void copyInputs(final CommandLineOptions options) throws ProcessingException {
+        final Path output = options.getOutput().toAbsolutePath().normalize();
+        for (final Path input : options.getInputs()) {
+            if (input.toAbsolutePath().normalize().equals(output)) {
+                continue;
+            }
+            try {
+                if (options.isJarOutput()) {
+                    copyFile(input, output);
+                } else {
+                    copyDirectory(input, output);
+                }
+            } catch (final IOException e) {
+                throw new ProcessingException("Unable to copy input: " + input, e);
+            }
+        }
+    }
+
+    private static void copyDirectory(final Path source, final Path target) throws IOException {
+        // The output may be nested in the input; it is not copied into itself
+        final List<Path> paths;
+        try (Stream<Path> stream = Files.walk(source)) {
+            paths = stream.filter(path -> !path.toAbsolutePath().normalize().startsWith(target))
+                    .collect(Collectors.toList());
+        }
+        for (final Path path : paths) {
+            final Path targetPath = target.resolve(source.relativize(path).toString());
+            if (Files.isDirectory(path)) {
+                Files.createDirectories(targetPath);
+            } else {
+                copyFile(path, targetPath);
+            }
+        }
+    }
+
+    private static void copyFile(final Path source, final Path target) throws IOException {
+        final Path parent = target.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private ProcessCommand() {}
+
+    private static final String PERSISTENT_WORKER = "--persistent_worker";
+    private static final int EXIT_SUCCESS = 0;
+    private static final int EXIT_FAILURE = 1;
+    private static final int EXIT_USAGE = 2;
+}
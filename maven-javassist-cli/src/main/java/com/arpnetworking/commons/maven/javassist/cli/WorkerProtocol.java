@@ -0,0 +1,233 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Reads and writes the length delimited protocol buffer messages of the
+ * Bazel persistent worker protocol. Only the fields of {@code WorkRequest}
+ * and {@code WorkResponse} used by the worker are decoded and encoded by
+ * hand, so that the command line does not depend on the protocol buffer
+ * runtime; unknown fields are skipped.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class WorkerProtocol {
+
+    /**
+     * Read the next {@code WorkRequest}.
+     *
+     * @param inputStream The stream to read the request from.
+     * @return The {@code WorkRequest} or {@code null} at the end of the stream.
+     * @throws IOException if the request cannot be read.
+     */
+    @Nullable
+    static WorkRequest readRequest(final InputStream inputStream) throws IOException {
+        final int first = inputStream.read();
+        if (first < 0) {
+            return null;
+        }
+        final long length = readVarint(first, inputStream);
+        if (length < 0 || length > MAXIMUM_MESSAGE_LENGTH) {
+            throw new IOException("Invalid work request length: " + length);
+        }
+        final byte[] message = new byte[(int) length];
+        new DataInputStream(inputStream).readFully(message);
+        return parseRequest(ByteBuffer.wrap(message));
+    }
+
+    /**
+     * Write a {@code WorkResponse}.
+     *
+     * @param outputStream The stream to write the response to.
+     * @param requestId The id of the request responded to.
+     * @param exitCode The exit code of the request.
+     * @param output The output of the request.
+     * @throws IOException if the response cannot be written.
+     */
+    static void writeResponse(
+            final OutputStream outputStream,
+            final int requestId,
+            final int exitCode,
+            final String output)
+            throws IOException {
+        final ByteArrayOutputStream message = new ByteArrayOutputStream();
+        writeVarint(message, FIELD_EXIT_CODE << 3 | WIRE_TYPE_VARINT);
+        writeVarint(message, exitCode);
+        final byte[] outputBytes = output.getBytes(StandardCharsets.UTF_8);
+        writeVarint(message, FIELD_OUTPUT << 3 | WIRE_TYPE_LENGTH_DELIMITED);
+        writeVarint(message, outputBytes.length);
+        message.write(outputBytes);
+        writeVarint(message, FIELD_REQUEST_ID << 3 | WIRE_TYPE_VARINT);
+        writeVarint(message, requestId);
+
+        final ByteArrayOutputStream delimited = new ByteArrayOutputStream(message.size() + 5);
+        writeVarint(delimited, message.size());
+        message.writeTo(delimited);
+        delimited.writeTo(outputStream);
+        outputStream.flush();
+    }
+
+    /* package private */ static WorkRequest parseRequest(final ByteBuffer buffer) throws IOException {
+        final List<String> arguments = new ArrayList<>();
+        int requestId = 0;
+        boolean cancel = false;
+        while (buffer.hasRemaining()) {
+            final long tag = readVarint(buffer);
+            final int field = (int) (tag >>> 3);
+            final int wireType = (int) (tag & 0x7);
+            if (field == FIELD_ARGUMENTS && wireType == WIRE_TYPE_LENGTH_DELIMITED) {
+                final ByteBuffer value = readLengthDelimited(buffer);
+                arguments.add(StandardCharsets.UTF_8.decode(value).toString());
+            } else if (field == FIELD_REQUEST_ID && wireType == WIRE_TYPE_VARINT) {
+                requestId = (int) readVarint(buffer);
+            } else if (field == FIELD_CANCEL && wireType == WIRE_TYPE_VARINT) {
+                cancel = readVarint(buffer) != 0;
+            } else {
+                skipField(buffer, wireType);
+            }
+        }
+        return new WorkRequest(arguments, requestId, cancel);
+    }
+
+    private static void skipField(final ByteBuffer buffer, final int wireType) throws IOException {
+        if (wireType == WIRE_TYPE_VARINT) {
+            readVarint(buffer);
+        } else if (wireType == WIRE_TYPE_FIXED64) {
+            skip(buffer, 8);
+        } else if (wireType == WIRE_TYPE_LENGTH_DELIMITED) {
+            readLengthDelimited(buffer);
+        } else if (wireType == WIRE_TYPE_FIXED32) {
+            skip(buffer, 4);
+        } else {
+            throw new IOException("Unsupported wire type in work request: " + wireType);
+        }
+    }
+
+    private static ByteBuffer readLengthDelimited(final ByteBuffer buffer) throws IOException {
+        final long length = readVarint(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Invalid field length in work request: " + length);
+        }
+        final ByteBuffer value = buffer.slice();
+        value.limit((int) length);
+        skip(buffer, (int) length);
+        return value;
+    }
+
+    private static void skip(final ByteBuffer buffer, final int length) throws IOException {
+        if (length > buffer.remaining()) {
+            throw new IOException("Truncated work request");
+        }
+        buffer.position(buffer.position() + length);
+    }
+
+    private static long readVarint(final ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                throw new IOException("Truncated work request");
+            }
+            final byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in work request");
+    }
+
+    private static long readVarint(final int first, final InputStream inputStream) throws IOException {
+        long value = first & 0x7F;
+        int b = first;
+        for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+            if (shift >= 64) {
+                throw new IOException("Malformed work request length");
+            }
+            b = inputStream.read();
+            if (b < 0) {
+                throw new EOFException("Truncated work request length");
+            }
+            value |= (long) (b & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    private static void writeVarint(final ByteArrayOutputStream outputStream, final long value) {
+        // Negative values are sign extended to ten bytes as for int32 fields
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            outputStream.write((int) (remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        outputStream.write((int) remaining);
+    }
+
+    private WorkerProtocol() {}
+
+    private static final int MAXIMUM_MESSAGE_LENGTH = 64 * 1024 * 1024;
+    private static final int WIRE_TYPE_VARINT = 0;
+    private static final int WIRE_TYPE_FIXED64 = 1;
+    private static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+    private static final int WIRE_TYPE_FIXED32 = 5;
+    // Field numbers of WorkRequest
+    private static final int FIELD_ARGUMENTS = 1;
+    private static final int FIELD_REQUEST_ID = 3;
+    private static final int FIELD_CANCEL = 4;
+    // Field numbers of WorkResponse
+    private static final int FIELD_EXIT_CODE = 1;
+    private static final int FIELD_OUTPUT = 2;
+
+    /**
+     * A request to the worker.
+     */
+    static final class WorkRequest {
+
+        WorkRequest(final List<String> arguments, final int requestId, final boolean cancel) {
+            _arguments = Collections.unmodifiableList(arguments);
+            _requestId = requestId;
+            _cancel = cancel;
+        }
+
+        List<String> getArguments() {
+            return _arguments;
+        }
+
+        int getRequestId() {
+            return _requestId;
+        }
+
+        boolean isCancel() {
+            return _cancel;
+        }
+
+        private final List<String> _arguments;
+        private final int _requestId;
+        private final boolean _cancel;
+    }
+}
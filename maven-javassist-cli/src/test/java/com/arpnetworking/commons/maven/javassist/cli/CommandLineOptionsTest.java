@@ -0,0 +1,187 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.cli;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for {@link CommandLineOptions}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class CommandLineOptionsTest {
+
+    @Test
+    public void testParse() throws IOException {
+        final CommandLineOptions options = CommandLineOptions.parse(Arrays.asList(
+                "--classpath", "a.jar" + File.pathSeparator + File.pathSeparator + "b.jar",
+                "--input", "in1",
+                "--input", "in2",
+                "--output", "out",
+                "--processor", "com.example.Processor",
+                "--include", "com.example.*",
+                "--exclude", "*Test",
+                "--threads", "2C",
+                "--slow-class-threshold", "30",
+                "--class-timeout", "600",
+                "--order-by-hierarchy",
+                "--aggregate-failures",
+                "--share-dependency-class-pool",
+                "--verbose"));
+
+        Assert.assertEquals(Arrays.asList("a.jar", "b.jar"), options.getClasspath());
+        Assert.assertEquals(Arrays.asList(Paths.get("in1"), Paths.get("in2")), options.getInputs());
+        Assert.assertEquals(Paths.get("out"), options.getOutput());
+        Assert.assertFalse(options.isJarOutput());
+        Assert.assertEquals(Collections.singletonList("com.example.Processor"), options.getProcessors());
+        Assert.assertEquals(Collections.singletonList("com.example.*"), options.getIncludes());
+        Assert.assertEquals(Collections.singletonList("*Test"), options.getExcludes());
+        Assert.assertEquals("2C", options.getThreads());
+        Assert.assertEquals(30, options.getSlowClassThreshold());
+        Assert.assertEquals(600, options.getClassTimeout());
+        Assert.assertTrue(options.isOrderByHierarchy());
+        Assert.assertTrue(options.isAggregateFailures());
+        Assert.assertTrue(options.isShareDependencyClassPool());
+        Assert.assertTrue(options.isVerbose());
+    }
+
+    @Test
+    public void testParseDefaults() throws IOException {
+        final CommandLineOptions options = CommandLineOptions.parse(Arrays.asList(
+                "--input", "in.jar",
+                "--output", "out.jar",
+                "--processor", "com.example.Processor"));
+
+        Assert.assertTrue(options.getClasspath().isEmpty());
+        Assert.assertTrue(options.isJarOutput());
+        Assert.assertEquals("1", options.getThreads());
+        Assert.assertEquals(60, options.getSlowClassThreshold());
+        Assert.assertEquals(0, options.getClassTimeout());
+        Assert.assertFalse(options.isOrderByHierarchy());
+        Assert.assertFalse(options.isAggregateFailures());
+        Assert.assertFalse(options.isShareDependencyClassPool());
+        Assert.assertFalse(options.isVerbose());
+    }
+
+    @Test
+    public void testParseParameterFile() throws IOException {
+        final Path parameterFile = _temporaryFolder.newFile("parameters").toPath();
+        Files.write(
+                parameterFile,
+                Arrays.asList("--input", "in", "", "--output", "out"),
+                StandardCharsets.UTF_8);
+
+        final CommandLineOptions options = CommandLineOptions.parse(Arrays.asList(
+                "--processor", "com.example.Processor",
+                "@" + parameterFile));
+
+        Assert.assertEquals(Collections.singletonList(Paths.get("in")), options.getInputs());
+        Assert.assertEquals(Paths.get("out"), options.getOutput());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseUnknownOption() throws IOException {
+        CommandLineOptions.parse(Collections.singletonList("--unknown"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMissingValue() throws IOException {
+        CommandLineOptions.parse(Collections.singletonList("--input"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidSeconds() throws IOException {
+        CommandLineOptions.parse(Arrays.asList("--class-timeout", "soon"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNegativeSeconds() throws IOException {
+        CommandLineOptions.parse(Arrays.asList("--slow-class-threshold", "-1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseMissingValueAfterOption() throws IOException {
+        CommandLineOptions.parse(Arrays.asList("--input", "in", "--output"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseUnknownOptionInParameterFile() throws IOException {
+        final Path parameterFile = _temporaryFolder.newFile("parameters").toPath();
+        Files.write(parameterFile, Collections.singletonList("--unknown"), StandardCharsets.UTF_8);
+        CommandLineOptions.parse(Collections.singletonList("@" + parameterFile));
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseParameterFileMissing() throws IOException {
+        CommandLineOptions.parse(Collections.singletonList(
+                "@" + _temporaryFolder.getRoot().toPath().resolve("missing")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNoInput() throws IOException {
+        CommandLineOptions.parse(Arrays.asList("--output", "out", "--processor", "com.example.Processor"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNoOutput() throws IOException {
+        CommandLineOptions.parse(Arrays.asList("--input", "in", "--processor", "com.example.Processor"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNoProcessor() throws IOException {
+        CommandLineOptions.parse(Arrays.asList("--input", "in", "--output", "out"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseJarOutputDirectoryInput() throws IOException {
+        CommandLineOptions.parse(Arrays.asList(
+                "--input", "in",
+                "--output", "out.jar",
+                "--processor", "com.example.Processor"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseJarOutputMultipleInputs() throws IOException {
+        CommandLineOptions.parse(Arrays.asList(
+                "--input", "in1.jar",
+                "--input", "in2.jar",
+                "--output", "out.jar",
+                "--processor", "com.example.Processor"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseJarInputDirectoryOutput() throws IOException {
+        CommandLineOptions.parse(Arrays.asList(
+                "--input", "in.jar",
+                "--output", "out",
+                "--processor", "com.example.Processor"));
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.cli;
+
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import javassist.CtClass;
+
+/**
+ * {@link ClassProcessor} test implementation which accepts every class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class CommandLineTestProcessor implements ClassProcessor {
+
+    @Override
+    public boolean accept(final CtClass ctClass) {
+        return true;
+    }
+
+    @Override
+    public void process(final CtClass ctClass) {
+        // Nothing to do
+    }
+}
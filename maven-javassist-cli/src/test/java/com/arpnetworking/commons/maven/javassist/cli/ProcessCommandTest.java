@@ -0,0 +1,280 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.cli;
+
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import com.arpnetworking.commons.maven.javassist.Processed;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.ClassFile;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Tests for {@link ProcessCommand}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessCommandTest {
+
+    @Test
+    public void testExecuteDirectory() throws Exception {
+        final Path input = _temporaryFolder.newFolder("input").toPath();
+        final Path output = _temporaryFolder.getRoot().toPath().resolve("output");
+        writeClass(input, "com.example.cli.Foo");
+
+        final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        final int exitCode = execute(
+                Arrays.asList("--input", input.toString(), "--output", output.toString(), "--processor", PROCESSOR),
+                log);
+
+        Assert.assertEquals(log.toString(StandardCharsets.UTF_8), 0, exitCode);
+        Assert.assertTrue(isProcessed(Files.readAllBytes(getClassFile(output, "com.example.cli.Foo"))));
+        Assert.assertFalse(isProcessed(Files.readAllBytes(getClassFile(input, "com.example.cli.Foo"))));
+    }
+
+    @Test
+    public void testExecuteDirectoryInPlace() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("in-place").toPath();
+        writeClass(directory, "com.example.cli.Bar");
+
+        final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        final int exitCode = execute(
+                Arrays.asList(
+                        "--input", directory.toString(),
+                        "--output", directory.toString(),
+                        "--processor", PROCESSOR,
+                        "--verbose"),
+                log);
+
+        Assert.assertEquals(log.toString(StandardCharsets.UTF_8), 0, exitCode);
+        Assert.assertTrue(isProcessed(Files.readAllBytes(getClassFile(directory, "com.example.cli.Bar"))));
+        MatcherAssert.assertThat(log.toString(StandardCharsets.UTF_8), Matchers.containsString("[DEBUG] "));
+    }
+
+    @Test
+    public void testExecuteJar() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("jar").toPath();
+        writeClass(directory, "com.example.cli.Baz");
+        final Path input = directory.resolve("input.jar");
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(input))) {
+            zipOutputStream.putNextEntry(new ZipEntry("com/example/cli/Baz.class"));
+            zipOutputStream.write(Files.readAllBytes(getClassFile(directory, "com.example.cli.Baz")));
+            zipOutputStream.closeEntry();
+        }
+        final Path output = directory.resolve("output/output.jar");
+
+        final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        final int exitCode = execute(
+                Arrays.asList("--input", input.toString(), "--output", output.toString(), "--processor", PROCESSOR),
+                log);
+
+        Assert.assertEquals(log.toString(StandardCharsets.UTF_8), 0, exitCode);
+        try (JarFile jarFile = new JarFile(output.toFile())) {
+            final ZipEntry entry = jarFile.getEntry("com/example/cli/Baz.class");
+            Assert.assertNotNull(entry);
+            try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                Assert.assertTrue(isProcessed(inputStream.readAllBytes()));
+            }
+        }
+    }
+
+    @Test
+    public void testExecuteUsage() {
+        final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        Assert.assertEquals(2, execute(Collections.singletonList("--unknown"), log));
+        MatcherAssert.assertThat(log.toString(StandardCharsets.UTF_8), Matchers.containsString("Usage:"));
+    }
+
+    @Test
+    public void testExecuteParameterFileMissing() {
+        final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        Assert.assertEquals(2, execute(Collections.singletonList("@does-not-exist"), log));
+    }
+
+    @Test
+    public void testExecuteProcessorNotFound() throws IOException {
+        final Path input = _temporaryFolder.newFolder("not-found").toPath();
+
+        final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        final int exitCode = execute(
+                Arrays.asList(
+                        "--input", input.toString(),
+                        "--output", input.toString(),
+                        "--processor", "com.example.DoesNotExist"),
+                log);
+
+        Assert.assertEquals(1, exitCode);
+        MatcherAssert.assertThat(log.toString(StandardCharsets.UTF_8), Matchers.containsString("[ERROR] "));
+    }
+
+    @Test
+    public void testExecuteInvalidThreads() throws IOException {
+        final Path input = _temporaryFolder.newFolder("threads").toPath();
+
+        final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        final int exitCode = execute(
+                Arrays.asList(
+                        "--input", input.toString(),
+                        "--output", input.toString(),
+                        "--processor", PROCESSOR,
+                        "--threads", "many"),
+                log);
+
+        Assert.assertEquals(1, exitCode);
+    }
+
+    @Test
+    public void testRunWorker() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("worker").toPath();
+        writeClass(directory, "com.example.worker.Foo");
+        final List<String> arguments = Arrays.asList(
+                "--input", directory.toString(),
+                "--output", directory.resolve("output").toString(),
+                "--processor", WorkerProcessor.class.getName());
+        final ByteArrayOutputStream requests = new ByteArrayOutputStream();
+        requests.write(WorkerProtocolTest.createRequest(1, arguments));
+        requests.write(WorkerProtocolTest.createRequest(2, arguments));
+        requests.write(WorkerProtocolTest.createRequest(3, Collections.singletonList("--unknown")));
+
+        final ByteArrayOutputStream responses = new ByteArrayOutputStream();
+        final int exitCode = ProcessCommand.runWorker(
+                Arrays.asList("--persistent_worker", "--threads", "2"),
+                new ByteArrayInputStream(requests.toByteArray()),
+                responses,
+                new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+
+        Assert.assertEquals(0, exitCode);
+        final InputStream inputStream = new ByteArrayInputStream(responses.toByteArray());
+        final List<Object> first = WorkerProtocolTest.readResponse(inputStream);
+        Assert.assertEquals(first.toString(), Arrays.asList(0L, 1L), Arrays.asList(first.get(0), first.get(2)));
+        final List<Object> second = WorkerProtocolTest.readResponse(inputStream);
+        Assert.assertEquals(second.toString(), Arrays.asList(0L, 2L), Arrays.asList(second.get(0), second.get(2)));
+        final List<Object> third = WorkerProtocolTest.readResponse(inputStream);
+        Assert.assertEquals(Arrays.asList(2L, 3L), Arrays.asList(third.get(0), third.get(2)));
+        MatcherAssert.assertThat((String) third.get(1), Matchers.containsString("Usage:"));
+        Assert.assertEquals(-1, inputStream.read());
+
+        // The processor is loaded once and reused by the second request
+        Assert.assertEquals(1, WorkerProcessor.INSTANCE_COUNT.get());
+        final Path classFile = getClassFile(directory.resolve("output"), "com.example.worker.Foo");
+        Assert.assertTrue(isProcessed(Files.readAllBytes(classFile)));
+    }
+
+    @Test
+    public void testRunWorkerCancel() throws IOException {
+        final ByteArrayOutputStream responses = new ByteArrayOutputStream();
+        final int exitCode = ProcessCommand.runWorker(
+                Collections.singletonList("--persistent_worker"),
+                new ByteArrayInputStream(new byte[]{0x04, 0x18, 0x01, 0x20, 0x01}),
+                responses,
+                new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+
+        Assert.assertEquals(0, exitCode);
+        Assert.assertEquals(0, responses.size());
+    }
+
+    @Test
+    public void testRunWorkerTruncated() {
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        final int exitCode = ProcessCommand.runWorker(
+                Collections.singletonList("--persistent_worker"),
+                new ByteArrayInputStream(new byte[]{0x05}),
+                new ByteArrayOutputStream(),
+                new PrintStream(errors, true, StandardCharsets.UTF_8));
+
+        Assert.assertEquals(1, exitCode);
+        MatcherAssert.assertThat(errors.toString(StandardCharsets.UTF_8), Matchers.containsString("worker failed"));
+    }
+
+    private static int execute(final List<String> arguments, final ByteArrayOutputStream log) {
+        try (PrintStream output = new PrintStream(log, true, StandardCharsets.UTF_8)) {
+            return ProcessCommand.executeOnce(new ArrayList<>(arguments), output);
+        }
+    }
+
+    private static void writeClass(final Path directory, final String className)
+            throws CannotCompileException, IOException {
+        new ClassPool(true).makeClass(className).writeFile(directory.toString());
+    }
+
+    private static Path getClassFile(final Path directory, final String className) {
+        return directory.resolve(className.replace('.', '/') + ".class");
+    }
+
+    static boolean isProcessed(final byte[] bytecode) throws IOException {
+        final ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(bytecode)));
+        final AttributeInfo attribute = classFile.getAttribute(AnnotationsAttribute.invisibleTag);
+        return attribute instanceof AnnotationsAttribute
+                && ((AnnotationsAttribute) attribute).getAnnotation(Processed.class.getName()) != null;
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private static final String PROCESSOR = CommandLineTestProcessor.class.getName();
+
+    /**
+     * Processor which counts its instances; only used by the persistent
+     * worker test since tests run concurrently.
+     */
+    public static final class WorkerProcessor implements ClassProcessor {
+
+        /**
+         * Constructor.
+         */
+        public WorkerProcessor() {
+            INSTANCE_COUNT.incrementAndGet();
+        }
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            // Nothing to do
+        }
+
+        private static final AtomicInteger INSTANCE_COUNT = new AtomicInteger();
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.cli;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link WorkerProtocol}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class WorkerProtocolTest {
+
+    @Test
+    public void testReadRequest() throws IOException {
+        final ByteArrayOutputStream message = new ByteArrayOutputStream();
+        writeString(message, 1, "--input");
+        // An input with a path and digest is skipped
+        writeVarint(message, 2 << 3 | 2);
+        writeVarint(message, 3);
+        message.write(new byte[]{0x0A, 0x01, 'x'});
+        writeString(message, 1, "in");
+        writeVarint(message, 3 << 3);
+        writeVarint(message, 300);
+        // A verbosity, fixed width values and a sandbox directory are skipped
+        writeVarint(message, 5 << 3);
+        writeVarint(message, 10);
+        writeVarint(message, 7 << 3 | 1);
+        message.write(new byte[8]);
+        writeVarint(message, 8 << 3 | 5);
+        message.write(new byte[4]);
+        writeString(message, 6, "sandbox");
+
+        final InputStream inputStream = new ByteArrayInputStream(delimit(message.toByteArray()));
+        final WorkerProtocol.WorkRequest request = WorkerProtocol.readRequest(inputStream);
+        Assert.assertNotNull(request);
+        Assert.assertEquals(Arrays.asList("--input", "in"), request.getArguments());
+        Assert.assertEquals(300, request.getRequestId());
+        Assert.assertFalse(request.isCancel());
+        Assert.assertNull(WorkerProtocol.readRequest(inputStream));
+    }
+
+    @Test
+    public void testReadRequestCancel() throws IOException {
+        final ByteArrayOutputStream message = new ByteArrayOutputStream();
+        writeVarint(message, 3 << 3);
+        writeVarint(message, 1);
+        writeVarint(message, 4 << 3);
+        writeVarint(message, 1);
+
+        final WorkerProtocol.WorkRequest request = WorkerProtocol.readRequest(
+                new ByteArrayInputStream(delimit(message.toByteArray())));
+        Assert.assertNotNull(request);
+        Assert.assertTrue(request.getArguments().isEmpty());
+        Assert.assertTrue(request.isCancel());
+    }
+
+    @Test(expected = EOFException.class)
+    public void testReadRequestTruncatedMessage() throws IOException {
+        WorkerProtocol.readRequest(new ByteArrayInputStream(new byte[]{0x05, 0x0A}));
+    }
+
+    @Test(expected = EOFException.class)
+    public void testReadRequestTruncatedLength() throws IOException {
+        WorkerProtocol.readRequest(new ByteArrayInputStream(new byte[]{(byte) 0x80}));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRequestTooLong() throws IOException {
+        final ByteArrayOutputStream request = new ByteArrayOutputStream();
+        writeVarint(request, 64 * 1024 * 1024 + 1);
+        WorkerProtocol.readRequest(new ByteArrayInputStream(request.toByteArray()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRequestNegativeLength() throws IOException {
+        final ByteArrayOutputStream request = new ByteArrayOutputStream();
+        writeVarint(request, -1);
+        WorkerProtocol.readRequest(new ByteArrayInputStream(request.toByteArray()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRequestMalformedLength() throws IOException {
+        final byte[] request = new byte[11];
+        Arrays.fill(request, (byte) 0x80);
+        WorkerProtocol.readRequest(new ByteArrayInputStream(request));
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseRequestMalformedVarint() throws IOException {
+        final byte[] message = new byte[11];
+        Arrays.fill(message, (byte) 0xFF);
+        message[0] = 3 << 3;
+        WorkerProtocol.parseRequest(ByteBuffer.wrap(message));
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseRequestTruncatedVarint() throws IOException {
+        WorkerProtocol.parseRequest(ByteBuffer.wrap(new byte[]{3 << 3, (byte) 0x80}));
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseRequestNegativeFieldLength() throws IOException {
+        final ByteArrayOutputStream message = new ByteArrayOutputStream();
+        writeVarint(message, 1 << 3 | 2);
+        writeVarint(message, -1);
+        WorkerProtocol.parseRequest(ByteBuffer.wrap(message.toByteArray()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseRequestTruncatedFixed64() throws IOException {
+        WorkerProtocol.parseRequest(ByteBuffer.wrap(new byte[]{7 << 3 | 1, 0x00, 0x00, 0x00}));
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseRequestTruncatedFixed32() throws IOException {
+        WorkerProtocol.parseRequest(ByteBuffer.wrap(new byte[]{8 << 3 | 5, 0x00}));
+    }
+
+    @Test
+    public void testParseRequestUnexpectedWireTypes() throws IOException {
+        // Known fields with an unexpected wire type are skipped
+        final ByteArrayOutputStream message = new ByteArrayOutputStream();
+        writeVarint(message, 1 << 3);
+        writeVarint(message, 1);
+        writeString(message, 3, "id");
+        writeString(message, 4, "cancel");
+
+        final WorkerProtocol.WorkRequest request = WorkerProtocol.parseRequest(
+                ByteBuffer.wrap(message.toByteArray()));
+        Assert.assertTrue(request.getArguments().isEmpty());
+        Assert.assertEquals(0, request.getRequestId());
+        Assert.assertFalse(request.isCancel());
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseRequestTruncatedField() throws IOException {
+        WorkerProtocol.parseRequest(ByteBuffer.wrap(new byte[]{0x0A, 0x05, 'x'}));
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseRequestUnsupportedWireType() throws IOException {
+        WorkerProtocol.parseRequest(ByteBuffer.wrap(new byte[]{0x0B}));
+    }
+
+    @Test
+    public void testWriteResponse() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        WorkerProtocol.writeResponse(outputStream, 7, 1, "Failed\n\u00e9");
+        WorkerProtocol.writeResponse(outputStream, 8, -1, "");
+
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Assert.assertEquals(Arrays.asList(1L, "Failed\n\u00e9", 7L), readResponse(inputStream));
+        Assert.assertEquals(Arrays.asList(-1L, "", 8L), readResponse(inputStream));
+        Assert.assertEquals(-1, inputStream.read());
+    }
+
+    /* package private */ static byte[] createRequest(final int requestId, final List<String> arguments)
+            throws IOException {
+        final ByteArrayOutputStream message = new ByteArrayOutputStream();
+        for (final String argument : arguments) {
+            writeString(message, 1, argument);
+        }
+        writeVarint(message, 3 << 3);
+        writeVarint(message, requestId);
+        return delimit(message.toByteArray());
+    }
+
+    // Returns the exit code, output and request id of the next response
+    /* package private */ static List<Object> readResponse(final InputStream inputStream) throws IOException {
+        final int length = (int) readVarint(inputStream);
+        final byte[] message = new byte[length];
+        Assert.assertEquals(length, inputStream.read(message));
+        final ByteArrayInputStream fields = new ByteArrayInputStream(message);
+        long exitCode = 0;
+        String output = "";
+        long requestId = 0;
+        while (fields.available() > 0) {
+            final long tag = readVarint(fields);
+            if (tag == (1 << 3)) {
+                exitCode = readVarint(fields);
+            } else if (tag == (2 << 3 | 2)) {
+                final byte[] value = new byte[(int) readVarint(fields)];
+                Assert.assertEquals(value.length, fields.read(value, 0, value.length));
+                output = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(value)).toString();
+            } else if (tag == (3 << 3)) {
+                requestId = readVarint(fields);
+            } else {
+                Assert.fail("Unexpected field: " + tag);
+            }
+        }
+        return Arrays.asList(exitCode, output, requestId);
+    }
+
+    private static byte[] delimit(final byte[] message) throws IOException {
+        final ByteArrayOutputStream delimited = new ByteArrayOutputStream();
+        writeVarint(delimited, message.length);
+        delimited.write(message);
+        return delimited.toByteArray();
+    }
+
+    private static void writeString(final ByteArrayOutputStream outputStream, final int field, final String value)
+            throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(outputStream, field << 3 | 2);
+        writeVarint(outputStream, bytes.length);
+        outputStream.write(bytes);
+    }
+
+    private static void writeVarint(final ByteArrayOutputStream outputStream, final long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            outputStream.write((int) (remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        outputStream.write((int) remaining);
+    }
+
+    private static long readVarint(final InputStream inputStream) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = inputStream.read();
+            Assert.assertNotEquals(-1, b);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
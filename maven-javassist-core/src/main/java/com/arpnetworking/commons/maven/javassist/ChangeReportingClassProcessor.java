@@ -0,0 +1,50 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist;
+
+import javassist.CtClass;
+
+/**
+ * Optional extension of {@link ClassProcessor} which reports whether it
+ * modified each class. Processors often only decide while processing that a
+ * class needs no change; classes which no processor modified are neither
+ * marked as processed nor rebuilt and are not written, so their class files
+ * are left untouched.
+ *
+ * Accepted classes are passed to {@code tryProcess} instead of
+ * {@code process}. Classes passed to {@code processBatch} of a
+ * {@link LifecycleClassProcessor} are always considered modified.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public interface ChangeReportingClassProcessor extends ClassProcessor {
+
+    /**
+     * Process the specified {@code CtClass} if it requires any change. The
+     * class must be left unmodified when {@code false} is returned; any
+     * modification is otherwise lost unless another processor modifies
+     * the class.
+     *
+     * @param ctClass the {@code CtClass} to be processed.
+     * @return True if and only if the provided {@code CtClass} was modified.
+     */
+    boolean tryProcess(CtClass ctClass);
+
+    @Override
+    default void process(final CtClass ctClass) {
+        tryProcess(ctClass);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how the plugin may invoke a {@link ClassProcessor} from its
+ * processing threads. A processor without this annotation is treated as
+ * {@link Model#THREAD_SAFE}, so a single instance is shared by all threads.
+ *
+ * For example:
+ *
+ * <pre>{@code
+ * @Concurrency(Concurrency.Model.PER_THREAD)
+ * public final class CachingProcessor implements ClassProcessor {
+ *     ...
+ * }
+ * }</pre>
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+@Documented
+@Target({ ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Concurrency {
+
+    /**
+     * The concurrency model of the annotated processor.
+     *
+     * @return the concurrency model of the annotated processor.
+     */
+    Model value();
+
+    /**
+     * The ways in which the plugin may invoke a processor concurrently.
+     */
+    enum Model {
+        /**
+         * A single instance is invoked concurrently from all threads.
+         */
+        THREAD_SAFE,
+
+        /**
+         * Each instance is only ever invoked by one thread at a time; the
+         * plugin creates additional instances with the public no-argument
+         * constructor as threads need them and reuses them across classes.
+         * Both {@code accept} and {@code process} for a class are invoked on
+         * the same instance.
+         */
+        PER_THREAD,
+
+        /**
+         * A single instance is invoked by one thread at a time; the
+         * {@code accept} and {@code process} calls for a class are made
+         * together while other threads wait.
+         */
+        SERIALIZED
+    }
+}
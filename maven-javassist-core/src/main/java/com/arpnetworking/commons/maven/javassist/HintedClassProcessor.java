@@ -0,0 +1,68 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Optional extension of {@link ClassProcessor} which declares the classes
+ * the processor is interested in. The plugin scans the constant pool of each
+ * raw class file and only classes matching at least one hint are turned into
+ * a {@code CtClass} and passed to {@code accept}. Hints only narrow the
+ * candidates; {@code accept} is still invoked for every matching class.
+ *
+ * All hints are fully qualified class names such as
+ * {@code com.example.MyAnnotation}. If no hints are declared every class is
+ * a candidate.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public interface HintedClassProcessor extends ClassProcessor {
+
+    /**
+     * The annotation types of interest. A class is a candidate if the
+     * descriptor of any of these annotations appears in its constant pool;
+     * for example, because the class or one of its members is annotated.
+     *
+     * @return {@code Set} of annotation class names.
+     */
+    default Set<String> getAnnotationHints() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * The supertypes of interest. A class is a candidate if it directly
+     * extends or implements any of these types. Indirect supertypes are not
+     * considered as they require resolving the class hierarchy.
+     *
+     * @return {@code Set} of superclass and interface names.
+     */
+    default Set<String> getSupertypeHints() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * The referenced classes of interest. A class is a candidate if any of
+     * these classes appears as a class constant in its constant pool; for
+     * example, because it is instantiated, cast to or its members are used.
+     *
+     * @return {@code Set} of referenced class names.
+     */
+    default Set<String> getReferenceHints() {
+        return Collections.emptySet();
+    }
+}
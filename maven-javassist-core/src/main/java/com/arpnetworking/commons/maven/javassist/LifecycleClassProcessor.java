@@ -0,0 +1,73 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist;
+
+import javassist.CtClass;
+
+import java.util.Collection;
+
+/**
+ * Optional extension of {@link ClassProcessor} which takes part in the
+ * lifecycle of each plugin execution. The plugin invokes {@code begin} on
+ * every instance before it is applied to any class and {@code end} once all
+ * classes have been processed, including when processing failed; expensive
+ * setup such as building lookup tables can therefore be done once per
+ * execution and shared state can be flushed at its end, for example to write
+ * an aggregated file.
+ *
+ * Accepted classes are passed to {@code processBatch} instead of
+ * {@code process}. When processing a class directory the classes of a
+ * package are processed in batches; classes processed by hierarchy and
+ * classes in jars are passed in batches of one. A processor whose
+ * {@link Concurrency} model creates an instance per thread has each instance
+ * begun and ended.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public interface LifecycleClassProcessor extends ClassProcessor {
+
+    /**
+     * Invoked once per execution before the processor is applied to any
+     * class.
+     *
+     * @param context the {@code ProcessingContext} of the execution.
+     */
+    default void begin(final ProcessingContext context) {
+        // Nothing to do by default
+    }
+
+    /**
+     * Process a batch of classes which the processor accepted. Processors
+     * earlier in the chain have already been applied to every class in the
+     * batch and none of the classes is written before the batch has been
+     * processed. By default each class is passed to {@code process}.
+     *
+     * @param ctClasses the {@code CtClass} instances to be processed.
+     */
+    default void processBatch(final Collection<CtClass> ctClasses) {
+        for (final CtClass ctClass : ctClasses) {
+            process(ctClass);
+        }
+    }
+
+    /**
+     * Invoked once per execution after all classes have been processed or
+     * processing failed.
+     */
+    default void end() {
+        // Nothing to do by default
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist;
+
+import javassist.ClassPool;
+
+import java.nio.file.Path;
+
+/**
+ * The execution of the plugin which a {@link LifecycleClassProcessor} is
+ * about to take part in.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public interface ProcessingContext {
+
+    /**
+     * The {@code ClassPool} classes are resolved from; it resolves both the
+     * classes being processed and their dependencies.
+     *
+     * @return the {@code ClassPool} classes are resolved from.
+     */
+    ClassPool getClassPool();
+
+    /**
+     * The class directory of the goal which processed classes are written
+     * to; for example, {@code target/classes}.
+     *
+     * @return the output directory of the goal.
+     */
+    Path getOutputDirectory();
+
+    /**
+     * The maximum number of classes processed concurrently; for virtual
+     * threads without a limit this is the number of available processors.
+     *
+     * @return the maximum number of classes processed concurrently.
+     */
+    int getThreadCount();
+}
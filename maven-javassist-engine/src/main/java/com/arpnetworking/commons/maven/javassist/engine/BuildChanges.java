@@ -0,0 +1,70 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import java.nio.file.Path;
+
+/**
+ * The changes of the build the classes are processed in. The Maven plugin
+ * adapts the build context of the IDE or command line build it runs in;
+ * elsewhere every build is a full build.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public interface BuildChanges {
+
+    /**
+     * Whether the build only rebuilds what changed.
+     *
+     * @return True if and only if the build is incremental.
+     */
+    boolean isIncremental();
+
+    /**
+     * Whether a file changed since the last build.
+     *
+     * @param file The file.
+     * @return True if and only if the file changed.
+     */
+    boolean hasDelta(Path file);
+
+    /**
+     * Notify the build that a file was written.
+     *
+     * @param file The file.
+     */
+    void refresh(Path file);
+
+    /**
+     * The context of a full build in which every file changed.
+     */
+    BuildChanges FULL = new BuildChanges() {
+        @Override
+        public boolean isIncremental() {
+            return false;
+        }
+
+        @Override
+        public boolean hasDelta(final Path file) {
+            return true;
+        }
+
+        @Override
+        public void refresh(final Path file) {
+            // Nothing to notify
+        }
+    };
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Batch of class processing tasks executed together. When run in a
+ * {@code ForkJoinPool} the batch splits itself in half while few tasks are
+ * queued locally so that idle workers can steal the remainder; this keeps
+ * the scheduling overhead at one task per batch while still balancing
+ * batches whose classes are expensive to process. Outside a
+ * {@code ForkJoinPool} the tasks are run in order.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassBatch implements Runnable {
+
+    /**
+     * Constructor.
+     *
+     * @param tasks The class processing tasks.
+     */
+    ClassBatch(final List<Runnable> tasks) {
+        _tasks = tasks;
+    }
+
+    @Override
+    public void run() {
+        if (_tasks.size() > 1
+                && ForkJoinTask.inForkJoinPool()
+                && ForkJoinTask.getSurplusQueuedTaskCount() <= MAXIMUM_SURPLUS_TASKS) {
+            final int middle = _tasks.size() / 2;
+            ForkJoinTask.invokeAll(
+                    ForkJoinTask.adapt(new ClassBatch(_tasks.subList(0, middle))),
+                    ForkJoinTask.adapt(new ClassBatch(_tasks.subList(middle, _tasks.size()))));
+        } else {
+            for (final Runnable task : _tasks) {
+                task.run();
+            }
+        }
+    }
+
+    private final List<Runnable> _tasks;
+
+    // Split while fewer than this many tasks are queued beyond those the
+    // worker is about to run; see ForkJoinTask#getSurplusQueuedTaskCount
+    private static final int MAXIMUM_SURPLUS_TASKS = 3;
+}
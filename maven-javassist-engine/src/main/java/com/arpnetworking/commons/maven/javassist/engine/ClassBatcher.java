@@ -0,0 +1,83 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Groups discovered classes into batches for submission. A batch holds the
+ * consecutive classes of a single package up to a maximum size; as class
+ * directories are traversed one directory at a time this keeps classes
+ * which likely resolve the same dependencies together.
+ *
+ * @param <T> The type of the item added for each class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassBatcher<T> {
+
+    /**
+     * Constructor.
+     *
+     * @param maximumBatchSize The maximum number of classes in a batch.
+     * @param batchConsumer The {@code Consumer} of completed batches.
+     */
+    ClassBatcher(final int maximumBatchSize, final Consumer<List<T>> batchConsumer) {
+        _maximumBatchSize = maximumBatchSize;
+        _batchConsumer = batchConsumer;
+        _batch = new ArrayList<>(maximumBatchSize);
+    }
+
+    /**
+     * Add the item for a class to the current batch.
+     *
+     * @param className The name of the class.
+     * @param item The item for the class; for example, the task processing it.
+     */
+    void add(final String className, final T item) {
+        final String packageName = getPackageName(className);
+        if (!_batch.isEmpty() && (_batch.size() >= _maximumBatchSize || !packageName.equals(_packageName))) {
+            flush();
+        }
+        _packageName = packageName;
+        _batch.add(item);
+    }
+
+    /**
+     * Submit the current batch if it is not empty.
+     */
+    void flush() {
+        if (!_batch.isEmpty()) {
+            _batchConsumer.accept(_batch);
+            _batch = new ArrayList<>(_maximumBatchSize);
+        }
+    }
+
+    private static String getPackageName(final String className) {
+        final int index = className.lastIndexOf('.');
+        if (index < 0) {
+            return "";
+        }
+        return className.substring(0, index);
+    }
+
+    private final int _maximumBatchSize;
+    private final Consumer<List<T>> _batchConsumer;
+    private List<T> _batch;
+    private String _packageName = "";
+}
@@ -0,0 +1,378 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import javassist.CtClass;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content addressed cache of transformed class files. Entries are keyed by
+ * the digest of the input class file combined with the processor name and
+ * version so the cache directory can be shared between builds, checkouts
+ * and machines. Classes which processing leaves unchanged, for example
+ * because no processor accepts them, are stored as empty entries so that
+ * they are not processed again either. The cache is bounded in size by
+ * evicting the least recently used entries; a hit refreshes the entry's
+ * modification time. To avoid walking the cache directory on every build an
+ * estimate of its size is kept in the directory and the entries are only
+ * walked once the entries written push the estimate over the maximum size.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassCache {
+
+    /**
+     * Constructor.
+     *
+     * @param directory The cache directory.
+     * @param processorKey The processor name and version.
+     * @param maximumSize The maximum size of the cache in bytes.
+     */
+    ClassCache(final Path directory, final String processorKey, final long maximumSize) {
+        _directory = directory;
+        _processorKey = processorKey;
+        _maximumSize = maximumSize;
+    }
+
+    /**
+     * Create the key which identifies a processor and its version. The
+     * version is the implementation version of the processor's package if
+     * available, otherwise the digest of the processor's class file. The
+     * Javassist version is included as it also affects the output.
+     *
+     * @param processorClass The processor {@code Class}.
+     * @return The processor key.
+     * @throws IOException if the processor class file cannot be read.
+     */
+    static String createProcessorKey(final Class<?> processorClass) throws IOException {
+        final Package processorPackage = processorClass.getPackage();
+        String version = null;
+        if (processorPackage != null) {
+            version = processorPackage.getImplementationVersion();
+        }
+        if (version == null) {
+            final String resource = processorClass.getName().replace('.', '/') + ".class";
+            try (InputStream inputStream = processorClass.getClassLoader().getResourceAsStream(resource)) {
+                if (inputStream == null) {
+                    throw new IOException("Unable to read processor class: " + resource);
+                }
+                version = Hashing.sha256().hashBytes(inputStream.readAllBytes()).toString();
+            }
+        }
+        return processorClass.getName() + ":" + version + ":" + CtClass.version;
+    }
+
+    /**
+     * Restore the processed class from the cache if present. On a hit the
+     * cached bytes, or the input for an empty entry, are written through the
+     * {@code DirectoryClassOutput},
+     * which leaves an identical class file untouched and replaces a changed
+     * one atomically, and the entry is marked as recently used. On a miss
+     * the key is retained for a later call to {@link #store(String, Path)}.
+     *
+     * @param className The name of the class.
+     * @param input The unprocessed class file.
+     * @param inputDigest The sha256 digest of the unprocessed class file.
+     * @param output The {@code DirectoryClassOutput} to write the processed class to.
+     * @return True if and only if the class was restored from the cache.
+     * @throws IOException if the output cannot be written.
+     */
+    boolean restore(
+            final String className,
+            final byte[] input,
+            final HashCode inputDigest,
+            final DirectoryClassOutput output)
+            throws IOException {
+        final String inputHash = inputDigest.toString();
+        final String key = createKey(inputHash);
+        final Optional<byte[]> cached = get(key);
+        if (!cached.isPresent()) {
+            _pending.put(className, new PendingEntry(key, inputHash));
+            return false;
+        }
+        if (cached.get().length == 0) {
+            output.write(className, input);
+        } else {
+            output.write(className, cached.get());
+        }
+        return true;
+    }
+
+    /**
+     * Store the processed class in the cache. A class which processing did
+     * not modify is stored as an empty entry. Classes which were not
+     * previously looked up are not stored.
+     *
+     * @param className The name of the class.
+     * @param outputFile The processed class file.
+     * @throws IOException if the output cannot be read or the entry cannot be written.
+     */
+    void store(final String className, final Path outputFile) throws IOException {
+        final PendingEntry pendingEntry = _pending.remove(className);
+        if (pendingEntry == null) {
+            return;
+        }
+        final byte[] output = Files.readAllBytes(outputFile);
+        if (pendingEntry.getInputHash().equals(Hashing.sha256().hashBytes(output).toString())) {
+            put(pendingEntry.getKey(), new byte[0]);
+        } else {
+            put(pendingEntry.getKey(), output);
+        }
+    }
+
+    /**
+     * Create the key of the entry for a class file.
+     *
+     * @param input The unprocessed class file.
+     * @return The key of the entry.
+     */
+    String createKey(final byte[] input) {
+        return createKey(Hashing.sha256().hashBytes(input).toString());
+    }
+
+    /**
+     * Read the entry with a key and mark it as recently used.
+     *
+     * @param key The key of the entry from {@link #createKey(byte[])}.
+     * @return The contents of the entry if present.
+     * @throws IOException if the entry cannot be read.
+     */
+    Optional<byte[]> get(final String key) throws IOException {
+        final Path entry = getEntry(key);
+        final byte[] contents;
+        try {
+            contents = Files.readAllBytes(entry);
+        } catch (final NoSuchFileException e) {
+            return Optional.empty();
+        }
+        touch(entry);
+        return Optional.of(contents);
+    }
+
+    /**
+     * Write the entry with a key atomically, replacing any existing entry.
+     *
+     * @param key The key of the entry from {@link #createKey(byte[])}.
+     * @param contents The contents of the entry.
+     * @throws IOException if the entry cannot be written.
+     */
+    void put(final String key, final byte[] contents) throws IOException {
+        final Path entry = getEntry(key);
+        Files.createDirectories(getEntryDirectory(key));
+        final Path temporaryEntry = entry.resolveSibling(entry.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        Files.write(temporaryEntry, contents);
+        Files.move(temporaryEntry, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        _written.addAndGet(Math.max(contents.length, MINIMUM_ENTRY_SIZE));
+    }
+
+    /**
+     * Evict the least recently used entries until the cache is within its
+     * maximum size. Nothing is done unless entries were written since the
+     * last trim, and the entries are only walked if the size estimate with
+     * the entries written exceeds the maximum size or no estimate exists.
+     * Builds sharing the cache may race to update the estimate, so it is
+     * refreshed from the entries whenever they are walked.
+     *
+     * @throws IOException if the cache directory cannot be read.
+     */
+    void trim() throws IOException {
+        final long written = _written.getAndSet(0);
+        if (written == 0 || !Files.isDirectory(_directory)) {
+            return;
+        }
+        final Path sizeFile = _directory.resolve(SIZE_FILE);
+        final OptionalLong estimate = readSize(sizeFile);
+        if (estimate.isPresent() && estimate.getAsLong() + written <= _maximumSize) {
+            writeSize(sizeFile, estimate.getAsLong() + written);
+            return;
+        }
+
+        final List<CacheFile> cacheFiles = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(_directory)) {
+            final List<Path> entries = paths.filter(p -> p.toString().endsWith(ENTRY_SUFFIX))
+                    .collect(Collectors.toList());
+            for (final Path path : entries) {
+                try {
+                    // Empty entries still occupy the file system
+                    cacheFiles.add(new CacheFile(
+                            path,
+                            Math.max(Files.size(path), MINIMUM_ENTRY_SIZE),
+                            Files.getLastModifiedTime(path)));
+                } catch (final NoSuchFileException e) {
+                    // Evicted concurrently by another build sharing the cache
+                }
+            }
+        }
+        long size = cacheFiles.stream().mapToLong(CacheFile::getSize).sum();
+        cacheFiles.sort(Comparator.comparing(CacheFile::getLastModifiedTime));
+        for (final CacheFile cacheFile : cacheFiles) {
+            if (size <= _maximumSize) {
+                break;
+            }
+            Files.deleteIfExists(cacheFile.getPath());
+            size -= cacheFile.getSize();
+        }
+        writeSize(sizeFile, size);
+    }
+
+    /**
+     * Parse a size in bytes with an optional {@code K}, {@code M} or
+     * {@code G} binary unit suffix.
+     *
+     * @param size The size to parse.
+     * @return The size in bytes.
+     * @throws IllegalArgumentException if the size is not a non-negative number with an optional unit.
+     */
+    static long parseSize(final String size) {
+        final String normalizedSize = size.trim().toUpperCase(Locale.ROOT);
+        if (normalizedSize.isEmpty()) {
+            throw new IllegalArgumentException("Invalid size: \"" + size + "\"; expected a number of bytes");
+        }
+        final int unitIndex = Arrays.asList('K', 'M', 'G').indexOf(normalizedSize.charAt(normalizedSize.length() - 1));
+        String number = normalizedSize;
+        if (unitIndex >= 0) {
+            number = normalizedSize.substring(0, normalizedSize.length() - 1);
+        }
+        final int shift = 10 * (unitIndex + 1);
+        final long value;
+        try {
+            value = Long.parseLong(number);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Invalid size: \"" + size + "\"; expected a number of bytes with an optional K, M or G suffix",
+                    e);
+        }
+        if (value < 0 || value > Long.MAX_VALUE >> shift) {
+            throw new IllegalArgumentException("Invalid size: \"" + size + "\"; must be between 0 and 2^63 - 1 bytes");
+        }
+        return value << shift;
+    }
+
+    private static OptionalLong readSize(final Path sizeFile) throws IOException {
+        try {
+            return OptionalLong.of(Long.parseLong(Files.readString(sizeFile).trim()));
+        } catch (final NoSuchFileException | NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    private static void writeSize(final Path sizeFile, final long size) throws IOException {
+        final Path temporaryFile = sizeFile.resolveSibling(sizeFile.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        Files.writeString(temporaryFile, Long.toString(size));
+        Files.move(temporaryFile, sizeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private String createKey(final String inputHash) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(_processorKey, StandardCharsets.UTF_8);
+        hasher.putString(inputHash, StandardCharsets.UTF_8);
+        return hasher.hash().toString();
+    }
+
+    private Path getEntryDirectory(final String key) {
+        return _directory.resolve(key.substring(0, 2));
+    }
+
+    private Path getEntry(final String key) {
+        return getEntryDirectory(key).resolve(key.substring(2) + ENTRY_SUFFIX);
+    }
+
+    private static void touch(final Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (final IOException e) {
+            // The entry may be read-only or evicted; recency is best effort
+        }
+    }
+
+    private final Path _directory;
+    private final String _processorKey;
+    private final long _maximumSize;
+    private final Map<String, PendingEntry> _pending = new ConcurrentHashMap<>();
+    private final AtomicLong _written = new AtomicLong();
+
+    private static final String ENTRY_SUFFIX = ".class";
+    private static final long MINIMUM_ENTRY_SIZE = 512;
+    private static final String SIZE_FILE = "size";
+
+    private static final class PendingEntry {
+
+        PendingEntry(final String key, final String inputHash) {
+            _key = key;
+            _inputHash = inputHash;
+        }
+
+        String getKey() {
+            return _key;
+        }
+
+        String getInputHash() {
+            return _inputHash;
+        }
+
+        private final String _key;
+        private final String _inputHash;
+    }
+
+    private static final class CacheFile {
+
+        CacheFile(final Path path, final long size, final FileTime lastModifiedTime) {
+            _path = path;
+            _size = size;
+            _lastModifiedTime = lastModifiedTime;
+        }
+
+        Path getPath() {
+            return _path;
+        }
+
+        long getSize() {
+            return _size;
+        }
+
+        FileTime getLastModifiedTime() {
+            return _lastModifiedTime;
+        }
+
+        private final Path _path;
+        private final long _size;
+        private final FileTime _lastModifiedTime;
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Walks class directories concurrently. Each directory is listed on the
+ * executor and its subdirectories are submitted for listing as soon as
+ * they are found, so independent package trees and class directories are
+ * walked in parallel. The classes are nevertheless reported on the calling
+ * thread in a deterministic order: the class files of each directory
+ * sorted by name followed by each of its subdirectories sorted by name.
+ * Reporting starts as soon as the listings it depends on are available.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassDirectoryWalker {
+
+    /**
+     * Constructor.
+     *
+     * @param executor The {@code Executor} to list directories on.
+     */
+    ClassDirectoryWalker(final Executor executor) {
+        _executor = executor;
+    }
+
+    /**
+     * Start walking a class directory in the background.
+     *
+     * @param directory The class directory to walk.
+     * @return The {@code Walk} reporting the classes found.
+     */
+    Walk start(final Path directory) {
+        if (Files.isRegularFile(directory)) {
+            return new Walk(directory, CompletableFuture.completedFuture(EMPTY_LISTING));
+        }
+        return new Walk(directory, list(directory));
+    }
+
+    private CompletableFuture<Listing> list(final Path directory) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    final List<Path> entries;
+                    try (Stream<Path> stream = Files.list(directory)) {
+                        entries = stream.sorted().collect(Collectors.toList());
+                    } catch (final IOException e) {
+                        throw new CompletionException("Unable to list class directory: " + directory, e);
+                    }
+                    final List<Path> classFiles = new ArrayList<>();
+                    final List<CompletableFuture<Listing>> subdirectories = new ArrayList<>();
+                    for (final Path entry : entries) {
+                        if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                            subdirectories.add(list(entry));
+                        } else if (String.valueOf(entry.getFileName()).endsWith(CLASS_SUFFIX)) {
+                            classFiles.add(entry);
+                        }
+                    }
+                    return new Listing(classFiles, subdirectories);
+                },
+                _executor);
+    }
+
+    private final Executor _executor;
+
+    private static final String CLASS_SUFFIX = ".class";
+    private static final Listing EMPTY_LISTING = new Listing(Collections.emptyList(), Collections.emptyList());
+
+    /**
+     * A walk of a class directory in progress.
+     */
+    static final class Walk {
+
+        /**
+         * Report the classes found in the class directory on the calling
+         * thread in a deterministic order, waiting for directories which
+         * have not yet been listed.
+         *
+         * @param classConsumer Consumer of the class name and class file of each class.
+         */
+        void forEach(final BiConsumer<String, Path> classConsumer) {
+            final Deque<CompletableFuture<Listing>> pending = new ArrayDeque<>();
+            pending.push(_root);
+            while (!pending.isEmpty()) {
+                final Listing listing = pending.pop().join();
+                for (final Path classFile : listing.getClassFiles()) {
+                    final String relativeFileName = _directory.relativize(classFile).toString();
+                    final String className = relativeFileName
+                            .substring(0, relativeFileName.length() - CLASS_SUFFIX.length())
+                            .replace(classFile.getFileSystem().getSeparator(), ".");
+                    classConsumer.accept(className, classFile);
+                }
+                final List<CompletableFuture<Listing>> subdirectories = listing.getSubdirectories();
+                for (int i = subdirectories.size() - 1; i >= 0; --i) {
+                    pending.push(subdirectories.get(i));
+                }
+            }
+        }
+
+        private Walk(final Path directory, final CompletableFuture<Listing> root) {
+            _directory = directory;
+            _root = root;
+        }
+
+        private final Path _directory;
+        private final CompletableFuture<Listing> _root;
+    }
+
+    private static final class Listing {
+
+        Listing(final List<Path> classFiles, final List<CompletableFuture<Listing>> subdirectories) {
+            _classFiles = classFiles;
+            _subdirectories = subdirectories;
+        }
+
+        List<Path> getClassFiles() {
+            return _classFiles;
+        }
+
+        List<CompletableFuture<Listing>> getSubdirectories() {
+            return _subdirectories;
+        }
+
+        private final List<Path> _classFiles;
+        private final List<CompletableFuture<Listing>> _subdirectories;
+    }
+}
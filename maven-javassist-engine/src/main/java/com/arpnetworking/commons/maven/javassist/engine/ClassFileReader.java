@@ -0,0 +1,95 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.ClassPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Reads the raw class files of the classes resolved by a {@code ClassPool}.
+ * Class files of the {@link PrefetchingClassPath} instances inserted through
+ * the reader are served from the bytes read ahead during discovery, so the
+ * checks made before a class is parsed do not read its class file again.
+ * Other class files are read from the location the class pool resolves.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassFileReader {
+
+    /**
+     * Constructor.
+     *
+     * @param classPool The {@code ClassPool} to resolve class files from.
+     */
+    ClassFileReader(final ClassPool classPool) {
+        _classPool = classPool;
+    }
+
+    /**
+     * Insert a {@code PrefetchingClassPath} at the head of the class pool's
+     * search path.
+     *
+     * @param classPath The {@code PrefetchingClassPath} to insert.
+     */
+    void insertClassPath(final PrefetchingClassPath classPath) {
+        _classPool.insertClassPath(classPath);
+        _classPaths.add(0, classPath);
+    }
+
+    /**
+     * Read the class file of a class. The returned bytes may be shared with
+     * the class pool and must not be modified.
+     *
+     * @param className The name of the class.
+     * @return The class file; empty if the class file cannot be found or read.
+     */
+    Optional<byte[]> read(final String className) {
+        // Inserted class paths are searched first as by the class pool
+        for (final PrefetchingClassPath classPath : _classPaths) {
+            final Optional<byte[]> classFile = classPath.read(className);
+            if (classFile.isPresent()) {
+                return classFile;
+            }
+        }
+        final URL classFileUrl = _classPool.find(className);
+        if (classFileUrl == null) {
+            return Optional.empty();
+        }
+        try (InputStream inputStream = classFileUrl.openStream()) {
+            return Optional.of(inputStream.readAllBytes());
+        } catch (final IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Return the {@code ClassPool} class files are resolved from.
+     *
+     * @return The {@code ClassPool} instance.
+     */
+    ClassPool getClassPool() {
+        return _classPool;
+    }
+
+    private final ClassPool _classPool;
+    private final List<PrefetchingClassPath> _classPaths = new CopyOnWriteArrayList<>();
+}
@@ -0,0 +1,260 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.HintedClassProcessor;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Matches raw class files against the hints of a {@link HintedClassProcessor}
+ * without parsing them into a {@code CtClass}. Only the constant pool and the
+ * direct supertypes are read and constant pool strings are compared as raw
+ * bytes without decoding. Class files which cannot be scanned are reported
+ * as matching so that Javassist can report the problem.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassFileScanner {
+
+    /**
+     * Create the scanner for the hints of a processor.
+     *
+     * @param processor The {@code HintedClassProcessor} instance.
+     * @return The {@code ClassFileScanner} or {@code null} if the processor declares no hints.
+     */
+    @Nullable
+    static ClassFileScanner create(final HintedClassProcessor processor) {
+        final ClassFileScanner scanner = new ClassFileScanner(
+                toBytes(processor.getAnnotationHints(), name -> "L" + toInternalName(name) + ";"),
+                toBytes(processor.getSupertypeHints(), ClassFileScanner::toInternalName),
+                toBytes(processor.getReferenceHints(), ClassFileScanner::toInternalName));
+        if (scanner._annotations.isEmpty() && scanner._supertypes.isEmpty() && scanner._references.isEmpty()) {
+            return null;
+        }
+        return scanner;
+    }
+
+    /**
+     * Determine whether the class file matches any hint.
+     *
+     * @param classFile The raw class file.
+     * @return True if and only if the class file matches a hint or cannot be scanned.
+     */
+    boolean matches(final byte[] classFile) {
+        try {
+            return scan(ByteBuffer.wrap(classFile));
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+            return true;
+        }
+    }
+
+    private boolean scan(final ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) {
+            return true;
+        }
+        // Skip the minor and major versions
+        buffer.position(buffer.position() + 4);
+
+        // Record the offset of each constant pool string and the string
+        // index of each class constant; annotation descriptors are matched
+        // as the strings are encountered
+        final int constantPoolCount = buffer.getShort() & 0xFFFF;
+        final int[] utf8Offsets = new int[constantPoolCount];
+        final int[] classNameIndexes = new int[constantPoolCount];
+        int index = 1;
+        while (index < constantPoolCount) {
+            final int tag = buffer.get() & 0xFF;
+            if (tag == TAG_UTF8
+                    && !_annotations.isEmpty()
+                    && _annotations.contains(utf8(buffer, buffer.position()))) {
+                return true;
+            }
+            final int entries = readConstant(buffer, tag, index, utf8Offsets, classNameIndexes);
+            if (entries == 0) {
+                return true;
+            }
+            index += entries;
+        }
+
+        return matchesReferences(buffer, utf8Offsets, classNameIndexes)
+                || matchesSupertypes(buffer, utf8Offsets, classNameIndexes);
+    }
+
+    /**
+     * Read the names of the direct superclass and interfaces from a raw
+     * class file.
+     *
+     * @param classFile The raw class file.
+     * @return The dotted names of the direct supertypes; empty if the class file cannot be scanned.
+     */
+    static List<String> readSupertypes(final byte[] classFile) {
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(classFile);
+            if (buffer.getInt() != MAGIC) {
+                return Collections.emptyList();
+            }
+            // Skip the minor and major versions
+            buffer.position(buffer.position() + 4);
+            final int constantPoolCount = buffer.getShort() & 0xFFFF;
+            final int[] utf8Offsets = new int[constantPoolCount];
+            final int[] classNameIndexes = new int[constantPoolCount];
+            int index = 1;
+            while (index < constantPoolCount) {
+                final int entries = readConstant(buffer, buffer.get() & 0xFF, index, utf8Offsets, classNameIndexes);
+                if (entries == 0) {
+                    return Collections.emptyList();
+                }
+                index += entries;
+            }
+
+            // Skip the access flags and this class; the superclass of
+            // java.lang.Object is absent
+            buffer.position(buffer.position() + 4);
+            final List<String> supertypes = new ArrayList<>();
+            final int superclassIndex = buffer.getShort() & 0xFFFF;
+            if (superclassIndex != 0) {
+                supertypes.add(className(buffer, utf8Offsets, classNameIndexes, superclassIndex));
+            }
+            final int interfacesCount = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < interfacesCount; ++i) {
+                supertypes.add(className(buffer, utf8Offsets, classNameIndexes, buffer.getShort() & 0xFFFF));
+            }
+            return supertypes;
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    // Read the constant pool entry at the index with the tag already read;
+    // returns the number of entries it occupies or zero if the tag is unknown
+    private static int readConstant(
+            final ByteBuffer buffer,
+            final int tag,
+            final int index,
+            final int[] utf8Offsets,
+            final int[] classNameIndexes) {
+        if (tag == TAG_UTF8) {
+            utf8Offsets[index] = buffer.position();
+            final int length = buffer.getShort() & 0xFFFF;
+            buffer.position(buffer.position() + length);
+        } else if (tag == TAG_CLASS) {
+            classNameIndexes[index] = buffer.getShort() & 0xFFFF;
+        } else if (tag == TAG_LONG || tag == TAG_DOUBLE) {
+            // Long and double constants occupy two entries
+            buffer.position(buffer.position() + 8);
+            return 2;
+        } else if (tag < CONSTANT_SIZES.length && CONSTANT_SIZES[tag] > 0) {
+            buffer.position(buffer.position() + CONSTANT_SIZES[tag]);
+        } else {
+            return 0;
+        }
+        return 1;
+    }
+
+    private static String className(
+            final ByteBuffer buffer,
+            final int[] utf8Offsets,
+            final int[] classNameIndexes,
+            final int classIndex) {
+        return StandardCharsets.UTF_8.decode(utf8(buffer, utf8Offsets[classNameIndexes[classIndex]]))
+                .toString()
+                .replace('/', '.');
+    }
+
+    private boolean matchesReferences(final ByteBuffer buffer, final int[] utf8Offsets, final int[] classNameIndexes) {
+        if (!_references.isEmpty()) {
+            for (final int classNameIndex : classNameIndexes) {
+                if (classNameIndex != 0 && _references.contains(utf8(buffer, utf8Offsets[classNameIndex]))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesSupertypes(final ByteBuffer buffer, final int[] utf8Offsets, final int[] classNameIndexes) {
+        if (!_supertypes.isEmpty()) {
+            // Skip the access flags and this class
+            buffer.position(buffer.position() + 4);
+            if (isSupertype(buffer, utf8Offsets, classNameIndexes)) {
+                return true;
+            }
+            final int interfacesCount = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < interfacesCount; ++i) {
+                if (isSupertype(buffer, utf8Offsets, classNameIndexes)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isSupertype(final ByteBuffer buffer, final int[] utf8Offsets, final int[] classNameIndexes) {
+        final int classIndex = buffer.getShort() & 0xFFFF;
+        return classIndex != 0 && _supertypes.contains(utf8(buffer, utf8Offsets[classNameIndexes[classIndex]]));
+    }
+
+    private static ByteBuffer utf8(final ByteBuffer buffer, final int offset) {
+        return slice(buffer, offset + 2, buffer.getShort(offset) & 0xFFFF);
+    }
+
+    private static ByteBuffer slice(final ByteBuffer buffer, final int offset, final int length) {
+        return ByteBuffer.wrap(buffer.array(), offset, length);
+    }
+
+    private static String toInternalName(final String className) {
+        return className.replace('.', '/');
+    }
+
+    private static Set<ByteBuffer> toBytes(final Set<String> names, final Function<String, String> mapper) {
+        return names.stream()
+                .map(mapper)
+                .map(name -> ByteBuffer.wrap(name.getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.toSet());
+    }
+
+    private ClassFileScanner(
+            final Set<ByteBuffer> annotations,
+            final Set<ByteBuffer> supertypes,
+            final Set<ByteBuffer> references) {
+        _annotations = annotations;
+        _supertypes = supertypes;
+        _references = references;
+    }
+
+    private final Set<ByteBuffer> _annotations;
+    private final Set<ByteBuffer> _supertypes;
+    private final Set<ByteBuffer> _references;
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int TAG_UTF8 = 1;
+    private static final int TAG_LONG = 5;
+    private static final int TAG_DOUBLE = 6;
+    private static final int TAG_CLASS = 7;
+    // Size in bytes of the remaining constant pool entries by tag; zero for
+    // tags which are either handled separately or undefined
+    private static final int[] CONSTANT_SIZES = {0, 0, 0, 4, 4, 0, 0, 0, 2, 4, 4, 4, 4, 0, 0, 3, 2, 4, 4, 2, 2};
+}
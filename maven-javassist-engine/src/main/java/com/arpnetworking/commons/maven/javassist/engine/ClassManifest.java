@@ -0,0 +1,203 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * Persistent record of the classes processed in a previous build. For each
+ * class the manifest stores the digest of the class file before processing,
+ * the digest of the class file after processing and the processor that was
+ * applied. A class whose current digest matches the recorded output digest
+ * for the same processor does not need to be processed again.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassManifest {
+
+    /**
+     * Load the manifest from the specified file. If the file does not exist
+     * an empty manifest is returned. Malformed entries are ignored which
+     * causes the corresponding classes to be processed again.
+     *
+     * @param file The manifest file.
+     * @param processor The processor applied in this build.
+     * @return The {@code ClassManifest} instance.
+     * @throws IOException if the manifest file cannot be read.
+     */
+    static ClassManifest load(final Path file, final String processor) throws IOException {
+        final ClassManifest manifest = new ClassManifest(file, processor);
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line = reader.readLine();
+                while (line != null) {
+                    final String[] fields = line.split(" ");
+                    if (fields.length == 4) {
+                        manifest._entries.put(fields[0], new Entry(fields[1], fields[2], fields[3]));
+                    }
+                    line = reader.readLine();
+                }
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Determine whether a discovered class is unchanged according to the
+     * build context without reading its class file. The class is recorded as
+     * present in this build so that it survives pruning.
+     *
+     * @param className The name of the class.
+     * @param hasDelta Whether the build context reports a change to the file.
+     * @return True if and only if the class does not need to be processed.
+     */
+    boolean isUnchanged(final String className, final boolean hasDelta) {
+        _present.add(className);
+        final Entry entry = _entries.get(className);
+        return entry != null && !hasDelta && _processor.equals(entry.getProcessor());
+    }
+
+    /**
+     * Determine whether a class which is not unchanged according to the
+     * build context needs to be processed from the digest of its class file.
+     *
+     * @param className The name of the class.
+     * @param digest The sha256 digest of the class file.
+     * @return True if and only if the class needs to be processed.
+     */
+    boolean requiresProcessing(final String className, final HashCode digest) {
+        final Entry entry = _entries.get(className);
+        final String inputHash = digest.toString();
+        if (entry != null
+                && _processor.equals(entry.getProcessor())
+                && inputHash.equals(entry.getOutputHash())) {
+            return false;
+        }
+        _pending.put(className, inputHash);
+        return true;
+    }
+
+    /**
+     * Record the result of processing a class previously reported as
+     * requiring processing.
+     *
+     * @param className The name of the class.
+     * @param file The class file after processing.
+     * @throws IOException if the class file cannot be read.
+     */
+    void recordProcessed(final String className, final Path file) throws IOException {
+        final String inputHash = _pending.remove(className);
+        if (inputHash != null) {
+            _entries.put(className, new Entry(inputHash, hash(file), _processor));
+        }
+    }
+
+    /**
+     * Remove entries for classes which were not discovered in this build.
+     */
+    void prune() {
+        _entries.keySet().retainAll(_present);
+    }
+
+    /**
+     * Write the manifest to its file. The file is replaced atomically so an
+     * interrupted build never leaves a partial manifest behind.
+     *
+     * @throws IOException if the manifest cannot be written.
+     */
+    void save() throws IOException {
+        final Path directory = _file.getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        final Path temporaryFile = _file.resolveSibling(_file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+            for (final Map.Entry<String, Entry> entry : new TreeMap<>(_entries).entrySet()) {
+                writer.write(entry.getKey());
+                writer.write(' ');
+                writer.write(entry.getValue().getInputHash());
+                writer.write(' ');
+                writer.write(entry.getValue().getOutputHash());
+                writer.write(' ');
+                writer.write(entry.getValue().getProcessor());
+                writer.newLine();
+            }
+        }
+        Files.move(temporaryFile, _file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Nullable
+    /* package private */ Entry getEntry(final String className) {
+        return _entries.get(className);
+    }
+
+    /* package private */ static String hash(final Path file) throws IOException {
+        return Hashing.sha256().hashBytes(Files.readAllBytes(file)).toString();
+    }
+
+    private ClassManifest(final Path file, final String processor) {
+        _file = file;
+        _processor = processor;
+    }
+
+    private final Path _file;
+    private final String _processor;
+    private final Map<String, Entry> _entries = new ConcurrentHashMap<>();
+    private final Map<String, String> _pending = new ConcurrentHashMap<>();
+    private final Set<String> _present = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Manifest entry for a single class.
+     */
+    /* package private */ static final class Entry {
+
+        Entry(final String inputHash, final String outputHash, final String processor) {
+            _inputHash = inputHash;
+            _outputHash = outputHash;
+            _processor = processor;
+        }
+
+        String getInputHash() {
+            return _inputHash;
+        }
+
+        String getOutputHash() {
+            return _outputHash;
+        }
+
+        String getProcessor() {
+            return _processor;
+        }
+
+        private final String _inputHash;
+        private final String _outputHash;
+        private final String _processor;
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+
+/**
+ * Matches dotted class names against a set of globs compiled once. Globs
+ * without wildcards are matched exactly with a hash lookup, globs which only
+ * end in {@code *} are matched against a prefix trie and all remaining globs
+ * are combined into a single regular expression. The glob syntax is that of
+ * {@code PathMatcher}; as class names contain no separators {@code *} and
+ * {@code **} are equivalent.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassNameMatcher implements Predicate<String> {
+
+    /**
+     * Compile the globs into a matcher.
+     *
+     * @param globs The globs to match.
+     * @return The {@code ClassNameMatcher} instance.
+     */
+    static ClassNameMatcher compile(final String[] globs) {
+        final Set<String> exact = Sets.newHashSet();
+        final PrefixNode prefixes = new PrefixNode();
+        final StringBuilder regex = new StringBuilder();
+        for (final String glob : globs) {
+            final String literal = trimTrailingWildcards(glob);
+            if (hasWildcard(literal)) {
+                if (regex.length() > 0) {
+                    regex.append('|');
+                }
+                regex.append("(?:").append(toRegex(glob)).append(')');
+            } else if (literal.length() == glob.length()) {
+                exact.add(glob);
+            } else {
+                prefixes.add(literal);
+            }
+        }
+        Pattern pattern = null;
+        if (regex.length() > 0) {
+            pattern = Pattern.compile(regex.toString(), Pattern.DOTALL);
+        }
+        return new ClassNameMatcher(exact, prefixes, pattern);
+    }
+
+    @Override
+    public boolean test(final String className) {
+        return _exact.contains(className)
+                || _prefixes.matches(className)
+                || _pattern != null && _pattern.matcher(className).matches();
+    }
+
+    /* package private */ static String toRegex(final String glob) {
+        final StringBuilder regex = new StringBuilder();
+        boolean inGroup = false;
+        int i = 0;
+        while (i < glob.length()) {
+            final char c = glob.charAt(i++);
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else if (c == '\\' && i < glob.length()) {
+                appendLiteral(regex, glob.charAt(i++));
+            } else if (c == '[' && glob.indexOf(']', i) > i) {
+                i = appendCharacterClass(regex, glob, i);
+            } else if (c == '{' && !inGroup) {
+                regex.append("(?:");
+                inGroup = true;
+            } else if (c == '}' && inGroup) {
+                regex.append(')');
+                inGroup = false;
+            } else if (c == ',' && inGroup) {
+                regex.append('|');
+            } else {
+                appendLiteral(regex, c);
+            }
+        }
+        if (inGroup) {
+            throw new IllegalArgumentException("Unterminated group in glob: " + glob);
+        }
+        return regex.toString();
+    }
+
+    private static int appendCharacterClass(final StringBuilder regex, final String glob, final int start) {
+        final int end = glob.indexOf(']', start);
+        regex.append('[');
+        int i = start;
+        if (glob.charAt(i) == '!') {
+            regex.append('^');
+            ++i;
+        }
+        while (i < end) {
+            final char c = glob.charAt(i++);
+            if (c == '\\' || c == '[' || c == '&' || c == '^') {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+        regex.append(']');
+        return end + 1;
+    }
+
+    private static void appendLiteral(final StringBuilder regex, final char c) {
+        if (!Character.isLetterOrDigit(c)) {
+            regex.append('\\');
+        }
+        regex.append(c);
+    }
+
+    private static String trimTrailingWildcards(final String glob) {
+        int end = glob.length();
+        while (end > 0 && glob.charAt(end - 1) == '*') {
+            --end;
+        }
+        return glob.substring(0, end);
+    }
+
+    private static boolean hasWildcard(final String glob) {
+        for (int i = 0; i < glob.length(); ++i) {
+            if (WILDCARDS.indexOf(glob.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ClassNameMatcher(final Set<String> exact, final PrefixNode prefixes, @Nullable final Pattern pattern) {
+        _exact = exact;
+        _prefixes = prefixes;
+        _pattern = pattern;
+    }
+
+    private final Set<String> _exact;
+    private final PrefixNode _prefixes;
+    @Nullable
+    private final Pattern _pattern;
+
+    private static final String WILDCARDS = "*?[{\\";
+
+    private static final class PrefixNode {
+
+        void add(final String prefix) {
+            PrefixNode node = this;
+            for (int i = 0; i < prefix.length(); ++i) {
+                node = node._children.computeIfAbsent(prefix.charAt(i), c -> new PrefixNode());
+            }
+            node._terminal = true;
+        }
+
+        boolean matches(final String className) {
+            PrefixNode node = this;
+            int i = 0;
+            while (!node._terminal) {
+                if (i == className.length()) {
+                    return false;
+                }
+                node = node._children.get(className.charAt(i++));
+                if (node == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private final Map<Character, PrefixNode> _children = Maps.newHashMap();
+        private boolean _terminal;
+    }
+}
@@ -0,0 +1,626 @@
+/**
+ * Copyright 2016 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ChangeReportingClassProcessor;
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import com.arpnetworking.commons.maven.javassist.LifecycleClassProcessor;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.annotation.Annotation;
+import javassist.bytecode.annotation.ArrayMemberValue;
+import javassist.bytecode.annotation.MemberValue;
+import javassist.bytecode.annotation.StringMemberValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Runnable task for transforming classes using Javassist. A task processes
+ * one or more classes together: each processor is applied to all of the
+ * classes it accepts before the next processor and no class is written
+ * before all processors have been applied, so that a
+ * {@link LifecycleClassProcessor} can process the classes as a batch.
+ * Classes which a {@link ChangeReportingClassProcessor} left unmodified and
+ * no other processor modified are neither rebuilt nor written. With a
+ * {@link ProcessedClassManifest} the processors applied to a class are
+ * recorded in the manifest instead of a {@code Processed} annotation
+ * together with the processors which rejected it.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassProcessorTask implements Runnable, CompletableFuture.AsynchronousCompletionTask {
+
+    /**
+     * Constructor.
+     *
+     * @param classPool The {@code ClassPool} to resolve the class from.
+     * @param className The name of the class to conditionally process.
+     * @param processors The ordered {@code ScopedProcessor} instances to apply if included.
+     * @param output The {@code ClassOutput} to write the transformed class to.
+     * @param log The {@code ProcessingLog} instance to record processing to.
+     * @param report The {@code PerformanceReport} to record timings to.
+     */
+    ClassProcessorTask(
+            final ClassPool classPool,
+            final String className,
+            final List<ScopedProcessor> processors,
+            final ClassOutput output,
+            final ProcessingLog log,
+            final PerformanceReport report) {
+        this(classPool, Collections.singletonList(className), processors, output, log, report);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param classPool The {@code ClassPool} to resolve the classes from.
+     * @param classNames The names of the classes to conditionally process together.
+     * @param processors The ordered {@code ScopedProcessor} instances to apply if included.
+     * @param output The {@code ClassOutput} to write the transformed classes to.
+     * @param log The {@code ProcessingLog} instance to record processing to.
+     * @param report The {@code PerformanceReport} to record timings to.
+     */
+    ClassProcessorTask(
+            final ClassPool classPool,
+            final List<String> classNames,
+            final List<ScopedProcessor> processors,
+            final ClassOutput output,
+            final ProcessingLog log,
+            final PerformanceReport report) {
+        this(new ClassFileReader(classPool), classNames, processors, output, log, report, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param classFileReader The {@code ClassFileReader} to resolve the classes from.
+     * @param classNames The names of the classes to conditionally process together.
+     * @param processors The ordered {@code ScopedProcessor} instances to apply if included.
+     * @param output The {@code ClassOutput} to write the transformed classes to.
+     * @param log The {@code ProcessingLog} instance to record processing to.
+     * @param report The {@code PerformanceReport} to record timings to.
+     * @param recorder The {@code ClassRecorder} to check classes against before parsing them and to record
+     * processed classes in its processed manifest, if any.
+     */
+    ClassProcessorTask(
+            final ClassFileReader classFileReader,
+            final List<String> classNames,
+            final List<ScopedProcessor> processors,
+            final ClassOutput output,
+            final ProcessingLog log,
+            final PerformanceReport report,
+            @Nullable final ClassRecorder recorder) {
+        _classFileReader = classFileReader;
+        _classPool = classFileReader.getClassPool();
+        _classNames = classNames;
+        _processors = processors;
+        _output = output;
+        _log = log;
+        _report = report;
+        _recorder = recorder;
+        ProcessedClassManifest processedManifest = null;
+        if (recorder != null) {
+            processedManifest = recorder.getProcessedManifest();
+        }
+        _processedManifest = processedManifest;
+    }
+
+    @Override
+    public void run() {
+        final long start = _report.start();
+        try {
+            process();
+        } finally {
+            if (_report.isEnabled()) {
+                _report.recordClasses(_classNames, start, this::getClassFileSize);
+            }
+        }
+    }
+
+    /**
+     * Detach the classes the task parsed from the class pool once they were
+     * written or rejected, so that the pool does not retain every class of
+     * the execution. A detached class resolved again is parsed from its
+     * class file.
+     */
+    void detach() {
+        for (final CtClass ctClass : _loadedClasses) {
+            ctClass.detach();
+        }
+        _loadedClasses.clear();
+    }
+
+    private void process() {
+        // Resolve the classes which are candidates for any processor
+        final List<CtClass> ctClasses = new ArrayList<>(_classNames.size());
+        for (final String className : _classNames) {
+            final CtClass ctClass = load(className);
+            if (ctClass != null) {
+                ctClasses.add(ctClass);
+                _loadedClasses.add(ctClass);
+            }
+        }
+
+        // Apply each processor in order to the classes it accepts
+        final List<CtClass> processedClasses = applyProcessors(ctClasses);
+
+        // Finalize each modified class once after all processors and write it
+        for (final CtClass ctClass : processedClasses) {
+            final long phaseStart = _report.start();
+            ctClass.getClassFile().compact();
+            ctClass.rebuildClassFile();
+            _report.recordPhase(PerformanceReport.Phase.REBUILD, phaseStart);
+            _output.write(ctClass);
+            recordProcessed(ctClass.getName());
+        }
+        if (_processedManifest != null) {
+            for (final CtClass ctClass : ctClasses) {
+                if (!processedClasses.contains(ctClass)) {
+                    _processedManifest.recordUnmodified(ctClass.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Describe the class and processor the task is currently applying; for
+     * example, to report a slow or stuck task from another thread.
+     *
+     * @return The description of the task's progress.
+     */
+    String describeProgress() {
+        String description = _currentClassName;
+        if (description == null) {
+            description = String.join(", ", _classNames);
+        }
+        final String processorName = _currentProcessorName;
+        if (processorName != null) {
+            description += " with " + processorName;
+        }
+        return description;
+    }
+
+    /**
+     * Set the listener notified each time the task moves to another class,
+     * for example to time each class of a batch separately.
+     *
+     * @param progressListener The listener; notified on the thread running the task.
+     */
+    void setProgressListener(final Runnable progressListener) {
+        _progressListener = progressListener;
+    }
+
+    private void setCurrentClass(@Nullable final String className) {
+        // A class is timed across loading, accepting and processing by
+        // every processor; only moving to another class restarts the timer
+        if (!Objects.equals(className, _currentClassName)) {
+            _currentClassName = className;
+            _progressListener.run();
+        }
+    }
+
+    @Nullable
+    private CtClass load(final String className) {
+        setCurrentClass(className);
+        // Skip a class which is up to date or restored from the cache before parsing it
+        if (_recorder != null && !isRequired(className, _recorder)) {
+            releaseClassFile();
+            _log.debug("Class is up to date: " + className);
+            _report.recordRejection(PerformanceReport.Rejection.UP_TO_DATE, className);
+            return null;
+        }
+
+        // Reject the class from its raw class file if no processor hint matches
+        long phaseStart = _report.start();
+        final boolean isCandidate = isCandidate(className);
+        _report.recordPhase(PerformanceReport.Phase.ACCEPT, phaseStart);
+        if (!isCandidate) {
+            releaseClassFile();
+            _log.debug("Class does not match processor hints: " + className);
+            _report.recordRejection(PerformanceReport.Rejection.NOT_CANDIDATE, className);
+            return null;
+        }
+
+        // Reject the class from the processed manifest before parsing it
+        final boolean isProcessed = _processedManifest != null && isProcessed(className, _processedManifest);
+        releaseClassFile();
+        if (isProcessed) {
+            _log.info("Class already processed: " + className);
+            _report.recordRejection(PerformanceReport.Rejection.ALREADY_PROCESSED, className);
+            return null;
+        }
+
+        // Resolve and parse the class on the worker thread; the class pool
+        // only parses the class file once it is first accessed
+        phaseStart = _report.start();
+        final CtClass ctClass;
+        try {
+            ctClass = _classPool.get(className);
+        } catch (final NotFoundException e) {
+            throw new RuntimeException("Unable to load class: " + className, e);
+        }
+        ctClass.getClassFile2();
+        _report.recordPhase(PerformanceReport.Phase.PARSE, phaseStart);
+        return ctClass;
+    }
+
+    private boolean isRequired(final String className, final ClassRecorder recorder) {
+        if (!recorder.isChecking()) {
+            return true;
+        }
+        // Leave classes whose class file cannot be read to the class pool
+        final byte[] classFile = readClassFile(className);
+        if (classFile == null) {
+            return true;
+        }
+        return recorder.requiresProcessing(className, classFile, getDigest(className, classFile));
+    }
+
+    private boolean isProcessed(final String className, final ProcessedClassManifest processedManifest) {
+        final byte[] classFile = readClassFile(className);
+        if (classFile == null) {
+            return false;
+        }
+        final HashCode digest = getDigest(className, classFile);
+
+        // The class is only rejected if every processor in scope was applied
+        // to or rejected the class file
+        for (final ScopedProcessor processor : _processors) {
+            if (processor.isInScope(className)
+                    && !processedManifest.isProcessed(className, digest, processor.getName())
+                    && !processedManifest.isRejected(className, digest, processor.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private HashCode getDigest(final String className, final byte[] classFile) {
+        // The class file is hashed once for the recorder and the processed manifest
+        return _digests.computeIfAbsent(className, k -> ProcessedClassManifest.hash(classFile));
+    }
+
+    private void recordProcessed(final String className) {
+        if (_processedManifest != null) {
+            try {
+                _processedManifest.recordProcessed(className);
+            } catch (final IOException e) {
+                throw new RuntimeException("Unable to record processed class: " + className, e);
+            }
+        }
+    }
+
+    private List<CtClass> applyProcessors(final List<CtClass> ctClasses) {
+        final Set<CtClass> processedClasses = Sets.newIdentityHashSet();
+        for (final ScopedProcessor processor : _processors) {
+            _currentProcessorName = processor.getName();
+            final ClassProcessor instance = processor.acquire();
+            try {
+                processedClasses.addAll(applyProcessor(ctClasses, processor, instance));
+            } finally {
+                processor.release(instance);
+            }
+        }
+        return ctClasses.stream().filter(processedClasses::contains).collect(Collectors.toList());
+    }
+
+    private List<CtClass> applyProcessor(
+            final List<CtClass> ctClasses,
+            final ScopedProcessor processor,
+            final ClassProcessor instance) {
+        final List<CtClass> acceptedClasses = new ArrayList<>(ctClasses.size());
+        for (final CtClass ctClass : ctClasses) {
+            setCurrentClass(ctClass.getName());
+            final long phaseStart = _report.start();
+            final boolean isAccepted = accept(ctClass, processor, instance);
+            _report.recordPhase(PerformanceReport.Phase.ACCEPT, phaseStart);
+            if (isAccepted) {
+                acceptedClasses.add(ctClass);
+            }
+        }
+        if (acceptedClasses.isEmpty()) {
+            return acceptedClasses;
+        }
+
+        // Process the classes
+        final long phaseStart = _report.start();
+        for (final CtClass ctClass : acceptedClasses) {
+            _log.info("Processing class: " + ctClass.getName() + " with " + processor.getName());
+        }
+        final List<CtClass> modifiedClasses = processClasses(acceptedClasses, instance);
+
+        // Mark the modified classes as processed by this processor
+        for (final CtClass ctClass : modifiedClasses) {
+            markAsProcessed(ctClass, instance);
+        }
+        _report.recordPhase(PerformanceReport.Phase.PROCESS, phaseStart);
+        return modifiedClasses;
+    }
+
+    private List<CtClass> processClasses(final List<CtClass> acceptedClasses, final ClassProcessor instance) {
+        if (instance instanceof LifecycleClassProcessor) {
+            // The batch is timed as a whole from the start of the call unless
+            // it holds a single class, which is then still timed as such
+            if (acceptedClasses.size() == 1) {
+                setCurrentClass(acceptedClasses.get(0).getName());
+            } else {
+                setCurrentClass(null);
+            }
+            ((LifecycleClassProcessor) instance).processBatch(Collections.unmodifiableList(acceptedClasses));
+            return acceptedClasses;
+        }
+        if (instance instanceof ChangeReportingClassProcessor) {
+            final List<CtClass> modifiedClasses = new ArrayList<>(acceptedClasses.size());
+            for (final CtClass ctClass : acceptedClasses) {
+                setCurrentClass(ctClass.getName());
+                if (((ChangeReportingClassProcessor) instance).tryProcess(ctClass)) {
+                    modifiedClasses.add(ctClass);
+                } else {
+                    _log.debug("Class not modified: " + ctClass.getName());
+                    _report.recordRejection(PerformanceReport.Rejection.UNCHANGED, ctClass.getName());
+                    markAsRejected(ctClass, instance);
+                }
+            }
+            return modifiedClasses;
+        }
+        for (final CtClass ctClass : acceptedClasses) {
+            setCurrentClass(ctClass.getName());
+            instance.process(ctClass);
+        }
+        return acceptedClasses;
+    }
+
+    private long getClassFileSize(final String className) {
+        final Long size = _classFileSizes.get(className);
+        if (size != null) {
+            return size;
+        }
+        return _classFileReader.read(className).map(classFile -> (long) classFile.length).orElse(-1L);
+    }
+
+    @Nullable
+    private byte[] readClassFile(final String className) {
+        // The class file is read once for the checks made before parsing
+        if (!className.equals(_classFileName)) {
+            _classFileName = className;
+            _classFile = _classFileReader.read(className).orElse(null);
+            if (_classFile != null) {
+                _classFileSizes.put(className, (long) _classFile.length);
+            }
+        }
+        return _classFile;
+    }
+
+    private void releaseClassFile() {
+        _classFileName = null;
+        _classFile = null;
+    }
+
+    /* package private */ boolean isCandidate() {
+        return isCandidate(_classNames.get(0));
+    }
+
+    private boolean isCandidate(final String className) {
+        // Every class is a candidate for a processor without hints
+        final List<ClassFileScanner> scanners = new ArrayList<>(_processors.size());
+        for (final ScopedProcessor processor : _processors) {
+            final ClassFileScanner scanner = processor.getScanner();
+            if (scanner == null) {
+                return true;
+            }
+            scanners.add(scanner);
+        }
+
+        // Leave classes whose class file cannot be read to the class pool
+        final byte[] classFile = readClassFile(className);
+        if (classFile == null) {
+            return true;
+        }
+
+        for (final ClassFileScanner scanner : scanners) {
+            if (scanner.matches(classFile)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* package private */ boolean accept(
+            final CtClass ctClass,
+            final ScopedProcessor processor,
+            final ClassProcessor instance) {
+        // Assert that the classpath element is included
+        if (!processor.getIncludePredicate().test(ctClass.getName())) {
+            _log.debug("Class is not included: " + ctClass.getName());
+            _report.recordRejection(PerformanceReport.Rejection.NOT_INCLUDED, ctClass.getName());
+            return false;
+        }
+
+        // Assert that the classpath element is not excluded
+        if (processor.getExcludePredicate().test(ctClass.getName())) {
+            _log.debug("Class is excluded: " + ctClass.getName());
+            _report.recordRejection(PerformanceReport.Rejection.EXCLUDED, ctClass.getName());
+            return false;
+        }
+
+        // Assert that the class is not frozen
+        if (ctClass.isFrozen()) {
+            _log.debug("Class is frozen: " + ctClass.getName());
+            _report.recordRejection(PerformanceReport.Rejection.FROZEN, ctClass.getName());
+            return false;
+        }
+
+        // Assert that the processor accepts the classpath element; a
+        // rejection of the same class file recorded before is reused
+        if (isAlreadyRejected(ctClass, instance) || !instance.accept(ctClass)) {
+            _log.debug("Class is not accepted: " + ctClass.getName());
+            _report.recordRejection(PerformanceReport.Rejection.NOT_ACCEPTED, ctClass.getName());
+            markAsRejected(ctClass, instance);
+            return false;
+        }
+
+        // Assert that this processor has not already been run
+        if (isAlreadyProcessed(ctClass, instance)) {
+            _log.info("Class already processed: " + ctClass.getName());
+            _report.recordRejection(PerformanceReport.Rejection.ALREADY_PROCESSED, ctClass.getName());
+            return false;
+        }
+
+        return true;
+    }
+
+    /* package private */ void markAsProcessed(
+            final CtClass ctClass,
+            final ClassProcessor processor) {
+        if (_processedManifest != null) {
+            _processedManifest.markProcessed(
+                    ctClass.getName(),
+                    _digests.get(ctClass.getName()),
+                    processor.getClass().getName());
+            return;
+        }
+        final ClassFile classFile = ctClass.getClassFile();
+        AnnotationsAttribute annotationAttribute = null;
+        Annotation annotation = null;
+        for (final Object attributeObject : classFile.getAttributes()) {
+            if (attributeObject instanceof AnnotationsAttribute) {
+                annotationAttribute = (AnnotationsAttribute) attributeObject;
+                annotation = annotationAttribute.getAnnotation(PROCESSED_ANNOTATION_CLASS);
+                if (annotation != null) {
+                    break;
+                }
+            }
+        }
+        if (annotation == null) {
+            _log.debug("Creating annotation attribute on: " + ctClass.getName());
+            annotationAttribute = new AnnotationsAttribute(classFile.getConstPool(), AnnotationsAttribute.invisibleTag);
+            classFile.addAttribute(annotationAttribute);
+            _log.debug("Creating processed annotation on: " + ctClass.getName());
+            annotation = new Annotation(PROCESSED_ANNOTATION_CLASS, classFile.getConstPool());
+        }
+        MemberValue value = annotation.getMemberValue("value");
+        if (value == null) {
+            value = new ArrayMemberValue(classFile.getConstPool());
+            annotation.addMemberValue("value", value);
+        }
+        final ArrayMemberValue valueArray = (ArrayMemberValue) value;
+        final MemberValue[] existingProcessorValues = valueArray.getValue();
+        final MemberValue[] newProcessorValues;
+        if (existingProcessorValues != null) {
+            newProcessorValues = Arrays.copyOf(valueArray.getValue(), valueArray.getValue().length + 1);
+        } else {
+            newProcessorValues = new MemberValue[1];
+        }
+        newProcessorValues[newProcessorValues.length - 1] = new StringMemberValue(
+                processor.getClass().getName(),
+                classFile.getConstPool());
+        valueArray.setValue(newProcessorValues);
+        _log.debug("New processed annotation value on: " + ctClass.getName() + " = " + valueArray);
+        annotationAttribute.addAnnotation(annotation);
+    }
+
+    private void markAsRejected(final CtClass ctClass, final ClassProcessor processor) {
+        if (_processedManifest != null) {
+            _processedManifest.markRejected(
+                    ctClass.getName(),
+                    _digests.get(ctClass.getName()),
+                    processor.getClass().getName());
+        }
+    }
+
+    private boolean isAlreadyRejected(final CtClass ctClass, final ClassProcessor processor) {
+        final HashCode digest = _digests.get(ctClass.getName());
+        return _processedManifest != null
+                && digest != null
+                && _processedManifest.isRejected(ctClass.getName(), digest, processor.getClass().getName());
+    }
+
+    /* package private */ boolean isAlreadyProcessed(
+            final CtClass ctClass,
+            final ClassProcessor processor) {
+        final HashCode digest = _digests.get(ctClass.getName());
+        if (_processedManifest != null
+                && digest != null
+                && _processedManifest.isProcessed(ctClass.getName(), digest, processor.getClass().getName())) {
+            return true;
+        }
+
+        // Classes processed before the manifest was used carry the annotation
+        final ClassFile classFile = ctClass.getClassFile();
+        AnnotationsAttribute annotationAttribute = null;
+        for (final Object attributeObject : classFile.getAttributes()) {
+            if (attributeObject instanceof AnnotationsAttribute) {
+                annotationAttribute = (AnnotationsAttribute) attributeObject;
+                final Annotation annotation = annotationAttribute.getAnnotation(PROCESSED_ANNOTATION_CLASS);
+                if (annotation != null) {
+                    final MemberValue value = annotation.getMemberValue("value");
+                    _log.debug("Existing processed annotation on: " + ctClass.getName() + " = " + value);
+                    final ArrayMemberValue valueArray = (ArrayMemberValue) value;
+                    for (final MemberValue processorValue : valueArray.getValue()) {
+                        final StringMemberValue processorValueString = (StringMemberValue) processorValue;
+                        if (processor.getClass().getName().equals(processorValueString.getValue())) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        _log.debug("No annotation attribute or processed annotation found on: " + ctClass.getName());
+        return false;
+    }
+
+    private final ClassFileReader _classFileReader;
+    private final ClassPool _classPool;
+    private final List<String> _classNames;
+    private final List<ScopedProcessor> _processors;
+    private final ClassOutput _output;
+    private final ProcessingLog _log;
+    private final PerformanceReport _report;
+    @Nullable
+    private final ProcessedClassManifest _processedManifest;
+    @Nullable
+    private final ClassRecorder _recorder;
+    private final Map<String, HashCode> _digests = Maps.newHashMap();
+    private final Map<String, Long> _classFileSizes = Maps.newHashMap();
+    private final List<CtClass> _loadedClasses = new ArrayList<>();
+    @Nullable
+    private String _classFileName;
+    @Nullable
+    private byte[] _classFile;
+    @Nullable
+    private volatile String _currentClassName;
+    @Nullable
+    private volatile String _currentProcessorName;
+    private volatile Runnable _progressListener = () -> { };
+
+    private static final String PROCESSED_ANNOTATION_CLASS = "com.arpnetworking.commons.maven.javassist.Processed";
+}
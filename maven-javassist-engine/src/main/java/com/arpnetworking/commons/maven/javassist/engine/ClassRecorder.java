@@ -0,0 +1,327 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Records the classes of a class directory in the incremental manifest, the
+ * class cache and the processed manifest, each of which is optional. The
+ * discovery filter skips classes which the build context reports unchanged
+ * since they were last processed without reading them. The task of each
+ * other class checks it on its worker, from the class file it already read,
+ * skipping classes whose digest matches the manifest and restoring classes
+ * found in the cache instead of processing them; processed classes are
+ * recorded once their task completes.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassRecorder {
+
+    /**
+     * Constructor.
+     *
+     * @param manifest The incremental {@code ClassManifest}, if any.
+     * @param cache The {@code ClassCache}, if any.
+     * @param processedManifest The {@code ProcessedClassManifest}, if any.
+     * @param output The {@code DirectoryClassOutput} to restore cached classes to.
+     * @param outputDirectory The directory the processed classes are written to.
+     * @param context The {@code BuildChanges} instance.
+     * @param log The {@code ProcessingLog} instance to record restored classes to.
+     */
+    ClassRecorder(
+            @Nullable final ClassManifest manifest,
+            @Nullable final ClassCache cache,
+            @Nullable final ProcessedClassManifest processedManifest,
+            final DirectoryClassOutput output,
+            final Path outputDirectory,
+            final BuildChanges context,
+            final ProcessingLog log) {
+        _manifest = manifest;
+        _cache = cache;
+        _processedManifest = processedManifest;
+        _output = output;
+        _outputDirectory = outputDirectory;
+        _context = context;
+        _log = log;
+    }
+
+    /**
+     * Load the incremental manifest. Classes are recorded with the names of
+     * the processors and a digest of the version of each processor and the
+     * configuration applied so that a changed processor or configuration
+     * processes all classes again.
+     *
+     * @param file The manifest file.
+     * @param classProcessors The {@code ScopedProcessor} instances applied.
+     * @param configurationDigest The digest of the configuration applied.
+     * @return The {@code ClassManifest} instance.
+     * @throws ProcessingException if the manifest cannot be loaded.
+     */
+    static ClassManifest loadManifest(
+            final Path file,
+            final List<ScopedProcessor> classProcessors,
+            final String configurationDigest)
+            throws ProcessingException {
+        try {
+            final String processorNames = classProcessors.stream()
+                    .map(ScopedProcessor::getName)
+                    .collect(Collectors.joining(","));
+            final String versionDigest = Hashing.sha256()
+                    .hashString(createProcessorKey(classProcessors, configurationDigest), StandardCharsets.UTF_8)
+                    .toString()
+                    .substring(0, VERSION_DIGEST_LENGTH);
+            return ClassManifest.load(file, processorNames + "@" + versionDigest);
+        } catch (final IOException e) {
+            throw new ProcessingException("Unable to load class manifest: " + file, e);
+        }
+    }
+
+    /**
+     * Open the class cache. Cache entries are keyed by the processors, the
+     * version of each and the configuration applied.
+     *
+     * @param directory The cache directory.
+     * @param classProcessors The {@code ScopedProcessor} instances applied.
+     * @param configurationDigest The digest of the configuration applied.
+     * @param maximumSize The maximum size of the cache; for example, "1G".
+     * @return The {@code ClassCache} instance.
+     * @throws ProcessingException if the cache cannot be created.
+     */
+    static ClassCache createCache(
+            final Path directory,
+            final List<ScopedProcessor> classProcessors,
+            final String configurationDigest,
+            final String maximumSize)
+            throws ProcessingException {
+        try {
+            return new ClassCache(
+                    directory,
+                    createProcessorKey(classProcessors, configurationDigest),
+                    ClassCache.parseSize(maximumSize));
+        } catch (final IllegalArgumentException e) {
+            throw new ProcessingException("Invalid cacheMaximumSize: " + e.getMessage(), e);
+        } catch (final IOException e) {
+            throw new ProcessingException("Unable to create class cache", e);
+        }
+    }
+
+    /**
+     * Load the processed manifest.
+     *
+     * @param file The manifest file.
+     * @param outputDirectory The directory the processed classes are written to.
+     * @param processors The names of the processors applied.
+     * @return The {@code ProcessedClassManifest} instance.
+     * @throws ProcessingException if the manifest cannot be loaded.
+     */
+    static ProcessedClassManifest loadProcessedManifest(
+            final Path file,
+            final Path outputDirectory,
+            final List<String> processors)
+            throws ProcessingException {
+        try {
+            return ProcessedClassManifest.load(file, outputDirectory, processors);
+        } catch (final IOException e) {
+            throw new ProcessingException("Unable to load processed manifest: " + file, e);
+        }
+    }
+
+    /**
+     * Create the filter of discovered classes which need to be processed.
+     *
+     * @return The discovery filter.
+     */
+    BiPredicate<String, Path> createDiscoveryFilter() {
+        return createStaleFilter();
+    }
+
+    /**
+     * Return whether classes are checked against the manifest or the cache
+     * before they are parsed, which requires the digest of each class file.
+     *
+     * @return True if and only if classes are checked before they are parsed.
+     */
+    boolean isChecking() {
+        return _manifest != null || _cache != null;
+    }
+
+    /**
+     * Determine on the worker whether a class needs to be processed. A class
+     * whose digest matches the manifest is skipped and a class found in the
+     * cache is restored and recorded instead.
+     *
+     * @param className The name of the class.
+     * @param classFile The unprocessed class file.
+     * @param digest The digest of the unprocessed class file.
+     * @return True if and only if the class needs to be processed.
+     */
+    boolean requiresProcessing(final String className, final byte[] classFile, final HashCode digest) {
+        if (_manifest != null && !_manifest.requiresProcessing(className, digest)) {
+            return false;
+        }
+        final ClassCache cache = _cache;
+        if (cache == null) {
+            return true;
+        }
+        try {
+            if (cache.restore(className, classFile, digest, _output)) {
+                _log.debug("Class restored from cache: " + className);
+                if (_manifest != null) {
+                    _manifest.recordProcessed(
+                            className,
+                            DirectoryClassOutput.getClassFile(_outputDirectory, className));
+                }
+                if (_processedManifest != null) {
+                    _processedManifest.recordRestored(className);
+                }
+                return false;
+            }
+            return true;
+        } catch (final IOException e) {
+            throw new CompletionException("Unable to restore class from cache: " + className, e);
+        }
+    }
+
+    /**
+     * Wrap a task so that its classes are recorded once it completes.
+     *
+     * @param task The task processing the classes.
+     * @param classNames The names of the classes processed by the task.
+     * @return The wrapped task.
+     */
+    Runnable recordAfter(final Runnable task, final List<String> classNames) {
+        if (_manifest == null && _cache == null) {
+            return task;
+        }
+        return () -> {
+            task.run();
+            for (final String className : classNames) {
+                record(className);
+            }
+        };
+    }
+
+    /**
+     * Return the processed manifest the tasks record processed classes in.
+     *
+     * @return The {@code ProcessedClassManifest} instance, if any.
+     */
+    @Nullable
+    ProcessedClassManifest getProcessedManifest() {
+        return _processedManifest;
+    }
+
+    /**
+     * Save the processed manifest. Classes already written are recorded
+     * even if processing failed.
+     *
+     * @throws ProcessingException if the manifest cannot be saved.
+     */
+    void saveProcessedManifest() throws ProcessingException {
+        if (_processedManifest != null) {
+            _processedManifest.prune();
+            try {
+                _processedManifest.save();
+            } catch (final IOException e) {
+                throw new ProcessingException("Unable to save processed manifest", e);
+            }
+        }
+    }
+
+    /**
+     * Save the incremental manifest and trim the cache once processing
+     * succeeded.
+     *
+     * @throws ProcessingException if the manifest cannot be saved or the cache trimmed.
+     */
+    void save() throws ProcessingException {
+        if (_manifest != null) {
+            _manifest.prune();
+            try {
+                _manifest.save();
+            } catch (final IOException e) {
+                throw new ProcessingException("Unable to save class manifest", e);
+            }
+        }
+        if (_cache != null) {
+            try {
+                _cache.trim();
+            } catch (final IOException e) {
+                throw new ProcessingException("Unable to trim class cache", e);
+            }
+        }
+    }
+
+    /* package private */ BiPredicate<String, Path> createStaleFilter() {
+        final ClassManifest manifest = _manifest;
+        if (manifest == null) {
+            return (className, file) -> true;
+        }
+        final boolean isIncrementalContext = _context.isIncremental();
+        return (className, file) -> !manifest.isUnchanged(
+                className,
+                !isIncrementalContext || _context.hasDelta(file));
+    }
+
+    /* package private */ static String createProcessorKey(
+            final List<ScopedProcessor> classProcessors,
+            final String configurationDigest)
+            throws IOException {
+        final StringBuilder processorKey = new StringBuilder();
+        for (final ScopedProcessor classProcessor : classProcessors) {
+            processorKey.append(ClassCache.createProcessorKey(classProcessor.getProcessor().getClass())).append(',');
+        }
+        return processorKey.append(configurationDigest).toString();
+    }
+
+    private void record(final String className) {
+        final Path classFile = DirectoryClassOutput.getClassFile(_outputDirectory, className);
+        try {
+            if (_manifest != null) {
+                _manifest.recordProcessed(className, classFile);
+            }
+            if (_cache != null) {
+                _cache.store(className, classFile);
+            }
+        } catch (final IOException e) {
+            throw new CompletionException("Unable to record processed class: " + className, e);
+        }
+    }
+
+    @Nullable
+    private final ClassManifest _manifest;
+    @Nullable
+    private final ClassCache _cache;
+    @Nullable
+    private final ProcessedClassManifest _processedManifest;
+    private final DirectoryClassOutput _output;
+    private final Path _outputDirectory;
+    private final BuildChanges _context;
+    private final ProcessingLog _log;
+
+    private static final int VERSION_DIGEST_LENGTH = 16;
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.LifecycleClassProcessor;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Submits discovered classes to the workers in batches as they are found.
+ * The number of classes pending processing is bounded to keep memory flat
+ * and submission stops at the first failure unless failures are aggregated.
+ * The prefetched class file of each class is released once its task ran.
+ * Completion is tracked by counting the batches in flight rather than by
+ * keeping a future per batch, so that memory does not grow with the number
+ * of classes.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassSubmitter {
+
+    /**
+     * Constructor.
+     *
+     * @param executorService The {@code ExecutorService} to process the classes on.
+     * @param taskFactory The factory of the task processing the named classes.
+     * @param isBatchProcessing Whether the classes of a batch are processed by a single task.
+     * @param failures The {@code TaskFailures} of the execution.
+     */
+    ClassSubmitter(
+            final ExecutorService executorService,
+            final Function<List<String>, Runnable> taskFactory,
+            final boolean isBatchProcessing,
+            final TaskFailures failures) {
+        _executorService = executorService;
+        _taskFactory = taskFactory;
+        _isBatchProcessing = isBatchProcessing;
+        _failures = failures;
+        _batcher = new ClassBatcher<>(getMaximumBatchSize(executorService, isBatchProcessing), this::submit);
+    }
+
+    /**
+     * Add a discovered class.
+     *
+     * @param className The name of the class.
+     * @param classPath The {@code PrefetchingClassPath} the class was found in.
+     */
+    void add(final String className, final PrefetchingClassPath classPath) {
+        _batcher.add(className, new AbstractMap.SimpleImmutableEntry<>(className, classPath));
+    }
+
+    /**
+     * Submit the remaining classes once discovery completed.
+     *
+     * @return The {@code CompletableFuture} completed once all classes were processed.
+     */
+    CompletableFuture<Void> complete() {
+        _batcher.flush();
+        // Discovery no longer holds the completion open
+        completeBatch();
+        return _completion;
+    }
+
+    /* package private */ static List<Runnable> createBatchTasks(
+            final List<Map.Entry<String, PrefetchingClassPath>> batch,
+            final Function<List<String>, Runnable> taskFactory,
+            final boolean isBatchProcessing) {
+        if (isBatchProcessing) {
+            // The classes of the batch are processed by a single task
+            final List<String> classNames = batch.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+            final Runnable task = taskFactory.apply(classNames);
+            return Collections.singletonList(() -> {
+                try {
+                    task.run();
+                } finally {
+                    batch.forEach(entry -> entry.getValue().release(entry.getKey()));
+                }
+            });
+        }
+        final List<Runnable> tasks = new ArrayList<>(batch.size());
+        for (final Map.Entry<String, PrefetchingClassPath> entry : batch) {
+            tasks.add(entry.getValue().releaseAfter(
+                    entry.getKey(),
+                    taskFactory.apply(Collections.singletonList(entry.getKey()))));
+        }
+        return tasks;
+    }
+
+    /* package private */ static CompletableFuture<?> submitBatch(
+            final List<Runnable> batch,
+            final int classCount,
+            final ExecutorService executorService,
+            final Semaphore pendingClasses) {
+        try {
+            pendingClasses.acquire(classCount);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException("Class discovery interrupted", e);
+        }
+        return CompletableFuture.runAsync(new ClassBatch(batch), executorService)
+                .whenComplete((result, throwable) -> pendingClasses.release(classCount));
+    }
+
+    /* package private */ static int getMaximumBatchSize(
+            final ExecutorService executorService,
+            final boolean isBatchProcessing) {
+        // Only a work stealing pool can rebalance the classes of a batch;
+        // elsewhere each class is submitted on its own unless a processor
+        // processes classes in batches
+        if (isBatchProcessing || executorService instanceof ForkJoinPool) {
+            return MAXIMUM_BATCH_SIZE;
+        }
+        return 1;
+    }
+
+    /* package private */ static boolean isBatchProcessing(final List<ScopedProcessor> classProcessors) {
+        for (final ScopedProcessor classProcessor : classProcessors) {
+            if (classProcessor.getProcessor() instanceof LifecycleClassProcessor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void submit(final List<Map.Entry<String, PrefetchingClassPath>> batch) {
+        _failures.checkCancelled();
+        final CompletableFuture<?> future = submitBatch(
+                createBatchTasks(batch, _taskFactory, _isBatchProcessing),
+                batch.size(),
+                _executorService,
+                _pendingClasses);
+        _pendingBatches.incrementAndGet();
+        future.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                _firstFailure.compareAndSet(null, throwable);
+            }
+            completeBatch();
+        });
+    }
+
+    private void completeBatch() {
+        if (_pendingBatches.decrementAndGet() == 0) {
+            final Throwable failure = _firstFailure.get();
+            if (failure != null) {
+                _completion.completeExceptionally(failure);
+            } else {
+                _completion.complete(null);
+            }
+        }
+    }
+
+    private final ExecutorService _executorService;
+    private final Function<List<String>, Runnable> _taskFactory;
+    private final boolean _isBatchProcessing;
+    private final TaskFailures _failures;
+    private final ClassBatcher<Map.Entry<String, PrefetchingClassPath>> _batcher;
+    private final Semaphore _pendingClasses = new Semaphore(MAXIMUM_PENDING_CLASSES);
+    // Discovery holds one pending batch until it completes
+    private final AtomicInteger _pendingBatches = new AtomicInteger(1);
+    private final AtomicReference<Throwable> _firstFailure = new AtomicReference<>();
+    private final CompletableFuture<Void> _completion = new CompletableFuture<>();
+
+    /* package private */ static final int MAXIMUM_PENDING_CLASSES = 1024;
+    private static final int MAXIMUM_BATCH_SIZE = 64;
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ProcessingContext;
+import javassist.ClassPool;
+
+import java.nio.file.Path;
+
+/**
+ * The {@code ProcessingContext} of a plugin execution.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class DefaultProcessingContext implements ProcessingContext {
+
+    /**
+     * Constructor.
+     *
+     * @param classPool The {@code ClassPool} classes are resolved from.
+     * @param outputDirectory The output directory of the goal.
+     * @param threadCount The maximum number of classes processed concurrently.
+     */
+    DefaultProcessingContext(final ClassPool classPool, final Path outputDirectory, final int threadCount) {
+        _classPool = classPool;
+        _outputDirectory = outputDirectory;
+        _threadCount = threadCount;
+    }
+
+    @Override
+    public ClassPool getClassPool() {
+        return _classPool;
+    }
+
+    @Override
+    public Path getOutputDirectory() {
+        return _outputDirectory;
+    }
+
+    @Override
+    public int getThreadCount() {
+        return _threadCount;
+    }
+
+    private final ClassPool _classPool;
+    private final Path _outputDirectory;
+    private final int _threadCount;
+}
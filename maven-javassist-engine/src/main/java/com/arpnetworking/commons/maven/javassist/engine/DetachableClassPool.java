@@ -0,0 +1,63 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Hashtable;
+
+/**
+ * {@code ClassPool} from which classes may be detached while other threads
+ * resolve classes. Javassist compresses the cached classes every so often
+ * while a class file is parsed, enumerating the cache without holding its
+ * lock; a class removed from the cache meanwhile is enumerated as
+ * {@code null} and fails the parse. The cache of this pool enumerates a copy
+ * of its classes instead.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ class DetachableClassPool extends ClassPool {
+
+    /**
+     * Constructor.
+     *
+     * @param parent The parent {@code ClassPool}.
+     */
+    @SuppressWarnings("unchecked")
+    DetachableClassPool(final ClassPool parent) {
+        super(parent);
+        final ClassTable classTable = new ClassTable();
+        classTable.putAll(classes);
+        classes = classTable;
+    }
+
+    /**
+     * Cache of classes enumerating a copy of its classes.
+     */
+    /* package private */ static final class ClassTable extends Hashtable<String, CtClass> {
+
+        @Override
+        public synchronized Enumeration<CtClass> elements() {
+            return Collections.enumeration(new ArrayList<>(values()));
+        }
+
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.CannotCompileException;
+import javassist.CtClass;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Writes transformed classes to a class directory and refreshes them in the
+ * {@code BuildChanges}. A class whose bytecode is identical to the existing
+ * class file is not written so that its modification time and any work
+ * downstream keyed on it are preserved. Changed classes are written to a
+ * temporary file which is moved into place so that concurrent readers never
+ * observe a partially written class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class DirectoryClassOutput implements ClassOutput {
+
+    /**
+     * Constructor.
+     *
+     * @param context The {@code BuildChanges} instance.
+     * @param outputDirectory The output directory to write the transformed class to.
+     * @param report The {@code PerformanceReport} to record timings to.
+     */
+    DirectoryClassOutput(final BuildChanges context, final Path outputDirectory, final PerformanceReport report) {
+        _context = context;
+        _outputDirectory = outputDirectory;
+        _report = report;
+    }
+
+    @Override
+    public void write(final CtClass ctClass) {
+        try {
+            write(ctClass.getName(), ctClass.toBytecode());
+        } catch (final IOException | CannotCompileException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Write the bytecode of a class; for example, as restored from a
+     * {@link ClassCache}.
+     *
+     * @param className The name of the class.
+     * @param bytecode The bytecode of the class.
+     * @throws IOException if the class file cannot be written.
+     */
+    void write(final String className, final byte[] bytecode) throws IOException {
+        final long start = _report.start();
+        // Translate the class name to a file path
+        final Path classFile = getClassFile(_outputDirectory, className);
+        final Path classDirectory = classFile.getParent();
+        if (classDirectory == null) {
+            throw new IllegalStateException("Class file has no parent directory: " + classFile);
+        }
+
+        // Leave the class file untouched if the bytecode is unchanged
+        if (isUnchanged(classFile, bytecode)) {
+            _report.recordPhase(PerformanceReport.Phase.WRITE, start);
+            return;
+        }
+
+        // Ensure the containing directory structure exists
+        Files.createDirectories(classDirectory);
+
+        // Write the class to a temporary file and move it into place
+        final Path temporaryFile = classFile.resolveSibling(
+                classFile.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        Files.write(temporaryFile, bytecode);
+        Files.move(temporaryFile, classFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        _report.recordPhase(PerformanceReport.Phase.WRITE, start);
+
+        // Update the build context
+        final long refreshStart = _report.start();
+        _context.refresh(classFile);
+        _report.recordPhase(PerformanceReport.Phase.REFRESH, refreshStart);
+    }
+
+    /**
+     * Return the class file of a class in a class directory.
+     *
+     * @param directory The class directory.
+     * @param className The name of the class.
+     * @return The class file.
+     */
+    static Path getClassFile(final Path directory, final String className) {
+        return directory.resolve(className.replace('.', '/') + ".class");
+    }
+
+    /* package private */ static boolean isUnchanged(final Path classFile, final byte[] bytecode) throws IOException {
+        return Files.isRegularFile(classFile)
+                && Files.size(classFile) == bytecode.length
+                && Arrays.equals(Files.readAllBytes(classFile), bytecode);
+    }
+
+    private final BuildChanges _context;
+    private final Path _outputDirectory;
+    private final PerformanceReport _report;
+}
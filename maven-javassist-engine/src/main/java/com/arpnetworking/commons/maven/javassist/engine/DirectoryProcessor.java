@@ -0,0 +1,158 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Processes the classes of the class directories of a goal. Discovery runs
+ * on the calling thread and hands the classes which pass the discovery
+ * filter to the workers either in batches as they are found or, when
+ * ordered by hierarchy, once all classes are discovered.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class DirectoryProcessor {
+
+    /**
+     * Constructor.
+     *
+     * @param classFileReader The {@code ClassFileReader} to add the class directories to.
+     * @param classpathElements The class directories to process.
+     * @param discoveryFilter The filter of discovered classes which need processing.
+     * @param report The {@code PerformanceReport} to record timings to.
+     * @param log The {@code ProcessingLog} instance.
+     */
+    DirectoryProcessor(
+            final ClassFileReader classFileReader,
+            final List<String> classpathElements,
+            final BiPredicate<String, Path> discoveryFilter,
+            final PerformanceReport report,
+            final ProcessingLog log) {
+        _classFileReader = classFileReader;
+        _classpathElements = classpathElements;
+        _discoveryFilter = discoveryFilter;
+        _report = report;
+        _log = log;
+    }
+
+    /**
+     * Submit the classes as they are discovered. Class files which pass the
+     * discovery filter are read ahead in the background so workers rarely
+     * block on I/O when resolving them.
+     *
+     * @param submitter The {@code ClassSubmitter} to submit the classes to.
+     * @return The {@code CompletableFuture} completed once all classes were processed.
+     */
+    CompletableFuture<Void> process(final ClassSubmitter submitter) {
+        final long discoveryStart = _report.start();
+        discover(true, (classPath, className) -> submitter.add(className, classPath));
+        final CompletableFuture<Void> completion = submitter.complete();
+        _report.recordPhase(PerformanceReport.Phase.DISCOVERY, discoveryStart);
+        return completion;
+    }
+
+    /**
+     * Schedule each class once the classes it directly extends or
+     * implements were processed. All classes are discovered before any is
+     * processed as a class may be discovered after its subtypes; class
+     * files are not read ahead as they would all be held until processed.
+     *
+     * @param taskFactory The factory of the task processing the named classes.
+     * @param releaser Releases a class once it and the classes directly extending or implementing it were processed.
+     * @param executorService The {@code ExecutorService} to process the classes on.
+     * @return The {@code CompletableFuture} completed once all classes were processed.
+     */
+    CompletableFuture<Void> processByHierarchy(
+            final Function<List<String>, Runnable> taskFactory,
+            final Consumer<String> releaser,
+            final ExecutorService executorService) {
+        final HierarchyScheduler scheduler = new HierarchyScheduler(
+                className -> HierarchyScheduler.readSupertypes(_classFileReader, className),
+                releaser,
+                executorService);
+        final long discoveryStart = _report.start();
+        discover(
+                false,
+                (classPath, className) -> scheduler.add(
+                        className,
+                        taskFactory.apply(Collections.singletonList(className))));
+        _report.recordPhase(PerformanceReport.Phase.DISCOVERY, discoveryStart);
+        return scheduler.schedule();
+    }
+
+    /* package private */ static void findClasses(
+            final ClassDirectoryWalker.Walk walk,
+            final BiPredicate<String, Path> discoveryFilter,
+            final Consumer<String> classNameConsumer) {
+        walk.forEach((className, file) -> {
+            if (discoveryFilter.test(className, file)) {
+                classNameConsumer.accept(className);
+            }
+        });
+    }
+
+    private void discover(
+            final boolean isPrefetching,
+            final BiConsumer<PrefetchingClassPath, String> classConsumer) {
+        final ExecutorService prefetchExecutorService = ProcessingExecutors.createPrefetchExecutorService();
+        final ExecutorService discoveryExecutorService = ProcessingExecutors.createDiscoveryExecutorService();
+        try {
+            // Start walking every class directory so that they are listed
+            // concurrently; classes are consumed in classpath order
+            final ClassDirectoryWalker walker = new ClassDirectoryWalker(discoveryExecutorService);
+            final List<ClassDirectoryWalker.Walk> walks = new ArrayList<>(_classpathElements.size());
+            for (final String classpathElement : _classpathElements) {
+                _log.debug(String.format("Searching classpath element: %s", classpathElement));
+                walks.add(walker.start(Paths.get(classpathElement)));
+            }
+            for (int i = 0; i < _classpathElements.size(); ++i) {
+                final PrefetchingClassPath classPath = new PrefetchingClassPath(
+                        Paths.get(_classpathElements.get(i)),
+                        prefetchExecutorService);
+                _classFileReader.insertClassPath(classPath);
+                BiPredicate<String, Path> classFilter = _discoveryFilter;
+                if (isPrefetching) {
+                    classFilter = classFilter.and(classPath.createPrefetchFilter());
+                }
+                findClasses(
+                        walks.get(i),
+                        classFilter,
+                        className -> classConsumer.accept(classPath, className));
+            }
+        } finally {
+            // Reads already requested still complete as workers wait on them
+            prefetchExecutorService.shutdown();
+            discoveryExecutorService.shutdownNow();
+        }
+    }
+
+    private final ClassFileReader _classFileReader;
+    private final List<String> _classpathElements;
+    private final BiPredicate<String, Path> _discoveryFilter;
+    private final PerformanceReport _report;
+    private final ProcessingLog _log;
+}
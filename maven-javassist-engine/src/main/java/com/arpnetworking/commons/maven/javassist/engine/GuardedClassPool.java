@@ -0,0 +1,147 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.collect.Sets;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@code ClassPool} for processing ordered by hierarchy which only lets the
+ * task of a class modify it. The subtypes of a class are processed
+ * concurrently once its own task wrote it, so a change made to it from the
+ * task of a subtype would race with the other subtypes and never be written.
+ * Every class the pool resolves is therefore frozen unless it is resolved by
+ * its own task, and a class is frozen once its own task completed; a
+ * processor which modifies any other class fails instead. The pool records
+ * the frozen classes it hands out to each task so that such a failure is
+ * reported as a modification of another class. Classes a processor creates
+ * in the pool are not frozen. Processors declaring that they modify
+ * supertypes are rejected before any class is processed.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class GuardedClassPool extends DetachableClassPool {
+
+    /**
+     * Constructor.
+     *
+     * @param parent The parent {@code ClassPool}.
+     */
+    GuardedClassPool(final ClassPool parent) {
+        super(parent);
+    }
+
+    /**
+     * Wrap the task of classes so that only it may modify them while it runs.
+     *
+     * @param classNames The names of the classes processed by the task.
+     * @param task The task processing the classes.
+     * @return The wrapped task.
+     */
+    Runnable guard(final List<String> classNames, final Runnable task) {
+        return () -> {
+            // A class resolved by another task before its own was frozen
+            for (final String className : classNames) {
+                final CtClass ctClass = getCached(className);
+                if (ctClass != null && ctClass.isFrozen()) {
+                    ctClass.defrost();
+                }
+            }
+            _ownedClassNames.set(classNames);
+            try {
+                task.run();
+                // CHECKSTYLE.OFF: IllegalCatch
+            } catch (final RuntimeException e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                // Javassist fails the modification of a frozen class with a
+                // plain runtime exception
+                final Set<String> frozenClassNames = _frozenClassNames.get();
+                if (e.getClass() == RuntimeException.class
+                        && !frozenClassNames.isEmpty()
+                        && !isAnyFrozen(classNames)) {
+                    throw new IllegalStateException(
+                            "Processing " + String.join(", ", classNames) + " modified a class it was not given, one of "
+                                    + String.join(", ", frozenClassNames) + "; when ordered by hierarchy a "
+                                    + "processor may only modify the class it is given",
+                            e);
+                }
+                throw e;
+            } finally {
+                _ownedClassNames.remove();
+                _frozenClassNames.remove();
+                for (final String className : classNames) {
+                    final CtClass ctClass = getCached(className);
+                    if (ctClass != null) {
+                        ctClass.freeze();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Detach a class from the pool; for example, once the classes which
+     * extend or implement it were processed.
+     *
+     * @param className The name of the class.
+     */
+    void detach(final String className) {
+        removeCached(className);
+    }
+
+    @Override
+    protected synchronized CtClass get0(final String className, final boolean useCache) throws NotFoundException {
+        // Ownership is checked as the class is handed out to a task
+        final CtClass ctClass = super.get0(className, useCache);
+        final List<String> ownedClassNames = _ownedClassNames.get();
+        if (ctClass != null
+                && ctClass.isFrozen()
+                && !ownedClassNames.isEmpty()
+                && !ownedClassNames.contains(className)) {
+            _frozenClassNames.get().add(className);
+        }
+        return ctClass;
+    }
+
+    @Override
+    protected void cacheCtClass(final String className, final CtClass ctClass, final boolean isDynamic) {
+        if (!isDynamic && !_ownedClassNames.get().contains(className)) {
+            ctClass.freeze();
+        }
+        super.cacheCtClass(className, ctClass, isDynamic);
+    }
+
+    private boolean isAnyFrozen(final List<String> classNames) {
+        // The classes of the task are not frozen while it runs, so a frozen
+        // class it failed to modify was another one
+        for (final String className : classNames) {
+            final CtClass ctClass = getCached(className);
+            if (ctClass != null && ctClass.isFrozen()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final ThreadLocal<List<String>> _ownedClassNames = ThreadLocal.withInitial(Collections::emptyList);
+    private final ThreadLocal<Set<String>> _frozenClassNames = ThreadLocal.withInitial(Sets::newTreeSet);
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Schedules class processing tasks so that a class is processed only after
+ * the tasks of its direct superclass and interfaces among the scheduled
+ * classes have completed; supertypes outside the scheduled classes are not
+ * waited on. Classes in independent subtrees of the hierarchy are processed
+ * concurrently, as are the subtypes of a common supertype once it completed;
+ * a processor may therefore inspect the supertypes of the class it processes
+ * but not modify them, which the {@link GuardedClassPool} enforces. The
+ * supertypes of each class are read from its class file on the executor as
+ * classes are added, and the hierarchy is built once all classes have been
+ * added. A class is released once its task and those of its direct subtypes
+ * completed, so that it is only retained while its subtypes may inspect it.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class HierarchyScheduler {
+
+    /**
+     * Constructor.
+     *
+     * @param supertypeReader Reads the dotted names of the direct supertypes of a class.
+     * @param executor The {@code Executor} to read supertypes and run tasks on.
+     */
+    HierarchyScheduler(final Function<String, List<String>> supertypeReader, final Executor executor) {
+        this(supertypeReader, className -> { }, executor);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param supertypeReader Reads the dotted names of the direct supertypes of a class.
+     * @param releaser Releases a class once its task and those of its direct subtypes completed.
+     * @param executor The {@code Executor} to read supertypes and run tasks on.
+     */
+    HierarchyScheduler(
+            final Function<String, List<String>> supertypeReader,
+            final Consumer<String> releaser,
+            final Executor executor) {
+        _supertypeReader = supertypeReader;
+        _releaser = releaser;
+        _executor = executor;
+    }
+
+    /**
+     * Add the task for a class.
+     *
+     * @param className The name of the class.
+     * @param task The task processing the class.
+     */
+    void add(final String className, final Runnable task) {
+        _nodes.put(className, new Node(
+                className,
+                task,
+                CompletableFuture.supplyAsync(() -> _supertypeReader.apply(className), _executor)));
+    }
+
+    /**
+     * Build the hierarchy of the added classes and start running the tasks
+     * of those without supertypes among them. Each task which completes
+     * starts the tasks of its subtypes whose supertypes have all completed.
+     *
+     * @return {@code CompletableFuture} completed when all tasks completed or exceptionally with the first failure.
+     */
+    CompletableFuture<Void> schedule() {
+        for (final Node node : _nodes.values()) {
+            for (final String supertype : node.getSupertypes().join()) {
+                final Node supertypeNode = _nodes.get(supertype);
+                if (supertypeNode != null && supertypeNode != node) {
+                    supertypeNode.getSubtypes().add(node);
+                    supertypeNode.getPendingReleases().incrementAndGet();
+                    node.getSupertypeNodes().add(supertypeNode);
+                    node.getPendingSupertypes().incrementAndGet();
+                }
+            }
+        }
+
+        // A hierarchy containing a cycle would never complete
+        final List<String> cyclicClasses = findCyclicClasses();
+        if (!cyclicClasses.isEmpty()) {
+            _completion.completeExceptionally(new IllegalStateException("Cyclic class hierarchy: " + cyclicClasses));
+            return _completion;
+        }
+
+        _remaining.set(_nodes.size());
+        if (_nodes.isEmpty()) {
+            _completion.complete(null);
+        }
+        for (final Node node : _nodes.values()) {
+            if (node.getPendingSupertypes().get() == 0) {
+                submit(node);
+            }
+        }
+        return _completion;
+    }
+
+    /**
+     * Read the dotted names of the direct supertypes of a class from its
+     * class file as read by a {@code ClassFileReader}.
+     *
+     * @param classFileReader The {@code ClassFileReader} to read the class file with.
+     * @param className The name of the class.
+     * @return The names of the direct supertypes; empty if the class file cannot be read.
+     */
+    static List<String> readSupertypes(final ClassFileReader classFileReader, final String className) {
+        return classFileReader.read(className).map(ClassFileScanner::readSupertypes).orElse(Collections.emptyList());
+    }
+
+    private void submit(final Node node) {
+        CompletableFuture.runAsync(node.takeTask(), _executor).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                _completion.completeExceptionally(throwable);
+                return;
+            }
+            for (final Node subtype : node.getSubtypes()) {
+                if (subtype.getPendingSupertypes().decrementAndGet() == 0 && !_completion.isDone()) {
+                    submit(subtype);
+                }
+            }
+            release(node);
+            for (final Node supertype : node.getSupertypeNodes()) {
+                release(supertype);
+            }
+            if (_remaining.decrementAndGet() == 0) {
+                _completion.complete(null);
+            }
+        });
+    }
+
+    private void release(final Node node) {
+        if (node.getPendingReleases().decrementAndGet() == 0) {
+            _releaser.accept(node.getClassName());
+        }
+    }
+
+    private List<String> findCyclicClasses() {
+        // Classes never reached by removing those without pending supertypes
+        // are part of or below a cycle
+        final Map<Node, Integer> pending = new LinkedHashMap<>();
+        final Deque<Node> ready = new ArrayDeque<>();
+        for (final Node node : _nodes.values()) {
+            pending.put(node, node.getPendingSupertypes().get());
+            if (node.getPendingSupertypes().get() == 0) {
+                ready.add(node);
+            }
+        }
+        while (!ready.isEmpty()) {
+            final Node node = ready.remove();
+            pending.remove(node);
+            for (final Node subtype : node.getSubtypes()) {
+                if (pending.merge(subtype, -1, Integer::sum) == 0) {
+                    ready.add(subtype);
+                }
+            }
+        }
+        return pending.keySet().stream().map(Node::getClassName).collect(Collectors.toList());
+    }
+
+    private final Function<String, List<String>> _supertypeReader;
+    private final Consumer<String> _releaser;
+    private final Executor _executor;
+    private final Map<String, Node> _nodes = new LinkedHashMap<>();
+    private final AtomicInteger _remaining = new AtomicInteger();
+    private final CompletableFuture<Void> _completion = new CompletableFuture<>();
+
+    private static final class Node {
+
+        Node(final String className, final Runnable task, final CompletableFuture<List<String>> supertypes) {
+            _className = className;
+            _task = task;
+            _supertypes = supertypes;
+        }
+
+        String getClassName() {
+            return _className;
+        }
+
+        Runnable takeTask() {
+            // The task is not retained once run together with what it parsed
+            final Runnable task = _task;
+            _task = null;
+            if (task == null) {
+                throw new IllegalStateException("Task already taken: " + _className);
+            }
+            return task;
+        }
+
+        CompletableFuture<List<String>> getSupertypes() {
+            return _supertypes;
+        }
+
+        List<Node> getSubtypes() {
+            return _subtypes;
+        }
+
+        AtomicInteger getPendingSupertypes() {
+            return _pendingSupertypes;
+        }
+
+        List<Node> getSupertypeNodes() {
+            return _supertypeNodes;
+        }
+
+        AtomicInteger getPendingReleases() {
+            return _pendingReleases;
+        }
+
+        private final String _className;
+        @Nullable
+        private Runnable _task;
+        private final CompletableFuture<List<String>> _supertypes;
+        private final List<Node> _subtypes = new ArrayList<>();
+        private final AtomicInteger _pendingSupertypes = new AtomicInteger();
+        private final List<Node> _supertypeNodes = new ArrayList<>();
+        // Released once its own task and those of its subtypes completed
+        private final AtomicInteger _pendingReleases = new AtomicInteger(1);
+    }
+}
@@ -0,0 +1,309 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiPredicate;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+
+/**
+ * Processes the classes inside a jar file and rewrites the jar in a single
+ * pass. Matching class entries are processed in parallel while the jar is
+ * written; all other entries, including classes which were not modified,
+ * are copied with their compressed bytes as-is without being inflated and
+ * deflated again. The rewritten jar replaces the original atomically.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class JarProcessor {
+
+    /**
+     * Constructor.
+     *
+     * @param jarFile The jar file to process.
+     * @param classPool The {@code ClassPool} to resolve dependencies from.
+     * @param processors The ordered {@code ScopedProcessor} instances to apply.
+     * @param executorService The {@code ExecutorService} to process classes on.
+     * @param watchdog The {@code ProcessingWatchdog} tracking the classes in flight.
+     * @param log The {@code ProcessingLog} instance.
+     * @param report The {@code PerformanceReport} to record timings to.
+     */
+    JarProcessor(
+            final Path jarFile,
+            final ClassPool classPool,
+            final List<ScopedProcessor> processors,
+            final ExecutorService executorService,
+            final ProcessingWatchdog watchdog,
+            final ProcessingLog log,
+            final PerformanceReport report) {
+        _jarFile = jarFile;
+        _classPool = classPool;
+        _processors = processors;
+        _executorService = executorService;
+        _watchdog = watchdog;
+        _log = log;
+        _report = report;
+    }
+
+    /**
+     * Process the jar file. Classes are submitted as they are found in the
+     * jar through the same bounded path as the classes of a directory and
+     * entries are written to a temporary jar in their original order as soon
+     * as they and all entries before them are complete, so that at most a
+     * bounded number of processed classes is held in memory. The jar is only
+     * replaced if a class was processed.
+     *
+     * @param discoveryFilter Filter on class name and jar file selecting the classes to process.
+     * @param failures The {@code TaskFailures} of the execution.
+     * @throws IOException if the jar cannot be read or written.
+     */
+    void process(final BiPredicate<String, Path> discoveryFilter, final TaskFailures failures) throws IOException {
+        _log.debug(String.format("Processing jar: %s", _jarFile));
+        final ClassPool jarClassPool = createJarClassPool();
+        final Path temporaryFile = _jarFile.resolveSibling(_jarFile.getFileName() + ".tmp");
+        boolean isModified = false;
+        try {
+            try (ZipFile zipFile = ZipFile.builder().setPath(_jarFile).get();
+                 ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(temporaryFile)) {
+                final Deque<PendingEntry> pendingEntries = new ArrayDeque<>();
+                for (final ZipArchiveEntry entry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+                    final PendingEntry pendingEntry = new PendingEntry(entry);
+                    final String className = getClassName(entry);
+                    if (className != null && discoveryFilter.test(className, _jarFile)) {
+                        failures.checkCancelled();
+                        pendingEntry.setCompletion(submit(jarClassPool, className, pendingEntry, failures));
+                    }
+                    pendingEntries.add(pendingEntry);
+
+                    // Write the completed entries and wait for the first
+                    // entry once too many processed classes are pending
+                    isModified |= writeEntries(zipFile, outputStream, pendingEntries, false, failures);
+                    if (pendingEntries.size() >= ClassSubmitter.MAXIMUM_PENDING_CLASSES) {
+                        isModified |= writeEntry(zipFile, outputStream, pendingEntries.remove(), failures);
+                    }
+                }
+                isModified |= writeEntries(zipFile, outputStream, pendingEntries, true, failures);
+            }
+            if (isModified) {
+                Files.move(
+                        temporaryFile,
+                        _jarFile,
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    @Nullable
+    /* package private */ static String getClassName(final ZipArchiveEntry entry) {
+        final String name = entry.getName();
+        if (entry.isDirectory()
+                || !name.endsWith(CLASS_SUFFIX)
+                || name.startsWith(VERSIONS_DIRECTORY)
+                || name.endsWith(MODULE_INFO)) {
+            return null;
+        }
+        return name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.');
+    }
+
+    private CompletableFuture<?> submit(
+            final ClassPool jarClassPool,
+            final String className,
+            final PendingEntry pendingEntry,
+            final TaskFailures failures) {
+        final ClassProcessorTask task = new ClassProcessorTask(
+                jarClassPool,
+                className,
+                _processors,
+                ctClass -> {
+                    final long start = _report.start();
+                    pendingEntry.setBytecode(toBytecode(ctClass));
+                    _report.recordPhase(PerformanceReport.Phase.WRITE, start);
+                },
+                _log,
+                _report);
+        pendingEntry.setTask(task);
+        return ClassSubmitter.submitBatch(
+                Collections.singletonList(failures.guard(className, _watchdog.watch(task, task))),
+                1,
+                _executorService,
+                _pendingClasses);
+    }
+
+    private boolean writeEntries(
+            final ZipFile zipFile,
+            final ZipArchiveOutputStream outputStream,
+            final Deque<PendingEntry> pendingEntries,
+            final boolean isWaiting,
+            final TaskFailures failures)
+            throws IOException {
+        boolean isModified = false;
+        while (!pendingEntries.isEmpty() && (isWaiting || pendingEntries.peek().getCompletion().isDone())) {
+            isModified |= writeEntry(zipFile, outputStream, pendingEntries.remove(), failures);
+        }
+        return isModified;
+    }
+
+    private boolean writeEntry(
+            final ZipFile zipFile,
+            final ZipArchiveOutputStream outputStream,
+            final PendingEntry pendingEntry,
+            final TaskFailures failures)
+            throws IOException {
+        // Waiting ends at the first failure unless failures are aggregated
+        CompletableFuture.anyOf(pendingEntry.getCompletion(), failures.getFirstFailure(), _watchdog.getTimeout())
+                .join();
+        try {
+            return copyEntry(zipFile, outputStream, pendingEntry);
+        } finally {
+            // The class is no longer needed once its entry is written
+            final ClassProcessorTask task = pendingEntry.getTask();
+            if (task != null && pendingEntry.getCompletion().isDone()) {
+                task.detach();
+            }
+        }
+    }
+
+    private static boolean copyEntry(
+            final ZipFile zipFile,
+            final ZipArchiveOutputStream outputStream,
+            final PendingEntry pendingEntry)
+            throws IOException {
+        final ZipArchiveEntry entry = pendingEntry.getEntry();
+        final byte[] bytecode = pendingEntry.getBytecode();
+        if (bytecode == null) {
+            // Copy the entry with its compressed bytes as-is
+            try (InputStream inputStream = zipFile.getRawInputStream(entry)) {
+                outputStream.addRawArchiveEntry(entry, inputStream);
+            }
+            return false;
+        }
+        // Keep the method, time, extra fields, comment and permissions of the
+        // entry so that only its bytes differ
+        final ZipArchiveEntry newEntry = new ZipArchiveEntry(entry);
+        final CRC32 crc = new CRC32();
+        crc.update(bytecode);
+        newEntry.setSize(bytecode.length);
+        newEntry.setCrc(crc.getValue());
+        newEntry.setCompressedSize(ArchiveEntry.SIZE_UNKNOWN);
+        outputStream.putArchiveEntry(newEntry);
+        outputStream.write(bytecode);
+        outputStream.closeArchiveEntry();
+        return true;
+    }
+
+    private ClassPool createJarClassPool() throws IOException {
+        // Classes are resolved from the jar before the project class path
+        // as a shaded jar may contain different versions of the same class
+        final ClassPool jarClassPool = new DetachableClassPool(_classPool);
+        jarClassPool.childFirstLookup = true;
+        try {
+            jarClassPool.appendClassPath(_jarFile.toString());
+        } catch (final NotFoundException e) {
+            throw new IOException("Unable to add jar to class pool: " + _jarFile, e);
+        }
+        return jarClassPool;
+    }
+
+    private static byte[] toBytecode(final CtClass ctClass) {
+        try {
+            return ctClass.toBytecode();
+        } catch (final IOException | CannotCompileException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final Path _jarFile;
+    private final ClassPool _classPool;
+    private final List<ScopedProcessor> _processors;
+    private final ExecutorService _executorService;
+    private final ProcessingWatchdog _watchdog;
+    private final ProcessingLog _log;
+    private final PerformanceReport _report;
+    private final Semaphore _pendingClasses = new Semaphore(ClassSubmitter.MAXIMUM_PENDING_CLASSES);
+
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String MODULE_INFO = "module-info.class";
+    private static final String VERSIONS_DIRECTORY = "META-INF/versions/";
+
+    private static final class PendingEntry {
+
+        PendingEntry(final ZipArchiveEntry entry) {
+            _entry = entry;
+        }
+
+        ZipArchiveEntry getEntry() {
+            return _entry;
+        }
+
+        CompletableFuture<?> getCompletion() {
+            return _completion;
+        }
+
+        void setCompletion(final CompletableFuture<?> completion) {
+            _completion = completion;
+        }
+
+        @Nullable
+        ClassProcessorTask getTask() {
+            return _task;
+        }
+
+        void setTask(final ClassProcessorTask task) {
+            _task = task;
+        }
+
+        @Nullable
+        byte[] getBytecode() {
+            return _bytecode;
+        }
+
+        void setBytecode(final byte[] bytecode) {
+            _bytecode = bytecode;
+        }
+
+        private final ZipArchiveEntry _entry;
+        private CompletableFuture<?> _completion = CompletableFuture.completedFuture(null);
+        @Nullable
+        private ClassProcessorTask _task;
+        // Published to the writer by the completion of the task
+        @Nullable
+        private byte[] _bytecode;
+    }
+}
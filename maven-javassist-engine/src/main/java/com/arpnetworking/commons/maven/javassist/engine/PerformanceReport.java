@@ -0,0 +1,362 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Collects where class processing time is spent and writes it as a JSON
+ * report. Time is split by phase across all threads, the slowest classes
+ * are kept with their class file sizes, the classes rejected at each
+ * acceptance stage are listed and the busy time of each thread is compared
+ * with the wall time of processing. All recording methods return
+ * immediately on the disabled report so that instrumentation costs
+ * nothing unless a report was requested.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class PerformanceReport {
+
+    /**
+     * Constructor for an enabled report.
+     *
+     * @param slowestClassCount The number of slowest classes to report.
+     */
+    PerformanceReport(final int slowestClassCount) {
+        this(true, slowestClassCount);
+    }
+
+    /**
+     * Return the start time of a measurement.
+     *
+     * @return The start time in nanoseconds or zero if disabled.
+     */
+    long start() {
+        if (!_enabled) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Record the time spent in a phase since the start of a measurement.
+     *
+     * @param phase The {@code Phase} measured.
+     * @param start The start time of the measurement.
+     */
+    void recordPhase(final Phase phase, final long start) {
+        if (_enabled) {
+            _phaseNanos.get(phase).add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record the rejection of a class.
+     *
+     * @param rejection The stage at which the class was rejected.
+     * @param className The name of the class.
+     */
+    void recordRejection(final Rejection rejection, final String className) {
+        if (_enabled) {
+            _rejections.get(rejection).add(className);
+        }
+    }
+
+    /**
+     * Record the completion of a class on the current thread.
+     *
+     * @param className The name of the class.
+     * @param start The start time of processing the class.
+     * @param size The size of the class file in bytes or -1 if unknown.
+     */
+    void recordClass(final String className, final long start, final long size) {
+        if (_enabled) {
+            recordClassNanos(className, System.nanoTime() - start, size);
+        }
+    }
+
+    /**
+     * Record the completion of classes processed together on the current
+     * thread; the time is divided evenly between the classes.
+     *
+     * @param classNames The names of the classes.
+     * @param start The start time of processing the classes.
+     * @param sizes Function from class name to the size of its class file in bytes or -1 if unknown.
+     */
+    void recordClasses(final List<String> classNames, final long start, final ToLongFunction<String> sizes) {
+        if (_enabled && !classNames.isEmpty()) {
+            final long nanos = (System.nanoTime() - start) / classNames.size();
+            for (final String className : classNames) {
+                recordClassNanos(className, nanos, sizes.applyAsLong(className));
+            }
+        }
+    }
+
+    private void recordClassNanos(final String className, final long nanos, final long size) {
+        _classCount.increment();
+        _threadNanos.computeIfAbsent(Thread.currentThread().getName(), k -> new LongAdder()).add(nanos);
+        synchronized (_slowestClasses) {
+            if (_slowestClasses.size() < _slowestClassCount) {
+                _slowestClasses.add(new ClassTiming(className, nanos, size));
+            } else {
+                final ClassTiming fastest = _slowestClasses.peek();
+                if (fastest != null && fastest.getNanos() < nanos) {
+                    _slowestClasses.poll();
+                    _slowestClasses.add(new ClassTiming(className, nanos, size));
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark the start of processing.
+     */
+    void begin() {
+        if (_enabled) {
+            _beginNanos.set(System.nanoTime());
+        }
+    }
+
+    /**
+     * Mark the end of processing.
+     */
+    void end() {
+        if (_enabled) {
+            _endNanos.set(System.nanoTime());
+        }
+    }
+
+    /**
+     * Whether the report is collected.
+     *
+     * @return True if and only if the report is enabled.
+     */
+    boolean isEnabled() {
+        return _enabled;
+    }
+
+    /**
+     * Write the report as JSON.
+     *
+     * @param file The report file.
+     * @throws IOException if the report cannot be written.
+     */
+    void write(final Path file) throws IOException {
+        final Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(toJson());
+        }
+    }
+
+    /* package private */ String toJson() {
+        final long wallNanos = _endNanos.get() - _beginNanos.get();
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n  \"wallTimeMillis\": ").append(toMillis(wallNanos))
+                .append(",\n  \"classCount\": ").append(_classCount.sum())
+                .append(",\n  \"phases\": {");
+        String separator = "\n";
+        for (final Phase phase : Phase.values()) {
+            json.append(separator).append("    ").append(quote(phase.getName())).append(": ")
+                    .append(toMillis(_phaseNanos.get(phase).sum()));
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"slowestClasses\": [");
+        separator = "\n";
+        for (final ClassTiming timing : getSlowestClasses()) {
+            json.append(separator).append("    {\"className\": ").append(quote(timing.getClassName()))
+                    .append(", \"timeMillis\": ").append(toMillis(timing.getNanos()))
+                    .append(", \"bytes\": ").append(timing.getSize()).append('}');
+            separator = ",\n";
+        }
+        json.append("\n  ],\n  \"rejections\": {");
+        separator = "\n";
+        for (final Rejection rejection : Rejection.values()) {
+            json.append(separator).append("    ").append(quote(rejection.getName())).append(": [");
+            String classSeparator = "";
+            for (final String className : new TreeSet<>(_rejections.get(rejection))) {
+                json.append(classSeparator).append(quote(className));
+                classSeparator = ", ";
+            }
+            json.append(']');
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"threads\": [");
+        separator = "\n";
+        for (final Map.Entry<String, LongAdder> thread : new TreeMap<>(_threadNanos).entrySet()) {
+            final long busyNanos = thread.getValue().sum();
+            json.append(separator).append("    {\"name\": ").append(quote(thread.getKey()))
+                    .append(", \"busyMillis\": ").append(toMillis(busyNanos))
+                    .append(", \"utilization\": ").append(toRatio(busyNanos, wallNanos)).append('}');
+            separator = ",\n";
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    /* package private */ List<ClassTiming> getSlowestClasses() {
+        final List<ClassTiming> slowestClasses;
+        synchronized (_slowestClasses) {
+            slowestClasses = new ArrayList<>(_slowestClasses);
+        }
+        slowestClasses.sort(Comparator.comparingLong(ClassTiming::getNanos).reversed());
+        return slowestClasses;
+    }
+
+    private static String toMillis(final long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    private static String toRatio(final long numerator, final long denominator) {
+        if (denominator <= 0) {
+            return "0.000";
+        }
+        return String.format(Locale.ROOT, "%.3f", (double) numerator / denominator);
+    }
+
+    private static String quote(final String value) {
+        final StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < ' ') {
+                quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private PerformanceReport(final boolean enabled, final int slowestClassCount) {
+        _enabled = enabled;
+        _slowestClassCount = slowestClassCount;
+        for (final Phase phase : Phase.values()) {
+            _phaseNanos.put(phase, new LongAdder());
+        }
+        for (final Rejection rejection : Rejection.values()) {
+            _rejections.put(rejection, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    private final boolean _enabled;
+    private final int _slowestClassCount;
+    private final Map<Phase, LongAdder> _phaseNanos = new EnumMap<>(Phase.class);
+    private final Map<Rejection, Set<String>> _rejections = new EnumMap<>(Rejection.class);
+    private final Map<String, LongAdder> _threadNanos = new ConcurrentHashMap<>();
+    private final PriorityQueue<ClassTiming> _slowestClasses =
+            new PriorityQueue<>(Comparator.comparingLong(ClassTiming::getNanos));
+    private final LongAdder _classCount = new LongAdder();
+    private final AtomicLong _beginNanos = new AtomicLong();
+    private final AtomicLong _endNanos = new AtomicLong();
+
+    /**
+     * Report which records nothing.
+     */
+    static final PerformanceReport DISABLED = new PerformanceReport(false, 0);
+
+    /**
+     * Phases of class processing.
+     */
+    enum Phase {
+        DISCOVERY("discovery"),
+        PARSE("parse"),
+        ACCEPT("accept"),
+        PROCESS("process"),
+        REBUILD("rebuild"),
+        WRITE("write"),
+        REFRESH("refresh");
+
+        Phase(final String name) {
+            _name = name;
+        }
+
+        String getName() {
+            return _name;
+        }
+
+        private final String _name;
+    }
+
+    /**
+     * Stages at which a class may be rejected by a processor.
+     */
+    enum Rejection {
+        NOT_CANDIDATE("notCandidate"),
+        NOT_INCLUDED("notIncluded"),
+        EXCLUDED("excluded"),
+        FROZEN("frozen"),
+        NOT_ACCEPTED("notAccepted"),
+        ALREADY_PROCESSED("alreadyProcessed"),
+        UP_TO_DATE("upToDate"),
+        UNCHANGED("unchanged");
+
+        Rejection(final String name) {
+            _name = name;
+        }
+
+        String getName() {
+            return _name;
+        }
+
+        private final String _name;
+    }
+
+    /* package private */ static final class ClassTiming {
+
+        ClassTiming(final String className, final long nanos, final long size) {
+            _className = className;
+            _nanos = nanos;
+            _size = size;
+        }
+
+        String getClassName() {
+            return _className;
+        }
+
+        long getNanos() {
+            return _nanos;
+        }
+
+        long getSize() {
+            return _size;
+        }
+
+        private final String _className;
+        private final long _nanos;
+        private final long _size;
+    }
+}
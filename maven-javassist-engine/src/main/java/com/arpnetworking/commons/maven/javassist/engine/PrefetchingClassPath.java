@@ -0,0 +1,179 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.ClassPath;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiPredicate;
+import javax.annotation.Nullable;
+
+/**
+ * Javassist {@code ClassPath} over a class directory which reads class files
+ * ahead of their use. Discovery requests each class file to be read in bulk
+ * on a dedicated executor as soon as it is found, so by the time a worker
+ * resolves the class from the {@code ClassPool} its bytes are usually in
+ * memory and the I/O latency is hidden. Classes which were not read ahead
+ * are read from the directory on demand.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class PrefetchingClassPath implements ClassPath {
+
+    /**
+     * Constructor.
+     *
+     * @param directory The class directory.
+     * @param executor The {@code Executor} to read class files on.
+     */
+    PrefetchingClassPath(final Path directory, final Executor executor) {
+        _directory = directory;
+        _executor = executor;
+    }
+
+    /**
+     * Start reading a class file in the background.
+     *
+     * @param className The name of the class.
+     * @param file The class file.
+     */
+    void prefetch(final String className, final Path file) {
+        _classFiles.computeIfAbsent(
+                className,
+                k -> CompletableFuture.supplyAsync(() -> readClassFile(file), _executor));
+    }
+
+    /**
+     * Create a discovery filter which starts reading each class file it is
+     * tested with in the background and passes every class.
+     *
+     * @return The discovery filter.
+     */
+    BiPredicate<String, Path> createPrefetchFilter() {
+        return (className, file) -> {
+            prefetch(className, file);
+            return true;
+        };
+    }
+
+    /**
+     * Discard the bytes read ahead for a class once it has been resolved.
+     *
+     * @param className The name of the class.
+     */
+    void release(final String className) {
+        _classFiles.remove(className);
+    }
+
+    /**
+     * Wrap a task so that the bytes read ahead for its class are discarded
+     * once the task completes.
+     *
+     * @param className The name of the class.
+     * @param task The task processing the class.
+     * @return The wrapped task.
+     */
+    Runnable releaseAfter(final String className, final Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } finally {
+                release(className);
+            }
+        };
+    }
+
+    /**
+     * Read the class file of a class in the class directory. The bytes read
+     * ahead are returned if available and must not be modified.
+     *
+     * @param className The name of the class.
+     * @return The class file; empty if the class file cannot be found or read.
+     */
+    Optional<byte[]> read(final String className) {
+        final CompletableFuture<byte[]> classFile = _classFiles.get(className);
+        if (classFile != null) {
+            try {
+                return Optional.of(classFile.join());
+            } catch (final CompletionException e) {
+                // Fall back to reading the file on demand
+            }
+        }
+        final Path file = getClassFile(className);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.readAllBytes(file));
+        } catch (final IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    @Nullable
+    public InputStream openClassfile(final String className) {
+        return read(className).map(ByteArrayInputStream::new).orElse(null);
+    }
+
+    @Override
+    @Nullable
+    public URL find(final String className) {
+        final Path file = getClassFile(className);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return file.toUri().toURL();
+        } catch (final MalformedURLException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return _directory.toString();
+    }
+
+    private Path getClassFile(final String className) {
+        return _directory.resolve(className.replace('.', '/') + ".class");
+    }
+
+    private static byte[] readClassFile(final Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final Path _directory;
+    private final Executor _executor;
+    private final Map<String, CompletableFuture<byte[]>> _classFiles = new ConcurrentHashMap<>();
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.PrintStream;
+import javax.annotation.Nullable;
+
+/**
+ * {@code ProcessingLog} writing each message as a line prefixed by its level
+ * to a {@code PrintStream}, in the same format as Maven. Debug messages are
+ * written only when verbose.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class PrintStreamLog implements ProcessingLog {
+
+    /**
+     * Public constructor.
+     *
+     * @param stream The {@code PrintStream} to write messages to.
+     * @param verbose Whether debug messages are written.
+     */
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "The log writes to the given stream")
+    public PrintStreamLog(final PrintStream stream, final boolean verbose) {
+        _stream = stream;
+        _verbose = verbose;
+    }
+
+    @Override
+    public void debug(final CharSequence content) {
+        if (_verbose) {
+            write("DEBUG", content, null);
+        }
+    }
+
+    @Override
+    public void info(final CharSequence content) {
+        write("INFO", content, null);
+    }
+
+    @Override
+    public void warn(final CharSequence content) {
+        write("WARNING", content, null);
+    }
+
+    @Override
+    public void warn(final CharSequence content, final Throwable error) {
+        write("WARNING", content, error);
+    }
+
+    @Override
+    public void error(final CharSequence content) {
+        write("ERROR", content, null);
+    }
+
+    @Override
+    public void error(final CharSequence content, final Throwable error) {
+        write("ERROR", content, error);
+    }
+
+    private void write(final String level, final CharSequence content, @Nullable final Throwable error) {
+        synchronized (_stream) {
+            _stream.print("[" + level + "] ");
+            _stream.println(content);
+            if (error != null) {
+                error.printStackTrace(_stream);
+            }
+        }
+    }
+
+    private final PrintStream _stream;
+    private final boolean _verbose;
+}
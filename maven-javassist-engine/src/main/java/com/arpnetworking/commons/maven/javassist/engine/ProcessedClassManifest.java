@@ -0,0 +1,379 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * Persistent record of the processors applied to each class, kept instead
+ * of the {@code Processed} annotation in the class file. Each entry is
+ * keyed by the class name and the digest of the class file written after
+ * processing; a class whose current digest differs from the recorded one,
+ * for example because it was compiled again, has not been processed. The
+ * lookup needs only the raw class file so processed classes are rejected
+ * before they are parsed, and the class files do not carry the constant
+ * pool entries and attribute of the annotation. The processors which
+ * rejected a class are recorded as well so that a class every processor
+ * either applied to or rejected is not parsed again.
+ *
+ * The manifest is a binary file holding the table of processor names
+ * followed by the name, digest, applied processor indices and rejecting
+ * processor indices of each class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ProcessedClassManifest {
+
+    /**
+     * Load the manifest from the specified file. If the file does not exist
+     * an empty manifest is returned. Unlike the incremental manifest an
+     * unreadable file is not ignored as the classes it records would
+     * otherwise be processed again.
+     *
+     * @param file The manifest file.
+     * @param outputDirectory The directory the processed classes are written to.
+     * @param processors The names of the processors applied in this build.
+     * @return The {@code ProcessedClassManifest} instance.
+     * @throws IOException if the manifest file cannot be read.
+     */
+    static ProcessedClassManifest load(final Path file, final Path outputDirectory, final List<String> processors)
+            throws IOException {
+        final ProcessedClassManifest manifest = new ProcessedClassManifest(file, outputDirectory, processors);
+        if (Files.exists(file)) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (input.readInt() != MAGIC || input.readUnsignedShort() != VERSION) {
+                    throw new IOException("Unsupported processed manifest: " + file);
+                }
+                final String[] processorNames = new String[input.readUnsignedShort()];
+                for (int i = 0; i < processorNames.length; ++i) {
+                    processorNames[i] = input.readUTF();
+                }
+                final int entryCount = input.readInt();
+                for (int i = 0; i < entryCount; ++i) {
+                    final String className = input.readUTF();
+                    final byte[] digest = new byte[DIGEST_LENGTH];
+                    input.readFully(digest);
+                    final Set<String> entryProcessors = readProcessors(input, processorNames);
+                    final Set<String> rejectingProcessors = readProcessors(input, processorNames);
+                    manifest._entries.put(
+                            className,
+                            new Entry(HashCode.fromBytes(digest), entryProcessors, rejectingProcessors));
+                }
+            } catch (final IndexOutOfBoundsException e) {
+                throw new IOException("Malformed processed manifest: " + file, e);
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Compute the digest of a class file as recorded in the manifest.
+     *
+     * @param classFile The bytes of the class file.
+     * @return The digest of the class file.
+     */
+    static HashCode hash(final byte[] classFile) {
+        return Hashing.sha256().hashBytes(classFile);
+    }
+
+    /**
+     * Determine whether a processor was applied to a class.
+     *
+     * @param className The name of the class.
+     * @param digest The digest of the current class file.
+     * @param processor The name of the processor.
+     * @return True if and only if the processor was applied to the current class file.
+     */
+    boolean isProcessed(final String className, final HashCode digest, final String processor) {
+        final Entry entry = _entries.get(className);
+        return entry != null && entry.getDigest().equals(digest) && entry.getProcessors().contains(processor);
+    }
+
+    /**
+     * Determine whether a processor rejected a class.
+     *
+     * @param className The name of the class.
+     * @param digest The digest of the current class file.
+     * @param processor The name of the processor.
+     * @return True if and only if the processor rejected the current class file.
+     */
+    boolean isRejected(final String className, final HashCode digest, final String processor) {
+        final Entry entry = _entries.get(className);
+        return entry != null && entry.getDigest().equals(digest) && entry.getRejectingProcessors().contains(processor);
+    }
+
+    /**
+     * Mark a class as processed by a processor. The mark is recorded once
+     * the processed class has been written.
+     *
+     * @param className The name of the class.
+     * @param digest The digest of the class file before processing.
+     * @param processor The name of the processor.
+     */
+    void markProcessed(final String className, @Nullable final HashCode digest, final String processor) {
+        getMarks(className, digest).getProcessors().add(processor);
+    }
+
+    /**
+     * Mark a class as rejected by a processor. The mark is recorded once
+     * all processors were applied to the class whether it was written or
+     * not.
+     *
+     * @param className The name of the class.
+     * @param digest The digest of the class file before processing.
+     * @param processor The name of the processor.
+     */
+    void markRejected(final String className, @Nullable final HashCode digest, final String processor) {
+        getMarks(className, digest).getRejectingProcessors().add(processor);
+    }
+
+    /**
+     * Record the processors marked on a class once it has been written.
+     * Classes which were not marked are not recorded.
+     *
+     * @param className The name of the class.
+     * @throws IOException if the class file cannot be read.
+     */
+    void recordProcessed(final String className) throws IOException {
+        final Marks marks = _pending.remove(className);
+        if (marks != null) {
+            record(className, marks.getProcessors(), marks.getRejectingProcessors());
+        }
+    }
+
+    /**
+     * Record the processors marked on a class which was not written as no
+     * processor modified it. The class is recorded with the digest of its
+     * unchanged class file; classes which were not marked or whose digest
+     * is unknown are not recorded.
+     *
+     * @param className The name of the class.
+     */
+    void recordUnmodified(final String className) {
+        final Marks marks = _pending.remove(className);
+        if (marks != null && marks.getDigest() != null) {
+            _entries.put(
+                    className,
+                    new Entry(
+                            marks.getDigest(),
+                            ImmutableSet.copyOf(marks.getProcessors()),
+                            ImmutableSet.copyOf(marks.getRejectingProcessors())));
+        }
+    }
+
+    /**
+     * Record a class restored from the cache as processed by all
+     * processors; the cached class file is the result of applying them.
+     *
+     * @param className The name of the class.
+     * @throws IOException if the class file cannot be read.
+     */
+    void recordRestored(final String className) throws IOException {
+        record(className, _processors, ImmutableSet.of());
+    }
+
+    /**
+     * Remove entries for classes whose class file no longer exists.
+     */
+    void prune() {
+        _entries.keySet().removeIf(
+                className -> !Files.exists(DirectoryClassOutput.getClassFile(_outputDirectory, className)));
+    }
+
+    /**
+     * Write the manifest to its file. The file is replaced atomically so an
+     * interrupted build never leaves a partial manifest behind.
+     *
+     * @throws IOException if the manifest cannot be written.
+     */
+    void save() throws IOException {
+        final Path directory = _file.getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        final Map<String, Entry> entries = new TreeMap<>(_entries);
+        final Map<String, Integer> processorIndices = new LinkedHashMap<>();
+        for (final Entry entry : entries.values()) {
+            for (final String processor : Iterables.concat(entry.getProcessors(), entry.getRejectingProcessors())) {
+                processorIndices.putIfAbsent(processor, processorIndices.size());
+            }
+        }
+        final Path temporaryFile = _file.resolveSibling(_file.getFileName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            output.writeInt(MAGIC);
+            output.writeShort(VERSION);
+            output.writeShort(processorIndices.size());
+            for (final String processor : processorIndices.keySet()) {
+                output.writeUTF(processor);
+            }
+            output.writeInt(entries.size());
+            for (final Map.Entry<String, Entry> entry : entries.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.write(entry.getValue().getDigest().asBytes());
+                writeProcessors(output, entry.getValue().getProcessors(), processorIndices);
+                writeProcessors(output, entry.getValue().getRejectingProcessors(), processorIndices);
+            }
+        }
+        Files.move(temporaryFile, _file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Nullable
+    /* package private */ Entry getEntry(final String className) {
+        return _entries.get(className);
+    }
+
+    private Marks getMarks(final String className, @Nullable final HashCode digest) {
+        return _pending.computeIfAbsent(className, k -> {
+            // Processors applied to or rejecting the class file before remain so
+            final Marks marks = new Marks(digest);
+            final Entry entry = _entries.get(k);
+            if (entry != null && entry.getDigest().equals(digest)) {
+                marks.getProcessors().addAll(entry.getProcessors());
+                marks.getRejectingProcessors().addAll(entry.getRejectingProcessors());
+            }
+            return marks;
+        });
+    }
+
+    private void record(
+            final String className,
+            final Iterable<String> processors,
+            final Iterable<String> rejectingProcessors)
+            throws IOException {
+        final Path classFile = DirectoryClassOutput.getClassFile(_outputDirectory, className);
+        _entries.put(
+                className,
+                new Entry(
+                        hash(Files.readAllBytes(classFile)),
+                        ImmutableSet.copyOf(processors),
+                        ImmutableSet.copyOf(rejectingProcessors)));
+    }
+
+    private static Set<String> readProcessors(final DataInputStream input, final String[] processorNames)
+            throws IOException {
+        final ImmutableSet.Builder<String> processors = ImmutableSet.builder();
+        final int processorCount = input.readUnsignedShort();
+        for (int i = 0; i < processorCount; ++i) {
+            processors.add(processorNames[input.readUnsignedShort()]);
+        }
+        return processors.build();
+    }
+
+    private static void writeProcessors(
+            final DataOutputStream output,
+            final Set<String> processors,
+            final Map<String, Integer> processorIndices)
+            throws IOException {
+        output.writeShort(processors.size());
+        for (final String processor : processors) {
+            output.writeShort(processorIndices.get(processor));
+        }
+    }
+
+    private ProcessedClassManifest(final Path file, final Path outputDirectory, final List<String> processors) {
+        _file = file;
+        _outputDirectory = outputDirectory;
+        _processors = ImmutableList.copyOf(processors);
+    }
+
+    private final Path _file;
+    private final Path _outputDirectory;
+    private final List<String> _processors;
+    private final Map<String, Entry> _entries = new ConcurrentHashMap<>();
+    private final Map<String, Marks> _pending = new ConcurrentHashMap<>();
+
+    private static final int MAGIC = 0x4A505243;
+    private static final int VERSION = 1;
+    private static final int DIGEST_LENGTH = 32;
+
+    /**
+     * Manifest entry for a single class.
+     */
+    /* package private */ static final class Entry {
+
+        Entry(final HashCode digest, final Set<String> processors, final Set<String> rejectingProcessors) {
+            _digest = digest;
+            _processors = processors;
+            _rejectingProcessors = rejectingProcessors;
+        }
+
+        HashCode getDigest() {
+            return _digest;
+        }
+
+        Set<String> getProcessors() {
+            return _processors;
+        }
+
+        Set<String> getRejectingProcessors() {
+            return _rejectingProcessors;
+        }
+
+        private final HashCode _digest;
+        private final Set<String> _processors;
+        private final Set<String> _rejectingProcessors;
+    }
+
+    /**
+     * Processors marked on a class which is being processed.
+     */
+    private static final class Marks {
+
+        Marks(@Nullable final HashCode digest) {
+            _digest = digest;
+        }
+
+        @Nullable
+        HashCode getDigest() {
+            return _digest;
+        }
+
+        Set<String> getProcessors() {
+            return _processors;
+        }
+
+        Set<String> getRejectingProcessors() {
+            return _rejectingProcessors;
+        }
+
+        @Nullable
+        private final HashCode _digest;
+        private final Set<String> _processors = new LinkedHashSet<>();
+        private final Set<String> _rejectingProcessors = new LinkedHashSet<>();
+    }
+}
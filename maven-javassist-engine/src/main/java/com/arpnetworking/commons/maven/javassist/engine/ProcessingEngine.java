@@ -0,0 +1,618 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import com.arpnetworking.commons.maven.javassist.ModifiesSupertypes;
+import com.arpnetworking.commons.maven.javassist.ProcessingContext;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import javassist.ClassPool;
+import javassist.NotFoundException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Processes the classes of a class directory or jar with the configured
+ * processors. The engine does not depend on Maven; the plugin, the command
+ * line and the agent are front ends which configure and run it.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessingEngine {
+
+    /**
+     * Public constructor.
+     *
+     * @param options The {@code ProcessingOptions} of the execution.
+     * @param buildChanges The {@code BuildChanges} of the build.
+     * @param log The {@code ProcessingLog} to write to.
+     */
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "The options are owned by the caller")
+    public ProcessingEngine(final ProcessingOptions options, final BuildChanges buildChanges, final ProcessingLog log) {
+        _options = options;
+        _buildChanges = buildChanges;
+        _log = log;
+    }
+
+    /**
+     * Process the classes.
+     *
+     * @throws ProcessingException if the classes cannot be processed.
+     */
+    public void execute() throws ProcessingException {
+        final ClassLoader originalContextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        try {
+            final Path outputDirectory = _options.getOutputDirectory();
+            final ClassPool classPool = createClassPool(_options.getClasspathElementsToLoad());
+            final ProcessorCache.Entry processorEntry = getProcessorEntry(originalContextClassLoader);
+            Thread.currentThread().setContextClassLoader(processorEntry.getClassLoader());
+            try {
+                execute(classPool, processorEntry, outputDirectory);
+            } finally {
+                releaseProcessorEntry(processorEntry);
+            }
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalContextClassLoader);
+        }
+    }
+
+    /**
+     * Create a {@code ProcessingTransformer} which applies the processors to
+     * each class as it is loaded instead of processing class directories.
+     * The processors are loaded from the given class loader and begun with
+     * the output directory as working directory.
+     *
+     * @param classLoader The {@code ClassLoader} to load the processors from.
+     * @return The {@code ProcessingTransformer}.
+     * @throws ProcessingException if the processors or the cache cannot be created.
+     */
+    public ProcessingTransformer createTransformer(final ClassLoader classLoader) throws ProcessingException {
+        final List<ScopedProcessor> classProcessors = createProcessors(new ProcessorCache.Entry(classLoader));
+        beginProcessors(
+                classProcessors,
+                new DefaultProcessingContext(
+                        new ClassPool(true),
+                        _options.getOutputDirectory(),
+                        ProcessingExecutors.getThreadCount(_options.getThreads())));
+        ClassCache cache = null;
+        final Path cacheDirectory = _options.getCacheDirectory();
+        if (cacheDirectory != null) {
+            cache = ClassRecorder.createCache(
+                    cacheDirectory, classProcessors, createConfigurationDigest(), _options.getCacheMaximumSize());
+        }
+        return new ProcessingTransformer(classProcessors, cache, _log);
+    }
+
+    private void execute(
+            final ClassPool classPool,
+            final ProcessorCache.Entry processorEntry,
+            final Path outputDirectory)
+            throws ProcessingException {
+        final List<ScopedProcessor> classProcessors = createProcessors(processorEntry);
+        final PerformanceReport report = createPerformanceReport();
+        final DirectoryClassOutput classOutput = new DirectoryClassOutput(_buildChanges, outputDirectory, report);
+        final ClassRecorder recorder = createRecorder(classProcessors, classOutput, outputDirectory);
+        boolean isProcessed = false;
+        try {
+            beginProcessors(
+                    classProcessors,
+                    new DefaultProcessingContext(
+                            classPool,
+                            outputDirectory,
+                            ProcessingExecutors.getThreadCount(_options.getThreads())));
+            processClasses(classPool, classProcessors, recorder, classOutput, report);
+            isProcessed = true;
+        } finally {
+            endProcessors(classProcessors, isProcessed);
+        }
+
+        recorder.save();
+        writePerformanceReport(report);
+    }
+
+    /* package private */ void processClasses(
+            final ClassPool classPool,
+            final List<ScopedProcessor> classProcessors,
+            final ClassRecorder recorder,
+            final DirectoryClassOutput classOutput,
+            final PerformanceReport report)
+            throws ProcessingException {
+        final TaskFailures failures = new TaskFailures(!_options.isAggregateFailures());
+        final ProcessingWatchdog watchdog = ProcessingWatchdog.start(
+                _options.getSlowClassThreshold(),
+                _options.getClassTimeout(),
+                _log);
+        final ClassFileReader classFileReader = new ClassFileReader(classPool);
+        final Function<List<String>, Runnable> taskFactory = classNames -> {
+            final ClassProcessorTask task = new ClassProcessorTask(
+                    classFileReader, classNames, classProcessors, classOutput, _log, report, recorder);
+            final Runnable recordedTask = recorder.recordAfter(task, classNames);
+            return failures.guard(
+                    String.join(", ", classNames),
+                    watchdog.watch(task, guardTask(classPool, task, classNames, recordedTask)));
+        };
+
+        // Discovery stops and waiting ends at the first failure unless
+        // failures are aggregated
+        final ExecutorService executorService = ProcessingExecutors.createExecutorService(_options.getThreads());
+        report.begin();
+        try {
+            final CompletableFuture<Void> completion;
+            if (!_options.getJars().isEmpty()) {
+                processJars(
+                        _options.getJars(),
+                        classPool,
+                        classProcessors,
+                        executorService,
+                        watchdog,
+                        report,
+                        failures);
+                completion = CompletableFuture.completedFuture(null);
+            } else {
+                final DirectoryProcessor directoryProcessor = new DirectoryProcessor(
+                        classFileReader,
+                        _options.getClasspathElementsToProcess(),
+                        createScopeFilter(classProcessors).and(recorder.createDiscoveryFilter()),
+                        report,
+                        _log);
+                if (_options.isOrderByHierarchy()) {
+                    completion = directoryProcessor.processByHierarchy(
+                            taskFactory,
+                            createReleaser(classPool),
+                            executorService);
+                } else {
+                    completion = directoryProcessor.process(new ClassSubmitter(
+                            executorService,
+                            taskFactory,
+                            ClassSubmitter.isBatchProcessing(classProcessors),
+                            failures));
+                }
+            }
+            CompletableFuture.anyOf(completion, failures.getFirstFailure(), watchdog.getTimeout()).get();
+        } catch (final InterruptedException e) {
+            throw new ProcessingException("Class processing interrupted", e);
+        } catch (final CompletionException | ExecutionException e) {
+            throw unwrapTaskException(e, e.getCause());
+        } finally {
+            watchdog.close();
+            report.end();
+            shutdownExecutorService(executorService);
+            recorder.saveProcessedManifest();
+        }
+        throwAggregateFailure(failures.getFailures());
+    }
+
+    /* package private */ void throwAggregateFailure(final Map<String, Throwable> failures)
+            throws ProcessingException {
+        ProcessingException exception = null;
+        for (final Map.Entry<String, Throwable> failure : failures.entrySet()) {
+            _log.error("Unable to process class: " + failure.getKey(), failure.getValue());
+            if (exception == null) {
+                exception = new ProcessingException(
+                        "Class processing failed for " + failures.size() + " classes",
+                        failure.getValue());
+            } else {
+                exception.addSuppressed(failure.getValue());
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /* package private */ PerformanceReport createPerformanceReport() {
+        if (!_options.isPerformanceReport()) {
+            return PerformanceReport.DISABLED;
+        }
+        return new PerformanceReport(SLOWEST_CLASS_COUNT);
+    }
+
+    /* package private */ void writePerformanceReport(final PerformanceReport report) throws ProcessingException {
+        if (report.isEnabled()) {
+            final Path reportFile = getPerformanceReportFile();
+            try {
+                report.write(reportFile);
+            } catch (final IOException e) {
+                throw new ProcessingException("Unable to write performance report: " + reportFile, e);
+            }
+            _log.info("Wrote performance report: " + reportFile);
+        }
+    }
+
+    /* package private */ Path getPerformanceReportFile() {
+        // The report is written next to the manifest
+        final Path manifestFile = _options.getManifestFile();
+        final String manifestFileName = String.valueOf(manifestFile.getFileName());
+        return manifestFile.resolveSibling(
+                manifestFileName.replaceFirst("\\.manifest$", "") + PERFORMANCE_REPORT_SUFFIX);
+    }
+
+    /* package private */ void shutdownExecutorService(final ExecutorService executorService) {
+        // Interrupt any tasks still running after a failure and wait for
+        // the threads to exit so none outlive the execution
+        executorService.shutdownNow();
+        try {
+            if (!executorService.awaitTermination(EXECUTOR_TERMINATION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                _log.warn("Class processing threads did not terminate");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* package private */ ProcessorCache.Entry getProcessorEntry(final ClassLoader contextClassLoader)
+            throws ProcessingException {
+        // Processors are reused across executions only when a cache is given
+        final List<String> classpath = _options.getProcessorClasspath();
+        final ProcessorCache processorCache = _options.getProcessorCache();
+        try {
+            if (processorCache != null) {
+                return processorCache.get(classpath, contextClassLoader);
+            }
+            return ProcessorCache.createEntry(classpath, contextClassLoader);
+        } catch (final IOException e) {
+            throw new ProcessingException("Unable to instantiate class loader", e);
+        }
+    }
+
+    /* package private */ void releaseProcessorEntry(final ProcessorCache.Entry processorEntry) {
+        // An entry created for this execution alone is closed with it while
+        // a cached entry is closed once the cache releases it
+        if (_options.getProcessorCache() == null) {
+            try {
+                processorEntry.close();
+            } catch (final IOException e) {
+                _log.warn("Unable to close processor class loader", e);
+            }
+        }
+    }
+
+    /* package private */ List<ScopedProcessor> createProcessors(final ProcessorCache.Entry processorEntry)
+            throws ProcessingException {
+        final String configurationDigest = createConfigurationDigest();
+        List<ScopedProcessor> classProcessors = processorEntry.getProcessors(configurationDigest);
+        if (classProcessors == null) {
+            classProcessors = createProcessors(processorEntry.getClassLoader());
+            processorEntry.putProcessors(configurationDigest, classProcessors);
+        }
+        checkProcessors(classProcessors);
+        return classProcessors;
+    }
+
+    /* package private */ void checkProcessors(final List<ScopedProcessor> classProcessors)
+            throws ProcessingException {
+        // Classes ordered by hierarchy may only be modified by their own task
+        // so processors which modify other classes are rejected up front
+        if (isGuarded()) {
+            for (final ScopedProcessor classProcessor : classProcessors) {
+                if (classProcessor.getProcessor().getClass().isAnnotationPresent(ModifiesSupertypes.class)) {
+                    throw new ProcessingException(
+                            "Class processor modifies supertypes and cannot be ordered by hierarchy: "
+                                    + classProcessor.getName());
+                }
+            }
+        }
+    }
+
+    /* package private */ List<ScopedProcessor> createProcessors(final ClassLoader classLoader)
+            throws ProcessingException {
+        final Predicate<String> includePredicate = createIncludePredicate(_options.getIncludes());
+        final Predicate<String> excludePredicate = createExcludePredicate(_options.getExcludes());
+        final List<ScopedProcessor> classProcessors = new ArrayList<>();
+        for (final ProcessorConfiguration configuration : _options.getProcessors()) {
+            classProcessors.add(
+                    new ScopedProcessor(
+                            createProcessor(classLoader, configuration.getClassName()),
+                            includePredicate.and(createIncludePredicate(configuration.getIncludes())),
+                            excludePredicate.or(createExcludePredicate(configuration.getExcludes()))));
+        }
+        if (classProcessors.isEmpty()) {
+            throw new ProcessingException("No class processor configured");
+        }
+        return classProcessors;
+    }
+
+    /* package private */ static void beginProcessors(
+            final List<ScopedProcessor> classProcessors,
+            final ProcessingContext context)
+            throws ProcessingException {
+        for (final ScopedProcessor classProcessor : classProcessors) {
+            try {
+                classProcessor.begin(context);
+                // CHECKSTYLE.OFF: IllegalCatch
+            } catch (final RuntimeException e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                throw new ProcessingException("Unable to begin processor: " + classProcessor.getName(), e);
+            }
+        }
+    }
+
+    /* package private */ void endProcessors(final List<ScopedProcessor> classProcessors, final boolean isProcessed)
+            throws ProcessingException {
+        // Every processor is ended; when processing already failed their
+        // failures are only logged so as not to mask the original one
+        ProcessingException exception = null;
+        for (final ScopedProcessor classProcessor : classProcessors) {
+            try {
+                classProcessor.end();
+                // CHECKSTYLE.OFF: IllegalCatch
+            } catch (final RuntimeException e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                if (!isProcessed) {
+                    _log.warn("Unable to end processor: " + classProcessor.getName(), e);
+                } else if (exception == null) {
+                    exception = new ProcessingException("Unable to end processor: " + classProcessor.getName(), e);
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /* package private */ String createConfigurationDigest() {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        putPatterns(hasher, _options.getIncludes());
+        putPatterns(hasher, _options.getExcludes());
+        hasher.putBoolean(_options.isProcessedManifest());
+        for (final ProcessorConfiguration configuration : _options.getProcessors()) {
+            hasher.putString(configuration.getClassName(), StandardCharsets.UTF_8);
+            putPatterns(hasher, configuration.getIncludes());
+            putPatterns(hasher, configuration.getExcludes());
+        }
+        return hasher.hash().toString().substring(0, CONFIGURATION_DIGEST_LENGTH);
+    }
+
+    /* package private */ ClassRecorder createRecorder(
+            final List<ScopedProcessor> classProcessors,
+            final DirectoryClassOutput classOutput,
+            final Path outputDirectory)
+            throws ProcessingException {
+        final String configurationDigest = createConfigurationDigest();
+        final Path manifestFile = _options.getManifestFile();
+        ClassManifest manifest = null;
+        if (_options.isIncremental()) {
+            manifest = ClassRecorder.loadManifest(manifestFile, classProcessors, configurationDigest);
+        }
+        ClassCache cache = null;
+        final Path cacheDirectory = _options.getCacheDirectory();
+        if (cacheDirectory != null) {
+            cache = ClassRecorder.createCache(
+                    cacheDirectory, classProcessors, configurationDigest, _options.getCacheMaximumSize());
+        }
+        ProcessedClassManifest processedClassManifest = null;
+        if (_options.isProcessedManifest() && _options.getJars().isEmpty()) {
+            processedClassManifest = ClassRecorder.loadProcessedManifest(
+                    getProcessedManifestFile(outputDirectory),
+                    outputDirectory,
+                    classProcessors.stream().map(ScopedProcessor::getName).collect(Collectors.toList()));
+        }
+        return new ClassRecorder(
+                manifest, cache, processedClassManifest, classOutput, outputDirectory, _buildChanges, _log);
+    }
+
+    /* package private */ static Path getProcessedManifestFile(final Path outputDirectory) {
+        // The processed manifest describes the classes in the output
+        // directory and is kept next to it so that every execution
+        // processing the directory finds it
+        return outputDirectory.resolveSibling(outputDirectory.getFileName() + PROCESSED_MANIFEST_SUFFIX);
+    }
+
+    /* package private */ static BiPredicate<String, Path> createScopeFilter(
+            final List<ScopedProcessor> classProcessors) {
+        return (className, file) -> {
+            for (final ScopedProcessor classProcessor : classProcessors) {
+                if (classProcessor.isInScope(className)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /* package private */ void processJars(
+            final List<Path> jarFiles,
+            final ClassPool classPool,
+            final List<ScopedProcessor> classProcessors,
+            final ExecutorService executorService,
+            final ProcessingWatchdog watchdog,
+            final PerformanceReport report,
+            final TaskFailures failures)
+            throws ProcessingException {
+        final BiPredicate<String, Path> scopeFilter = createScopeFilter(classProcessors);
+        for (final Path jar : jarFiles) {
+            try {
+                new JarProcessor(jar, classPool, classProcessors, executorService, watchdog, _log, report)
+                        .process(scopeFilter, failures);
+            } catch (final IOException e) {
+                throw new ProcessingException("Unable to process jar: " + jar, e);
+            }
+        }
+    }
+
+    /* package private */ ClassPool createClassPool(final List<String> classpathElements) throws ProcessingException {
+        final SharedClassPools sharedClassPools = _options.getSharedClassPools();
+        if (sharedClassPools == null) {
+            final ClassPool classPool = createClassPool(ClassPool.getDefault());
+            appendClassPaths(classPool, classpathElements);
+            return classPool;
+        }
+
+        // Dependency jars are resolved from a pool shared across the
+        // executions of the session; the module's own class directories are
+        // layered over it and searched first
+        final Set<Path> dependencyJars = new LinkedHashSet<>();
+        final List<String> directories = new ArrayList<>();
+        for (final String classPathElement : classpathElements) {
+            final Path path = Paths.get(classPathElement);
+            if (Files.isRegularFile(path)) {
+                dependencyJars.add(path);
+            } else {
+                directories.add(classPathElement);
+            }
+        }
+        final ClassPool classPool;
+        try {
+            classPool = createClassPool(sharedClassPools.get(new ArrayList<>(dependencyJars)));
+        } catch (final IOException e) {
+            throw new ProcessingException("Unable to create shared class pool", e);
+        }
+        classPool.childFirstLookup = true;
+        appendClassPaths(classPool, directories);
+        return classPool;
+    }
+
+    private ClassPool createClassPool(final ClassPool parent) {
+        // Classes ordered by hierarchy may only be modified by their own task
+        if (isGuarded()) {
+            return new GuardedClassPool(parent);
+        }
+        // Classes are detached once processed while others are resolved
+        return new DetachableClassPool(parent);
+    }
+
+    private boolean isGuarded() {
+        return _options.isOrderByHierarchy() && _options.getJars().isEmpty();
+    }
+
+    /* package private */ static Runnable guardTask(
+            final ClassPool classPool,
+            final ClassProcessorTask task,
+            final List<String> classNames,
+            final Runnable runnable) {
+        // Classes ordered by hierarchy are detached by the releaser once the
+        // classes extending or implementing them were processed
+        if (classPool instanceof GuardedClassPool) {
+            return ((GuardedClassPool) classPool).guard(classNames, runnable);
+        }
+        return () -> {
+            try {
+                runnable.run();
+            } finally {
+                task.detach();
+            }
+        };
+    }
+
+    /* package private */ static Consumer<String> createReleaser(final ClassPool classPool) {
+        if (classPool instanceof GuardedClassPool) {
+            return ((GuardedClassPool) classPool)::detach;
+        }
+        return className -> { };
+    }
+
+    private static void appendClassPaths(final ClassPool classPool, final List<String> classpathElements)
+            throws ProcessingException {
+        for (final String classPathElement : classpathElements) {
+            try {
+                classPool.appendClassPath(classPathElement);
+            } catch (final NotFoundException e) {
+                throw new ProcessingException("Unable to add class path to pool: " + classPathElement, e);
+            }
+        }
+    }
+
+    /* package private */ static ClassProcessor createProcessor(
+            final ClassLoader classLoader,
+            final String processorClassName)
+            throws ProcessingException {
+        try {
+            final Object classProcessor = classLoader.loadClass(processorClassName)
+                    .getDeclaredConstructor()
+                    .newInstance();
+            if (classProcessor instanceof ClassProcessor) {
+                return (ClassProcessor) classProcessor;
+            }
+            throw new ProcessingException("Invalid class processor: " + processorClassName);
+        } catch (final ClassNotFoundException e) {
+            throw new ProcessingException("Class processor not found: " + processorClassName, e);
+            // CHECKSTYLE.OFF: IllegalCatch
+        } catch (final Exception e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            throw new ProcessingException("Unable to instantiate processor: " + processorClassName, e);
+        }
+    }
+
+    /* package private */ static ProcessingException unwrapTaskException(
+            final Exception exception,
+            @Nullable final Throwable cause) {
+        if (cause instanceof CompletionException || cause instanceof ExecutionException) {
+            return unwrapTaskException((Exception) cause, cause.getCause());
+        } else if (cause != null) {
+            return new ProcessingException("Class processing failed", cause);
+        } else {
+            return new ProcessingException("Unknown class processing exception", exception);
+        }
+    }
+
+    /* package private */ static Predicate<String> createIncludePredicate(final List<String> classes) {
+        if (!classes.isEmpty()) {
+            return ClassNameMatcher.compile(classes.toArray(new String[0]));
+        }
+        return className -> true;
+    }
+
+    /* package private */ static Predicate<String> createExcludePredicate(final List<String> classes) {
+        if (!classes.isEmpty()) {
+            return ClassNameMatcher.compile(classes.toArray(new String[0]));
+        }
+        return className -> false;
+    }
+
+    private static void putPatterns(final Hasher hasher, final List<String> patterns) {
+        for (final String pattern : patterns) {
+            hasher.putString(pattern, StandardCharsets.UTF_8);
+            hasher.putByte((byte) 0);
+        }
+        hasher.putByte((byte) 1);
+    }
+
+    private final ProcessingOptions _options;
+    private final BuildChanges _buildChanges;
+    private final ProcessingLog _log;
+
+    private static final Duration EXECUTOR_TERMINATION_TIMEOUT = Duration.ofSeconds(30);
+    private static final int CONFIGURATION_DIGEST_LENGTH = 16;
+    private static final int SLOWEST_CLASS_COUNT = 20;
+    private static final String PERFORMANCE_REPORT_SUFFIX = ".performance.json";
+    private static final String PROCESSED_MANIFEST_SUFFIX = ".processed";
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+/**
+ * Creates the executors classes are discovered, read and processed on. The
+ * processing executor is configured by the {@code threads} parameter as
+ * either a work stealing pool or a virtual thread per class.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ProcessingExecutors {
+
+    static ExecutorService createExecutorService(final String threads) {
+        final ClassLoader currentThreadContextClassloader = Thread.currentThread().getContextClassLoader();
+        if (threads.equals(VIRTUAL_THREADS)) {
+            return createVirtualThreadExecutorService(0, currentThreadContextClassloader);
+        }
+        if (threads.startsWith(VIRTUAL_THREADS_PREFIX)) {
+            return createVirtualThreadExecutorService(
+                    parseThreadCount(threads.substring(VIRTUAL_THREADS_PREFIX.length())),
+                    currentThreadContextClassloader);
+        }
+        final AtomicInteger threadIndex = new AtomicInteger(1);
+        return new ForkJoinPool(
+                parseThreadCount(threads),
+                pool -> {
+                    final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("javassist-processor-" + threadIndex.getAndIncrement());
+                    thread.setContextClassLoader(currentThreadContextClassloader);
+                    return thread;
+                },
+                null,
+                false);
+    }
+
+    static int getThreadCount(final String threads) {
+        if (threads.equals(VIRTUAL_THREADS)) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        if (threads.startsWith(VIRTUAL_THREADS_PREFIX)) {
+            return parseThreadCount(threads.substring(VIRTUAL_THREADS_PREFIX.length()));
+        }
+        return parseThreadCount(threads);
+    }
+
+    static int parseThreadCount(final String threads) {
+        if (threads.endsWith("C")) {
+            return Integer.parseInt(threads.substring(0, threads.length() - 1))
+                    * Runtime.getRuntime().availableProcessors();
+        }
+        return Integer.parseInt(threads);
+    }
+
+    static ExecutorService createVirtualThreadExecutorService(
+            final int limit,
+            final ClassLoader contextClassLoader) {
+        // Virtual threads are resolved reflectively as the plugin targets a
+        // release which predates them
+        final ThreadFactory virtualThreadFactory;
+        final Method newThreadPerTaskExecutor;
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Object builder = builderClass.getMethod("name", String.class, long.class).invoke(
+                    Thread.class.getMethod("ofVirtual").invoke(null),
+                    "javassist-processor-",
+                    1L);
+            virtualThreadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later", e);
+        }
+
+        // Each task runs on its own virtual thread; with a limit the threads
+        // wait for a permit before processing
+        final Semaphore concurrencyLimit;
+        if (limit > 0) {
+            concurrencyLimit = new Semaphore(limit);
+        } else {
+            concurrencyLimit = null;
+        }
+        final ThreadFactory threadFactory = r -> {
+            final Thread thread = virtualThreadFactory.newThread(limitConcurrency(r, concurrencyLimit));
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        };
+        try {
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create virtual thread executor", e);
+        }
+    }
+
+    private static Runnable limitConcurrency(final Runnable runnable, @Nullable final Semaphore concurrencyLimit) {
+        if (concurrencyLimit == null) {
+            return runnable;
+        }
+        return () -> {
+            concurrencyLimit.acquireUninterruptibly();
+            try {
+                runnable.run();
+            } finally {
+                concurrencyLimit.release();
+            }
+        };
+    }
+
+    static ExecutorService createPrefetchExecutorService() {
+        final AtomicInteger threadIndex = new AtomicInteger(1);
+        return Executors.newFixedThreadPool(
+                PREFETCH_THREADS,
+                r -> {
+                    final Thread thread = new Thread(r);
+                    thread.setName("javassist-prefetch-" + threadIndex.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    static ExecutorService createDiscoveryExecutorService() {
+        final AtomicInteger threadIndex = new AtomicInteger(1);
+        return new ForkJoinPool(
+                DISCOVERY_THREADS,
+                pool -> {
+                    final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("javassist-discovery-" + threadIndex.getAndIncrement());
+                    return thread;
+                },
+                null,
+                true);
+    }
+
+    private ProcessingExecutors() {}
+
+    private static final String VIRTUAL_THREADS = "virtual";
+    private static final String VIRTUAL_THREADS_PREFIX = VIRTUAL_THREADS + ":";
+    // Class file reads are latency bound so overlap several irrespective of
+    // the number of processing threads
+    private static final int PREFETCH_THREADS = 4;
+    // Directory listings are likewise latency bound
+    private static final int DISCOVERY_THREADS = 4;
+}
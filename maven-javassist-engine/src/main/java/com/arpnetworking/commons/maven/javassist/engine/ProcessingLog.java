@@ -0,0 +1,69 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+/**
+ * Log of the processing engine. The Maven plugin adapts its {@code Log}
+ * while the command line and the agent write to a stream.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public interface ProcessingLog {
+
+    /**
+     * Write a debug message.
+     *
+     * @param content The message.
+     */
+    void debug(CharSequence content);
+
+    /**
+     * Write an informational message.
+     *
+     * @param content The message.
+     */
+    void info(CharSequence content);
+
+    /**
+     * Write a warning.
+     *
+     * @param content The message.
+     */
+    void warn(CharSequence content);
+
+    /**
+     * Write a warning with its cause.
+     *
+     * @param content The message.
+     * @param error The cause of the warning.
+     */
+    void warn(CharSequence content, Throwable error);
+
+    /**
+     * Write an error.
+     *
+     * @param content The message.
+     */
+    void error(CharSequence content);
+
+    /**
+     * Write an error with its cause.
+     *
+     * @param content The message.
+     * @param error The cause of the error.
+     */
+    void error(CharSequence content, Throwable error);
+}
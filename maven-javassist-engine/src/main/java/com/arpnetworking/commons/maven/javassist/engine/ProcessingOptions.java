@@ -0,0 +1,464 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.collect.ImmutableList;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Options of a {@link ProcessingEngine} execution. The defaults match those
+ * of the Maven plugin.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessingOptions {
+
+    /**
+     * Public constructor.
+     *
+     * @param outputDirectory The directory processed classes are written to.
+     */
+    public ProcessingOptions(final Path outputDirectory) {
+        _outputDirectory = outputDirectory;
+        _manifestFile = Paths.get(outputDirectory + ".manifest");
+    }
+
+    /**
+     * Return the directory processed classes are written to.
+     *
+     * @return The output directory.
+     */
+    public Path getOutputDirectory() {
+        return _outputDirectory;
+    }
+
+    /**
+     * Return the class directories to process.
+     *
+     * @return The class path elements to process.
+     */
+    public List<String> getClasspathElementsToProcess() {
+        return _classpathElementsToProcess;
+    }
+
+    /**
+     * Set the class directories to process.
+     *
+     * @param classpathElements The class path elements to process.
+     */
+    public void setClasspathElementsToProcess(final List<String> classpathElements) {
+        _classpathElementsToProcess = ImmutableList.copyOf(classpathElements);
+    }
+
+    /**
+     * Return the class path classes are resolved from.
+     *
+     * @return The class path elements to load.
+     */
+    public List<String> getClasspathElementsToLoad() {
+        return _classpathElementsToLoad;
+    }
+
+    /**
+     * Set the class path classes are resolved from.
+     *
+     * @param classpathElements The class path elements to load.
+     */
+    public void setClasspathElementsToLoad(final List<String> classpathElements) {
+        _classpathElementsToLoad = ImmutableList.copyOf(classpathElements);
+    }
+
+    /**
+     * Return the class path the processors are loaded from; by default the
+     * class path classes are resolved from.
+     *
+     * @return The class path elements of the processors.
+     */
+    public List<String> getProcessorClasspath() {
+        if (_processorClasspath == null) {
+            return _classpathElementsToLoad;
+        }
+        return _processorClasspath;
+    }
+
+    /**
+     * Set the class path the processors are loaded from.
+     *
+     * @param classpathElements The class path elements of the processors.
+     */
+    public void setProcessorClasspath(final List<String> classpathElements) {
+        _processorClasspath = ImmutableList.copyOf(classpathElements);
+    }
+
+    /**
+     * Return the cache of processor class loaders and processors retained
+     * across executions.
+     *
+     * @return The {@code ProcessorCache}; {@code null} to load the processors for each execution.
+     */
+    @Nullable
+    public ProcessorCache getProcessorCache() {
+        return _processorCache;
+    }
+
+    /**
+     * Set the cache of processor class loaders and processors retained
+     * across executions.
+     *
+     * @param processorCache The {@code ProcessorCache}; {@code null} to load the processors for each execution.
+     */
+    public void setProcessorCache(@Nullable final ProcessorCache processorCache) {
+        _processorCache = processorCache;
+    }
+
+    /**
+     * Return the file of the class manifest; the performance report is
+     * written next to it. By default the output directory suffixed with
+     * ".manifest". The processed manifest is written next to the output
+     * directory instead, suffixed with ".processed", as it describes the
+     * classes in the output directory whichever execution processed them.
+     *
+     * @return The manifest file.
+     */
+    public Path getManifestFile() {
+        return _manifestFile;
+    }
+
+    /**
+     * Set the file of the class manifest.
+     *
+     * @param manifestFile The manifest file.
+     */
+    public void setManifestFile(final Path manifestFile) {
+        _manifestFile = manifestFile;
+    }
+
+    /**
+     * Return the processors to apply in order.
+     *
+     * @return The processor configurations.
+     */
+    public List<ProcessorConfiguration> getProcessors() {
+        return _processors;
+    }
+
+    /**
+     * Set the processors to apply in order.
+     *
+     * @param processors The processor configurations.
+     */
+    public void setProcessors(final List<ProcessorConfiguration> processors) {
+        _processors = ImmutableList.copyOf(processors);
+    }
+
+    /**
+     * Return the {@code Class} names to be included by every processor.
+     *
+     * @return The include globs.
+     */
+    public List<String> getIncludes() {
+        return _includes;
+    }
+
+    /**
+     * Set the {@code Class} names to be included by every processor.
+     *
+     * @param includes The include globs.
+     */
+    public void setIncludes(final List<String> includes) {
+        _includes = ImmutableList.copyOf(includes);
+    }
+
+    /**
+     * Return the {@code Class} names to be excluded by every processor.
+     *
+     * @return The exclude globs.
+     */
+    public List<String> getExcludes() {
+        return _excludes;
+    }
+
+    /**
+     * Set the {@code Class} names to be excluded by every processor.
+     *
+     * @param excludes The exclude globs.
+     */
+    public void setExcludes(final List<String> excludes) {
+        _excludes = ImmutableList.copyOf(excludes);
+    }
+
+    /**
+     * Return the number of threads; see the plugin's threads parameter.
+     *
+     * @return The threads.
+     */
+    public String getThreads() {
+        return _threads;
+    }
+
+    /**
+     * Set the number of threads; for example, "4", "2C" or "virtual:256".
+     *
+     * @param threads The threads.
+     */
+    public void setThreads(final String threads) {
+        _threads = threads;
+    }
+
+    /**
+     * Return whether classes are processed after the classes they extend or
+     * implement.
+     *
+     * @return True if and only if classes are ordered by hierarchy.
+     */
+    public boolean isOrderByHierarchy() {
+        return _orderByHierarchy;
+    }
+
+    /**
+     * Set whether classes are processed after the classes they extend or
+     * implement.
+     *
+     * @param orderByHierarchy Whether classes are ordered by hierarchy.
+     */
+    public void setOrderByHierarchy(final boolean orderByHierarchy) {
+        _orderByHierarchy = orderByHierarchy;
+    }
+
+    /**
+     * Return whether the failures of all classes are reported together.
+     *
+     * @return True if and only if failures are aggregated.
+     */
+    public boolean isAggregateFailures() {
+        return _aggregateFailures;
+    }
+
+    /**
+     * Set whether the failures of all classes are reported together.
+     *
+     * @param aggregateFailures Whether failures are aggregated.
+     */
+    public void setAggregateFailures(final boolean aggregateFailures) {
+        _aggregateFailures = aggregateFailures;
+    }
+
+    /**
+     * Return the time after which a class still being processed is logged.
+     *
+     * @return The slow class threshold; zero disables the warning.
+     */
+    public Duration getSlowClassThreshold() {
+        return _slowClassThreshold;
+    }
+
+    /**
+     * Set the time after which a class still being processed is logged.
+     *
+     * @param slowClassThreshold The slow class threshold; zero disables the warning.
+     */
+    public void setSlowClassThreshold(final Duration slowClassThreshold) {
+        _slowClassThreshold = slowClassThreshold;
+    }
+
+    /**
+     * Return the time after which processing fails if a class is still
+     * being processed.
+     *
+     * @return The class timeout; zero disables the timeout.
+     */
+    public Duration getClassTimeout() {
+        return _classTimeout;
+    }
+
+    /**
+     * Set the time after which processing fails if a class is still being
+     * processed.
+     *
+     * @param classTimeout The class timeout; zero disables the timeout.
+     */
+    public void setClassTimeout(final Duration classTimeout) {
+        _classTimeout = classTimeout;
+    }
+
+    /**
+     * Return the class pools over dependency jars shared with the other
+     * executions of the build session.
+     *
+     * @return The {@code SharedClassPools}; {@code null} to resolve dependency jars for each execution.
+     */
+    @Nullable
+    public SharedClassPools getSharedClassPools() {
+        return _sharedClassPools;
+    }
+
+    /**
+     * Set the class pools over dependency jars shared with the other
+     * executions of the build session.
+     *
+     * @param sharedClassPools The {@code SharedClassPools}; {@code null} to resolve dependency jars for each execution.
+     */
+    public void setSharedClassPools(@Nullable final SharedClassPools sharedClassPools) {
+        _sharedClassPools = sharedClassPools;
+    }
+
+    /**
+     * Return whether a performance report is written next to the manifest.
+     *
+     * @return True if and only if a performance report is written.
+     */
+    public boolean isPerformanceReport() {
+        return _performanceReport;
+    }
+
+    /**
+     * Set whether a performance report is written next to the manifest.
+     *
+     * @param performanceReport Whether a performance report is written.
+     */
+    public void setPerformanceReport(final boolean performanceReport) {
+        _performanceReport = performanceReport;
+    }
+
+    /**
+     * Return whether only classes which changed since the last execution
+     * are processed.
+     *
+     * @return True if and only if processing is incremental.
+     */
+    public boolean isIncremental() {
+        return _incremental;
+    }
+
+    /**
+     * Set whether only classes which changed since the last execution are
+     * processed.
+     *
+     * @param incremental Whether processing is incremental.
+     */
+    public void setIncremental(final boolean incremental) {
+        _incremental = incremental;
+    }
+
+    /**
+     * Return whether processed classes are recorded in a manifest instead
+     * of a {@code Processed} annotation.
+     *
+     * @return True if and only if the processed manifest is used.
+     */
+    public boolean isProcessedManifest() {
+        return _processedManifest;
+    }
+
+    /**
+     * Set whether processed classes are recorded in a manifest instead of a
+     * {@code Processed} annotation.
+     *
+     * @param processedManifest Whether the processed manifest is used.
+     */
+    public void setProcessedManifest(final boolean processedManifest) {
+        _processedManifest = processedManifest;
+    }
+
+    /**
+     * Return the directory of the content addressed cache of processed
+     * classes.
+     *
+     * @return The cache directory; {@code null} if no cache is used.
+     */
+    @Nullable
+    public Path getCacheDirectory() {
+        return _cacheDirectory;
+    }
+
+    /**
+     * Set the directory of the content addressed cache of processed classes.
+     *
+     * @param cacheDirectory The cache directory; {@code null} if no cache is used.
+     */
+    public void setCacheDirectory(@Nullable final Path cacheDirectory) {
+        _cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Return the maximum size of the cache.
+     *
+     * @return The maximum size with an optional "K", "M" or "G" suffix.
+     */
+    public String getCacheMaximumSize() {
+        return _cacheMaximumSize;
+    }
+
+    /**
+     * Set the maximum size of the cache.
+     *
+     * @param cacheMaximumSize The maximum size with an optional "K", "M" or "G" suffix.
+     */
+    public void setCacheMaximumSize(final String cacheMaximumSize) {
+        _cacheMaximumSize = cacheMaximumSize;
+    }
+
+    /**
+     * Return the jar files to process in place instead of the class
+     * directories.
+     *
+     * @return The jar files.
+     */
+    public List<Path> getJars() {
+        return _jars;
+    }
+
+    /**
+     * Set the jar files to process in place instead of the class
+     * directories.
+     *
+     * @param jars The jar files.
+     */
+    public void setJars(final List<Path> jars) {
+        _jars = ImmutableList.copyOf(jars);
+    }
+
+    private final Path _outputDirectory;
+    private List<String> _classpathElementsToProcess = ImmutableList.of();
+    private List<String> _classpathElementsToLoad = ImmutableList.of();
+    @Nullable
+    private List<String> _processorClasspath;
+    @Nullable
+    private ProcessorCache _processorCache;
+    private Path _manifestFile;
+    private List<ProcessorConfiguration> _processors = ImmutableList.of();
+    private List<String> _includes = ImmutableList.of();
+    private List<String> _excludes = ImmutableList.of();
+    private String _threads = "1";
+    private boolean _orderByHierarchy;
+    private boolean _aggregateFailures;
+    private Duration _slowClassThreshold = Duration.ofSeconds(60);
+    private Duration _classTimeout = Duration.ZERO;
+    @Nullable
+    private SharedClassPools _sharedClassPools;
+    private boolean _performanceReport;
+    private boolean _incremental;
+    private boolean _processedManifest;
+    @Nullable
+    private Path _cacheDirectory;
+    private String _cacheMaximumSize = "1G";
+    private List<Path> _jars = ImmutableList.of();
+}
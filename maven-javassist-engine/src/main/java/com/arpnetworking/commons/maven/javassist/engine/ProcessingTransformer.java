@@ -0,0 +1,184 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import javassist.ByteArrayClassPath;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.LoaderClassPath;
+
+import java.io.IOException;
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nullable;
+
+/**
+ * Applies the processors to each class as it is loaded, with the same
+ * includes, excludes, hints and {@code Processed} marker as the plugin.
+ * Classes are resolved from a {@code ClassPool} per class loader which is
+ * retained while the class loader is reachable. When a {@code ClassCache}
+ * is given the result for each class file is looked up before Javassist
+ * is involved at all; classes the processors leave unchanged are recorded
+ * as empty entries so they are not parsed again either. Created by
+ * {@link ProcessingEngine#createTransformer(ClassLoader)}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessingTransformer implements ClassFileTransformer {
+
+    /**
+     * Constructor.
+     *
+     * @param processors The processors to apply.
+     * @param cache The {@code ClassCache} of transformed classes; {@code null} to always process classes.
+     * @param log The {@code ProcessingLog} to write to.
+     */
+    ProcessingTransformer(
+            final List<ScopedProcessor> processors,
+            @Nullable final ClassCache cache,
+            final ProcessingLog log) {
+        _processors = processors;
+        _cache = cache;
+        _log = log;
+    }
+
+    @Override
+    @Nullable
+    @SuppressFBWarnings(value = "PZLA_PREFER_ZERO_LENGTH_ARRAYS", justification = "Null leaves the class unchanged")
+    public byte[] transform(
+            @Nullable final ClassLoader loader,
+            @Nullable final String className,
+            @Nullable final Class<?> classBeingRedefined,
+            @Nullable final ProtectionDomain protectionDomain,
+            final byte[] classfileBuffer) {
+        // Classes of the platform, redefinitions and classes loaded while
+        // processing another class, such as those of the processors, are
+        // left as they are
+        if (loader == null
+                || loader == ClassLoader.getPlatformClassLoader()
+                || className == null
+                || classBeingRedefined != null
+                || TRANSFORMING.get()) {
+            return null;
+        }
+        final String name = className.replace('/', '.');
+        if (_processors.stream().noneMatch(processor -> processor.isInScope(name))) {
+            return null;
+        }
+        TRANSFORMING.set(Boolean.TRUE);
+        try {
+            return transform(loader, name, classfileBuffer).orElse(null);
+        } catch (final IOException e) {
+            _log.error("Unable to process class: " + name, e);
+            return null;
+            // CHECKSTYLE.OFF: IllegalCatch
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            // The class loader ignores the failure and defines the class
+            // unprocessed; report it rather than let it pass silently
+            _log.error("Unable to process class: " + name, e);
+            return null;
+        } finally {
+            TRANSFORMING.remove();
+        }
+    }
+
+    /**
+     * End the processors and trim the cache; for example, when the virtual
+     * machine shuts down.
+     */
+    public void end() {
+        for (final ScopedProcessor processor : _processors) {
+            try {
+                processor.end();
+                // CHECKSTYLE.OFF: IllegalCatch
+            } catch (final RuntimeException e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                _log.warn("Unable to end processor: " + processor.getName(), e);
+            }
+        }
+        if (_cache != null) {
+            try {
+                _cache.trim();
+            } catch (final IOException e) {
+                _log.warn("Unable to trim class cache", e);
+            }
+        }
+    }
+
+    private Optional<byte[]> transform(final ClassLoader loader, final String className, final byte[] classFile)
+            throws IOException {
+        final ClassCache cache = _cache;
+        if (cache == null) {
+            return process(loader, className, classFile);
+        }
+        final String key = cache.createKey(classFile);
+        final Optional<byte[]> cached = cache.get(key);
+        if (cached.isPresent()) {
+            return cached.filter(contents -> contents.length > 0);
+        }
+        final Optional<byte[]> processed = process(loader, className, classFile);
+        cache.put(key, processed.orElse(new byte[0]));
+        return processed;
+    }
+
+    private Optional<byte[]> process(final ClassLoader loader, final String className, final byte[] classFile) {
+        // The class being defined is resolved from its buffer in a pool of
+        // its own; its dependencies are resolved and cached by the parent
+        final ClassPool classPool = new ClassPool(_classPools.asMap().computeIfAbsent(loader, this::createClassPool));
+        classPool.childFirstLookup = true;
+        classPool.insertClassPath(new ByteArrayClassPath(className, classFile));
+        final List<byte[]> output = new ArrayList<>(1);
+        new ClassProcessorTask(
+                classPool,
+                className,
+                _processors,
+                ctClass -> output.add(toBytecode(ctClass)),
+                _log,
+                PerformanceReport.DISABLED)
+                .run();
+        return output.stream().findFirst();
+    }
+
+    private ClassPool createClassPool(final ClassLoader loader) {
+        final ClassPool classPool = new ClassPool(false);
+        classPool.appendClassPath(new LoaderClassPath(loader));
+        return classPool;
+    }
+
+    private static byte[] toBytecode(final CtClass ctClass) {
+        try {
+            return ctClass.toBytecode();
+        } catch (final IOException | CannotCompileException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final List<ScopedProcessor> _processors;
+    @Nullable
+    private final ClassCache _cache;
+    private final ProcessingLog _log;
+    private final Cache<ClassLoader, ClassPool> _classPools = CacheBuilder.newBuilder().weakKeys().build();
+
+    private static final ThreadLocal<Boolean> TRANSFORMING = ThreadLocal.withInitial(() -> Boolean.FALSE);
+}
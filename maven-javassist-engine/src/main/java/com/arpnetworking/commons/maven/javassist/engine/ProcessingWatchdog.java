@@ -0,0 +1,230 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
+
+/**
+ * Tracks the time every class processing task in flight has spent on its
+ * current class; a task processing a batch of classes is timed from each
+ * class it moves to, while a batch passed to a processor at once is timed as
+ * a whole. A class taking longer than the slow threshold is logged once
+ * together with a stack sample of its thread; a class taking longer than the
+ * timeout fails processing naming the class and processor it is stuck in.
+ * Either limit is disabled when zero.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ProcessingWatchdog implements AutoCloseable {
+
+    /**
+     * Create a watchdog which checks the tasks in flight on a background
+     * thread until closed.
+     *
+     * @param slowThreshold The duration after which a task is logged as slow.
+     * @param timeout The duration after which a task fails processing.
+     * @param log The {@code ProcessingLog} instance.
+     * @return The {@code ProcessingWatchdog} instance.
+     */
+    static ProcessingWatchdog start(final Duration slowThreshold, final Duration timeout, final ProcessingLog log) {
+        final ProcessingWatchdog watchdog = new ProcessingWatchdog(slowThreshold, timeout, log, System::nanoTime);
+        if (watchdog.isEnabled()) {
+            final long interval = Math.max(
+                    MINIMUM_CHECK_INTERVAL.toNanos(),
+                    Math.min(positiveOrMax(watchdog._slowThresholdNanos), positiveOrMax(watchdog._timeoutNanos))
+                            / CHECKS_PER_THRESHOLD);
+            final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread thread = new Thread(r);
+                thread.setName("javassist-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(watchdog::check, interval, interval, TimeUnit.NANOSECONDS);
+            watchdog._scheduler = scheduler;
+        }
+        return watchdog;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param slowThreshold The duration after which a task is logged as slow.
+     * @param timeout The duration after which a task fails processing.
+     * @param log The {@code ProcessingLog} instance.
+     * @param ticker The source of the current time in nanoseconds.
+     */
+    ProcessingWatchdog(
+            final Duration slowThreshold,
+            final Duration timeout,
+            final ProcessingLog log,
+            final LongSupplier ticker) {
+        _slowThresholdNanos = slowThreshold.toNanos();
+        _timeoutNanos = timeout.toNanos();
+        _log = log;
+        _ticker = ticker;
+    }
+
+    /**
+     * Wrap a task so that it is tracked while it runs.
+     *
+     * @param task The {@code ClassProcessorTask} describing what is processed.
+     * @param runnable The {@code Runnable} running the task.
+     * @return The tracked {@code Runnable}.
+     */
+    Runnable watch(final ClassProcessorTask task, final Runnable runnable) {
+        if (!isEnabled()) {
+            return runnable;
+        }
+        return () -> {
+            final Activity activity = new Activity(task, Thread.currentThread(), _ticker.getAsLong());
+            task.setProgressListener(() -> activity.restart(_ticker.getAsLong()));
+            _activities.add(activity);
+            try {
+                runnable.run();
+            } finally {
+                _activities.remove(activity);
+                task.setProgressListener(() -> { });
+            }
+        };
+    }
+
+    /**
+     * Future completed exceptionally with a {@code TimeoutException} when
+     * a task exceeds the timeout; it never completes otherwise.
+     *
+     * @return The timeout {@code CompletableFuture}.
+     */
+    CompletableFuture<Void> getTimeout() {
+        return _timeout;
+    }
+
+    /**
+     * Check the tasks in flight against the slow threshold and timeout.
+     */
+    void check() {
+        final long now = _ticker.getAsLong();
+        for (final Activity activity : _activities) {
+            final long elapsedNanos = now - activity.getStartNanos();
+            if (_timeoutNanos > 0 && elapsedNanos >= _timeoutNanos) {
+                final String message = String.format(
+                        "Class processing timed out after %d ms: %s",
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                        activity.getTask().describeProgress());
+                if (_timeout.completeExceptionally(new TimeoutException(message))) {
+                    _log.error(message + formatStack(activity.getThread()));
+                }
+            } else if (_slowThresholdNanos > 0 && elapsedNanos >= _slowThresholdNanos && activity.markReported()) {
+                _log.warn(String.format(
+                        "Class processing slow after %d ms: %s%s",
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                        activity.getTask().describeProgress(),
+                        formatStack(activity.getThread())));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        final ScheduledExecutorService scheduler = _scheduler;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private boolean isEnabled() {
+        return _slowThresholdNanos > 0 || _timeoutNanos > 0;
+    }
+
+    private static long positiveOrMax(final long nanos) {
+        if (nanos > 0) {
+            return nanos;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static String formatStack(final Thread thread) {
+        final StackTraceElement[] stack = thread.getStackTrace();
+        final StringBuilder builder = new StringBuilder();
+        builder.append(System.lineSeparator()).append("Stack of ").append(thread.getName()).append(':');
+        for (int i = 0; i < stack.length && i < MAXIMUM_STACK_DEPTH; ++i) {
+            builder.append(System.lineSeparator()).append("\tat ").append(stack[i]);
+        }
+        if (stack.length > MAXIMUM_STACK_DEPTH) {
+            builder.append(System.lineSeparator()).append("\t...");
+        }
+        return builder.toString();
+    }
+
+    private final long _slowThresholdNanos;
+    private final long _timeoutNanos;
+    private final ProcessingLog _log;
+    private final LongSupplier _ticker;
+    private final Set<Activity> _activities = ConcurrentHashMap.newKeySet();
+    private final CompletableFuture<Void> _timeout = new CompletableFuture<>();
+    @Nullable
+    private volatile ScheduledExecutorService _scheduler;
+
+    private static final Duration MINIMUM_CHECK_INTERVAL = Duration.ofMillis(100);
+    private static final int CHECKS_PER_THRESHOLD = 4;
+    private static final int MAXIMUM_STACK_DEPTH = 64;
+
+    private static final class Activity {
+
+        Activity(final ClassProcessorTask task, final Thread thread, final long startNanos) {
+            _task = task;
+            _thread = thread;
+            _startNanos = startNanos;
+        }
+
+        ClassProcessorTask getTask() {
+            return _task;
+        }
+
+        Thread getThread() {
+            return _thread;
+        }
+
+        long getStartNanos() {
+            return _startNanos;
+        }
+
+        void restart(final long startNanos) {
+            // A slow class is reported once; the next class is reported again
+            _startNanos = startNanos;
+            _reported = false;
+        }
+
+        boolean markReported() {
+            final boolean wasReported = _reported;
+            _reported = true;
+            return !wasReported;
+        }
+
+        private final ClassProcessorTask _task;
+        private final Thread _thread;
+        private volatile long _startNanos;
+        private volatile boolean _reported;
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+
+/**
+ * Class loaders over processor class paths and the processors loaded from
+ * them, retained across the requests of a persistent worker so that each
+ * processor is loaded, initialized and compiled once. An entry is keyed by
+ * the path, size and modification time of each class path element so that
+ * a rebuilt processor jar is never served from a stale class loader. The
+ * least recently used entries are released beyond a small maximum and the
+ * class loader of a released entry is closed, as are those of all entries
+ * once the cache is closed.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessorCache implements Closeable {
+
+    /**
+     * Public constructor.
+     */
+    public ProcessorCache() {}
+
+    /**
+     * Return the entry for a class path, creating its class loader if it is
+     * not cached.
+     *
+     * @param classpath The class path elements of the processors.
+     * @param parent The parent of a created class loader.
+     * @return The {@code Entry} of the class path.
+     * @throws IOException if a class path element cannot be read.
+     */
+    Entry get(final List<String> classpath, final ClassLoader parent) throws IOException {
+        try {
+            return _entries.get(createKey(classpath), () -> createEntry(classpath, parent));
+        } catch (final ExecutionException e) {
+            throw new IOException("Unable to create processor class loader", e.getCause());
+        }
+    }
+
+    /**
+     * Release all entries and close their class loaders.
+     *
+     * @throws IOException if a class loader cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            _entries.invalidateAll();
+            _entries.cleanUp();
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /* package private */ static Entry createEntry(final List<String> classpath, final ClassLoader parent)
+            throws IOException {
+        final URL[] urls = new URL[classpath.size()];
+        for (int i = 0; i < urls.length; ++i) {
+            urls[i] = Paths.get(classpath.get(i)).toUri().toURL();
+        }
+        return new Entry(URLClassLoader.newInstance(urls, parent), true);
+    }
+
+    private static void release(final RemovalNotification<String, Entry> notification) {
+        final Entry entry = notification.getValue();
+        if (entry != null) {
+            try {
+                entry.close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Unable to close processor class loader", e);
+            }
+        }
+    }
+
+    private static String createKey(final List<String> classpath) throws IOException {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        for (final String element : classpath) {
+            final Path path = Paths.get(element).toAbsolutePath();
+            hasher.putString(path.toString(), StandardCharsets.UTF_8).putByte((byte) 0);
+            if (Files.exists(path)) {
+                final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                hasher.putLong(attributes.size()).putLong(attributes.lastModifiedTime().toMillis());
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private final Cache<String, Entry> _entries = CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumSize(MAXIMUM_ENTRIES)
+            .removalListener(ProcessorCache::release)
+            .build();
+
+    private static final int MAXIMUM_ENTRIES = 4;
+
+    /**
+     * The class loader over a class path and the processors loaded from it
+     * by configuration digest. Only a class loader created for the entry is
+     * closed with it.
+     */
+    static final class Entry implements Closeable {
+
+        Entry(final ClassLoader classLoader) {
+            this(classLoader, false);
+        }
+
+        private Entry(final ClassLoader classLoader, final boolean isOwned) {
+            _classLoader = classLoader;
+            _isOwned = isOwned;
+        }
+
+        ClassLoader getClassLoader() {
+            return _classLoader;
+        }
+
+        @Nullable
+        List<ScopedProcessor> getProcessors(final String configurationDigest) {
+            synchronized (_processors) {
+                return _processors.get(configurationDigest);
+            }
+        }
+
+        void putProcessors(final String configurationDigest, final List<ScopedProcessor> processors) {
+            synchronized (_processors) {
+                _processors.put(configurationDigest, processors);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (_isOwned && _classLoader instanceof Closeable) {
+                ((Closeable) _classLoader).close();
+            }
+        }
+
+        private final ClassLoader _classLoader;
+        private final boolean _isOwned;
+        private final Map<String, List<ScopedProcessor>> _processors = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * Configuration of one {@code ClassProcessor} in the processing chain. The
+ * includes and excludes narrow the classes selected by the execution level
+ * includes and excludes for this processor only.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessorConfiguration {
+
+    /**
+     * Public constructor. Maven instantiates the configuration of the
+     * plugin and then populates it through the setters.
+     */
+    public ProcessorConfiguration() {}
+
+    /**
+     * Return the implementation of
+     * {@code com.arpnetworking.commons.maven.javassist.ClassProcessor}.
+     *
+     * @return The processor class name.
+     */
+    public String getClassName() {
+        return _className;
+    }
+
+    /**
+     * Set the implementation of
+     * {@code com.arpnetworking.commons.maven.javassist.ClassProcessor}.
+     *
+     * @param className The processor class name.
+     */
+    public void setClassName(final String className) {
+        _className = className;
+    }
+
+    /**
+     * Return the {@code Class} names to be included for this processor.
+     *
+     * @return The include globs.
+     */
+    public List<String> getIncludes() {
+        return _includes;
+    }
+
+    /**
+     * Set the {@code Class} names to be included for this processor.
+     *
+     * @param includes The include globs.
+     */
+    public void setIncludes(final List<String> includes) {
+        _includes = ImmutableList.copyOf(includes);
+    }
+
+    /**
+     * Return the {@code Class} names to be excluded for this processor.
+     *
+     * @return The exclude globs.
+     */
+    public List<String> getExcludes() {
+        return _excludes;
+    }
+
+    /**
+     * Set the {@code Class} names to be excluded for this processor.
+     *
+     * @param excludes The exclude globs.
+     */
+    public void setExcludes(final List<String> excludes) {
+        _excludes = ImmutableList.copyOf(excludes);
+    }
+
+    private String _className;
+    private List<String> _includes = ImmutableList.of();
+    private List<String> _excludes = ImmutableList.of();
+}
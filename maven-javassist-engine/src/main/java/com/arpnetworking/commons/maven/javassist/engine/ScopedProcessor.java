@@ -0,0 +1,195 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import com.arpnetworking.commons.maven.javassist.Concurrency;
+import com.arpnetworking.commons.maven.javassist.HintedClassProcessor;
+import com.arpnetworking.commons.maven.javassist.LifecycleClassProcessor;
+import com.arpnetworking.commons.maven.javassist.ProcessingContext;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+/**
+ * A {@code ClassProcessor} in the processing chain together with the
+ * predicates over class names which select the classes it is applied to.
+ * Threads acquire an instance of the processor for each class according to
+ * the {@link Concurrency} model it declares: the configured instance is
+ * shared when thread safe, held exclusively when serialized and otherwise
+ * borrowed from a pool which grows with the number of concurrent threads.
+ * Every instance of a {@code LifecycleClassProcessor} is begun before it is
+ * first acquired and ended with the processor.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ScopedProcessor {
+
+    /**
+     * Constructor.
+     *
+     * @param processor The {@code ClassProcessor} instance.
+     * @param includePredicate The {@code Predicate} to include an element in processing.
+     * @param excludePredicate The {@code Predicate} to exclude an element from processing.
+     */
+    ScopedProcessor(
+            final ClassProcessor processor,
+            final Predicate<String> includePredicate,
+            final Predicate<String> excludePredicate) {
+        _processor = processor;
+        _includePredicate = includePredicate;
+        _excludePredicate = excludePredicate;
+        if (processor instanceof HintedClassProcessor) {
+            _scanner = ClassFileScanner.create((HintedClassProcessor) processor);
+        } else {
+            _scanner = null;
+        }
+        final Concurrency concurrency = processor.getClass().getAnnotation(Concurrency.class);
+        if (concurrency != null) {
+            _concurrencyModel = concurrency.value();
+        } else {
+            _concurrencyModel = Concurrency.Model.THREAD_SAFE;
+        }
+        _idleInstances.add(processor);
+        _instances.add(processor);
+    }
+
+    /**
+     * Begin every instance of the processor for an execution; instances are
+     * retained when the processor is reused by another execution.
+     *
+     * @param context The {@code ProcessingContext} of the execution.
+     */
+    void begin(final ProcessingContext context) {
+        _context = context;
+        for (final ClassProcessor instance : _instances) {
+            begin(instance);
+        }
+    }
+
+    /**
+     * End every instance of the processor created for the execution and
+     * release its context so that a cached processor does not retain it.
+     */
+    void end() {
+        if (_context == null) {
+            return;
+        }
+        _context = null;
+        for (final ClassProcessor instance : _instances) {
+            if (instance instanceof LifecycleClassProcessor) {
+                ((LifecycleClassProcessor) instance).end();
+            }
+        }
+    }
+
+    /**
+     * Acquire the processor instance to apply to a class on the current
+     * thread. Each acquired instance must be released.
+     *
+     * @return The {@code ClassProcessor} instance.
+     */
+    ClassProcessor acquire() {
+        if (_concurrencyModel == Concurrency.Model.SERIALIZED) {
+            _lock.lock();
+        } else if (_concurrencyModel == Concurrency.Model.PER_THREAD) {
+            final ClassProcessor instance = _idleInstances.poll();
+            if (instance != null) {
+                return instance;
+            }
+            return createInstance();
+        }
+        return _processor;
+    }
+
+    /**
+     * Release a processor instance once it has been applied to a class.
+     *
+     * @param instance The {@code ClassProcessor} instance from {@link #acquire()}.
+     */
+    void release(final ClassProcessor instance) {
+        if (_concurrencyModel == Concurrency.Model.SERIALIZED) {
+            _lock.unlock();
+        } else if (_concurrencyModel == Concurrency.Model.PER_THREAD) {
+            _idleInstances.add(instance);
+        }
+    }
+
+    ClassProcessor getProcessor() {
+        return _processor;
+    }
+
+    Predicate<String> getIncludePredicate() {
+        return _includePredicate;
+    }
+
+    Predicate<String> getExcludePredicate() {
+        return _excludePredicate;
+    }
+
+    boolean isInScope(final String className) {
+        return _includePredicate.test(className) && !_excludePredicate.test(className);
+    }
+
+    @Nullable
+    ClassFileScanner getScanner() {
+        return _scanner;
+    }
+
+    String getName() {
+        return _processor.getClass().getName();
+    }
+
+    Concurrency.Model getConcurrencyModel() {
+        return _concurrencyModel;
+    }
+
+    private ClassProcessor createInstance() {
+        final ClassProcessor instance;
+        try {
+            instance = _processor.getClass().getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to instantiate processor: " + getName(), e);
+        }
+        begin(instance);
+        _instances.add(instance);
+        return instance;
+    }
+
+    private void begin(final ClassProcessor instance) {
+        final ProcessingContext context = _context;
+        if (context != null && instance instanceof LifecycleClassProcessor) {
+            ((LifecycleClassProcessor) instance).begin(context);
+        }
+    }
+
+    private final ClassProcessor _processor;
+    private final Predicate<String> _includePredicate;
+    private final Predicate<String> _excludePredicate;
+    @Nullable
+    private final ClassFileScanner _scanner;
+    private final Concurrency.Model _concurrencyModel;
+    private final ReentrantLock _lock = new ReentrantLock();
+    private final Queue<ClassProcessor> _idleInstances = new ConcurrentLinkedQueue<>();
+    private final List<ClassProcessor> _instances = new CopyOnWriteArrayList<>();
+    @Nullable
+    private volatile ProcessingContext _context;
+}
@@ -0,0 +1,276 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import javassist.ClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.annotation.Nullable;
+
+/**
+ * Read-only {@code ClassPool} instances over dependency jars shared by the
+ * executions of a build session; for example, by both goals across all
+ * modules of a reactor build. The caller owns the instance and closes it
+ * when the session ends, which closes the jars it opened.
+ *
+ * Each jar is opened and its class names indexed once per session. The
+ * executions with the same dependency jars in the same order share a single
+ * flat pool whose class path looks up each class in an index from class
+ * name to the first jar containing it, so resolving a class does not
+ * depend on the number of jars. Jars are keyed by their path, size and
+ * modification time so that a rebuilt jar is never served from a stale
+ * index or pool. Pools are softly referenced and released under memory
+ * pressure.
+ *
+ * Classes are frozen as the shared pools create them so that a processor
+ * cannot modify a dependency class seen by other executions; processing
+ * rejects frozen classes and any attempt to modify one fails.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class SharedClassPools implements Closeable {
+
+    /**
+     * Public constructor.
+     */
+    public SharedClassPools() {}
+
+    /**
+     * Return the shared pool over the jars in class path order.
+     *
+     * @param jars The dependency jars.
+     * @return The {@code ClassPool} resolving from the jars.
+     * @throws IOException if a jar cannot be read.
+     */
+    ClassPool get(final List<Path> jars) throws IOException {
+        if (jars.isEmpty()) {
+            return ClassPool.getDefault();
+        }
+        final List<JarIndex> indexes = new ArrayList<>(jars.size());
+        final Hasher hasher = Hashing.sha256().newHasher();
+        for (final Path jar : jars) {
+            final String key = createKey(jar);
+            hasher.putString(key, StandardCharsets.UTF_8).putByte((byte) 0);
+            try {
+                indexes.add(_jars.get(key, () -> JarIndex.open(jar)));
+            } catch (final ExecutionException e) {
+                throw new IOException("Unable to add jar to shared class pool: " + jar, e.getCause());
+            }
+        }
+        try {
+            return _pools.get(hasher.hash().toString(), () -> createClassPool(indexes));
+        } catch (final ExecutionException e) {
+            throw new IOException("Unable to create shared class pool", e.getCause());
+        }
+    }
+
+    /**
+     * Release all pools and close the jars they resolve from.
+     *
+     * @throws IOException if a jar cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        _pools.invalidateAll();
+        IOException failure = null;
+        for (final JarIndex index : _jars.asMap().values()) {
+            try {
+                index.close();
+            } catch (final IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        _jars.invalidateAll();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static ClassPool createClassPool(final List<JarIndex> indexes) {
+        final ClassPool classPool = new FrozenClassPool(ClassPool.getDefault());
+        classPool.appendClassPath(new IndexedClassPath(indexes));
+        return classPool;
+    }
+
+    private static String createKey(final Path jar) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        final Hasher hasher = Hashing.sha256().newHasher()
+                .putString(jar.toAbsolutePath().toString(), StandardCharsets.UTF_8)
+                .putByte((byte) 0)
+                .putLong(attributes.size())
+                .putLong(attributes.lastModifiedTime().toMillis());
+        return hasher.hash().toString();
+    }
+
+    // Jars are retained until closed as the pools resolve from them
+    private final Cache<String, JarIndex> _jars = CacheBuilder.newBuilder().build();
+    private final Cache<String, ClassPool> _pools = CacheBuilder.newBuilder().softValues().build();
+
+    /**
+     * {@code ClassPool} freezing each class it creates.
+     */
+    private static final class FrozenClassPool extends ClassPool {
+
+        FrozenClassPool(final ClassPool parent) {
+            super(parent);
+        }
+
+        @Override
+        protected void cacheCtClass(final String className, final CtClass ctClass, final boolean dynamic) {
+            ctClass.freeze();
+            super.cacheCtClass(className, ctClass, dynamic);
+        }
+    }
+
+    /**
+     * An open jar and the names of the classes it contains.
+     */
+    private static final class JarIndex implements Closeable {
+
+        static JarIndex open(final Path jar) throws IOException {
+            final ZipFile zipFile = new ZipFile(jar.toFile());
+            final List<String> classNames = new ArrayList<>();
+            for (final ZipEntry entry : Collections.list(zipFile.entries())) {
+                final String name = entry.getName();
+                if (!entry.isDirectory() && name.endsWith(CLASS_SUFFIX)) {
+                    classNames.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+                }
+            }
+            return new JarIndex(jar, zipFile, classNames);
+        }
+
+        Path getJar() {
+            return _jar;
+        }
+
+        List<String> getClassNames() {
+            return _classNames;
+        }
+
+        InputStream open(final String className) throws IOException {
+            final ZipEntry entry = _zipFile.getEntry(toEntryName(className));
+            if (entry == null) {
+                throw new IOException("Class not found in jar: " + className);
+            }
+            return _zipFile.getInputStream(entry);
+        }
+
+        URL getUrl(final String className) throws MalformedURLException {
+            return new URL("jar:" + _jar.toUri() + "!/" + toEntryName(className));
+        }
+
+        @Override
+        public void close() throws IOException {
+            _zipFile.close();
+        }
+
+        private static String toEntryName(final String className) {
+            return className.replace('.', '/') + CLASS_SUFFIX;
+        }
+
+        private JarIndex(final Path jar, final ZipFile zipFile, final List<String> classNames) {
+            _jar = jar;
+            _zipFile = zipFile;
+            _classNames = classNames;
+        }
+
+        private final Path _jar;
+        private final ZipFile _zipFile;
+        private final List<String> _classNames;
+
+        private static final String CLASS_SUFFIX = ".class";
+    }
+
+    /**
+     * {@code ClassPath} over jars resolving each class from the first jar
+     * containing it in class path order.
+     */
+    private static final class IndexedClassPath implements ClassPath {
+
+        IndexedClassPath(final List<JarIndex> indexes) {
+            for (final JarIndex index : indexes) {
+                for (final String className : index.getClassNames()) {
+                    _jarsByClassName.putIfAbsent(className, index);
+                }
+            }
+            _description = indexes.stream().map(index -> index.getJar().toString()).collect(Collectors.joining(", "));
+        }
+
+        @Override
+        @Nullable
+        public InputStream openClassfile(final String className) throws NotFoundException {
+            final JarIndex index = _jarsByClassName.get(className);
+            if (index == null) {
+                return null;
+            }
+            try {
+                return index.open(className);
+            } catch (final IOException e) {
+                throw new NotFoundException("Unable to read class: " + className, e);
+            }
+        }
+
+        @Override
+        @Nullable
+        public URL find(final String className) {
+            final JarIndex index = _jarsByClassName.get(className);
+            if (index == null) {
+                return null;
+            }
+            try {
+                return index.getUrl(className);
+            } catch (final MalformedURLException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return _description;
+        }
+
+        private final Map<String, JarIndex> _jarsByClassName = Maps.newHashMap();
+        private final String _description;
+    }
+}
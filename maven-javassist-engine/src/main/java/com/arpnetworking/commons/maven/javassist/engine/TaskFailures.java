@@ -0,0 +1,136 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the failures of class processing tasks. In fail fast mode the
+ * first failure cancels the tasks which have not started and interrupts
+ * those in flight; otherwise failures are collected and the remaining
+ * classes are still processed so that all failures can be reported
+ * together.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class TaskFailures {
+
+    /**
+     * Constructor.
+     *
+     * @param failFast Whether the first failure cancels all other tasks.
+     */
+    TaskFailures(final boolean failFast) {
+        _failFast = failFast;
+    }
+
+    /**
+     * Wrap a task so that its failure is recorded. In fail fast mode the
+     * task is skipped once any task failed and its failure is rethrown;
+     * otherwise the failure is only recorded so that the remaining tasks
+     * in the same batch still run.
+     *
+     * @param className The name of the class processed by the task.
+     * @param task The task to guard.
+     * @return The guarded task.
+     */
+    Runnable guard(final String className, final Runnable task) {
+        return () -> {
+            if (isCancelled()) {
+                return;
+            }
+            // A task may run nested in another on the same thread; for
+            // example, when a fork join worker steals work while joining
+            final Thread thread = Thread.currentThread();
+            _runningThreads.merge(thread, 1, Integer::sum);
+            try {
+                task.run();
+                // CHECKSTYLE.OFF: IllegalCatch
+            } catch (final RuntimeException | Error e) {
+                // CHECKSTYLE.ON: IllegalCatch
+                record(className, e);
+                if (_failFast || e instanceof Error) {
+                    throw e;
+                }
+            } finally {
+                _runningThreads.computeIfPresent(thread, (key, depth) -> depth == 1 ? null : depth - 1);
+            }
+        };
+    }
+
+    /**
+     * Throw the first failure wrapped in a {@code CompletionException} if
+     * tasks have been cancelled; used to stop discovering further classes.
+     */
+    void checkCancelled() {
+        if (isCancelled()) {
+            _firstFailure.join();
+        }
+    }
+
+    /**
+     * Whether tasks have been cancelled by a failure.
+     *
+     * @return True if and only if in fail fast mode and a task failed.
+     */
+    boolean isCancelled() {
+        return _firstFailure.isCompletedExceptionally();
+    }
+
+    /**
+     * Future completed exceptionally with the first failure in fail fast
+     * mode; it never completes otherwise.
+     *
+     * @return The first failure {@code CompletableFuture}.
+     */
+    CompletableFuture<Void> getFirstFailure() {
+        return _firstFailure;
+    }
+
+    /**
+     * All recorded failures by class name in the order they occurred.
+     *
+     * @return {@code Map} of class name to failure.
+     */
+    Map<String, Throwable> getFailures() {
+        synchronized (_failures) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(_failures));
+        }
+    }
+
+    private void record(final String className, final Throwable throwable) {
+        synchronized (_failures) {
+            _failures.put(className, throwable);
+        }
+        if (_failFast && _firstFailure.completeExceptionally(throwable)) {
+            final Thread currentThread = Thread.currentThread();
+            for (final Thread thread : _runningThreads.keySet()) {
+                if (thread != currentThread) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+
+    private final boolean _failFast;
+    private final CompletableFuture<Void> _firstFailure = new CompletableFuture<>();
+    private final Map<String, Throwable> _failures = new LinkedHashMap<>();
+    private final Map<Thread, Integer> _runningThreads = new ConcurrentHashMap<>();
+}
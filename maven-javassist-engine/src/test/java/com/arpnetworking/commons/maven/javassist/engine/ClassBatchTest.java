@@ -0,0 +1,87 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link ClassBatch}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ClassBatchTest {
+
+    @Test
+    public void testRunInForkJoinPool() {
+        final AtomicInteger runCount = new AtomicInteger();
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 64; ++i) {
+            tasks.add(() -> {
+                threads.add(Thread.currentThread().getName());
+                runCount.incrementAndGet();
+            });
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            pool.submit(new ClassBatch(tasks)).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        Assert.assertEquals(64, runCount.get());
+        Assert.assertFalse(threads.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    public void testRunInOrder() {
+        final List<Integer> order = new ArrayList<>();
+        final List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; ++i) {
+            final int index = i;
+            tasks.add(() -> order.add(index));
+        }
+
+        new ClassBatch(tasks).run();
+
+        final List<Integer> expected = new ArrayList<>(order);
+        Collections.sort(expected);
+        Assert.assertEquals(expected, order);
+        Assert.assertEquals(8, order.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRunFailure() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            pool.submit(new ClassBatch(Collections.nCopies(16, () -> {
+                throw new IllegalStateException("Simulated Failure");
+            }))).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
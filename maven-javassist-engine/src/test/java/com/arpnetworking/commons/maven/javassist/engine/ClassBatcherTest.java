@@ -0,0 +1,81 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link ClassBatcher}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ClassBatcherTest {
+
+    @Test
+    public void testBatchByPackage() {
+        final List<List<String>> batches = new ArrayList<>();
+        final List<String> added = new ArrayList<>();
+        final ClassBatcher<Runnable> batcher = new ClassBatcher<>(10, batch -> batches.add(run(batch, added)));
+
+        add(batcher, added, "com.example.foo.A");
+        add(batcher, added, "com.example.foo.B");
+        add(batcher, added, "com.example.bar.C");
+        add(batcher, added, "Default");
+        Assert.assertEquals(2, batches.size());
+        batcher.flush();
+
+        Assert.assertEquals(
+                Arrays.asList(
+                        Arrays.asList("com.example.foo.A", "com.example.foo.B"),
+                        Arrays.asList("com.example.bar.C"),
+                        Arrays.asList("Default")),
+                batches);
+    }
+
+    @Test
+    public void testBatchBySize() {
+        final List<List<String>> batches = new ArrayList<>();
+        final List<String> added = new ArrayList<>();
+        final ClassBatcher<Runnable> batcher = new ClassBatcher<>(2, batch -> batches.add(run(batch, added)));
+
+        add(batcher, added, "com.example.A");
+        add(batcher, added, "com.example.B");
+        add(batcher, added, "com.example.C");
+        batcher.flush();
+        batcher.flush();
+
+        Assert.assertEquals(
+                Arrays.asList(
+                        Arrays.asList("com.example.A", "com.example.B"),
+                        Arrays.asList("com.example.C")),
+                batches);
+    }
+
+    private static void add(final ClassBatcher<Runnable> batcher, final List<String> added, final String className) {
+        batcher.add(className, () -> added.add(className));
+    }
+
+    private static List<String> run(final List<Runnable> batch, final List<String> added) {
+        added.clear();
+        batch.forEach(Runnable::run);
+        return new ArrayList<>(added);
+    }
+}
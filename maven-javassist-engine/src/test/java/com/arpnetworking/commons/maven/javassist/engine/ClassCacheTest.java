@@ -0,0 +1,292 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.hash.Hashing;
+import javassist.CtClass;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Tests for {@link ClassCache}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ClassCacheTest {
+
+    @Test
+    public void testCreateProcessorKey() throws IOException {
+        final String key = ClassCache.createProcessorKey(TestProcessor.class);
+        MatcherAssert.assertThat(key, Matchers.startsWith(TestProcessor.class.getName() + ":"));
+        MatcherAssert.assertThat(key, Matchers.endsWith(":" + CtClass.version));
+        Assert.assertEquals(key, ClassCache.createProcessorKey(TestProcessor.class));
+        Assert.assertNotEquals(key, ClassCache.createProcessorKey(ClassCacheTest.class));
+    }
+
+    @Test
+    public void testCreateProcessorKeyImplementationVersion() throws IOException {
+        final String key = ClassCache.createProcessorKey(Test.class);
+        Assert.assertEquals(
+                Test.class.getName() + ":" + Test.class.getPackage().getImplementationVersion() + ":" + CtClass.version,
+                key);
+    }
+
+    @Test
+    public void testMissStoreAndRestore() throws IOException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        final Path inputFile = writeFile("input/Foo.class", "unprocessed");
+        final Path outputFile = _temporaryFolder.getRoot().toPath().resolve("output/Foo.class");
+        final ClassCache cache = new ClassCache(cacheDirectory, "processor:1", Long.MAX_VALUE);
+
+        Assert.assertFalse(restore(cache, "Foo", inputFile, createOutput(outputFile)));
+        Files.write(inputFile, "processed".getBytes(StandardCharsets.UTF_8));
+        cache.store("Foo", inputFile);
+        Assert.assertEquals(1, countEntries(cacheDirectory));
+
+        Files.write(inputFile, "unprocessed".getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(restore(cache, "Foo", inputFile, createOutput(outputFile)));
+        Assert.assertArrayEquals("processed".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(outputFile));
+    }
+
+    @Test
+    public void testRestoreIdentical() throws IOException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        final Path inputFile = writeFile("input/Foo.class", "unprocessed");
+        final ClassCache cache = new ClassCache(cacheDirectory, "processor:1", Long.MAX_VALUE);
+        Assert.assertFalse(restore(cache, "Foo", inputFile, createOutput(inputFile)));
+        Files.write(inputFile, "processed".getBytes(StandardCharsets.UTF_8));
+        cache.store("Foo", inputFile);
+
+        // An identical output class file is left untouched
+        final Path outputFile = writeFile("output/Foo.class", "processed");
+        Files.setLastModifiedTime(outputFile, FileTime.fromMillis(1000L));
+        Files.write(inputFile, "unprocessed".getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(restore(cache, "Foo", inputFile, createOutput(outputFile)));
+        Assert.assertEquals(1000L, Files.getLastModifiedTime(outputFile).toMillis());
+    }
+
+    @Test
+    public void testRestoreDifferentProcessor() throws IOException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        final Path inputFile = writeFile("Foo.class", "unprocessed");
+        final ClassCache cache = new ClassCache(cacheDirectory, "processor:1", Long.MAX_VALUE);
+        Assert.assertFalse(restore(cache, "Foo", inputFile, createOutput(inputFile)));
+        Files.write(inputFile, "processed".getBytes(StandardCharsets.UTF_8));
+        cache.store("Foo", inputFile);
+
+        Files.write(inputFile, "unprocessed".getBytes(StandardCharsets.UTF_8));
+        final ClassCache otherCache = new ClassCache(cacheDirectory, "processor:2", Long.MAX_VALUE);
+        Assert.assertFalse(restore(otherCache, "Foo", inputFile, createOutput(inputFile)));
+    }
+
+    @Test
+    public void testStoreUnmodified() throws IOException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        final Path inputFile = writeFile("Foo.class", "unprocessed");
+        final ClassCache cache = new ClassCache(cacheDirectory, "processor:1", Long.MAX_VALUE);
+        Assert.assertFalse(restore(cache, "Foo", inputFile, createOutput(inputFile)));
+        cache.store("Foo", inputFile);
+        Assert.assertEquals(1, countEntries(cacheDirectory));
+
+        // The empty entry restores the unchanged input
+        final Path outputFile = _temporaryFolder.getRoot().toPath().resolve("output/Foo.class");
+        Assert.assertTrue(restore(cache, "Foo", inputFile, createOutput(outputFile)));
+        Assert.assertArrayEquals("unprocessed".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(outputFile));
+    }
+
+    @Test
+    public void testStoreNotPending() throws IOException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        final Path inputFile = writeFile("Foo.class", "processed");
+        final ClassCache cache = new ClassCache(cacheDirectory, "processor:1", Long.MAX_VALUE);
+        cache.store("Foo", inputFile);
+        Assert.assertEquals(0, countEntries(cacheDirectory));
+    }
+
+    @Test
+    public void testGetAndPut() throws IOException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        final ClassCache cache = new ClassCache(cacheDirectory, "processor:1", Long.MAX_VALUE);
+        final String key = cache.createKey("unprocessed".getBytes(StandardCharsets.UTF_8));
+        Assert.assertFalse(cache.get(key).isPresent());
+
+        cache.put(key, "processed".getBytes(StandardCharsets.UTF_8));
+        Assert.assertArrayEquals("processed".getBytes(StandardCharsets.UTF_8), cache.get(key).get());
+        Assert.assertEquals(1, countEntries(cacheDirectory));
+
+        final ClassCache otherCache = new ClassCache(cacheDirectory, "processor:2", Long.MAX_VALUE);
+        Assert.assertNotEquals(key, otherCache.createKey("unprocessed".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testTrimEvictsLeastRecentlyUsed() throws IOException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        // Each of the small entries is accounted as the minimum entry size of 512 bytes
+        final ClassCache cache = new ClassCache(cacheDirectory, "processor:1", 1024);
+        final Path oldInput = storeEntry(cache, "Old", 0);
+        storeEntry(cache, "Middle", 1);
+        storeEntry(cache, "New", 2);
+        Assert.assertEquals(3, countEntries(cacheDirectory));
+
+        // A cache hit makes the oldest entry the most recently used
+        final Path output = _temporaryFolder.getRoot().toPath().resolve("output/Old.class");
+        Files.write(oldInput, "unprocessed-Old".getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(restore(cache, "Old", oldInput, createOutput(output)));
+
+        cache.trim();
+        Assert.assertEquals(2, countEntries(cacheDirectory));
+        final Path middleInput = writeFile("Middle.class", "unprocessed-Middle");
+        Assert.assertFalse(restore(cache, "Middle", middleInput, createOutput(middleInput)));
+        Assert.assertTrue(restore(cache, "Old", oldInput, createOutput(output)));
+    }
+
+    @Test
+    public void testTrimMissingDirectory() throws IOException {
+        final Path cacheDirectory = _temporaryFolder.getRoot().toPath().resolve("missing");
+        final ClassCache cache = new ClassCache(cacheDirectory, "processor:1", 0);
+        cache.put(cache.createKey(new byte[0]), new byte[0]);
+        try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+        cache.trim();
+        Assert.assertFalse(Files.exists(cacheDirectory));
+    }
+
+    @Test
+    public void testTrimEstimate() throws IOException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        final ClassCache cache = new ClassCache(cacheDirectory, "processor:1", 2048);
+        storeEntry(cache, "First", 0);
+        cache.trim();
+        Assert.assertEquals("512", Files.readString(cacheDirectory.resolve("size")));
+
+        // Within the estimate the entries are not walked, so an entry the
+        // estimate does not account for is not evicted
+        writeFile("cache/00/unaccounted.class", "unaccounted");
+        Files.setLastModifiedTime(cacheDirectory.resolve("00/unaccounted.class"), FileTime.fromMillis(0));
+        final ClassCache otherCache = new ClassCache(cacheDirectory, "processor:1", 1024);
+        storeEntry(otherCache, "Second", 1);
+        otherCache.trim();
+        Assert.assertEquals("1024", Files.readString(cacheDirectory.resolve("size")));
+        Assert.assertTrue(Files.exists(cacheDirectory.resolve("00/unaccounted.class")));
+
+        // Without entries written since the last trim nothing is done
+        otherCache.trim();
+
+        // Over the estimate the entries are walked and the oldest evicted
+        storeEntry(otherCache, "Third", 2);
+        otherCache.trim();
+        Assert.assertFalse(Files.exists(cacheDirectory.resolve("00/unaccounted.class")));
+        Assert.assertEquals("1024", Files.readString(cacheDirectory.resolve("size")));
+    }
+
+    @Test
+    public void testParseSize() {
+        Assert.assertEquals(100L, ClassCache.parseSize("100"));
+        Assert.assertEquals(2048L, ClassCache.parseSize("2K"));
+        Assert.assertEquals(3L * 1024 * 1024, ClassCache.parseSize("3m"));
+        Assert.assertEquals(4L * 1024 * 1024 * 1024, ClassCache.parseSize(" 4G "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseSizeInvalid() {
+        ClassCache.parseSize("FooM");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseSizeEmpty() {
+        ClassCache.parseSize(" ");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseSizeNegative() {
+        ClassCache.parseSize("-1K");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseSizeOverflow() {
+        ClassCache.parseSize(Long.MAX_VALUE + "G");
+    }
+
+    private Path storeEntry(final ClassCache cache, final String name, final int age) throws IOException {
+        final Path inputFile = writeFile(name + ".class", "unprocessed-" + name);
+        Assert.assertFalse(restore(cache, name, inputFile, createOutput(inputFile)));
+        Files.write(inputFile, ("processed-" + name).getBytes(StandardCharsets.UTF_8));
+        cache.store(name, inputFile);
+        try (Stream<Path> paths = Files.walk(_temporaryFolder.getRoot().toPath().resolve("cache"))) {
+            paths.filter(Files::isRegularFile)
+                    .forEach(path -> setLastModifiedTimeIfUnset(path, age));
+        }
+        return inputFile;
+    }
+
+    private static void setLastModifiedTimeIfUnset(final Path path, final int age) {
+        try {
+            if (Files.getLastModifiedTime(path).toMillis() > 1000000L) {
+                Files.setLastModifiedTime(path, FileTime.fromMillis(1000L * (age + 1)));
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean restore(
+            final ClassCache cache,
+            final String className,
+            final Path inputFile,
+            final DirectoryClassOutput output)
+            throws IOException {
+        final byte[] input = Files.readAllBytes(inputFile);
+        return cache.restore(className, input, Hashing.sha256().hashBytes(input), output);
+    }
+
+    private static DirectoryClassOutput createOutput(final Path classFile) {
+        // The tests name classes by their simple name in the class file's directory
+        return new DirectoryClassOutput(
+                BuildChanges.FULL,
+                classFile.toFile().getParentFile().toPath(),
+                PerformanceReport.DISABLED);
+    }
+
+    private static long countEntries(final Path cacheDirectory) throws IOException {
+        try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+            return paths.filter(path -> path.toString().endsWith(".class")).count();
+        }
+    }
+
+    private Path writeFile(final String name, final String content) throws IOException {
+        final Path file = _temporaryFolder.getRoot().toPath().resolve(name);
+        Files.createDirectories(file.toFile().getParentFile().toPath());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+}
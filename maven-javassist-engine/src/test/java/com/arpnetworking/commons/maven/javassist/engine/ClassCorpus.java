@@ -0,0 +1,137 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.Processed;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewMethod;
+import javassist.NotFoundException;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.annotation.Annotation;
+import javassist.bytecode.annotation.ArrayMemberValue;
+import javassist.bytecode.annotation.MemberValue;
+import javassist.bytecode.annotation.StringMemberValue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates a corpus of class files resembling those of a typical project.
+ * Classes are spread over packages, implement interfaces and extend other
+ * classes in the corpus, carry fields with accessors and methods with
+ * bodies, and a share of them is annotated or already marked as processed
+ * by {@link BenchmarkProcessor}. Generation is deterministic so results
+ * are comparable between runs.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class ClassCorpus {
+
+    /**
+     * Generate the corpus into a class directory.
+     *
+     * @param directory The class directory to write the corpus to.
+     * @param classCount The number of classes to generate.
+     * @return The names of the generated classes in generation order.
+     * @throws IOException if the corpus cannot be written.
+     */
+    static List<String> generate(final Path directory, final int classCount) throws IOException {
+        final ClassPool classPool = new ClassPool(true);
+        final List<String> classNames = new ArrayList<>(classCount);
+        try {
+            for (int i = 0; i < classCount; ++i) {
+                final CtClass ctClass = createClass(classPool, i);
+                ctClass.writeFile(directory.toString());
+                classNames.add(ctClass.getName());
+            }
+        } catch (final CannotCompileException | NotFoundException e) {
+            throw new IOException("Unable to generate class corpus", e);
+        }
+        return classNames;
+    }
+
+    private static CtClass createClass(final ClassPool classPool, final int index)
+            throws CannotCompileException, NotFoundException {
+        final String packageName = PACKAGE_PREFIX + index / CLASSES_PER_PACKAGE;
+        final CtClass ctClass = classPool.makeClass(packageName + ".Generated" + index);
+
+        // Extend the previous class in the package for a share of classes
+        if (index % SUBCLASS_INTERVAL == 1 && index % CLASSES_PER_PACKAGE != 0) {
+            ctClass.setSuperclass(classPool.get(packageName + ".Generated" + (index - 1)));
+        }
+        if (index % SERIALIZABLE_INTERVAL == 0) {
+            ctClass.addInterface(classPool.get("java.io.Serializable"));
+        }
+
+        // Add fields of mixed types with accessors
+        final StringBuilder toString = new StringBuilder("public String toString() { return new StringBuilder()");
+        for (int i = 0; i < FIELD_TYPES.length; ++i) {
+            final String fieldName = "_field" + i;
+            final CtField field = CtField.make("private " + FIELD_TYPES[i] + " " + fieldName + ";", ctClass);
+            ctClass.addField(field);
+            ctClass.addMethod(CtNewMethod.getter("getField" + i, field));
+            ctClass.addMethod(CtNewMethod.setter("setField" + i, field));
+            toString.append(".append(\"").append(fieldName).append("=\").append(").append(fieldName).append(')');
+        }
+        ctClass.addMethod(CtNewMethod.make(toString.append(".toString(); }").toString(), ctClass));
+        ctClass.addMethod(CtMethod.make(
+                "public int compute(int value) {"
+                        + " int result = _field0;"
+                        + " for (int i = 0; i < value; ++i) { result = result * 31 + i; }"
+                        + " return result; }",
+                ctClass));
+
+        // Annotate a share of the classes
+        final ClassFile classFile = ctClass.getClassFile();
+        final ConstPool constPool = classFile.getConstPool();
+        if (index % DEPRECATED_INTERVAL == 0) {
+            final AnnotationsAttribute visible = new AnnotationsAttribute(constPool, AnnotationsAttribute.visibleTag);
+            visible.addAnnotation(new Annotation("java.lang.Deprecated", constPool));
+            classFile.addAttribute(visible);
+        }
+        if (index % PROCESSED_INTERVAL == 0) {
+            final AnnotationsAttribute invisible = new AnnotationsAttribute(
+                    constPool,
+                    AnnotationsAttribute.invisibleTag);
+            final Annotation processed = new Annotation(Processed.class.getName(), constPool);
+            final ArrayMemberValue value = new ArrayMemberValue(constPool);
+            value.setValue(new MemberValue[]{new StringMemberValue(BenchmarkProcessor.class.getName(), constPool)});
+            processed.addMemberValue("value", value);
+            invisible.addAnnotation(processed);
+            classFile.addAttribute(invisible);
+        }
+        return ctClass;
+    }
+
+    private ClassCorpus() {}
+
+    private static final String PACKAGE_PREFIX = "com.example.corpus.p";
+    private static final int CLASSES_PER_PACKAGE = 25;
+    private static final int SUBCLASS_INTERVAL = 4;
+    private static final int SERIALIZABLE_INTERVAL = 3;
+    private static final int DEPRECATED_INTERVAL = 7;
+    private static final int PROCESSED_INTERVAL = 10;
+    private static final String[] FIELD_TYPES = {
+        "int", "long", "java.lang.String", "java.util.List", "double", "boolean"};
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Tests for {@link ClassDirectoryWalker}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ClassDirectoryWalkerTest {
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        _executorService = ProcessingExecutors.createDiscoveryExecutorService();
+    }
+
+    @After
+    public void tearDown() {
+        _executorService.shutdownNow();
+    }
+
+    @Test
+    public void testForEachOrder() throws IOException {
+        final Path directory = _temporaryFolder.newFolder("classes").toPath();
+        createFiles(
+                directory,
+                "com/example/b/Beta.class",
+                "com/example/a/z/Zeta.class",
+                "com/example/a/Alpha.class",
+                "com/example/Root.class",
+                "com/example/a/Gamma.class",
+                "Default.class");
+
+        final List<String> expected = Arrays.asList(
+                "Default",
+                "com.example.Root",
+                "com.example.a.Alpha",
+                "com.example.a.Gamma",
+                "com.example.a.z.Zeta",
+                "com.example.b.Beta");
+        for (int i = 0; i < 10; ++i) {
+            Assert.assertEquals(expected, walk(directory));
+        }
+    }
+
+    @Test
+    public void testForEachClassFiles() throws IOException {
+        final Path directory = _temporaryFolder.newFolder("classes").toPath();
+        createFiles(
+                directory,
+                "com/example/Foo.class",
+                "com/example/Foo.java",
+                "com/example/Foo.class.tmp",
+                "META-INF/MANIFEST.MF");
+        Files.createDirectories(directory.resolve("com/example/empty"));
+
+        final List<Path> files = new ArrayList<>();
+        new ClassDirectoryWalker(_executorService).start(directory).forEach((className, file) -> files.add(file));
+        Assert.assertEquals(Collections.singletonList(directory.resolve("com/example/Foo.class")), files);
+    }
+
+    @Test
+    public void testForEachRegularFile() throws IOException {
+        final Path file = _temporaryFolder.newFile("classes.jar").toPath();
+        Assert.assertEquals(Collections.emptyList(), walk(file));
+    }
+
+    @Test(expected = CompletionException.class)
+    public void testForEachMissingDirectory() throws IOException {
+        walk(_temporaryFolder.getRoot().toPath().resolve("missing"));
+    }
+
+    private List<String> walk(final Path directory) {
+        final List<String> classNames = new ArrayList<>();
+        new ClassDirectoryWalker(_executorService).start(directory)
+                .forEach((className, file) -> classNames.add(className));
+        return classNames;
+    }
+
+    private static void createFiles(final Path directory, final String... files) throws IOException {
+        for (final String file : files) {
+            final Path path = directory.resolve(file);
+            final Path parent = path.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(path, new byte[0]);
+        }
+    }
+
+    private ExecutorService _executorService;
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Tests for {@link ClassFileReader}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ClassFileReaderTest {
+
+    @Test
+    public void testReadPrefetched() throws IOException, CannotCompileException {
+        final Path directory = _temporaryFolder.getRoot().toPath();
+        final ClassPool classPool = new ClassPool(true);
+        final byte[] classFile = new ClassPool(true).makeClass("com.example.reader.Foo").toBytecode();
+        final Path file = DirectoryClassOutput.getClassFile(directory, "com.example.reader.Foo");
+        Files.createDirectories(directory.resolve("com/example/reader"));
+        Files.write(file, classFile);
+
+        final PrefetchingClassPath classPath = new PrefetchingClassPath(directory, Runnable::run);
+        final ClassFileReader classFileReader = new ClassFileReader(classPool);
+        classFileReader.insertClassPath(classPath);
+        classPath.prefetch("com.example.reader.Foo", file);
+        Files.delete(file);
+
+        Assert.assertArrayEquals(classFile, classFileReader.read("com.example.reader.Foo").orElse(null));
+    }
+
+    @Test
+    public void testReadClassPool() {
+        final ClassFileReader classFileReader = new ClassFileReader(new ClassPool(true));
+        classFileReader.insertClassPath(new PrefetchingClassPath(_temporaryFolder.getRoot().toPath(), Runnable::run));
+
+        Assert.assertEquals(
+                Optional.of(Collections.singletonList(Object.class.getName())),
+                classFileReader.read(ClassFileReaderTest.class.getName()).map(ClassFileScanner::readSupertypes));
+        Assert.assertFalse(classFileReader.read("com.example.reader.Missing").isPresent());
+    }
+
+    @Test
+    public void testReadUnreadable() throws IOException {
+        final ClassPool classPool = Mockito.mock(ClassPool.class);
+        Mockito.doReturn(_temporaryFolder.getRoot().toPath().resolve("Missing.class").toUri().toURL())
+                .when(classPool).find("com.example.reader.Missing");
+        Assert.assertFalse(new ClassFileReader(classPool).read("com.example.reader.Missing").isPresent());
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.HintedClassProcessor;
+import javassist.CtClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests for {@link ClassFileScanner}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ClassFileScannerTest {
+
+    @Test
+    public void testCreateNoHints() {
+        Assert.assertNull(ClassFileScanner.create(new TestHintedProcessor(
+                Collections.emptySet(),
+                Collections.emptySet(),
+                Collections.emptySet())));
+    }
+
+    @Test
+    public void testMatchesAnnotation() throws IOException {
+        final ClassFileScanner scanner = createScanner(Collections.singleton(Hint.class.getName()), NONE, NONE);
+        Assert.assertTrue(scanner.matches(readClassFile(AnnotatedClass.class)));
+        Assert.assertFalse(scanner.matches(readClassFile(PlainClass.class)));
+    }
+
+    @Test
+    public void testMatchesSuperclass() throws IOException {
+        final ClassFileScanner scanner = createScanner(NONE, Collections.singleton(PlainClass.class.getName()), NONE);
+        Assert.assertTrue(scanner.matches(readClassFile(SubClass.class)));
+        Assert.assertFalse(scanner.matches(readClassFile(PlainClass.class)));
+    }
+
+    @Test
+    public void testMatchesInterface() throws IOException {
+        final ClassFileScanner scanner = createScanner(NONE, Collections.singleton(Runnable.class.getName()), NONE);
+        Assert.assertTrue(scanner.matches(readClassFile(SubClass.class)));
+        Assert.assertFalse(scanner.matches(readClassFile(AnnotatedClass.class)));
+    }
+
+    @Test
+    public void testMatchesReference() throws IOException {
+        final ClassFileScanner scanner = createScanner(NONE, NONE, Collections.singleton(AtomicLong.class.getName()));
+        Assert.assertTrue(scanner.matches(readClassFile(ReferencingClass.class)));
+        Assert.assertFalse(scanner.matches(readClassFile(PlainClass.class)));
+    }
+
+    @Test
+    public void testMatchesAnyHint() throws IOException {
+        final ClassFileScanner scanner = createScanner(
+                Collections.singleton(Hint.class.getName()),
+                Collections.singleton(Runnable.class.getName()),
+                Collections.singleton(AtomicLong.class.getName()));
+        Assert.assertTrue(scanner.matches(readClassFile(AnnotatedClass.class)));
+        Assert.assertTrue(scanner.matches(readClassFile(SubClass.class)));
+        Assert.assertTrue(scanner.matches(readClassFile(ReferencingClass.class)));
+        Assert.assertFalse(scanner.matches(readClassFile(PlainClass.class)));
+    }
+
+    @Test
+    public void testMatchesInvalidMagic() {
+        final ClassFileScanner scanner = createScanner(NONE, NONE, Collections.singleton(AtomicLong.class.getName()));
+        Assert.assertTrue(scanner.matches(new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}));
+    }
+
+    @Test
+    public void testMatchesTruncated() throws IOException {
+        final ClassFileScanner scanner = createScanner(NONE, NONE, Collections.singleton(AtomicLong.class.getName()));
+        Assert.assertTrue(scanner.matches(Arrays.copyOf(readClassFile(PlainClass.class), 16)));
+    }
+
+    @Test
+    public void testMatchesUnknownConstant() {
+        final ClassFileScanner scanner = createScanner(NONE, NONE, Collections.singleton(AtomicLong.class.getName()));
+        final byte[] classFile = {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 52, 0, 2, 99};
+        Assert.assertTrue(scanner.matches(classFile));
+    }
+
+    @Test
+    public void testReadSupertypes() throws IOException {
+        Assert.assertEquals(
+                Arrays.asList(PlainClass.class.getName(), Runnable.class.getName()),
+                ClassFileScanner.readSupertypes(readClassFile(SubClass.class)));
+        Assert.assertEquals(
+                Collections.singletonList(Object.class.getName()),
+                ClassFileScanner.readSupertypes(readClassFile(PlainClass.class)));
+    }
+
+    @Test
+    public void testReadSupertypesInvalid() throws IOException {
+        Assert.assertEquals(
+                Collections.emptyList(),
+                ClassFileScanner.readSupertypes(new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}));
+        Assert.assertEquals(
+                Collections.emptyList(),
+                ClassFileScanner.readSupertypes(Arrays.copyOf(readClassFile(PlainClass.class), 16)));
+        Assert.assertEquals(
+                Collections.emptyList(),
+                ClassFileScanner.readSupertypes(
+                        new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 52, 0, 2, 99}));
+    }
+
+    private static ClassFileScanner createScanner(
+            final Set<String> annotations,
+            final Set<String> supertypes,
+            final Set<String> references) {
+        final ClassFileScanner scanner = ClassFileScanner.create(
+                new TestHintedProcessor(annotations, supertypes, references));
+        Assert.assertNotNull(scanner);
+        return scanner;
+    }
+
+    private static byte[] readClassFile(final Class<?> clazz) throws IOException {
+        try (InputStream inputStream = clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class")) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static final Set<String> NONE = Collections.emptySet();
+
+    private static final class TestHintedProcessor implements HintedClassProcessor {
+
+        TestHintedProcessor(final Set<String> annotations, final Set<String> supertypes, final Set<String> references) {
+            _annotations = annotations;
+            _supertypes = supertypes;
+            _references = references;
+        }
+
+        @Override
+        public Set<String> getAnnotationHints() {
+            return _annotations;
+        }
+
+        @Override
+        public Set<String> getSupertypeHints() {
+            return _supertypes;
+        }
+
+        @Override
+        public Set<String> getReferenceHints() {
+            return _references;
+        }
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            // Nothing to do
+        }
+
+        private final Set<String> _annotations;
+        private final Set<String> _supertypes;
+        private final Set<String> _references;
+    }
+
+    @Retention(RetentionPolicy.CLASS)
+    private @interface Hint {}
+
+    @Hint
+    private static final class AnnotatedClass {}
+
+    private static class PlainClass {
+        private static final long LONG_CONSTANT = 1234567890123L;
+        private static final double DOUBLE_CONSTANT = 1234.5;
+        private static final String STRING_CONSTANT = "constant";
+    }
+
+    private static final class SubClass extends PlainClass implements Runnable {
+        @Override
+        public void run() {
+            // Nothing to do
+        }
+    }
+
+    private static final class ReferencingClass {
+        private final Object _value = new AtomicLong();
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.hash.Hashing;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests for {@link ClassManifest}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ClassManifestTest {
+
+    @Test
+    public void testLoadMissing() throws IOException {
+        final Path manifestFile = _temporaryFolder.getRoot().toPath().resolve("missing.manifest");
+        final ClassManifest manifest = ClassManifest.load(manifestFile, PROCESSOR);
+        Assert.assertNull(manifest.getEntry("com.example.Foo"));
+    }
+
+    @Test
+    public void testLoadIgnoresMalformedEntries() throws IOException {
+        final Path manifestFile = _temporaryFolder.newFile("malformed.manifest").toPath();
+        Files.write(
+                manifestFile,
+                ("com.example.Foo aaa bbb com.example.Processor\n"
+                        + "com.example.Bar ccc\n").getBytes(StandardCharsets.UTF_8));
+        final ClassManifest manifest = ClassManifest.load(manifestFile, PROCESSOR);
+        Assert.assertNotNull(manifest.getEntry("com.example.Foo"));
+        Assert.assertNull(manifest.getEntry("com.example.Bar"));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        final Path manifestFile = _temporaryFolder.getRoot().toPath().resolve("nested/save.manifest");
+        final Path classFile = writeClassFile("Foo.class", "before");
+
+        final ClassManifest manifest = ClassManifest.load(manifestFile, PROCESSOR);
+        Assert.assertTrue(requiresProcessing(manifest, "com.example.Foo", classFile, true));
+        final String inputHash = ClassManifest.hash(classFile);
+        Files.write(classFile, "after".getBytes(StandardCharsets.UTF_8));
+        manifest.recordProcessed("com.example.Foo", classFile);
+        manifest.save();
+
+        final ClassManifest loadedManifest = ClassManifest.load(manifestFile, PROCESSOR);
+        final ClassManifest.Entry entry = loadedManifest.getEntry("com.example.Foo");
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(inputHash, entry.getInputHash());
+        Assert.assertEquals(ClassManifest.hash(classFile), entry.getOutputHash());
+        Assert.assertEquals(PROCESSOR, entry.getProcessor());
+        Assert.assertFalse(Files.exists(manifestFile.resolveSibling("save.manifest.tmp")));
+    }
+
+    @Test
+    public void testRequiresProcessingUnchanged() throws IOException {
+        final Path classFile = writeClassFile("Foo.class", "content");
+        final ClassManifest manifest = createProcessedManifest(classFile);
+        Assert.assertFalse(requiresProcessing(manifest, "com.example.Foo", classFile, true));
+    }
+
+    @Test
+    public void testRequiresProcessingChanged() throws IOException {
+        final Path classFile = writeClassFile("Foo.class", "content");
+        final ClassManifest manifest = createProcessedManifest(classFile);
+        Files.write(classFile, "changed".getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(requiresProcessing(manifest, "com.example.Foo", classFile, true));
+    }
+
+    @Test
+    public void testRequiresProcessingNoDelta() throws IOException {
+        final Path classFile = writeClassFile("Foo.class", "content");
+        final ClassManifest manifest = createProcessedManifest(classFile);
+        Files.delete(classFile);
+        // The file is not read when the build context reports no delta
+        Assert.assertFalse(requiresProcessing(manifest, "com.example.Foo", classFile, false));
+    }
+
+    @Test
+    public void testRequiresProcessingDifferentProcessor() throws IOException {
+        final Path classFile = writeClassFile("Foo.class", "content");
+        createProcessedManifest(classFile);
+        final ClassManifest manifest = ClassManifest.load(_manifestFile, "com.example.OtherProcessor");
+        Assert.assertTrue(requiresProcessing(manifest, "com.example.Foo", classFile, false));
+        Assert.assertTrue(requiresProcessing(manifest, "com.example.Foo", classFile, true));
+    }
+
+    @Test
+    public void testRecordProcessedNotPending() throws IOException {
+        final Path classFile = writeClassFile("Foo.class", "content");
+        final ClassManifest manifest = ClassManifest.load(_temporaryFolder.getRoot().toPath().resolve("x"), PROCESSOR);
+        manifest.recordProcessed("com.example.Foo", classFile);
+        Assert.assertNull(manifest.getEntry("com.example.Foo"));
+    }
+
+    @Test
+    public void testPrune() throws IOException {
+        final Path fooFile = writeClassFile("Foo.class", "foo");
+        final Path barFile = writeClassFile("Bar.class", "bar");
+        final Path manifestFile = _temporaryFolder.getRoot().toPath().resolve("prune.manifest");
+
+        final ClassManifest manifest = ClassManifest.load(manifestFile, PROCESSOR);
+        requiresProcessing(manifest, "com.example.Foo", fooFile, true);
+        requiresProcessing(manifest, "com.example.Bar", barFile, true);
+        manifest.recordProcessed("com.example.Foo", fooFile);
+        manifest.recordProcessed("com.example.Bar", barFile);
+        manifest.save();
+
+        final ClassManifest nextManifest = ClassManifest.load(manifestFile, PROCESSOR);
+        requiresProcessing(nextManifest, "com.example.Foo", fooFile, true);
+        nextManifest.prune();
+        Assert.assertNotNull(nextManifest.getEntry("com.example.Foo"));
+        Assert.assertNull(nextManifest.getEntry("com.example.Bar"));
+    }
+
+    private ClassManifest createProcessedManifest(final Path classFile) throws IOException {
+        _manifestFile = _temporaryFolder.getRoot().toPath().resolve("processed.manifest");
+        final ClassManifest manifest = ClassManifest.load(_manifestFile, PROCESSOR);
+        requiresProcessing(manifest, "com.example.Foo", classFile, true);
+        manifest.recordProcessed("com.example.Foo", classFile);
+        manifest.save();
+        return ClassManifest.load(_manifestFile, PROCESSOR);
+    }
+
+    private static boolean requiresProcessing(
+            final ClassManifest manifest,
+            final String className,
+            final Path file,
+            final boolean hasDelta)
+            throws IOException {
+        return !manifest.isUnchanged(className, hasDelta)
+                && manifest.requiresProcessing(className, Hashing.sha256().hashBytes(Files.readAllBytes(file)));
+    }
+
+    private Path writeClassFile(final String name, final String content) throws IOException {
+        final Path file = _temporaryFolder.getRoot().toPath().resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private Path _manifestFile;
+
+    private static final String PROCESSOR = "com.example.Processor";
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+
+/**
+ * Tests for {@link ClassNameMatcher}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ClassNameMatcherTest {
+
+    @Test
+    public void testExact() {
+        final ClassNameMatcher matcher = ClassNameMatcher.compile(new String[]{"com.example.Foo", "com.example.Bar"});
+        Assert.assertTrue(matcher.test("com.example.Foo"));
+        Assert.assertTrue(matcher.test("com.example.Bar"));
+        Assert.assertFalse(matcher.test("com.example.Foo$Inner"));
+        Assert.assertFalse(matcher.test("com.example.Fo"));
+    }
+
+    @Test
+    public void testPrefix() {
+        final ClassNameMatcher matcher = ClassNameMatcher.compile(new String[]{"com.example.*", "org.example.Foo**"});
+        Assert.assertTrue(matcher.test("com.example.Foo"));
+        Assert.assertTrue(matcher.test("com.example.sub.Foo"));
+        Assert.assertTrue(matcher.test("com.example."));
+        Assert.assertTrue(matcher.test("org.example.FooBar"));
+        Assert.assertFalse(matcher.test("com.example"));
+        Assert.assertFalse(matcher.test("com.other.Foo"));
+        Assert.assertFalse(matcher.test("org.example.Bar"));
+    }
+
+    @Test
+    public void testPrefixAll() {
+        final ClassNameMatcher matcher = ClassNameMatcher.compile(new String[]{"**"});
+        Assert.assertTrue(matcher.test("com.example.Foo"));
+        Assert.assertTrue(matcher.test(""));
+    }
+
+    @Test
+    public void testPattern() {
+        final ClassNameMatcher matcher = ClassNameMatcher.compile(
+                new String[]{"*Test", "com.example.?oo", "com.[a-c]x.Foo", "com.[!a-c]y.Foo", "com.{foo,bar}.Baz"});
+        Assert.assertTrue(matcher.test("com.example.FooTest"));
+        Assert.assertTrue(matcher.test("com.example.Zoo"));
+        Assert.assertTrue(matcher.test("com.bx.Foo"));
+        Assert.assertTrue(matcher.test("com.dy.Foo"));
+        Assert.assertTrue(matcher.test("com.bar.Baz"));
+        Assert.assertFalse(matcher.test("com.example.FooTests"));
+        Assert.assertFalse(matcher.test("com.example.Fooo"));
+        Assert.assertFalse(matcher.test("com.dx.Foo"));
+        Assert.assertFalse(matcher.test("com.by.Foo"));
+        Assert.assertFalse(matcher.test("com.baz.Baz"));
+    }
+
+    @Test
+    public void testEscapes() {
+        final ClassNameMatcher matcher = ClassNameMatcher.compile(
+                new String[]{"com.example.Foo\\*", "com.[\\^&]", "a[b", "a}b,c\\"});
+        Assert.assertTrue(matcher.test("com.example.Foo*"));
+        Assert.assertTrue(matcher.test("com.^"));
+        Assert.assertTrue(matcher.test("com.&"));
+        Assert.assertTrue(matcher.test("a[b"));
+        Assert.assertTrue(matcher.test("a}b,c\\"));
+        Assert.assertFalse(matcher.test("com.example.FooBar"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnterminatedGroup() {
+        ClassNameMatcher.compile(new String[]{"com.{foo,bar"});
+    }
+
+    @Test
+    public void testConsistentWithPathMatcher() {
+        final String[] globs = {"com.example.*", "*Test", "com.example.?oo", "com.{foo,bar}.Baz", "com.[a-c]x.Foo"};
+        final String[] classNames = {
+            "com.example.Foo",
+            "com.example.FooTest",
+            "com.foo.Baz",
+            "com.bx.Foo",
+            "com.dx.Foo",
+            "org.example.Foo",
+            "com.example$Inner",
+        };
+        for (final String glob : globs) {
+            final ClassNameMatcher matcher = ClassNameMatcher.compile(new String[]{glob});
+            final PathMatcher pathMatcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+            for (final String className : classNames) {
+                Assert.assertEquals(
+                        glob + " " + className,
+                        pathMatcher.matches(Paths.get(className)),
+                        matcher.test(className));
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.CtClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of writing the classes of the corpus to a class directory
+ * with {@link DirectoryClassOutput}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ClassOutputBenchmark {
+
+    /**
+     * Create the output directories and populate the one for unchanged classes.
+     *
+     * @param corpus The {@code CorpusState} instance.
+     * @throws IOException if the output directories cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final CorpusState corpus) throws IOException {
+        _changedDirectory = Files.createTempDirectory("javassist-benchmark-changed");
+        _unchangedDirectory = Files.createTempDirectory("javassist-benchmark-unchanged");
+        _changedOutput = new DirectoryClassOutput(
+                BuildChanges.FULL,
+                _changedDirectory,
+                PerformanceReport.DISABLED);
+        _unchangedOutput = new DirectoryClassOutput(
+                BuildChanges.FULL,
+                _unchangedDirectory,
+                PerformanceReport.DISABLED);
+        for (final CtClass ctClass : ParsedClassesState.parse(corpus.getClassFiles())) {
+            _unchangedOutput.write(ctClass);
+        }
+    }
+
+    /**
+     * Remove the classes written by the previous invocation.
+     *
+     * @throws IOException if the classes cannot be removed.
+     */
+    @Setup(Level.Invocation)
+    public void clean() throws IOException {
+        CorpusState.delete(_changedDirectory);
+    }
+
+    /**
+     * Delete the output directories.
+     *
+     * @throws IOException if the output directories cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        CorpusState.delete(_changedDirectory);
+        CorpusState.delete(_unchangedDirectory);
+    }
+
+    /**
+     * Write each class to an empty class directory.
+     *
+     * @param classes The {@code ParsedClassesState} instance.
+     */
+    @Benchmark
+    public void writeClass(final ParsedClassesState classes) {
+        for (final CtClass ctClass : classes.getClasses()) {
+            _changedOutput.write(ctClass);
+        }
+    }
+
+    /**
+     * Write each class over an identical class file.
+     *
+     * @param classes The {@code ParsedClassesState} instance.
+     */
+    @Benchmark
+    public void writeClassUnchanged(final ParsedClassesState classes) {
+        for (final CtClass ctClass : classes.getClasses()) {
+            _unchangedOutput.write(ctClass);
+        }
+    }
+
+    private Path _changedDirectory;
+    private Path _unchangedDirectory;
+    private DirectoryClassOutput _changedOutput;
+    private DirectoryClassOutput _unchangedOutput;
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the steps {@link ClassProcessorTask} applies to each class
+ * of the corpus.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ClassProcessorTaskBenchmark {
+
+    /**
+     * Create the task and parse the corpus for the read only benchmarks.
+     *
+     * @param corpus The {@code CorpusState} instance.
+     * @throws IOException if a class cannot be parsed.
+     * @throws NotFoundException if the corpus cannot be added to the class pool.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final CorpusState corpus) throws IOException, NotFoundException {
+        final ClassPool classPool = new ClassPool(true);
+        classPool.appendClassPath(corpus.getDirectory().toString());
+        _scopedProcessor = new ScopedProcessor(PROCESSOR, className -> true, className -> false);
+        _task = new ClassProcessorTask(
+                classPool,
+                "",
+                Collections.singletonList(_scopedProcessor),
+                ctClass -> { },
+                BenchmarkRunner.createLog(),
+                PerformanceReport.DISABLED);
+        _classes = ParsedClassesState.parse(corpus.getClassFiles());
+    }
+
+    /**
+     * Parse the class files of the corpus.
+     *
+     * @param corpus The {@code CorpusState} instance.
+     * @return The parsed classes.
+     * @throws IOException if a class cannot be parsed.
+     */
+    @Benchmark
+    public List<CtClass> parse(final CorpusState corpus) throws IOException {
+        return ParsedClassesState.parse(corpus.getClassFiles());
+    }
+
+    /**
+     * Apply the acceptance checks of the task to each class.
+     *
+     * @param blackhole The {@code Blackhole} to consume the results.
+     */
+    @Benchmark
+    public void accept(final Blackhole blackhole) {
+        for (final CtClass ctClass : _classes) {
+            blackhole.consume(_task.accept(ctClass, _scopedProcessor, PROCESSOR));
+        }
+    }
+
+    /**
+     * Check each class for the processed annotation.
+     *
+     * @param blackhole The {@code Blackhole} to consume the results.
+     */
+    @Benchmark
+    public void isAlreadyProcessed(final Blackhole blackhole) {
+        for (final CtClass ctClass : _classes) {
+            blackhole.consume(_task.isAlreadyProcessed(ctClass, PROCESSOR));
+        }
+    }
+
+    /**
+     * Mark each freshly parsed class as processed.
+     *
+     * @param classes The {@code ParsedClassesState} instance.
+     * @return The marked classes.
+     */
+    @Benchmark
+    public List<CtClass> markAsProcessed(final ParsedClassesState classes) {
+        for (final CtClass ctClass : classes.getClasses()) {
+            _task.markAsProcessed(ctClass, PROCESSOR);
+        }
+        return classes.getClasses();
+    }
+
+    /**
+     * Compact and rebuild each freshly parsed class.
+     *
+     * @param classes The {@code ParsedClassesState} instance.
+     * @return The rebuilt classes.
+     */
+    @Benchmark
+    public List<CtClass> compactAndRebuild(final ParsedClassesState classes) {
+        for (final CtClass ctClass : classes.getClasses()) {
+            ctClass.getClassFile().compact();
+            ctClass.rebuildClassFile();
+        }
+        return classes.getClasses();
+    }
+
+    private ClassProcessorTask _task;
+    private ScopedProcessor _scopedProcessor;
+    private List<CtClass> _classes;
+
+    private static final BenchmarkProcessor PROCESSOR = new BenchmarkProcessor();
+}
@@ -0,0 +1,825 @@
+/**
+ * Copyright 2016 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ChangeReportingClassProcessor;
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import com.arpnetworking.commons.maven.javassist.HintedClassProcessor;
+import com.arpnetworking.commons.maven.javassist.LifecycleClassProcessor;
+import com.arpnetworking.commons.maven.javassist.Processed;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.LoaderClassPath;
+import javassist.NotFoundException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for {@link ClassProcessorTask}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ClassProcessorTaskTest {
+
+
+    @Before
+    public void setUp() {
+        _mocks = MockitoAnnotations.openMocks(this);
+        Mockito.doReturn(CLASS_NAME).when(_ctClass).getName();
+        _scopedProcessor = new ScopedProcessor(_processor, _includePredicate, _excludePredicate);
+    }
+
+    @After
+    public void after() throws Exception {
+        _mocks.close();
+    }
+
+    @Test
+    public void testRun() throws NotFoundException, IOException, CannotCompileException {
+        final Path outputDirectory = _temporaryFolder.getRoot().toPath();
+
+        final TestProcessor testProcessor = new TestProcessor(true);
+
+        final ClassPool classPool = createClassPool();
+        final CtClass testRunCtClass = classPool.get(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$TestRunClass");
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                testRunCtClass.getName(),
+                Collections.singletonList(new ScopedProcessor(testProcessor, _includePredicate, _excludePredicate)),
+                new DirectoryClassOutput(_context, outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        Mockito.doReturn(true).when(_includePredicate).test(testRunCtClass.getName());
+        Mockito.doReturn(false).when(_excludePredicate).test(testRunCtClass.getName());
+
+        classProcessorTask.run();
+
+        Assert.assertEquals(1, testProcessor.getAcceptCount());
+        Assert.assertEquals(1, testProcessor.getProcessCount());
+        Mockito.verify(_context).refresh(Mockito.any(Path.class));
+
+        Assert.assertTrue(testRunCtClass.isFrozen());
+        testRunCtClass.defrost();
+        Assert.assertTrue(classProcessorTask.isAlreadyProcessed(testRunCtClass, testProcessor));
+
+        final Path outputFile = outputDirectory.resolve(
+                "com/arpnetworking/commons/maven/javassist/engine/ClassProcessorTaskTest$TestRunClass.class");
+        Assert.assertTrue(Files.exists(outputFile));
+        final byte[] actualByteCode = Files.readAllBytes(outputFile);
+        final byte[] expectedByteCode = testRunCtClass.toBytecode();
+        Assert.assertArrayEquals(expectedByteCode, actualByteCode);
+    }
+
+    @Test
+    public void testRunChained() throws NotFoundException, IOException {
+        final Path outputDirectory = _temporaryFolder.getRoot().toPath();
+
+        final TestProcessor testProcessor = new TestProcessor(true);
+        final TestProcessor rejectingProcessor = new TestProcessor(false);
+
+        final ClassPool classPool = createClassPool();
+        final CtClass testChainedCtClass = classPool.get(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$TestChainedClass");
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                testChainedCtClass.getName(),
+                Arrays.asList(
+                        new ScopedProcessor(testProcessor, className -> true, className -> false),
+                        new ScopedProcessor(rejectingProcessor, className -> true, className -> false),
+                        new ScopedProcessor(_processor, className -> true, className -> false)),
+                new DirectoryClassOutput(_context, outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        Mockito.doReturn(true).when(_processor).accept(testChainedCtClass);
+
+        classProcessorTask.run();
+
+        Assert.assertEquals(1, testProcessor.getProcessCount());
+        Assert.assertEquals(1, rejectingProcessor.getAcceptCount());
+        Assert.assertEquals(0, rejectingProcessor.getProcessCount());
+        Mockito.verify(_processor).process(testChainedCtClass);
+        Mockito.verify(_context).refresh(Mockito.any(Path.class));
+
+        testChainedCtClass.defrost();
+        Assert.assertTrue(classProcessorTask.isAlreadyProcessed(testChainedCtClass, testProcessor));
+        Assert.assertTrue(classProcessorTask.isAlreadyProcessed(testChainedCtClass, _processor));
+    }
+
+    @Test
+    public void testRunBatch() throws NotFoundException {
+        final Path outputDirectory = _temporaryFolder.getRoot().toPath();
+
+        final BatchProcessor batchProcessor = new BatchProcessor();
+
+        final ClassPool classPool = createClassPool();
+        final String firstClassName = ClassProcessorTaskTest.class.getName() + "$TestBatchFirstClass";
+        final String secondClassName = ClassProcessorTaskTest.class.getName() + "$TestBatchSecondClass";
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                Arrays.asList(firstClassName, secondClassName),
+                Collections.singletonList(new ScopedProcessor(batchProcessor, className -> true, className -> false)),
+                new DirectoryClassOutput(_context, outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        classProcessorTask.run();
+
+        Assert.assertEquals(1, batchProcessor.getBatches().size());
+        Assert.assertEquals(Arrays.asList(firstClassName, secondClassName), batchProcessor.getBatches().get(0));
+        Mockito.verify(_context, Mockito.times(2)).refresh(Mockito.any(Path.class));
+
+        final CtClass firstCtClass = classPool.get(firstClassName);
+        firstCtClass.defrost();
+        Assert.assertTrue(classProcessorTask.isAlreadyProcessed(firstCtClass, batchProcessor));
+    }
+
+    @Test
+    public void testDetach() throws NotFoundException {
+        // The classes are not shared with the default class pool
+        final ClassPool classPool = new ClassPool(true);
+        final String processedClassName = ClassProcessorTaskTest.class.getName() + "$TestBatchFirstClass";
+        final String rejectedClassName = ClassProcessorTaskTest.class.getName() + "$TestBatchSecondClass";
+        final CtClass processedCtClass = classPool.get(processedClassName);
+        final CtClass rejectedCtClass = classPool.get(rejectedClassName);
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                Arrays.asList(processedClassName, rejectedClassName),
+                Collections.singletonList(new ScopedProcessor(
+                        new TestProcessor(true),
+                        processedClassName::equals,
+                        className -> false)),
+                new DirectoryClassOutput(_context, _temporaryFolder.getRoot().toPath(), PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+        classProcessorTask.run();
+
+        // The classes are retained until the task is detached
+        Assert.assertSame(processedCtClass, classPool.get(processedClassName));
+        Assert.assertSame(rejectedCtClass, classPool.get(rejectedClassName));
+        classProcessorTask.detach();
+        Assert.assertNotSame(processedCtClass, classPool.get(processedClassName));
+        Assert.assertNotSame(rejectedCtClass, classPool.get(rejectedClassName));
+    }
+
+    @Test
+    public void testRunUnchanged() throws NotFoundException {
+        final Path outputDirectory = _temporaryFolder.getRoot().toPath();
+
+        final ChangeReportingProcessor unchangedProcessor = new ChangeReportingProcessor(false);
+        final PerformanceReport report = new PerformanceReport(1);
+
+        final ClassPool classPool = createClassPool();
+        final CtClass testUnchangedCtClass = classPool.get(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$TestUnchangedClass");
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                testUnchangedCtClass.getName(),
+                Collections.singletonList(
+                        new ScopedProcessor(unchangedProcessor, className -> true, className -> false)),
+                new DirectoryClassOutput(_context, outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                report);
+
+        classProcessorTask.run();
+
+        Assert.assertEquals(1, unchangedProcessor.getProcessCount());
+        Mockito.verify(_context, Mockito.never()).refresh(Mockito.any(Path.class));
+        Assert.assertFalse(testUnchangedCtClass.isFrozen());
+        Assert.assertFalse(classProcessorTask.isAlreadyProcessed(testUnchangedCtClass, unchangedProcessor));
+        Assert.assertFalse(Files.exists(outputDirectory.resolve(
+                "com/arpnetworking/commons/maven/javassist/engine/ClassProcessorTaskTest$TestUnchangedClass.class")));
+        MatcherAssert.assertThat(
+                report.toJson(),
+                Matchers.containsString("\"unchanged\": [\"" + testUnchangedCtClass.getName() + "\"]"));
+    }
+
+    @Test
+    public void testRunRestored() throws NotFoundException, IOException {
+        final Path outputDirectory = _temporaryFolder.newFolder("restored").toPath();
+        final TestProcessor testProcessor = new TestProcessor(true);
+        final PerformanceReport report = new PerformanceReport(1);
+        final ClassCache cache = new ClassCache(
+                _temporaryFolder.newFolder("cache").toPath(),
+                "processor:1",
+                Long.MAX_VALUE);
+        final DirectoryClassOutput output = new DirectoryClassOutput(
+                _context,
+                outputDirectory,
+                PerformanceReport.DISABLED);
+        final ClassRecorder recorder = new ClassRecorder(null, cache, null, output, outputDirectory, _context, _log);
+        final List<String> classNames = Collections.singletonList(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$TestRestoredClass");
+
+        // The class is restored from the cache without being parsed again
+        final ClassPool classPool = new ClassPool(true);
+        for (int i = 0; i < 2; ++i) {
+            final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                    new ClassFileReader(classPool),
+                    classNames,
+                    Collections.singletonList(new ScopedProcessor(testProcessor, name -> true, name -> false)),
+                    output,
+                    _log,
+                    report,
+                    recorder);
+            recorder.recordAfter(classProcessorTask, classNames).run();
+            classProcessorTask.detach();
+        }
+
+        Assert.assertEquals(1, testProcessor.getProcessCount());
+        Assert.assertTrue(Files.exists(DirectoryClassOutput.getClassFile(outputDirectory, classNames.get(0))));
+        MatcherAssert.assertThat(
+                report.toJson(),
+                Matchers.containsString("\"upToDate\": [\"" + classNames.get(0) + "\"]"));
+    }
+
+    @Test
+    public void testRunUnchangedChained() throws NotFoundException {
+        final Path outputDirectory = _temporaryFolder.getRoot().toPath();
+
+        final ChangeReportingProcessor unchangedProcessor = new ChangeReportingProcessor(false);
+        final TestProcessor changedProcessor = new TestProcessor(true);
+
+        final ClassPool classPool = createClassPool();
+        final CtClass testUnchangedCtClass = classPool.get(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$TestUnchangedChainedClass");
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                testUnchangedCtClass.getName(),
+                Arrays.asList(
+                        new ScopedProcessor(unchangedProcessor, className -> true, className -> false),
+                        new ScopedProcessor(changedProcessor, className -> true, className -> false)),
+                new DirectoryClassOutput(_context, outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        classProcessorTask.run();
+
+        Assert.assertEquals(1, unchangedProcessor.getProcessCount());
+        Assert.assertEquals(1, changedProcessor.getProcessCount());
+        Mockito.verify(_context).refresh(Mockito.any(Path.class));
+
+        Assert.assertTrue(testUnchangedCtClass.isFrozen());
+        testUnchangedCtClass.defrost();
+        Assert.assertFalse(classProcessorTask.isAlreadyProcessed(testUnchangedCtClass, unchangedProcessor));
+        Assert.assertTrue(classProcessorTask.isAlreadyProcessed(testUnchangedCtClass, changedProcessor));
+    }
+
+    @Test
+    public void testRunProcessedManifest() throws NotFoundException, IOException {
+        final Path outputDirectory = _temporaryFolder.newFolder("classes").toPath();
+        final TestProcessor testProcessor = new TestProcessor(true);
+        final ProcessedClassManifest processedManifest = ProcessedClassManifest.load(
+                _temporaryFolder.getRoot().toPath().resolve("test.processed"),
+                outputDirectory,
+                Collections.singletonList(testProcessor.getClass().getName()));
+        final String className = TestManifestClass.class.getName();
+
+        // The class is written to and processed again from the output directory
+        final ClassPool classPool = createClassPool();
+        classPool.insertClassPath(outputDirectory.toString());
+        for (int i = 0; i < 2; ++i) {
+            new ClassProcessorTask(
+                    new ClassFileReader(classPool),
+                    Collections.singletonList(className),
+                    Collections.singletonList(new ScopedProcessor(testProcessor, name -> true, name -> false)),
+                    new DirectoryClassOutput(_context, outputDirectory, PerformanceReport.DISABLED),
+                    _log,
+                    PerformanceReport.DISABLED,
+                    createRecorder(processedManifest, outputDirectory)).run();
+            classPool.get(className).detach();
+        }
+
+        Assert.assertEquals(1, testProcessor.getAcceptCount());
+        Assert.assertEquals(1, testProcessor.getProcessCount());
+        Assert.assertNotNull(processedManifest.getEntry(className));
+        final CtClass ctClass = classPool.get(className);
+        Assert.assertFalse(ctClass.hasAnnotation(Processed.class));
+    }
+
+    @Test
+    public void testRunProcessedManifestRejected() throws NotFoundException, IOException {
+        final Path outputDirectory = _temporaryFolder.newFolder("rejected").toPath();
+        final TestProcessor testProcessor = new TestProcessor(false);
+        final ProcessedClassManifest processedManifest = ProcessedClassManifest.load(
+                _temporaryFolder.getRoot().toPath().resolve("rejected.processed"),
+                outputDirectory,
+                Collections.singletonList(testProcessor.getClass().getName()));
+        final String className = TestRejectedClass.class.getName();
+
+        // The rejection is recorded so the class is not parsed again
+        final ClassPool classPool = createClassPool();
+        for (int i = 0; i < 2; ++i) {
+            new ClassProcessorTask(
+                    new ClassFileReader(classPool),
+                    Collections.singletonList(className),
+                    Collections.singletonList(new ScopedProcessor(testProcessor, name -> true, name -> false)),
+                    new DirectoryClassOutput(_context, outputDirectory, PerformanceReport.DISABLED),
+                    _log,
+                    PerformanceReport.DISABLED,
+                    createRecorder(processedManifest, outputDirectory)).run();
+            classPool.get(className).detach();
+        }
+
+        Assert.assertEquals(1, testProcessor.getAcceptCount());
+        Assert.assertEquals(0, testProcessor.getProcessCount());
+        final ProcessedClassManifest.Entry entry = processedManifest.getEntry(className);
+        Assert.assertNotNull(entry);
+        Assert.assertTrue(entry.getProcessors().isEmpty());
+        Assert.assertEquals(Collections.singleton(testProcessor.getClass().getName()), entry.getRejectingProcessors());
+        Assert.assertFalse(Files.exists(DirectoryClassOutput.getClassFile(outputDirectory, className)));
+    }
+
+    @Test
+    public void testRunNotCandidate() throws NotFoundException {
+        final ClassProcessorTask classProcessorTask = createHintedTask("com.example.Missing");
+        Mockito.doReturn(getClass().getResource("ClassProcessorTaskTest$TestRunClass.class"))
+                .when(_classPool).find(CLASS_NAME);
+
+        classProcessorTask.run();
+
+        Mockito.verify(_classPool, Mockito.never()).get(Mockito.anyString());
+    }
+
+    @Test
+    public void testIsCandidate() {
+        final ClassProcessorTask classProcessorTask = createHintedTask(Object.class.getName());
+        Mockito.doReturn(getClass().getResource("ClassProcessorTaskTest$TestRunClass.class"))
+                .when(_classPool).find(CLASS_NAME);
+        Assert.assertTrue(classProcessorTask.isCandidate());
+    }
+
+    @Test
+    public void testIsCandidateNoClassFile() {
+        final ClassProcessorTask classProcessorTask = createHintedTask("com.example.Missing");
+        Assert.assertTrue(classProcessorTask.isCandidate());
+    }
+
+    @Test
+    public void testIsCandidateUnreadable() throws MalformedURLException {
+        final ClassProcessorTask classProcessorTask = createHintedTask("com.example.Missing");
+        Mockito.doReturn(Paths.get("./target/test-data/Missing.class").toUri().toURL())
+                .when(_classPool).find(CLASS_NAME);
+        Assert.assertTrue(classProcessorTask.isCandidate());
+    }
+
+    @Test
+    public void testRunNotAccepted() throws NotFoundException, IOException, CannotCompileException {
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                _classPool,
+                CLASS_NAME,
+                Collections.singletonList(_scopedProcessor),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        Mockito.doReturn(_ctClass).when(_classPool).get(CLASS_NAME);
+        Mockito.doReturn(false).when(_includePredicate).test(CLASS_NAME);
+
+        classProcessorTask.run();
+
+        Mockito.verify(_processor, Mockito.never()).process(Mockito.any(CtClass.class));
+    }
+
+    @Test
+    public void testRunNotFound() throws NotFoundException {
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                _classPool,
+                CLASS_NAME,
+                Collections.singletonList(_scopedProcessor),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        Mockito.doThrow(new NotFoundException(CLASS_NAME)).when(_classPool).get(CLASS_NAME);
+
+        try {
+            classProcessorTask.run();
+            Assert.fail("Expected exception not thrown");
+            // CHECKSTYLE.OFF: IllegalCatch
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(NotFoundException.class));
+        }
+        Mockito.verify(_processor, Mockito.never()).process(Mockito.any(CtClass.class));
+    }
+
+    @Test
+    public void testAcceptNotIncluded() {
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                _classPool,
+                CLASS_NAME,
+                Collections.singletonList(_scopedProcessor),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+        Mockito.doReturn(false).when(_includePredicate).test(CLASS_NAME);
+        Assert.assertFalse(classProcessorTask.accept(_ctClass, _scopedProcessor, _processor));
+    }
+
+    @Test
+    public void testAcceptExcluded() {
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                _classPool,
+                CLASS_NAME,
+                Collections.singletonList(_scopedProcessor),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+        Mockito.doReturn(true).when(_includePredicate).test(CLASS_NAME);
+        Mockito.doReturn(true).when(_excludePredicate).test(CLASS_NAME);
+        Assert.assertFalse(classProcessorTask.accept(_ctClass, _scopedProcessor, _processor));
+    }
+
+    @Test
+    public void testAcceptFrozen() {
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                _classPool,
+                CLASS_NAME,
+                Collections.singletonList(_scopedProcessor),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+        Mockito.doReturn(true).when(_includePredicate).test(CLASS_NAME);
+        Mockito.doReturn(false).when(_excludePredicate).test(CLASS_NAME);
+        Mockito.doReturn(true).when(_ctClass).isFrozen();
+        Assert.assertFalse(classProcessorTask.accept(_ctClass, _scopedProcessor, _processor));
+    }
+
+    @Test
+    public void testAcceptProcessorRejects() {
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                _classPool,
+                CLASS_NAME,
+                Collections.singletonList(_scopedProcessor),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+        Mockito.doReturn(true).when(_includePredicate).test(CLASS_NAME);
+        Mockito.doReturn(false).when(_excludePredicate).test(CLASS_NAME);
+        Mockito.doReturn(false).when(_ctClass).isFrozen();
+        Mockito.doReturn(false).when(_processor).accept(_ctClass);
+        Assert.assertFalse(classProcessorTask.accept(_ctClass, _scopedProcessor, _processor));
+    }
+
+    @Test
+    public void testAcceptAlreadyProcessed() throws NotFoundException {
+        final ClassPool classPool = createClassPool();
+        final CtClass alreadyProcessedCtClass = classPool.get(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$ReadOnlyAlreadyProcessedClass");
+
+        final ClassProcessor testProcessor = new TestProcessor(true);
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                alreadyProcessedCtClass.getName(),
+                Collections.singletonList(new ScopedProcessor(testProcessor, _includePredicate, _excludePredicate)),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        Mockito.doReturn(true).when(_includePredicate).test(alreadyProcessedCtClass.getName());
+        Mockito.doReturn(false).when(_excludePredicate).test(alreadyProcessedCtClass.getName());
+
+        Assert.assertFalse(classProcessorTask.accept(alreadyProcessedCtClass, _scopedProcessor, _processor));
+    }
+
+    @Test
+    public void testAccepted() throws NotFoundException {
+        final ClassPool classPool = createClassPool();
+        final CtClass unprocessedCtClass = classPool.get(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$UnprocessedClass");
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                unprocessedCtClass.getName(),
+                Collections.singletonList(_scopedProcessor),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        Mockito.doReturn(true).when(_includePredicate).test(unprocessedCtClass.getName());
+        Mockito.doReturn(false).when(_excludePredicate).test(unprocessedCtClass.getName());
+        Mockito.doReturn(true).when(_processor).accept(unprocessedCtClass);
+        Assert.assertTrue(classProcessorTask.accept(unprocessedCtClass, _scopedProcessor, _processor));
+    }
+
+    @Test
+    public void testIsAlreadyProcessedProcessedBySomethingElse() throws NotFoundException {
+        final ClassPool classPool = createClassPool();
+        final CtClass processedBySomethingElseCtClass = classPool.get(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$ProcessedBySomethingElseClass");
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                processedBySomethingElseCtClass.getName(),
+                Collections.singletonList(_scopedProcessor),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        Assert.assertFalse(classProcessorTask.isAlreadyProcessed(processedBySomethingElseCtClass, _processor));
+    }
+
+    @Test
+    public void testIsAlreadyProcessedProcessedEmpty() throws NotFoundException {
+        final ClassPool classPool = createClassPool();
+        final CtClass processedEmptyCtClass = classPool.get(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$ProcessedEmptyClass");
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                processedEmptyCtClass.getName(),
+                Collections.singletonList(_scopedProcessor),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        Assert.assertFalse(classProcessorTask.isAlreadyProcessed(processedEmptyCtClass, _processor));
+    }
+
+    @Test
+    public void testIsAlreadyProcessedCheckAnnotationType() throws NotFoundException {
+        final ClassPool classPool = createClassPool();
+        final CtClass differentlyAnnotatedCtClass = classPool.get(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$ReadOnlyDifferentlyAnnotatedClass");
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                differentlyAnnotatedCtClass.getName(),
+                Collections.singletonList(_scopedProcessor),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        Assert.assertFalse(classProcessorTask.isAlreadyProcessed(differentlyAnnotatedCtClass, _processor));
+    }
+
+    @Test
+    public void testMarkAsProcessedAlreadyMarked() throws NotFoundException {
+        final ClassPool classPool = createClassPool();
+        final CtClass alreadyProcessedCtClass = classPool.get(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$AlreadyProcessedClass");
+
+        final ClassProcessor testProcessor = new TestProcessor(true);
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                alreadyProcessedCtClass.getName(),
+                Collections.singletonList(new ScopedProcessor(testProcessor, _includePredicate, _excludePredicate)),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        classProcessorTask.markAsProcessed(alreadyProcessedCtClass, testProcessor);
+
+        alreadyProcessedCtClass.defrost();
+        Assert.assertTrue(classProcessorTask.isAlreadyProcessed(alreadyProcessedCtClass, testProcessor));
+    }
+
+    @Test
+    public void testMarkAsProcessedExistingAnnotation() throws NotFoundException {
+        final ClassPool classPool = createClassPool();
+        final CtClass existingAnnotationCtClass = classPool.get(
+                "com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$DifferentlyAnnotatedClass");
+
+        final ClassProcessor testProcessor = new TestProcessor(true);
+
+        final ClassProcessorTask classProcessorTask = new ClassProcessorTask(
+                classPool,
+                existingAnnotationCtClass.getName(),
+                Collections.singletonList(new ScopedProcessor(testProcessor, _includePredicate, _excludePredicate)),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+
+        classProcessorTask.markAsProcessed(existingAnnotationCtClass, testProcessor);
+
+        existingAnnotationCtClass.defrost();
+        Assert.assertTrue(classProcessorTask.isAlreadyProcessed(existingAnnotationCtClass, testProcessor));
+    }
+
+    private ClassProcessorTask createHintedTask(final String supertypeHint) {
+        Mockito.doReturn(Collections.singleton(supertypeHint)).when(_hintedProcessor).getSupertypeHints();
+        return new ClassProcessorTask(
+                _classPool,
+                CLASS_NAME,
+                Collections.singletonList(new ScopedProcessor(_hintedProcessor, _includePredicate, _excludePredicate)),
+                new DirectoryClassOutput(_context, _outputDirectory, PerformanceReport.DISABLED),
+                _log,
+                PerformanceReport.DISABLED);
+    }
+
+    private ClassRecorder createRecorder(final ProcessedClassManifest processedManifest, final Path outputDirectory) {
+        return new ClassRecorder(
+                null,
+                null,
+                processedManifest,
+                new DirectoryClassOutput(_context, outputDirectory, PerformanceReport.DISABLED),
+                outputDirectory,
+                _context,
+                _log);
+    }
+
+    private static ClassPool createClassPool() {
+        final ClassPool classPool = new ClassPool(ClassPool.getDefault());
+        classPool.appendClassPath(
+                new LoaderClassPath(Thread.currentThread()
+                        .getContextClassLoader()));
+        return classPool;
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private AutoCloseable _mocks;
+    @Mock
+    private BuildChanges _context;
+    @Mock
+    private ClassPool _classPool;
+    @Mock
+    private CtClass _ctClass;
+    @Mock
+    private ClassProcessor _processor;
+    @Mock
+    private HintedClassProcessor _hintedProcessor;
+    @Mock
+    private Predicate<String> _includePredicate;
+    @Mock
+    private Predicate<String> _excludePredicate;
+    @Mock
+    private Path _outputDirectory;
+    @Mock
+    private ProcessingLog _log;
+    private ScopedProcessor _scopedProcessor;
+
+    private static final String CLASS_NAME = "com.example.MockClass";
+
+    private static final class TestProcessor implements ClassProcessor {
+
+        TestProcessor(final boolean accept) {
+            _accept = accept;
+        }
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            ++_acceptCount;
+            return _accept;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            ++_processCount;
+            // Do nothing
+        }
+
+        public int getAcceptCount() {
+            return _acceptCount;
+        }
+
+        public int getProcessCount() {
+            return _processCount;
+        }
+
+        private final boolean _accept;
+        private int _acceptCount = 0;
+        private int _processCount = 0;
+    }
+
+    private static final class ChangeReportingProcessor implements ChangeReportingClassProcessor {
+
+        ChangeReportingProcessor(final boolean modify) {
+            _modify = modify;
+        }
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public boolean tryProcess(final CtClass ctClass) {
+            ++_processCount;
+            return _modify;
+        }
+
+        public int getProcessCount() {
+            return _processCount;
+        }
+
+        private final boolean _modify;
+        private int _processCount = 0;
+    }
+
+    private static final class BatchProcessor implements LifecycleClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void processBatch(final Collection<CtClass> ctClasses) {
+            _batches.add(ctClasses.stream().map(CtClass::getName).collect(Collectors.toList()));
+        }
+
+        List<List<String>> getBatches() {
+            return _batches;
+        }
+
+        private final List<List<String>> _batches = new ArrayList<>();
+    }
+
+    private static final class TestRunClass {}
+
+    private static final class TestBatchFirstClass {}
+
+    private static final class TestBatchSecondClass {}
+
+    private static final class TestChainedClass {}
+
+    private static final class TestUnchangedClass {}
+
+    private static final class TestManifestClass {}
+
+    private static final class TestRejectedClass {}
+
+    private static final class TestRestoredClass {}
+
+    private static final class TestUnchangedChainedClass {}
+
+    private static final class UnprocessedClass {}
+
+    @Processed(value = {"com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$TestProcessor"})
+    private static final class AlreadyProcessedClass {}
+    
+    @Processed(value = {"com.arpnetworking.commons.maven.javassist.engine.ClassProcessorTaskTest$TestProcessor"})
+    private static final class ReadOnlyAlreadyProcessedClass {}
+
+    @Processed(value = {"com.example.MyClassProcessor"})
+    private static final class ProcessedBySomethingElseClass {}
+
+    @Processed(value = {})
+    private static final class ProcessedEmptyClass {}
+
+    /**
+     * @deprecated Just for testing.
+     */
+    @Deprecated
+    private static final class DifferentlyAnnotatedClass {}
+
+    /**
+     * @deprecated Just for testing.
+     */
+    @Deprecated
+    private static final class ReadOnlyDifferentlyAnnotatedClass {}
+}
@@ -0,0 +1,285 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.hash.Hashing;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.CompletionException;
+import javax.annotation.Nullable;
+
+/**
+ * Tests for {@link ClassRecorder}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ClassRecorderTest {
+
+    @Test
+    public void testRecordAfterNothingRecorded() throws IOException {
+        final Runnable task = () -> { };
+        final Path directory = _temporaryFolder.newFolder("nothing").toPath();
+        Assert.assertSame(task, createRecorder(directory, null, null, BuildChanges.FULL).recordAfter(
+                task,
+                Collections.singletonList("com.example.Foo")));
+    }
+
+    @Test
+    public void testRecordAfterUnreadable() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("record").toPath();
+        final Path classFile = writeClass(directory, "com.example.record.Foo");
+        final ClassManifest manifest = loadManifest(directory);
+        Assert.assertTrue(requiresProcessing(manifest, "com.example.record.Foo", classFile, true));
+        Files.delete(classFile);
+        try {
+            createRecorder(directory, manifest, null, BuildChanges.FULL).recordAfter(
+                    () -> { },
+                    Collections.singletonList("com.example.record.Foo")).run();
+            Assert.fail("Expected exception not thrown");
+        } catch (final CompletionException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IOException.class));
+        }
+    }
+
+    @Test
+    public void testCreateStaleFilterNoManifest() throws IOException {
+        final Path directory = _temporaryFolder.newFolder("noManifest").toPath();
+        Assert.assertTrue(createRecorder(directory, null, null, BuildChanges.FULL)
+                .createStaleFilter()
+                .test("com.example.Foo", null));
+    }
+
+    @Test
+    public void testCreateStaleFilterIncrementalContext() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("context").toPath();
+        final Path classFile = writeClass(directory, "com.example.context.Foo");
+        final byte[] input = Files.readAllBytes(classFile);
+        final BuildChanges buildChanges = Mockito.mock(BuildChanges.class);
+        Mockito.doReturn(true).when(buildChanges).isIncremental();
+        Mockito.doReturn(false).when(buildChanges).hasDelta(Mockito.any(Path.class));
+
+        final ClassManifest manifest = loadManifest(directory);
+        final ClassRecorder recorder = createRecorder(directory, manifest, null, buildChanges);
+        Assert.assertTrue(recorder.createStaleFilter().test("com.example.context.Foo", classFile));
+        Assert.assertTrue(
+                recorder.requiresProcessing("com.example.context.Foo", input, Hashing.sha256().hashBytes(input)));
+        manifest.recordProcessed("com.example.context.Foo", classFile);
+        Assert.assertFalse(recorder.createStaleFilter().test("com.example.context.Foo", classFile));
+        Mockito.verify(buildChanges, Mockito.times(2)).hasDelta(classFile);
+    }
+
+    @Test
+    public void testCreateStaleFilterNotRead() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("notRead").toPath();
+        // The class file is read by the task of the class, not the filter
+        Assert.assertTrue(createRecorder(directory, loadManifest(directory), null, BuildChanges.FULL)
+                .createStaleFilter()
+                .test("com.example.Missing", directory.resolve("Missing.class")));
+    }
+
+    @Test
+    public void testRequiresProcessingUnchanged() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("unchanged").toPath();
+        final Path classFile = writeClass(directory, "com.example.unchanged.Foo");
+        final byte[] input = Files.readAllBytes(classFile);
+        final ClassManifest manifest = loadManifest(directory);
+        final ClassRecorder recorder = createRecorder(directory, manifest, null, BuildChanges.FULL);
+        Assert.assertTrue(recorder.isChecking());
+        Assert.assertTrue(
+                recorder.requiresProcessing("com.example.unchanged.Foo", input, Hashing.sha256().hashBytes(input)));
+        manifest.recordProcessed("com.example.unchanged.Foo", classFile);
+
+        // The processed class file is not processed again
+        Assert.assertTrue(recorder.createStaleFilter().test("com.example.unchanged.Foo", classFile));
+        Assert.assertFalse(
+                recorder.requiresProcessing("com.example.unchanged.Foo", input, Hashing.sha256().hashBytes(input)));
+    }
+
+    @Test
+    public void testRequiresProcessingNoCache() throws IOException {
+        final Path directory = _temporaryFolder.newFolder("noCache").toPath();
+        final ClassRecorder recorder = createRecorder(directory, null, null, BuildChanges.FULL);
+        final byte[] classFile = new byte[]{1, 2, 3};
+        Assert.assertFalse(recorder.isChecking());
+        Assert.assertTrue(
+                recorder.requiresProcessing("com.example.Foo", classFile, Hashing.sha256().hashBytes(classFile)));
+    }
+
+    @Test
+    public void testRequiresProcessingRestored() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("restored").toPath();
+        final Path classFile = writeClass(directory, "com.example.restored.Foo");
+        final byte[] input = Files.readAllBytes(classFile);
+        final ClassCache cache = new ClassCache(directory.resolve("cache"), "processor:1", Long.MAX_VALUE);
+        final ClassRecorder recorder = createRecorder(directory, null, cache, BuildChanges.FULL);
+        Assert.assertTrue(recorder.isChecking());
+        Assert.assertTrue(
+                recorder.requiresProcessing("com.example.restored.Foo", input, Hashing.sha256().hashBytes(input)));
+        recorder.recordAfter(() -> { }, Collections.singletonList("com.example.restored.Foo")).run();
+
+        Files.delete(classFile);
+        Assert.assertFalse(
+                recorder.requiresProcessing("com.example.restored.Foo", input, Hashing.sha256().hashBytes(input)));
+        Assert.assertArrayEquals(input, Files.readAllBytes(classFile));
+    }
+
+    @Test(expected = CompletionException.class)
+    public void testRequiresProcessingUnwritable() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("unwritable").toPath();
+        final Path classFile = writeClass(directory, "com.example.unwritable.Foo");
+        final byte[] input = Files.readAllBytes(classFile);
+        final ClassCache cache = new ClassCache(directory.resolve("cache"), "processor:1", Long.MAX_VALUE);
+        final ClassRecorder recorder = createRecorder(directory, null, cache, BuildChanges.FULL);
+        recorder.requiresProcessing("com.example.unwritable.Foo", input, Hashing.sha256().hashBytes(input));
+        recorder.recordAfter(() -> { }, Collections.singletonList("com.example.unwritable.Foo")).run();
+
+        // The restored class cannot replace a directory
+        Files.delete(classFile);
+        Files.createDirectories(classFile.resolve("blocked"));
+        recorder.requiresProcessing("com.example.unwritable.Foo", input, Hashing.sha256().hashBytes(input));
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void testCreateCacheInvalidSize() throws ProcessingException {
+        ClassRecorder.createCache(_temporaryFolder.getRoot().toPath(), Collections.emptyList(), "digest", "");
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void testLoadManifestFailure() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("load").toPath();
+        Files.createDirectories(directory.resolve(MANIFEST_FILE));
+        loadManifest(directory);
+    }
+
+    @Test
+    public void testLoadManifestChangedKey() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("changed").toPath();
+        final Path classFile = writeClass(directory, "com.example.changed.Foo");
+        final ClassManifest manifest = loadManifest(directory);
+        Assert.assertTrue(requiresProcessing(manifest, "com.example.changed.Foo", classFile, false));
+        manifest.recordProcessed("com.example.changed.Foo", classFile);
+        manifest.save();
+        Assert.assertFalse(requiresProcessing(loadManifest(directory), "com.example.changed.Foo", classFile, false));
+        Assert.assertTrue(
+                requiresProcessing(loadManifest(directory, "other"), "com.example.changed.Foo", classFile, false));
+    }
+
+    @Test
+    public void testCreateProcessorKey() throws IOException {
+        final ScopedProcessor processor = new ScopedProcessor(
+                new ProcessingEngineTest.RecordingProcessor(),
+                className -> true,
+                className -> false);
+        final String key = ClassRecorder.createProcessorKey(Collections.singletonList(processor), "digest");
+        MatcherAssert.assertThat(
+                key,
+                Matchers.startsWith(ClassCache.createProcessorKey(ProcessingEngineTest.RecordingProcessor.class)));
+        MatcherAssert.assertThat(key, Matchers.endsWith(",digest"));
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void testLoadProcessedManifestFailure() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("loadProcessed").toPath();
+        Files.write(directory.resolve(MANIFEST_FILE), new byte[]{1, 2, 3, 4});
+        ClassRecorder.loadProcessedManifest(directory.resolve(MANIFEST_FILE), directory, Collections.emptyList());
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void testSaveManifestFailure() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("save").toPath();
+        final ClassRecorder recorder = createRecorder(directory, loadManifest(directory), null, BuildChanges.FULL);
+        Files.createDirectories(directory.resolve(MANIFEST_FILE).resolve("blocked"));
+        recorder.save();
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void testSaveProcessedManifestFailure() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("saveProcessed").toPath();
+        final ClassRecorder recorder = new ClassRecorder(
+                null,
+                null,
+                ClassRecorder.loadProcessedManifest(
+                        directory.resolve(MANIFEST_FILE),
+                        directory,
+                        Collections.emptyList()),
+                new DirectoryClassOutput(BuildChanges.FULL, directory, PerformanceReport.DISABLED),
+                directory,
+                BuildChanges.FULL,
+                new PrintStreamLog(System.err, false));
+        Files.createDirectories(directory.resolve(MANIFEST_FILE).resolve("blocked"));
+        recorder.saveProcessedManifest();
+    }
+
+    private static ClassRecorder createRecorder(
+            final Path directory,
+            @Nullable final ClassManifest manifest,
+            @Nullable final ClassCache cache,
+            final BuildChanges buildChanges) {
+        return new ClassRecorder(
+                manifest,
+                cache,
+                null,
+                new DirectoryClassOutput(buildChanges, directory, PerformanceReport.DISABLED),
+                directory,
+                buildChanges,
+                new PrintStreamLog(System.err, false));
+    }
+
+    private static ClassManifest loadManifest(final Path directory) throws ProcessingException {
+        return loadManifest(directory, "digest");
+    }
+
+    private static ClassManifest loadManifest(final Path directory, final String configurationDigest)
+            throws ProcessingException {
+        return ClassRecorder.loadManifest(
+                directory.resolve(MANIFEST_FILE),
+                Collections.emptyList(),
+                configurationDigest);
+    }
+
+    private static boolean requiresProcessing(
+            final ClassManifest manifest,
+            final String className,
+            final Path file,
+            final boolean hasDelta)
+            throws IOException {
+        return !manifest.isUnchanged(className, hasDelta)
+                && manifest.requiresProcessing(className, Hashing.sha256().hashBytes(Files.readAllBytes(file)));
+    }
+
+    private static Path writeClass(final Path directory, final String className)
+            throws CannotCompileException, IOException {
+        new ClassPool(true).makeClass(className).writeFile(directory.toString());
+        return DirectoryClassOutput.getClassFile(directory, className);
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private static final String MANIFEST_FILE = "test.manifest";
+}
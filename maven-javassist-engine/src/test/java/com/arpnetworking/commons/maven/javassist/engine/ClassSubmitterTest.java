@@ -0,0 +1,159 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import com.arpnetworking.commons.maven.javassist.LifecycleClassProcessor;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tests for {@link ClassSubmitter}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ClassSubmitterTest {
+
+    @Test
+    public void testSubmit() throws Exception {
+        final List<List<String>> tasks = new CopyOnWriteArrayList<>();
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final ClassSubmitter submitter = new ClassSubmitter(
+                    executorService,
+                    classNames -> () -> tasks.add(classNames),
+                    false,
+                    new TaskFailures(true));
+            final PrefetchingClassPath classPath = new PrefetchingClassPath(Paths.get("classes"), Runnable::run);
+            submitter.add("com.example.Foo", classPath);
+            submitter.add("com.example.Bar", classPath);
+            submitter.complete().get();
+        } finally {
+            executorService.shutdown();
+        }
+
+        MatcherAssert.assertThat(
+                tasks,
+                Matchers.containsInAnyOrder(
+                        Collections.singletonList("com.example.Foo"),
+                        Collections.singletonList("com.example.Bar")));
+    }
+
+    @Test
+    public void testSubmitBatchProcessing() throws Exception {
+        final List<List<String>> tasks = new CopyOnWriteArrayList<>();
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final ClassSubmitter submitter = new ClassSubmitter(
+                    executorService,
+                    classNames -> () -> tasks.add(classNames),
+                    true,
+                    new TaskFailures(true));
+            final PrefetchingClassPath classPath = new PrefetchingClassPath(Paths.get("classes"), Runnable::run);
+            submitter.add("com.example.Foo", classPath);
+            submitter.add("com.example.Bar", classPath);
+            submitter.add("com.example.sub.Baz", classPath);
+            submitter.complete().get();
+        } finally {
+            executorService.shutdown();
+        }
+
+        MatcherAssert.assertThat(
+                tasks,
+                Matchers.containsInAnyOrder(
+                        Arrays.asList("com.example.Foo", "com.example.Bar"),
+                        Collections.singletonList("com.example.sub.Baz")));
+    }
+
+    @Test
+    public void testSubmitFailure() throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final ClassSubmitter submitter = new ClassSubmitter(
+                    executorService,
+                    classNames -> () -> {
+                        if (classNames.contains("com.example.Failed")) {
+                            throw new IllegalStateException("Failed");
+                        }
+                    },
+                    false,
+                    new TaskFailures(false));
+            final PrefetchingClassPath classPath = new PrefetchingClassPath(Paths.get("classes"), Runnable::run);
+            for (int i = 0; i < ClassSubmitter.MAXIMUM_PENDING_CLASSES * 2; ++i) {
+                submitter.add("com.example.Foo" + i, classPath);
+            }
+            submitter.add("com.example.Failed", classPath);
+            submitter.complete().get();
+            Assert.fail("Expected exception not thrown");
+        } catch (final ExecutionException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IllegalStateException.class));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test(expected = CompletionException.class)
+    public void testSubmitCancelled() {
+        final TaskFailures failures = new TaskFailures(true);
+        try {
+            failures.guard("com.example.Failed", () -> {
+                throw new IllegalStateException("Failed");
+            }).run();
+            Assert.fail("Expected exception not thrown");
+        } catch (final IllegalStateException e) {
+            // Expected
+        }
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final ClassSubmitter submitter = new ClassSubmitter(
+                    executorService,
+                    classNames -> () -> { },
+                    false,
+                    failures);
+            submitter.add("com.example.Foo", new PrefetchingClassPath(Paths.get("classes"), Runnable::run));
+            submitter.complete();
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testIsBatchProcessing() {
+        final ScopedProcessor processor = new ScopedProcessor(
+                Mockito.mock(ClassProcessor.class),
+                className -> true,
+                className -> false);
+        final ScopedProcessor lifecycleProcessor = new ScopedProcessor(
+                Mockito.mock(LifecycleClassProcessor.class),
+                className -> true,
+                className -> false);
+        Assert.assertFalse(ClassSubmitter.isBatchProcessing(Collections.singletonList(processor)));
+        Assert.assertTrue(ClassSubmitter.isBatchProcessing(Arrays.asList(processor, lifecycleProcessor)));
+    }
+}
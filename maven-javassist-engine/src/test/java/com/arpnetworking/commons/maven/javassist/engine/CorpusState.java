@@ -0,0 +1,102 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark state holding a generated {@link ClassCorpus} on disk and the
+ * raw class files of its classes.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+@State(Scope.Benchmark)
+public class CorpusState {
+
+    /**
+     * Generate the corpus.
+     *
+     * @throws IOException if the corpus cannot be written.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        _directory = Files.createTempDirectory("javassist-benchmark-corpus");
+        _classNames = ClassCorpus.generate(_directory, classCount);
+        _classFiles = new ArrayList<>(_classNames.size());
+        for (final String className : _classNames) {
+            _classFiles.add(Files.readAllBytes(getClassFile(_directory, className)));
+        }
+    }
+
+    /**
+     * Delete the corpus.
+     *
+     * @throws IOException if the corpus cannot be deleted.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        delete(_directory);
+    }
+
+    Path getDirectory() {
+        return _directory;
+    }
+
+    List<String> getClassNames() {
+        return _classNames;
+    }
+
+    List<byte[]> getClassFiles() {
+        return _classFiles;
+    }
+
+    static Path getClassFile(final Path directory, final String className) {
+        return directory.resolve(className.replace('.', '/') + ".class");
+    }
+
+    static void delete(final Path directory) throws IOException {
+        if (Files.exists(directory)) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (final Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    // CHECKSTYLE.OFF: MemberName|VisibilityModifier - JMH parameters are named on the command line
+    // The number of classes in the corpus.
+    @Param({"1000", "10000"})
+    int classCount;
+    // CHECKSTYLE.ON: MemberName|VisibilityModifier
+
+    private Path _directory;
+    private List<String> _classNames;
+    private List<byte[]> _classFiles;
+}
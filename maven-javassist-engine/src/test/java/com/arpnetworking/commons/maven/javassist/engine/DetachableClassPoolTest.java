@@ -0,0 +1,62 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Enumeration;
+
+/**
+ * Tests for {@link DetachableClassPool}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class DetachableClassPoolTest {
+
+    @Test
+    public void testDetach() throws NotFoundException {
+        final ClassPool classPool = new DetachableClassPool(new ClassPool(true));
+        final CtClass ctClass = classPool.makeClass("com.example.Detached");
+        ctClass.detach();
+        Assert.assertNull(classPool.getOrNull("com.example.Detached"));
+        Assert.assertEquals(CtClass.intType, classPool.get("int"));
+    }
+
+    @Test
+    public void testElementsWhileRemoved() {
+        final DetachableClassPool.ClassTable classTable = new DetachableClassPool.ClassTable();
+        final ClassPool classPool = new ClassPool(true);
+        for (int i = 0; i < CLASS_COUNT; ++i) {
+            classTable.put("com.example.Class" + i, classPool.makeClass("com.example.Class" + i));
+        }
+        final Enumeration<CtClass> elements = classTable.elements();
+        for (int i = 0; i < CLASS_COUNT; ++i) {
+            classTable.remove("com.example.Class" + i);
+        }
+        int count = 0;
+        while (elements.hasMoreElements()) {
+            Assert.assertNotNull(elements.nextElement());
+            ++count;
+        }
+        Assert.assertEquals(CLASS_COUNT, count);
+    }
+
+    private static final int CLASS_COUNT = 16;
+}
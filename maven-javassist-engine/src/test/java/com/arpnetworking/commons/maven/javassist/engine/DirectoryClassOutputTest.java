@@ -0,0 +1,117 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+/**
+ * Tests for {@link DirectoryClassOutput}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class DirectoryClassOutputTest {
+
+    @Test
+    public void testWrite() throws IOException, CannotCompileException {
+        final Path outputDirectory = _temporaryFolder.getRoot().toPath();
+        final CtClass ctClass = new ClassPool(true).makeClass("com.example.output.Foo");
+        final byte[] expectedByteCode = ctClass.toBytecode();
+        ctClass.defrost();
+
+        new DirectoryClassOutput(BuildChanges.FULL, outputDirectory, PerformanceReport.DISABLED).write(ctClass);
+
+        Assert.assertArrayEquals(
+                expectedByteCode,
+                Files.readAllBytes(outputDirectory.resolve("com/example/output/Foo.class")));
+    }
+
+    @Test
+    public void testWriteUnchanged() throws IOException, CannotCompileException {
+        final Path outputDirectory = _temporaryFolder.getRoot().toPath();
+        final CtClass ctClass = new ClassPool(true).makeClass("com.example.output.Unchanged");
+        final Path classDirectory = Files.createDirectories(outputDirectory.resolve("com/example/output"));
+        final Path classFile = classDirectory.resolve("Unchanged.class");
+        Files.write(classFile, ctClass.toBytecode());
+        ctClass.defrost();
+        final FileTime lastModifiedTime = FileTime.fromMillis(1000);
+        Files.setLastModifiedTime(classFile, lastModifiedTime);
+
+        final BuildChanges context = Mockito.mock(BuildChanges.class);
+        new DirectoryClassOutput(context, outputDirectory, PerformanceReport.DISABLED).write(ctClass);
+
+        Assert.assertEquals(lastModifiedTime, Files.getLastModifiedTime(classFile));
+        Mockito.verifyNoInteractions(context);
+    }
+
+    @Test
+    public void testWriteChanged() throws IOException, CannotCompileException {
+        final Path outputDirectory = _temporaryFolder.getRoot().toPath();
+        final CtClass ctClass = new ClassPool(true).makeClass("com.example.output.Changed");
+        final byte[] expectedByteCode = ctClass.toBytecode();
+        ctClass.defrost();
+        final Path classDirectory = Files.createDirectories(outputDirectory.resolve("com/example/output"));
+        final Path classFile = classDirectory.resolve("Changed.class");
+        final byte[] sameLength = new byte[expectedByteCode.length];
+        Files.write(classFile, sameLength);
+
+        final BuildChanges context = Mockito.mock(BuildChanges.class);
+        new DirectoryClassOutput(context, outputDirectory, PerformanceReport.DISABLED).write(ctClass);
+
+        Assert.assertArrayEquals(expectedByteCode, Files.readAllBytes(classFile));
+        Mockito.verify(context).refresh(classFile);
+        try (Stream<Path> files = Files.list(classDirectory)) {
+            Assert.assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testWriteFailure() throws IOException, CannotCompileException {
+        final Path outputDirectory = _temporaryFolder.getRoot().toPath();
+        final CtClass ctClass = Mockito.mock(CtClass.class);
+        Mockito.doReturn("com.arpnetworking.commons.maven.javassist.engine.DirectoryClassOutputTest$WriteFileFailure")
+                .when(ctClass).getName();
+        Mockito.doThrow(new IOException("Simulated Failure"))
+                .when(ctClass).toBytecode();
+
+        final BuildChanges context = BuildChanges.FULL;
+        try {
+            new DirectoryClassOutput(context, outputDirectory, PerformanceReport.DISABLED).write(ctClass);
+            Assert.fail("Expected exception not thrown");
+            // CHECKSTYLE.OFF: IllegalCatch
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IOException.class));
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+}
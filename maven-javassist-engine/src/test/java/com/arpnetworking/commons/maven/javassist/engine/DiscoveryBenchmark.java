@@ -0,0 +1,120 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Benchmarks of discovering classes in a class directory and matching
+ * their names against include globs.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DiscoveryBenchmark {
+
+    /**
+     * Create the directory walker and the include predicate.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        _discoveryExecutorService = ProcessingExecutors.createDiscoveryExecutorService();
+        _walker = new ClassDirectoryWalker(_discoveryExecutorService);
+        _includePredicate = ProcessingEngine.createIncludePredicate(INCLUDES);
+    }
+
+    /**
+     * Shut down the directory walker.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        _discoveryExecutorService.shutdownNow();
+    }
+
+    /**
+     * Walk the class directory of the corpus.
+     *
+     * @param corpus The {@code CorpusState} instance.
+     * @param blackhole The {@code Blackhole} to consume the results.
+     */
+    @Benchmark
+    public void findClasses(final CorpusState corpus, final Blackhole blackhole) {
+        DirectoryProcessor.findClasses(
+                _walker.start(corpus.getDirectory()),
+                (className, file) -> true,
+                blackhole::consume);
+    }
+
+    /**
+     * Compile the include globs.
+     *
+     * @return The include predicate.
+     */
+    @Benchmark
+    public Predicate<String> createIncludePredicate() {
+        return ProcessingEngine.createIncludePredicate(INCLUDES);
+    }
+
+    /**
+     * Match the class names of the corpus against the include globs.
+     *
+     * @param corpus The {@code CorpusState} instance.
+     * @param blackhole The {@code Blackhole} to consume the results.
+     */
+    @Benchmark
+    public void matchIncludePredicate(final CorpusState corpus, final Blackhole blackhole) {
+        for (final String className : corpus.getClassNames()) {
+            blackhole.consume(_includePredicate.test(className));
+        }
+    }
+
+    private ExecutorService _discoveryExecutorService;
+    private ClassDirectoryWalker _walker;
+    private Predicate<String> _includePredicate;
+
+    private static final List<String> INCLUDES = Arrays.asList(
+        "com.example.corpus.p1.Generated10",
+        "com.example.corpus.p2.Generated5?",
+        "com.example.corpus.p3*",
+        "com.example.corpus.p4.**",
+        "com.example.corpus.p5?.Generated*1",
+        "com.example.corpus.p{6,7}.*",
+        "com.example.corpus.p[89]*.Generated*",
+        "com.example.other.**");
+}
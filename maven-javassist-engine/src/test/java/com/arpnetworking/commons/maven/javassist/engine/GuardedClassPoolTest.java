@@ -0,0 +1,143 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.NotFoundException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Tests for {@link GuardedClassPool}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class GuardedClassPoolTest {
+
+    @Before
+    public void setUp() throws CannotCompileException, IOException, NotFoundException {
+        final String directory = _temporaryFolder.getRoot().toString();
+        final ClassPool classPool = new ClassPool(true);
+        final CtClass base = classPool.makeClass(BASE);
+        base.writeFile(directory);
+        classPool.makeClass(SUB, base).writeFile(directory);
+        _classPool = new GuardedClassPool(ClassPool.getDefault());
+        _classPool.appendClassPath(directory);
+    }
+
+    @Test
+    public void testResolvedOutsideTaskIsFrozen() throws NotFoundException {
+        Assert.assertTrue(_classPool.get(BASE).isFrozen());
+    }
+
+    @Test
+    public void testTaskModifiesOwnClass() throws NotFoundException {
+        // Resolved and frozen before its own task runs
+        Assert.assertTrue(_classPool.get(SUB).isFrozen());
+        _classPool.guard(Collections.singletonList(SUB), () -> addField(SUB)).run();
+        final CtClass sub = _classPool.get(SUB);
+        Assert.assertEquals(1, sub.getDeclaredFields().length);
+
+        // Frozen once its own task completed
+        Assert.assertTrue(sub.isFrozen());
+    }
+
+    @Test
+    public void testTaskModifiesSuperclass() {
+        try {
+            _classPool.guard(Collections.singletonList(SUB), () -> addField(BASE)).run();
+            Assert.fail("Expected exception not thrown");
+        } catch (final IllegalStateException e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(SUB));
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(BASE));
+        }
+    }
+
+    @Test
+    public void testTaskFailureWithoutOtherClass() {
+        // Only classes handed out to the task are blamed for a failure
+        final RuntimeException failure = new RuntimeException();
+        try {
+            _classPool.guard(Collections.singletonList(SUB), () -> {
+                throw failure;
+            }).run();
+            Assert.fail("Expected exception not thrown");
+            // CHECKSTYLE.OFF: IllegalCatch
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            Assert.assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void testTaskFailure() {
+        final IllegalArgumentException failure = new IllegalArgumentException();
+        try {
+            _classPool.guard(Collections.singletonList(SUB), () -> {
+                throw failure;
+            }).run();
+            Assert.fail("Expected exception not thrown");
+        } catch (final IllegalArgumentException e) {
+            Assert.assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void testTaskFailureMentioningFrozenClass() {
+        final IllegalStateException failure = new IllegalStateException(BASE + " class is frozen");
+        try {
+            _classPool.guard(Collections.singletonList(SUB), () -> {
+                throw failure;
+            }).run();
+            Assert.fail("Expected exception not thrown");
+        } catch (final IllegalStateException e) {
+            Assert.assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void testCreatedClassIsNotFrozen() {
+        Assert.assertFalse(_classPool.makeClass("com.example.guarded.Created").isFrozen());
+    }
+
+    private void addField(final String className) {
+        try {
+            final CtClass ctClass = _classPool.get(className);
+            ctClass.addField(CtField.make("private int _field;", ctClass));
+        } catch (final NotFoundException | CannotCompileException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private GuardedClassPool _classPool;
+
+    private static final String BASE = "com.example.guarded.Base";
+    private static final String SUB = "com.example.guarded.Sub";
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.ClassPool;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for {@link HierarchyScheduler}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class HierarchySchedulerTest {
+
+    @Before
+    public void setUp() {
+        _executor = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        _executor.shutdownNow();
+    }
+
+    @Test
+    public void testSchedule() throws InterruptedException, ExecutionException {
+        final Map<String, List<String>> supertypes = Map.of(
+                "Leaf", Arrays.asList("Middle", "Interface"),
+                "Middle", Arrays.asList("Base", "java.io.Serializable"),
+                "Base", Collections.singletonList("java.lang.Object"),
+                "Interface", Collections.emptyList(),
+                "Other", Collections.singletonList("Base"));
+        final List<String> completed = new CopyOnWriteArrayList<>();
+        final HierarchyScheduler scheduler = new HierarchyScheduler(supertypes::get, _executor);
+        for (final String className : Arrays.asList("Leaf", "Other", "Middle", "Interface", "Base")) {
+            scheduler.add(className, () -> completed.add(className));
+        }
+
+        scheduler.schedule().get();
+
+        MatcherAssert.assertThat(
+                completed,
+                Matchers.containsInAnyOrder("Leaf", "Other", "Middle", "Interface", "Base"));
+        Assert.assertTrue(completed.indexOf("Base") < completed.indexOf("Middle"));
+        Assert.assertTrue(completed.indexOf("Base") < completed.indexOf("Other"));
+        Assert.assertTrue(completed.indexOf("Middle") < completed.indexOf("Leaf"));
+        Assert.assertTrue(completed.indexOf("Interface") < completed.indexOf("Leaf"));
+    }
+
+    @Test
+    public void testScheduleReleases() throws InterruptedException, ExecutionException {
+        final Map<String, List<String>> supertypes = Map.of(
+                "Leaf", Collections.singletonList("Middle"),
+                "Middle", Collections.singletonList("Base"),
+                "Base", Collections.emptyList(),
+                "Other", Collections.singletonList("Base"));
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final HierarchyScheduler scheduler = new HierarchyScheduler(
+                supertypes::get,
+                className -> events.add("released " + className),
+                _executor);
+        for (final String className : Arrays.asList("Leaf", "Other", "Middle", "Base")) {
+            scheduler.add(className, () -> events.add("completed " + className));
+        }
+
+        scheduler.schedule().get();
+
+        // A class is released only after its direct subtypes completed
+        MatcherAssert.assertThat(
+                events,
+                Matchers.hasItems("released Leaf", "released Other", "released Middle", "released Base"));
+        Assert.assertEquals(8, events.size());
+        Assert.assertTrue(events.indexOf("completed Middle") < events.indexOf("released Base"));
+        Assert.assertTrue(events.indexOf("completed Other") < events.indexOf("released Base"));
+        Assert.assertTrue(events.indexOf("completed Leaf") < events.indexOf("released Middle"));
+        Assert.assertTrue(events.indexOf("completed Leaf") < events.indexOf("released Leaf"));
+    }
+
+    @Test
+    public void testScheduleEmpty() throws InterruptedException, ExecutionException {
+        new HierarchyScheduler(className -> Collections.emptyList(), _executor).schedule().get();
+    }
+
+    @Test
+    public void testScheduleFailure() throws InterruptedException {
+        final Map<String, List<String>> supertypes = Map.of(
+                "Base", Collections.emptyList(),
+                "Sub", Collections.singletonList("Base"));
+        final List<String> completed = new CopyOnWriteArrayList<>();
+        final HierarchyScheduler scheduler = new HierarchyScheduler(supertypes::get, _executor);
+        scheduler.add("Base", () -> {
+            throw new IllegalStateException("Failure");
+        });
+        scheduler.add("Sub", () -> completed.add("Sub"));
+
+        final CompletableFuture<Void> completion = scheduler.schedule();
+        try {
+            completion.get();
+            Assert.fail("Expected exception not thrown");
+        } catch (final ExecutionException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IllegalStateException.class));
+        }
+        Assert.assertTrue(completed.isEmpty());
+    }
+
+    @Test
+    public void testScheduleCycle() throws InterruptedException {
+        final Map<String, List<String>> supertypes = Map.of(
+                "Foo", Collections.singletonList("Bar"),
+                "Bar", Collections.singletonList("Foo"),
+                "Baz", Collections.emptyList());
+        final HierarchyScheduler scheduler = new HierarchyScheduler(supertypes::get, _executor);
+        scheduler.add("Foo", () -> { });
+        scheduler.add("Bar", () -> { });
+        scheduler.add("Baz", () -> { });
+
+        try {
+            scheduler.schedule().get();
+            Assert.fail("Expected exception not thrown");
+        } catch (final ExecutionException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IllegalStateException.class));
+            MatcherAssert.assertThat(e.getCause().getMessage(), Matchers.containsString("[Foo, Bar]"));
+        }
+    }
+
+    @Test
+    public void testReadSupertypes() {
+        final ClassFileReader classFileReader = new ClassFileReader(new ClassPool(true));
+        Assert.assertEquals(
+                Arrays.asList(Base.class.getName(), Runnable.class.getName()),
+                HierarchyScheduler.readSupertypes(classFileReader, Sub.class.getName()));
+        Assert.assertEquals(
+                Collections.singletonList(Object.class.getName()),
+                HierarchyScheduler.readSupertypes(classFileReader, Base.class.getName()));
+        Assert.assertEquals(
+                Collections.emptyList(),
+                HierarchyScheduler.readSupertypes(classFileReader, "com.example.Missing"));
+    }
+
+    private ForkJoinPool _executor;
+
+    private static class Base {}
+
+    private static final class Sub extends Base implements Runnable {
+        @Override
+        public void run() {
+            // Nothing to do
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import com.arpnetworking.commons.maven.javassist.Processed;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.apache.commons.compress.archivers.zip.UnrecognizedExtraField;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.archivers.zip.ZipShort;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Tests for {@link JarProcessor}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class JarProcessorTest {
+
+    @After
+    public void tearDown() {
+        _executorService.shutdownNow();
+    }
+
+    @Test
+    public void testProcess() throws Exception {
+        final Path jarFile = writeJar("process.jar", "com.example.jar.Foo", "com.example.jar.Bar");
+        final Path originalJarFile = Files.copy(jarFile, jarFile.resolveSibling("original.jar"));
+
+        createJarProcessor(jarFile, new ProcessingEngineTest.RecordingProcessor())
+                .process((className, file) -> !className.endsWith("Bar"), new TaskFailures(true));
+
+        try (ZipFile original = ZipFile.builder().setPath(originalJarFile).get();
+             ZipFile processed = ZipFile.builder().setPath(jarFile).get()) {
+            Assert.assertEquals(getEntryNames(original), getEntryNames(processed));
+            Assert.assertTrue(isProcessed(processed, "com/example/jar/Foo.class"));
+            Assert.assertFalse(isProcessed(processed, "META-INF/versions/11/com/example/jar/Foo.class"));
+            final String[] names = {"META-INF/MANIFEST.MF", "data/stored.txt", "com/example/jar/Bar.class"};
+            for (final String name : names) {
+                Assert.assertArrayEquals(name, readRaw(original, name), readRaw(processed, name));
+                Assert.assertEquals(
+                        name,
+                        original.getEntry(name).getMethod(),
+                        processed.getEntry(name).getMethod());
+            }
+        }
+        Assert.assertFalse(Files.exists(jarFile.resolveSibling("process.jar.tmp")));
+    }
+
+    @Test
+    public void testProcessKeepsEntryMetadata() throws Exception {
+        final Path jarFile = _temporaryFolder.getRoot().toPath().resolve("metadata.jar");
+        final byte[] byteCode = new ClassPool(true).makeClass("com.example.jar.Foo").toBytecode();
+        final UnrecognizedExtraField extraField = new UnrecognizedExtraField();
+        extraField.setHeaderId(new ZipShort(0xCAFE));
+        extraField.setLocalFileDataData(new byte[]{1, 2, 3});
+        extraField.setCentralDirectoryData(new byte[]{1, 2, 3});
+        try (ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(jarFile)) {
+            final ZipArchiveEntry entry = new ZipArchiveEntry("com/example/jar/Foo.class");
+            final CRC32 crc = new CRC32();
+            crc.update(byteCode);
+            entry.setMethod(ZipArchiveEntry.STORED);
+            entry.setSize(byteCode.length);
+            entry.setCrc(crc.getValue());
+            entry.setTime(946684800000L);
+            entry.setComment("Comment");
+            entry.setUnixMode(0100640);
+            entry.addExtraField(extraField);
+            outputStream.putArchiveEntry(entry);
+            outputStream.write(byteCode);
+            outputStream.closeArchiveEntry();
+        }
+
+        createJarProcessor(jarFile, new ProcessingEngineTest.RecordingProcessor())
+                .process((className, file) -> true, new TaskFailures(true));
+
+        try (ZipFile processed = ZipFile.builder().setPath(jarFile).get()) {
+            Assert.assertTrue(isProcessed(processed, "com/example/jar/Foo.class"));
+            final ZipArchiveEntry entry = processed.getEntry("com/example/jar/Foo.class");
+            Assert.assertEquals(ZipArchiveEntry.STORED, entry.getMethod());
+            Assert.assertEquals(946684800000L, entry.getTime());
+            Assert.assertEquals("Comment", entry.getComment());
+            Assert.assertEquals(0100640, entry.getUnixMode());
+            Assert.assertArrayEquals(
+                    new byte[]{1, 2, 3},
+                    entry.getExtraField(new ZipShort(0xCAFE)).getCentralDirectoryData());
+        }
+    }
+
+    @Test
+    public void testProcessNothingMatched() throws Exception {
+        final Path jarFile = writeJar("unmatched.jar", "com.example.jar.Foo");
+        final byte[] original = Files.readAllBytes(jarFile);
+
+        createJarProcessor(jarFile, new ProcessingEngineTest.RecordingProcessor())
+                .process((className, file) -> false, new TaskFailures(true));
+
+        Assert.assertArrayEquals(original, Files.readAllBytes(jarFile));
+    }
+
+    @Test
+    public void testProcessFailure() throws Exception {
+        final Path jarFile = writeJar("failure.jar", "com.example.jar.Foo");
+        final byte[] original = Files.readAllBytes(jarFile);
+        try {
+            createJarProcessor(jarFile, new ProcessingEngineTest.FailingProcessor())
+                    .process((className, file) -> true, new TaskFailures(true));
+            Assert.fail("Expected exception not thrown");
+        } catch (final CompletionException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IllegalStateException.class));
+        }
+        Assert.assertArrayEquals(original, Files.readAllBytes(jarFile));
+    }
+
+    @Test
+    public void testProcessTimeout() throws Exception {
+        final Path jarFile = writeJar("timeout.jar", "com.example.jar.Foo");
+        final byte[] original = Files.readAllBytes(jarFile);
+        try (ProcessingWatchdog watchdog = ProcessingWatchdog.start(Duration.ZERO, Duration.ofMillis(200), LOG)) {
+            createJarProcessor(jarFile, new ProcessingEngineTest.SleepingProcessor(), watchdog)
+                    .process((className, file) -> true, new TaskFailures(true));
+            Assert.fail("Expected exception not thrown");
+        } catch (final CompletionException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(TimeoutException.class));
+            MatcherAssert.assertThat(e.getCause().getMessage(), Matchers.containsString("com.example.jar.Foo"));
+        }
+        Assert.assertArrayEquals(original, Files.readAllBytes(jarFile));
+    }
+
+    @Test
+    public void testProcessAggregateFailures() throws Exception {
+        final Path jarFile = writeJar("aggregate.jar", "com.example.jar.Foo", "com.example.jar.Bar");
+        final byte[] original = Files.readAllBytes(jarFile);
+        final TaskFailures failures = new TaskFailures(false);
+
+        createJarProcessor(jarFile, new ProcessingEngineTest.FailingProcessor())
+                .process((className, file) -> true, failures);
+
+        MatcherAssert.assertThat(
+                failures.getFailures().keySet(),
+                Matchers.containsInAnyOrder("com.example.jar.Foo", "com.example.jar.Bar"));
+        Assert.assertArrayEquals(original, Files.readAllBytes(jarFile));
+    }
+
+    @Test
+    public void testProcessCancelled() throws Exception {
+        final Path jarFile = writeJar("cancelled.jar", "com.example.jar.Foo");
+        final byte[] original = Files.readAllBytes(jarFile);
+        final TaskFailures failures = new TaskFailures(true);
+        try {
+            failures.guard("com.example.Failed", () -> {
+                throw new IllegalStateException("Failed");
+            }).run();
+            Assert.fail("Expected exception not thrown");
+        } catch (final IllegalStateException e) {
+            // Expected
+        }
+        try {
+            createJarProcessor(jarFile, new ProcessingEngineTest.RecordingProcessor())
+                    .process((className, file) -> true, failures);
+            Assert.fail("Expected exception not thrown");
+        } catch (final CompletionException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IllegalStateException.class));
+        }
+        Assert.assertArrayEquals(original, Files.readAllBytes(jarFile));
+        Assert.assertFalse(Files.exists(jarFile.resolveSibling("cancelled.jar.tmp")));
+    }
+
+    @Test
+    public void testProcessManyClasses() throws Exception {
+        final String[] classNames = new String[ClassSubmitter.MAXIMUM_PENDING_CLASSES + 10];
+        for (int i = 0; i < classNames.length; ++i) {
+            classNames[i] = "com.example.many.Class" + i;
+        }
+        final Path jarFile = writeJar("many.jar", classNames);
+        final Path originalJarFile = Files.copy(jarFile, jarFile.resolveSibling("many-original.jar"));
+
+        createJarProcessor(jarFile, new ProcessingEngineTest.RecordingProcessor())
+                .process((className, file) -> true, new TaskFailures(true));
+
+        try (ZipFile original = ZipFile.builder().setPath(originalJarFile).get();
+             ZipFile processed = ZipFile.builder().setPath(jarFile).get()) {
+            Assert.assertEquals(getEntryNames(original), getEntryNames(processed));
+            for (final String className : classNames) {
+                Assert.assertTrue(className, isProcessed(processed, className.replace('.', '/') + ".class"));
+            }
+        }
+    }
+
+    @Test
+    public void testProcessDetachesClasses() throws Exception {
+        final Path jarFile = writeJar("detach.jar", "com.example.jar.Foo", "com.example.jar.Bar");
+        final List<CtClass> ctClasses = new CopyOnWriteArrayList<>();
+
+        createJarProcessor(jarFile, new CollectingProcessor(ctClasses))
+                .process((className, file) -> true, new TaskFailures(true));
+
+        // Both the processed and the rejected class are parsed again
+        Assert.assertEquals(2, ctClasses.size());
+        for (final CtClass ctClass : ctClasses) {
+            Assert.assertNotSame(ctClass, ctClass.getClassPool().get(ctClass.getName()));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testProcessMissingJar() throws IOException {
+        final Path jarFile = _temporaryFolder.getRoot().toPath().resolve("missing.jar");
+        createJarProcessor(jarFile, new ProcessingEngineTest.RecordingProcessor())
+                .process((className, file) -> true, new TaskFailures(true));
+    }
+
+    @Test
+    public void testGetClassName() {
+        Assert.assertEquals("com.example.Foo", JarProcessor.getClassName(new ZipArchiveEntry("com/example/Foo.class")));
+        Assert.assertNull(JarProcessor.getClassName(new ZipArchiveEntry("com/example/")));
+        Assert.assertNull(JarProcessor.getClassName(new ZipArchiveEntry("com/example/Foo.txt")));
+        Assert.assertNull(JarProcessor.getClassName(new ZipArchiveEntry("module-info.class")));
+        Assert.assertNull(JarProcessor.getClassName(new ZipArchiveEntry("META-INF/versions/11/com/example/Foo.class")));
+    }
+
+    private JarProcessor createJarProcessor(final Path jarFile, final ClassProcessor processor) {
+        return createJarProcessor(jarFile, processor, ProcessingWatchdog.start(Duration.ZERO, Duration.ZERO, LOG));
+    }
+
+    private JarProcessor createJarProcessor(
+            final Path jarFile,
+            final ClassProcessor processor,
+            final ProcessingWatchdog watchdog) {
+        return new JarProcessor(
+                jarFile,
+                new ClassPool(true),
+                Collections.singletonList(new ScopedProcessor(processor, className -> true, className -> false)),
+                _executorService,
+                watchdog,
+                LOG,
+                PerformanceReport.DISABLED);
+    }
+
+    private Path writeJar(final String name, final String... classNames) throws IOException, CannotCompileException {
+        final Path jarFile = _temporaryFolder.getRoot().toPath().resolve(name);
+        try (ZipOutputStream outputStream = new ZipOutputStream(Files.newOutputStream(jarFile))) {
+            writeEntry(
+                    outputStream,
+                    "META-INF/MANIFEST.MF",
+                    "Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+            final byte[] stored = "stored".getBytes(StandardCharsets.UTF_8);
+            final ZipEntry storedEntry = new ZipEntry("data/stored.txt");
+            final CRC32 crc = new CRC32();
+            crc.update(stored);
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(stored.length);
+            storedEntry.setCrc(crc.getValue());
+            outputStream.putNextEntry(storedEntry);
+            outputStream.write(stored);
+            outputStream.closeEntry();
+            outputStream.putNextEntry(new ZipEntry("com/example/jar/"));
+            outputStream.closeEntry();
+            final ClassPool classPool = new ClassPool(true);
+            for (final String className : classNames) {
+                final byte[] byteCode = classPool.makeClass(className).toBytecode();
+                writeEntry(outputStream, className.replace('.', '/') + ".class", byteCode);
+                if (className.endsWith("Foo")) {
+                    writeEntry(
+                            outputStream,
+                            "META-INF/versions/11/" + className.replace('.', '/') + ".class",
+                            byteCode);
+                }
+            }
+        }
+        return jarFile;
+    }
+
+    private static void writeEntry(final ZipOutputStream outputStream, final String name, final byte[] content)
+            throws IOException {
+        outputStream.putNextEntry(new ZipEntry(name));
+        outputStream.write(content);
+        outputStream.closeEntry();
+    }
+
+    private static List<String> getEntryNames(final ZipFile zipFile) {
+        final List<String> names = new ArrayList<>();
+        for (final ZipArchiveEntry entry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+
+    private static byte[] readRaw(final ZipFile zipFile, final String name) throws IOException {
+        try (InputStream inputStream = zipFile.getRawInputStream(zipFile.getEntry(name))) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static boolean isProcessed(final ZipFile zipFile, final String name)
+            throws IOException, ClassNotFoundException {
+        try (InputStream inputStream = zipFile.getInputStream(zipFile.getEntry(name))) {
+            final CtClass ctClass = new ClassPool(true).makeClass(inputStream);
+            return ctClass.getAnnotation(Processed.class) != null;
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private static final ProcessingLog LOG = new PrintStreamLog(System.err, false);
+
+    private final ExecutorService _executorService = Executors.newFixedThreadPool(2);
+
+    private static final class CollectingProcessor implements ClassProcessor {
+
+        CollectingProcessor(final List<CtClass> ctClasses) {
+            _ctClasses = ctClasses;
+        }
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            _ctClasses.add(ctClass);
+            return ctClass.getName().endsWith("Foo");
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            // Nothing to do
+        }
+
+        private final List<CtClass> _ctClasses;
+    }
+}
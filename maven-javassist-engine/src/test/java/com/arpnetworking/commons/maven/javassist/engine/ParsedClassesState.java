@@ -0,0 +1,64 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark state holding freshly parsed classes of the corpus for each
+ * invocation of benchmarks which modify the classes.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+@State(Scope.Thread)
+public class ParsedClassesState {
+
+    /**
+     * Parse the classes of the corpus into a new class pool.
+     *
+     * @param corpus The {@code CorpusState} to parse.
+     * @throws IOException if a class cannot be parsed.
+     */
+    @Setup(Level.Invocation)
+    public void setUp(final CorpusState corpus) throws IOException {
+        _classes = parse(corpus.getClassFiles());
+    }
+
+    List<CtClass> getClasses() {
+        return _classes;
+    }
+
+    static List<CtClass> parse(final List<byte[]> classFiles) throws IOException {
+        final ClassPool classPool = new ClassPool(true);
+        final List<CtClass> classes = new ArrayList<>(classFiles.size());
+        for (final byte[] classFile : classFiles) {
+            classes.add(classPool.makeClass(new ByteArrayInputStream(classFile)));
+        }
+        return classes;
+    }
+
+    private List<CtClass> _classes;
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link PerformanceReport}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class PerformanceReportTest {
+
+    @Test
+    public void testDisabled() {
+        final PerformanceReport report = PerformanceReport.DISABLED;
+        Assert.assertFalse(report.isEnabled());
+        Assert.assertEquals(0, report.start());
+        report.begin();
+        report.recordPhase(PerformanceReport.Phase.PARSE, report.start());
+        report.recordRejection(PerformanceReport.Rejection.FROZEN, "com.example.Foo");
+        report.recordClass("com.example.Foo", report.start(), 1);
+        report.end();
+        Assert.assertTrue(report.getSlowestClasses().isEmpty());
+        MatcherAssert.assertThat(report.toJson(), Matchers.containsString("\"classCount\": 0"));
+    }
+
+    @Test
+    public void testSlowestClasses() {
+        final PerformanceReport report = new PerformanceReport(2);
+        final long now = System.nanoTime();
+        report.recordClass("com.example.Fast", now - 1_000, 10);
+        report.recordClass("com.example.Slowest", now - 3_000_000_000L, 30);
+        report.recordClass("com.example.Slow", now - 2_000_000_000L, 20);
+        report.recordClass("com.example.Faster", now, 40);
+
+        final List<PerformanceReport.ClassTiming> slowestClasses = report.getSlowestClasses();
+        Assert.assertEquals(2, slowestClasses.size());
+        Assert.assertEquals("com.example.Slowest", slowestClasses.get(0).getClassName());
+        Assert.assertEquals(30, slowestClasses.get(0).getSize());
+        Assert.assertEquals("com.example.Slow", slowestClasses.get(1).getClassName());
+    }
+
+    @Test
+    public void testRecordClasses() {
+        final PerformanceReport report = new PerformanceReport(2);
+        report.recordClasses(
+                Arrays.asList("com.example.Foo", "com.example.Bar"),
+                System.nanoTime() - 2_000_000_000L,
+                className -> className.length());
+
+        Assert.assertEquals(2, report.getSlowestClasses().size());
+        for (final PerformanceReport.ClassTiming timing : report.getSlowestClasses()) {
+            MatcherAssert.assertThat(timing.getNanos(), Matchers.lessThan(2_000_000_000L));
+            Assert.assertEquals(timing.getClassName().length(), timing.getSize());
+        }
+        MatcherAssert.assertThat(report.toJson(), Matchers.containsString("\"classCount\": 2"));
+    }
+
+    @Test
+    public void testToJson() {
+        final PerformanceReport report = new PerformanceReport(1);
+        Assert.assertTrue(report.isEnabled());
+        report.begin();
+        report.recordPhase(PerformanceReport.Phase.PARSE, report.start() - 2_000_000);
+        report.recordRejection(PerformanceReport.Rejection.NOT_ACCEPTED, "com.example.Bar");
+        report.recordRejection(PerformanceReport.Rejection.NOT_ACCEPTED, "com.example.\"Quoted\"");
+        report.recordClass("com.example.Foo", report.start(), 123);
+        report.end();
+
+        final String json = report.toJson();
+        MatcherAssert.assertThat(json, Matchers.containsString("\"classCount\": 1"));
+        MatcherAssert.assertThat(json, Matchers.containsString("\"parse\": 2."));
+        MatcherAssert.assertThat(json, Matchers.containsString("\"refresh\": 0.000"));
+        MatcherAssert.assertThat(
+                json,
+                Matchers.containsString("\"notAccepted\": [\"com.example.\\\"Quoted\\\"\", \"com.example.Bar\"]"));
+        MatcherAssert.assertThat(json, Matchers.containsString("\"frozen\": []"));
+        MatcherAssert.assertThat(json, Matchers.containsString("\"bytes\": 123"));
+        MatcherAssert.assertThat(
+                json,
+                Matchers.containsString("\"name\": \"" + Thread.currentThread().getName() + "\""));
+    }
+
+    @Test
+    public void testWrite() throws IOException {
+        final PerformanceReport report = new PerformanceReport(1);
+        report.begin();
+        report.end();
+        final Path file = _temporaryFolder.getRoot().toPath().resolve("nested/report.json");
+
+        report.write(file);
+
+        Assert.assertEquals(report.toJson(), Files.readString(file));
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+}
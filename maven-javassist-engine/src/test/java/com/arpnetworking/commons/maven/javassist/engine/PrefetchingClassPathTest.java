@@ -0,0 +1,149 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+
+/**
+ * Tests for {@link PrefetchingClassPath}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class PrefetchingClassPathTest {
+
+    @Test
+    public void testOpenClassfilePrefetched() throws IOException, CannotCompileException {
+        final Path directory = _temporaryFolder.getRoot().toPath();
+        final byte[] classFile = writeClass(directory, "com.example.prefetch.Foo");
+        final Path file = directory.resolve("com/example/prefetch/Foo.class");
+        final PrefetchingClassPath classPath = new PrefetchingClassPath(directory, DIRECT_EXECUTOR);
+
+        classPath.prefetch("com.example.prefetch.Foo", file);
+        Files.delete(file);
+
+        Assert.assertArrayEquals(classFile, read(classPath.openClassfile("com.example.prefetch.Foo")));
+    }
+
+    @Test
+    public void testOpenClassfileReleased() throws IOException, CannotCompileException {
+        final Path directory = _temporaryFolder.getRoot().toPath();
+        writeClass(directory, "com.example.prefetch.Bar");
+        final Path file = directory.resolve("com/example/prefetch/Bar.class");
+        final PrefetchingClassPath classPath = new PrefetchingClassPath(directory, DIRECT_EXECUTOR);
+
+        classPath.prefetch("com.example.prefetch.Bar", file);
+        classPath.releaseAfter("com.example.prefetch.Bar", () -> { }).run();
+        Files.delete(file);
+
+        Assert.assertNull(classPath.openClassfile("com.example.prefetch.Bar"));
+    }
+
+    @Test
+    public void testOpenClassfileNotPrefetched() throws IOException, CannotCompileException {
+        final Path directory = _temporaryFolder.getRoot().toPath();
+        final byte[] classFile = writeClass(directory, "com.example.prefetch.Baz");
+        final PrefetchingClassPath classPath = new PrefetchingClassPath(directory, DIRECT_EXECUTOR);
+
+        Assert.assertArrayEquals(classFile, read(classPath.openClassfile("com.example.prefetch.Baz")));
+    }
+
+    @Test
+    public void testOpenClassfilePrefetchFailure() throws IOException, CannotCompileException {
+        final Path directory = _temporaryFolder.getRoot().toPath();
+        final byte[] classFile = writeClass(directory, "com.example.prefetch.Qux");
+        final PrefetchingClassPath classPath = new PrefetchingClassPath(directory, DIRECT_EXECUTOR);
+
+        classPath.prefetch("com.example.prefetch.Qux", directory.resolve("does/not/Exist.class"));
+
+        Assert.assertArrayEquals(classFile, read(classPath.openClassfile("com.example.prefetch.Qux")));
+    }
+
+    @Test
+    public void testReadPrefetched() throws IOException, CannotCompileException {
+        final Path directory = _temporaryFolder.getRoot().toPath();
+        final byte[] classFile = writeClass(directory, "com.example.prefetch.Read");
+        final Path file = directory.resolve("com/example/prefetch/Read.class");
+        final PrefetchingClassPath classPath = new PrefetchingClassPath(directory, DIRECT_EXECUTOR);
+
+        classPath.prefetch("com.example.prefetch.Read", file);
+        Files.delete(file);
+
+        final byte[] prefetched = classPath.read("com.example.prefetch.Read").orElse(null);
+        Assert.assertArrayEquals(classFile, prefetched);
+        Assert.assertSame(prefetched, classPath.read("com.example.prefetch.Read").orElse(null));
+    }
+
+    @Test
+    public void testFind() throws IOException, CannotCompileException {
+        final Path directory = _temporaryFolder.getRoot().toPath();
+        writeClass(directory, "com.example.prefetch.Found");
+        final PrefetchingClassPath classPath = new PrefetchingClassPath(directory, DIRECT_EXECUTOR);
+
+        Assert.assertEquals(
+                directory.resolve("com/example/prefetch/Found.class").toUri().toURL(),
+                classPath.find("com.example.prefetch.Found"));
+        Assert.assertNull(classPath.find("com.example.prefetch.Missing"));
+        Assert.assertNull(classPath.openClassfile("com.example.prefetch.Missing"));
+    }
+
+    @Test
+    public void testClassPool() throws IOException, CannotCompileException, NotFoundException {
+        final Path directory = _temporaryFolder.getRoot().toPath();
+        writeClass(directory, "com.example.prefetch.Pooled");
+        final PrefetchingClassPath classPath = new PrefetchingClassPath(directory, DIRECT_EXECUTOR);
+        classPath.prefetch("com.example.prefetch.Pooled", directory.resolve("com/example/prefetch/Pooled.class"));
+        final ClassPool classPool = new ClassPool(true);
+        classPool.insertClassPath(classPath);
+
+        Assert.assertEquals("com.example.prefetch.Pooled", classPool.get("com.example.prefetch.Pooled").getName());
+    }
+
+    private static byte[] writeClass(final Path directory, final String className)
+            throws IOException, CannotCompileException {
+        final CtClass ctClass = new ClassPool(true).makeClass(className);
+        final byte[] classFile = ctClass.toBytecode();
+        final Path file = directory.resolve(className.replace('.', '/') + ".class");
+        final String packageName = className.substring(0, className.lastIndexOf('.'));
+        Files.createDirectories(directory.resolve(packageName.replace('.', '/')));
+        Files.write(file, classFile);
+        return classFile;
+    }
+
+    private static byte[] read(final InputStream inputStream) throws IOException {
+        Assert.assertNotNull(inputStream);
+        try (InputStream closeable = inputStream) {
+            return closeable.readAllBytes();
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+}
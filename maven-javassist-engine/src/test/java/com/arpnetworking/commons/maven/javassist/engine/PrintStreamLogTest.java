@@ -0,0 +1,59 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for {@link PrintStreamLog}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class PrintStreamLogTest {
+
+    @Test
+    public void testLevels() {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final PrintStreamLog log = new PrintStreamLog(new PrintStream(buffer, true, StandardCharsets.UTF_8), false);
+        log.debug("debug");
+        log.info("info");
+        log.warn("warn");
+        log.error("error");
+        Assert.assertEquals(
+                String.join(System.lineSeparator(), "[INFO] info", "[WARNING] warn", "[ERROR] error", ""),
+                buffer.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testErrors() {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final PrintStreamLog log = new PrintStreamLog(new PrintStream(buffer, true, StandardCharsets.UTF_8), true);
+        log.debug("debug");
+        log.warn("warn", new IllegalStateException("first"));
+        log.error("error", new IllegalStateException("second"));
+        final String output = buffer.toString(StandardCharsets.UTF_8);
+        Assert.assertTrue(output.startsWith("[DEBUG] debug" + System.lineSeparator()
+                + "[WARNING] warn" + System.lineSeparator()
+                + "java.lang.IllegalStateException: first"));
+        Assert.assertTrue(output, output.contains("[ERROR] error" + System.lineSeparator()
+                + "java.lang.IllegalStateException: second"));
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for {@link ProcessedClassManifest}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessedClassManifestTest {
+
+    @Test
+    public void testLoadMissing() throws IOException {
+        final ProcessedClassManifest manifest = load("missing.processed");
+        Assert.assertNull(manifest.getEntry("com.example.Foo"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadUnsupported() throws IOException {
+        Files.write(_temporaryFolder.getRoot().toPath().resolve("unsupported.processed"), new byte[]{1, 2, 3, 4, 0, 1});
+        load("unsupported.processed");
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadTruncated() throws IOException {
+        final ProcessedClassManifest manifest = load("truncated.processed");
+        writeClassFile("Foo.class", "before");
+        manifest.markProcessed("com.example.Foo", null, PROCESSOR);
+        manifest.recordProcessed("com.example.Foo");
+        manifest.save();
+
+        final Path manifestFile = _temporaryFolder.getRoot().toPath().resolve("truncated.processed");
+        final byte[] content = Files.readAllBytes(manifestFile);
+        Files.write(manifestFile, Arrays.copyOf(content, content.length - 1));
+        load("truncated.processed");
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        final ProcessedClassManifest manifest = load("nested/save.processed");
+        final HashCode inputDigest = writeClassFile("Foo.class", "before");
+        manifest.markProcessed("com.example.Foo", inputDigest, PROCESSOR);
+        manifest.markProcessed("com.example.Foo", inputDigest, OTHER_PROCESSOR);
+        final HashCode outputDigest = writeClassFile("Foo.class", "after");
+        manifest.recordProcessed("com.example.Foo");
+        manifest.save();
+
+        final ProcessedClassManifest loadedManifest = load("nested/save.processed");
+        final ProcessedClassManifest.Entry entry = loadedManifest.getEntry("com.example.Foo");
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(outputDigest, entry.getDigest());
+        Assert.assertEquals(ImmutableSet.of(PROCESSOR, OTHER_PROCESSOR), entry.getProcessors());
+        Assert.assertTrue(loadedManifest.isProcessed("com.example.Foo", outputDigest, OTHER_PROCESSOR));
+        Assert.assertFalse(loadedManifest.isProcessed("com.example.Foo", inputDigest, PROCESSOR));
+        Assert.assertFalse(Files.exists(_temporaryFolder.getRoot().toPath().resolve("nested/save.processed.tmp")));
+    }
+
+    @Test
+    public void testMarkProcessedRetainsProcessors() throws IOException {
+        final ProcessedClassManifest manifest = load("retain.processed");
+        writeClassFile("Foo.class", "before");
+        manifest.markProcessed("com.example.Foo", null, PROCESSOR);
+        final HashCode digest = writeClassFile("Foo.class", "after");
+        manifest.recordProcessed("com.example.Foo");
+
+        // Processors applied to the current class file are retained
+        manifest.markProcessed("com.example.Foo", digest, OTHER_PROCESSOR);
+        writeClassFile("Foo.class", "again");
+        manifest.recordProcessed("com.example.Foo");
+        ProcessedClassManifest.Entry entry = manifest.getEntry("com.example.Foo");
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(ImmutableSet.of(PROCESSOR, OTHER_PROCESSOR), entry.getProcessors());
+
+        // Processors applied to a previous class file are not
+        manifest.markProcessed("com.example.Foo", digest, OTHER_PROCESSOR);
+        manifest.recordProcessed("com.example.Foo");
+        entry = manifest.getEntry("com.example.Foo");
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(ImmutableSet.of(OTHER_PROCESSOR), entry.getProcessors());
+    }
+
+    @Test
+    public void testRejected() throws IOException {
+        final ProcessedClassManifest manifest = load("rejected.processed");
+        final HashCode digest = writeClassFile("Foo.class", "content");
+        manifest.markRejected("com.example.Foo", digest, PROCESSOR);
+        manifest.recordUnmodified("com.example.Foo");
+        manifest.save();
+
+        final ProcessedClassManifest loadedManifest = load("rejected.processed");
+        Assert.assertTrue(loadedManifest.isRejected("com.example.Foo", digest, PROCESSOR));
+        Assert.assertFalse(loadedManifest.isProcessed("com.example.Foo", digest, PROCESSOR));
+        Assert.assertFalse(loadedManifest.isRejected("com.example.Foo", digest, OTHER_PROCESSOR));
+
+        // Rejections of the class file before processing remain once written
+        loadedManifest.markProcessed("com.example.Foo", digest, OTHER_PROCESSOR);
+        final HashCode outputDigest = writeClassFile("Foo.class", "after");
+        loadedManifest.recordProcessed("com.example.Foo");
+        Assert.assertTrue(loadedManifest.isRejected("com.example.Foo", outputDigest, PROCESSOR));
+        Assert.assertTrue(loadedManifest.isProcessed("com.example.Foo", outputDigest, OTHER_PROCESSOR));
+    }
+
+    @Test
+    public void testRecordUnmodifiedUnknownDigest() throws IOException {
+        final ProcessedClassManifest manifest = load("unknown.processed");
+        manifest.markRejected("com.example.Foo", null, PROCESSOR);
+        manifest.recordUnmodified("com.example.Foo");
+        manifest.recordUnmodified("com.example.Bar");
+        Assert.assertNull(manifest.getEntry("com.example.Foo"));
+        Assert.assertNull(manifest.getEntry("com.example.Bar"));
+    }
+
+    @Test
+    public void testLoadFormat() throws IOException {
+        final HashCode digest = writeClassFile("Foo.class", "content");
+        try (DataOutputStream output = new DataOutputStream(
+                Files.newOutputStream(_temporaryFolder.getRoot().toPath().resolve("format.processed")))) {
+            output.writeInt(0x4A505243);
+            output.writeShort(1);
+            output.writeShort(2);
+            output.writeUTF(PROCESSOR);
+            output.writeUTF(OTHER_PROCESSOR);
+            output.writeInt(1);
+            output.writeUTF("com.example.Foo");
+            output.write(digest.asBytes());
+            output.writeShort(1);
+            output.writeShort(0);
+            output.writeShort(1);
+            output.writeShort(1);
+        }
+
+        final ProcessedClassManifest manifest = load("format.processed");
+        Assert.assertTrue(manifest.isProcessed("com.example.Foo", digest, PROCESSOR));
+        Assert.assertFalse(manifest.isRejected("com.example.Foo", digest, PROCESSOR));
+        Assert.assertTrue(manifest.isRejected("com.example.Foo", digest, OTHER_PROCESSOR));
+    }
+
+    @Test
+    public void testRecordProcessedNotMarked() throws IOException {
+        final ProcessedClassManifest manifest = load("unmarked.processed");
+        writeClassFile("Foo.class", "content");
+        manifest.recordProcessed("com.example.Foo");
+        Assert.assertNull(manifest.getEntry("com.example.Foo"));
+    }
+
+    @Test
+    public void testRecordRestored() throws IOException {
+        final ProcessedClassManifest manifest = load("restored.processed");
+        final HashCode digest = writeClassFile("Foo.class", "content");
+        manifest.recordRestored("com.example.Foo");
+        Assert.assertTrue(manifest.isProcessed("com.example.Foo", digest, PROCESSOR));
+        Assert.assertFalse(manifest.isProcessed("com.example.Foo", digest, OTHER_PROCESSOR));
+    }
+
+    @Test
+    public void testPrune() throws IOException {
+        final ProcessedClassManifest manifest = load("prune.processed");
+        writeClassFile("Foo.class", "foo");
+        writeClassFile("Bar.class", "bar");
+        manifest.recordRestored("com.example.Foo");
+        manifest.recordRestored("com.example.Bar");
+        Files.delete(_temporaryFolder.getRoot().toPath().resolve("classes/com/example/Bar.class"));
+
+        manifest.prune();
+        Assert.assertNotNull(manifest.getEntry("com.example.Foo"));
+        Assert.assertNull(manifest.getEntry("com.example.Bar"));
+    }
+
+    private ProcessedClassManifest load(final String fileName) throws IOException {
+        final Path root = _temporaryFolder.getRoot().toPath();
+        return ProcessedClassManifest.load(
+                root.resolve(fileName),
+                root.resolve("classes"),
+                Collections.singletonList(PROCESSOR));
+    }
+
+    private HashCode writeClassFile(final String fileName, final String content) throws IOException {
+        final Path directory = _temporaryFolder.getRoot().toPath().resolve("classes/com/example");
+        Files.createDirectories(directory);
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Files.write(directory.resolve(fileName), bytes);
+        return ProcessedClassManifest.hash(bytes);
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private static final String PROCESSOR = "com.example.Processor";
+    private static final String OTHER_PROCESSOR = "com.example.OtherProcessor";
+}
@@ -0,0 +1,998 @@
+/**
+ * Copyright 2016 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import com.arpnetworking.commons.maven.javassist.LifecycleClassProcessor;
+import com.arpnetworking.commons.maven.javassist.ModifiesSupertypes;
+import com.arpnetworking.commons.maven.javassist.Processed;
+import com.arpnetworking.commons.maven.javassist.ProcessingContext;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.NotFoundException;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.ClassFile;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Tests for {@link ProcessingEngine}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessingEngineTest {
+
+    @Test
+    public void testCreateExecutorServiceSingleThread() {
+        final ExecutorService executorService = ProcessingExecutors.createExecutorService("1");
+        MatcherAssert.assertThat(executorService, Matchers.instanceOf(ForkJoinPool.class));
+        Assert.assertEquals(1, ((ForkJoinPool) executorService).getParallelism());
+        Assert.assertEquals(64, ClassSubmitter.getMaximumBatchSize(executorService, false));
+    }
+
+    @Test
+    public void testCreateExecutorServiceMultiThread() {
+        final ExecutorService executorService = ProcessingExecutors.createExecutorService("4");
+        MatcherAssert.assertThat(executorService, Matchers.instanceOf(ForkJoinPool.class));
+        Assert.assertEquals(4, ((ForkJoinPool) executorService).getParallelism());
+        Assert.assertEquals(64, ClassSubmitter.getMaximumBatchSize(executorService, false));
+    }
+
+    @Test
+    public void testCreateExecutorServicePerCoreThread() {
+        final int cores = Runtime.getRuntime().availableProcessors();
+        final ExecutorService executorService = ProcessingExecutors.createExecutorService("2C");
+        MatcherAssert.assertThat(executorService, Matchers.instanceOf(ForkJoinPool.class));
+        Assert.assertEquals(2 * cores, ((ForkJoinPool) executorService).getParallelism());
+        Assert.assertEquals(64, ClassSubmitter.getMaximumBatchSize(executorService, false));
+    }
+
+    @Test
+    public void testGetMaximumBatchSizeBatchProcessing() throws Exception {
+        final ExecutorService executorService = ProcessingExecutors.createExecutorService("virtual");
+        try {
+            Assert.assertEquals(64, ClassSubmitter.getMaximumBatchSize(executorService, true));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testGetThreadCount() {
+        final int cores = Runtime.getRuntime().availableProcessors();
+        Assert.assertEquals(4, ProcessingExecutors.getThreadCount("4"));
+        Assert.assertEquals(2 * cores, ProcessingExecutors.getThreadCount("2C"));
+        Assert.assertEquals(cores, ProcessingExecutors.getThreadCount("virtual"));
+        Assert.assertEquals(256, ProcessingExecutors.getThreadCount("virtual:256"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testCreateExecutorServiceInvalid() {
+        ProcessingExecutors.createExecutorService("Foo");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testCreateExecutorServiceInvalidPerCore() {
+        ProcessingExecutors.createExecutorService("FooC");
+    }
+
+    @Test
+    public void testCreateExecutorServiceVirtual() throws Exception {
+        final ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        final ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+        final ExecutorService executorService;
+        Thread.currentThread().setContextClassLoader(classLoader);
+        try {
+            executorService = ProcessingExecutors.createExecutorService("virtual");
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+        try {
+            final Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, executorService).get();
+            Assert.assertEquals(Boolean.TRUE, Thread.class.getMethod("isVirtual").invoke(thread));
+            Assert.assertSame(classLoader, thread.getContextClassLoader());
+            MatcherAssert.assertThat(thread.getName(), Matchers.startsWith("javassist-processor-"));
+            Assert.assertEquals(1, ClassSubmitter.getMaximumBatchSize(executorService, false));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testCreateExecutorServiceVirtualLimited() throws Exception {
+        final ExecutorService executorService = ProcessingExecutors.createExecutorService("virtual:2");
+        try {
+            final AtomicInteger running = new AtomicInteger();
+            final AtomicInteger maximumRunning = new AtomicInteger();
+            final List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; ++i) {
+                futures.add(CompletableFuture.runAsync(
+                        () -> {
+                            maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            try {
+                                Thread.sleep(5);
+                            } catch (final InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            running.decrementAndGet();
+                        },
+                        executorService));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+            MatcherAssert.assertThat(maximumRunning.get(), Matchers.lessThanOrEqualTo(2));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testCreateExecutorServiceVirtualInvalid() {
+        ProcessingExecutors.createExecutorService("virtualFoo");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testCreateExecutorServiceVirtualInvalidLimit() {
+        ProcessingExecutors.createExecutorService("virtual:Foo");
+    }
+
+    @Test
+    public void testCreateProcessor() throws ProcessingException {
+        final ClassProcessor processor = ProcessingEngine.createProcessor(
+                Thread.currentThread().getContextClassLoader(),
+                "com.arpnetworking.commons.maven.javassist.engine.TestProcessor");
+        MatcherAssert.assertThat(processor, Matchers.instanceOf(TestProcessor.class));
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void testCreateProcessorNonProcessor() throws ProcessingException {
+        ProcessingEngine.createProcessor(
+                Thread.currentThread().getContextClassLoader(),
+                "java.lang.String");
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void testCreateProcessorNotFound() throws ProcessingException {
+        ProcessingEngine.createProcessor(
+                Thread.currentThread().getContextClassLoader(),
+                "com.example.NotFound");
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void testCreateProcessorConstructionFailure() throws ProcessingException {
+        ProcessingEngine.createProcessor(
+                Thread.currentThread().getContextClassLoader(),
+                "com.arpnetworking.commons.maven.javassist.engine.ProcessingEngineTest$BrokenProcessor");
+    }
+
+    @Test
+    public void testUnwrapTaskExceptionNoOp() {
+        final NullPointerException exception = new NullPointerException("Exception");
+        final ProcessingException mee = ProcessingEngine.unwrapTaskException(exception, null);
+        Assert.assertSame(exception, mee.getCause());
+    }
+
+    @Test
+    public void testUnwrapTaskExceptionCause() {
+        final NullPointerException cause = new NullPointerException("Cause");
+        final NullPointerException exception = new NullPointerException("Exception");
+        final ProcessingException mee = ProcessingEngine.unwrapTaskException(exception, cause);
+        Assert.assertSame(cause, mee.getCause());
+    }
+
+    @Test
+    public void testUnwrapTaskExceptionUnwrapCompletionException() {
+        final NullPointerException wrappedCause = new NullPointerException("WrappedCause");
+        final CompletionException cause = new CompletionException("Cause", wrappedCause);
+        final Exception exception = new Exception("Exception", cause);
+        final ProcessingException mee = ProcessingEngine.unwrapTaskException(exception, cause);
+        Assert.assertSame(wrappedCause, mee.getCause());
+    }
+
+    @Test
+    public void testUnwrapTaskExceptionUnwrapExecutionException() {
+        final NullPointerException wrappedCause = new NullPointerException("WrappedCause");
+        final ExecutionException cause = new ExecutionException("Cause", wrappedCause);
+        final Exception exception = new Exception("Exception", cause);
+        final ProcessingException mee = ProcessingEngine.unwrapTaskException(exception, cause);
+        Assert.assertSame(wrappedCause, mee.getCause());
+    }
+
+    @Test
+    public void testCreateIncludePredicateNoClasses() {
+        final Predicate<String> predicate = ProcessingEngine.createIncludePredicate(Collections.emptyList());
+        Assert.assertTrue(predicate.test(null));
+    }
+
+    @Test
+    public void testCreateIncludePredicateEmptyClasses() {
+        final Predicate<String> predicate = ProcessingEngine.createIncludePredicate(Collections.emptyList());
+        Assert.assertTrue(predicate.test(null));
+    }
+
+    @Test
+    public void testCreateIncludePredicate() {
+        final Predicate<String> predicate = ProcessingEngine.createIncludePredicate(Collections.singletonList("Foo*"));
+        Assert.assertTrue(predicate.test("FooWidget"));
+        Assert.assertFalse(predicate.test("BarWidget"));
+    }
+
+    @Test
+    public void testCreateExcludePredicateNoClasses() {
+        final Predicate<String> predicate = ProcessingEngine.createExcludePredicate(Collections.emptyList());
+        Assert.assertFalse(predicate.test(null));
+    }
+
+    @Test
+    public void testCreateExcludePredicateEmptyClasses() {
+        final Predicate<String> predicate = ProcessingEngine.createExcludePredicate(Collections.emptyList());
+        Assert.assertFalse(predicate.test(null));
+    }
+
+    @Test
+    public void testCreateExcludePredicate() {
+        final Predicate<String> predicate = ProcessingEngine.createExcludePredicate(Collections.singletonList("Foo*"));
+        Assert.assertTrue(predicate.test("FooWidget"));
+        Assert.assertFalse(predicate.test("BarWidget"));
+    }
+
+    @Test
+    public void testCreateScopeFilter() {
+        final BiPredicate<String, Path> scopeFilter = ProcessingEngine.createScopeFilter(Arrays.asList(
+                new ScopedProcessor(
+                        new RecordingProcessor(),
+                        ProcessingEngine.createIncludePredicate(Collections.singletonList("com.example.foo.*")),
+                        ProcessingEngine.createExcludePredicate(Collections.singletonList("*Test"))),
+                new ScopedProcessor(
+                        new ScopedRecordingProcessor(),
+                        ProcessingEngine.createIncludePredicate(Collections.singletonList("com.example.bar.Bar")),
+                        ProcessingEngine.createExcludePredicate(Collections.emptyList()))));
+        Assert.assertTrue(scopeFilter.test("com.example.foo.Foo", null));
+        Assert.assertTrue(scopeFilter.test("com.example.bar.Bar", null));
+        Assert.assertFalse(scopeFilter.test("com.example.foo.FooTest", null));
+        Assert.assertFalse(scopeFilter.test("com.example.bar.Baz", null));
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("execute").toPath();
+        writeClass(directory, "com.example.execute.Foo", false);
+        writeClass(directory, "com.example.execute.Bar", false);
+
+        createEngine(createOptions(directory, false)).execute();
+
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.execute.Foo"));
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.execute.Bar"));
+        Assert.assertTrue(isProcessed(directory, "com.example.execute.Foo"));
+        Assert.assertTrue(isProcessed(directory, "com.example.execute.Bar"));
+    }
+
+    @Test
+    public void testExecuteChained() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("chained").toPath();
+        writeClass(directory, "com.example.chained.Foo", false);
+        writeClass(directory, "com.example.chained.Bar", false);
+        writeClass(directory, "com.example.other.Foo", false);
+
+        final ProcessorConfiguration configuration = new ProcessorConfiguration();
+        configuration.setClassName(ScopedRecordingProcessor.class.getName());
+        configuration.setIncludes(Collections.singletonList("com.example.chained.*"));
+        configuration.setExcludes(Collections.singletonList("*Bar"));
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setIncludes(Arrays.asList("com.example.chained.*", "com.example.other.*"));
+        options.setProcessors(Arrays.asList(createConfiguration(RecordingProcessor.class), configuration));
+        createEngine(options).execute();
+
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.chained.Foo"));
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.chained.Bar"));
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.other.Foo"));
+        Assert.assertEquals(1, ScopedRecordingProcessor.getProcessCount("com.example.chained.Foo"));
+        Assert.assertEquals(0, ScopedRecordingProcessor.getProcessCount("com.example.chained.Bar"));
+        Assert.assertEquals(0, ScopedRecordingProcessor.getProcessCount("com.example.other.Foo"));
+        MatcherAssert.assertThat(
+                getProcessors(directory, "com.example.chained.Foo"),
+                Matchers.containsInAnyOrder(
+                        RecordingProcessor.class.getName(),
+                        ScopedRecordingProcessor.class.getName()));
+        MatcherAssert.assertThat(
+                getProcessors(directory, "com.example.chained.Bar"),
+                Matchers.contains(RecordingProcessor.class.getName()));
+    }
+
+    @Test
+    public void testExecuteLifecycle() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("lifecycle").toPath();
+        writeClass(directory, "com.example.lifecycle.Foo", false);
+        writeClass(directory, "com.example.lifecycle.Bar", false);
+        writeClass(directory, "com.example.lifecycle.sub.Baz", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setProcessors(Collections.singletonList(createConfiguration(LifecycleRecordingProcessor.class)));
+        createEngine(options).execute();
+
+        Assert.assertEquals(1, LifecycleRecordingProcessor.BEGIN_COUNT.get());
+        Assert.assertEquals(1, LifecycleRecordingProcessor.END_COUNT.get());
+        MatcherAssert.assertThat(
+                LifecycleRecordingProcessor.BATCHES,
+                Matchers.containsInAnyOrder(
+                        Arrays.asList("com.example.lifecycle.Bar", "com.example.lifecycle.Foo"),
+                        Collections.singletonList("com.example.lifecycle.sub.Baz")));
+        Assert.assertTrue(isProcessed(directory, "com.example.lifecycle.Foo"));
+        Assert.assertTrue(isProcessed(directory, "com.example.lifecycle.sub.Baz"));
+    }
+
+    @Test
+    public void testExecuteEndFailure() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("end").toPath();
+        writeClass(directory, "com.example.end.Foo", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setProcessors(Collections.singletonList(createConfiguration(FailingEndProcessor.class)));
+        try {
+            createEngine(options).execute();
+            Assert.fail("Expected exception not thrown");
+        } catch (final ProcessingException e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString(FailingEndProcessor.class.getName()));
+        }
+        Assert.assertTrue(isProcessed(directory, "com.example.end.Foo"));
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void testCreateProcessorsNoneConfigured() throws Exception {
+        final ProcessingOptions options = createOptions(_temporaryFolder.getRoot().toPath(), false);
+        options.setProcessors(Collections.emptyList());
+        createEngine(options).createProcessors(Thread.currentThread().getContextClassLoader());
+    }
+
+    @Test
+    public void testCreateConfigurationDigest() throws Exception {
+        final ProcessingOptions options = createOptions(_temporaryFolder.getRoot().toPath(), false);
+        final String digest = createEngine(options).createConfigurationDigest();
+        Assert.assertEquals(digest, createEngine(options).createConfigurationDigest());
+
+        options.setExcludes(Collections.singletonList("com.example.*"));
+        final String excludesDigest = createEngine(options).createConfigurationDigest();
+        Assert.assertNotEquals(digest, excludesDigest);
+
+        final ProcessorConfiguration configuration = new ProcessorConfiguration();
+        configuration.setClassName(ScopedRecordingProcessor.class.getName());
+        options.setProcessors(Collections.singletonList(configuration));
+        Assert.assertNotEquals(excludesDigest, createEngine(options).createConfigurationDigest());
+    }
+
+    @Test
+    public void testExecuteJar() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("jar").toPath();
+        final Path classFile = writeClass(directory, "com.example.jar.Foo", false);
+        final Path jarFile = directory.resolve("test.jar");
+        try (ZipOutputStream outputStream = new ZipOutputStream(Files.newOutputStream(jarFile))) {
+            outputStream.putNextEntry(new ZipEntry("com/example/jar/Foo.class"));
+            outputStream.write(Files.readAllBytes(classFile));
+            outputStream.closeEntry();
+        }
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setJars(Collections.singletonList(jarFile));
+        createEngine(options).execute();
+
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.jar.Foo"));
+        Assert.assertFalse(isProcessed(directory, "com.example.jar.Foo"));
+    }
+
+    @Test
+    public void testCreateClassPoolShared() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("shared").toPath();
+        final Path jarDirectory = _temporaryFolder.newFolder("sharedJar").toPath();
+        writeClass(directory, "com.example.shared.Foo", true);
+        final Path jarFile = jarDirectory.resolve("shared.jar");
+        try (ZipOutputStream outputStream = new ZipOutputStream(Files.newOutputStream(jarFile))) {
+            for (final String className : Arrays.asList("com.example.shared.Foo", "com.example.shared.Bar")) {
+                final String entryName = className.replace('.', '/') + ".class";
+                outputStream.putNextEntry(new ZipEntry(entryName));
+                outputStream.write(Files.readAllBytes(writeClass(jarDirectory, className, false)));
+                outputStream.closeEntry();
+            }
+        }
+
+        try (SharedClassPools sharedClassPools = new SharedClassPools()) {
+            final ProcessingOptions options = createOptions(directory, false);
+            options.setSharedClassPools(sharedClassPools);
+            final List<String> classpathElements = Arrays.asList(
+                    jarFile.toString(),
+                    directory.toString(),
+                    jarFile.toString());
+            final ClassPool classPool = createEngine(options).createClassPool(classpathElements);
+
+            // Classes in the module's directories take precedence over the jars
+            Assert.assertNotNull(classPool.get("com.example.shared.Foo").getDeclaredField("_modified"));
+            Assert.assertNotNull(classPool.get("com.example.shared.Bar"));
+
+            // Dependency classes are parsed once across the executions of a session
+            Assert.assertSame(
+                    classPool.get("com.example.shared.Bar"),
+                    createEngine(options).createClassPool(classpathElements).get("com.example.shared.Bar"));
+            Assert.assertNotSame(
+                    classPool.get("com.example.shared.Foo"),
+                    createEngine(options).createClassPool(classpathElements).get("com.example.shared.Foo"));
+
+            // Another session parses them again
+            try (SharedClassPools otherSharedClassPools = new SharedClassPools()) {
+                options.setSharedClassPools(otherSharedClassPools);
+                Assert.assertNotSame(
+                        classPool.get("com.example.shared.Bar"),
+                        createEngine(options).createClassPool(classpathElements).get("com.example.shared.Bar"));
+            }
+        }
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void testExecuteJarMissing() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("missingJar").toPath();
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setJars(Collections.singletonList(directory.resolve("missing.jar")));
+        createEngine(options).execute();
+    }
+
+    @Test
+    public void testExecuteOrderByHierarchy() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("hierarchy").toPath();
+        final ClassPool classPool = new ClassPool(true);
+        final CtClass base = classPool.makeClass("com.example.hierarchy.Base");
+        base.writeFile(directory.toString());
+        classPool.makeClass("com.example.hierarchy.sub.Sub", base).writeFile(directory.toString());
+        writeClass(directory, "com.example.hierarchy.Other", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setOrderByHierarchy(true);
+        createEngine(options).execute();
+
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.hierarchy.Base"));
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.hierarchy.sub.Sub"));
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.hierarchy.Other"));
+        Assert.assertTrue(isProcessed(directory, "com.example.hierarchy.sub.Sub"));
+    }
+
+    @Test
+    public void testExecuteOrderByHierarchyModifiesSuperclass() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("hierarchyModify").toPath();
+        final ClassPool classPool = new ClassPool(true);
+        final CtClass base = classPool.makeClass("com.example.hierarchyModify.Base");
+        base.writeFile(directory.toString());
+        classPool.makeClass("com.example.hierarchyModify.Foo", base).writeFile(directory.toString());
+        classPool.makeClass("com.example.hierarchyModify.Bar", base).writeFile(directory.toString());
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setProcessors(Collections.singletonList(createConfiguration(SuperclassModifyingProcessor.class)));
+        options.setOrderByHierarchy(true);
+        try {
+            createEngine(options).execute();
+            Assert.fail("Expected exception not thrown");
+        } catch (final ProcessingException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IllegalStateException.class));
+            MatcherAssert.assertThat(e.getCause().getMessage(), Matchers.containsString("modified a class it was not given"));
+        }
+
+        // The superclass was not modified
+        try (InputStream inputStream = Files.newInputStream(
+                directory.resolve("com/example/hierarchyModify/Base.class"))) {
+            final ClassFile classFile = new ClassFile(new DataInputStream(inputStream));
+            Assert.assertTrue(classFile.getFields().isEmpty());
+        }
+    }
+
+    @Test
+    public void testExecuteOrderByHierarchyDeclaresModifiesSupertypes() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("hierarchyDeclared").toPath();
+        writeClass(directory, "com.example.hierarchyDeclared.Foo", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setProcessors(Collections.singletonList(
+                createConfiguration(DeclaredSuperclassModifyingProcessor.class)));
+        options.setOrderByHierarchy(true);
+        try {
+            createEngine(options).execute();
+            Assert.fail("Expected exception not thrown");
+        } catch (final ProcessingException e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("cannot be ordered by hierarchy"));
+            MatcherAssert.assertThat(
+                    e.getMessage(),
+                    Matchers.containsString(DeclaredSuperclassModifyingProcessor.class.getName()));
+        }
+        Assert.assertFalse(isProcessed(directory, "com.example.hierarchyDeclared.Foo"));
+    }
+
+    @Test
+    public void testExecuteFailure() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("failure").toPath();
+        writeClass(directory, "com.example.failure.Foo", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setProcessors(Collections.singletonList(createConfiguration(FailingProcessor.class)));
+        try {
+            createEngine(options).execute();
+            Assert.fail("Expected exception not thrown");
+        } catch (final ProcessingException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IllegalStateException.class));
+        }
+    }
+
+    @Test
+    public void testExecuteAggregateFailures() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("aggregate").toPath();
+        writeClass(directory, "com.example.aggregate.Foo", false);
+        writeClass(directory, "com.example.aggregate.Bar", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setProcessors(Collections.singletonList(createConfiguration(FailingProcessor.class)));
+        options.setAggregateFailures(true);
+        try {
+            createEngine(options).execute();
+            Assert.fail("Expected exception not thrown");
+        } catch (final ProcessingException e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("2 classes"));
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IllegalStateException.class));
+            Assert.assertEquals(1, e.getSuppressed().length);
+        }
+    }
+
+    @Test
+    public void testExecutePerformanceReport() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("report").toPath();
+        writeClass(directory, "com.example.report.Foo", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setPerformanceReport(true);
+        createEngine(options).execute();
+
+        final Path reportFile = directory.resolve("manifest/test.performance.json");
+        Assert.assertEquals(reportFile, createEngine(options).getPerformanceReportFile());
+        final String report = Files.readString(reportFile);
+        MatcherAssert.assertThat(report, Matchers.containsString("\"classCount\": 1"));
+        MatcherAssert.assertThat(report, Matchers.containsString("\"className\": \"com.example.report.Foo\""));
+    }
+
+    @Test
+    public void testExecuteProcessedManifest() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("processedManifest").toPath();
+        writeClass(directory, "com.example.processedManifest.Foo", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setProcessedManifest(true);
+        createEngine(options).execute();
+        createEngine(options).execute();
+
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.processedManifest.Foo"));
+        Assert.assertFalse(isProcessed(directory, "com.example.processedManifest.Foo"));
+        Assert.assertTrue(Files.exists(directory.resolveSibling("processedManifest.processed")));
+        Assert.assertFalse(Files.exists(directory.resolve(MANIFEST_FILE + ".processed")));
+    }
+
+    @Test
+    public void testExecuteProcessedManifestOtherExecution() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("processedManifestOther").toPath();
+        writeClass(directory, "com.example.processedManifestOther.Foo", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setProcessedManifest(true);
+        createEngine(options).execute();
+        options.setManifestFile(directory.resolve("manifest/other.manifest"));
+        createEngine(options).execute();
+
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.processedManifestOther.Foo"));
+    }
+
+    @Test
+    public void testExecuteNoPerformanceReport() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("noReport").toPath();
+        writeClass(directory, "com.example.noReport.Foo", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        createEngine(options).execute();
+
+        Assert.assertFalse(Files.exists(createEngine(options).getPerformanceReportFile()));
+    }
+
+    @Test
+    public void testShutdownExecutorService() throws Exception {
+        final ProcessingOptions options = createOptions(_temporaryFolder.newFolder("shutdown").toPath(), false);
+        final ExecutorService executorService = ProcessingExecutors.createExecutorService("2");
+        final CountDownLatch started = new CountDownLatch(1);
+        executorService.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(60000);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        createEngine(options).shutdownExecutorService(executorService);
+
+        Assert.assertTrue(executorService.isTerminated());
+    }
+
+    @Test
+    public void testExecuteClassTimeout() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("timeout").toPath();
+        writeClass(directory, "com.example.timeout.Foo", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setProcessors(Collections.singletonList(createConfiguration(SleepingProcessor.class)));
+        options.setClassTimeout(Duration.ofSeconds(1));
+        try {
+            createEngine(options).execute();
+            Assert.fail("Expected exception not thrown");
+        } catch (final ProcessingException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(TimeoutException.class));
+            MatcherAssert.assertThat(
+                    e.getCause().getMessage(),
+                    Matchers.endsWith("com.example.timeout.Foo with " + SleepingProcessor.class.getName()));
+        }
+    }
+
+    @Test
+    public void testExecuteIncremental() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("incremental").toPath();
+        writeClass(directory, "com.example.incremental.Foo", false);
+        writeClass(directory, "com.example.incremental.Bar", false);
+
+        createEngine(createOptions(directory, true)).execute();
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.incremental.Foo"));
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.incremental.Bar"));
+
+        // Nothing changed so nothing is processed
+        createEngine(createOptions(directory, true)).execute();
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.incremental.Foo"));
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.incremental.Bar"));
+
+        // Only the recompiled class is processed and the deleted class is pruned
+        writeClass(directory, "com.example.incremental.Foo", true);
+        Files.delete(directory.resolve("com/example/incremental/Bar.class"));
+        createEngine(createOptions(directory, true)).execute();
+        Assert.assertEquals(2, RecordingProcessor.getProcessCount("com.example.incremental.Foo"));
+        Assert.assertTrue(isProcessed(directory, "com.example.incremental.Foo"));
+
+        final ClassManifest manifest = ClassManifest.load(
+                directory.resolve(MANIFEST_FILE),
+                RecordingProcessor.class.getName());
+        Assert.assertNotNull(manifest.getEntry("com.example.incremental.Foo"));
+        Assert.assertNull(manifest.getEntry("com.example.incremental.Bar"));
+    }
+
+    @Test
+    public void testExecuteCache() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("cached").toPath();
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        writeClass(directory, "com.example.cached.Foo", false);
+
+        final ProcessingOptions options = createOptions(directory, false);
+        options.setCacheDirectory(cacheDirectory);
+        options.setCacheMaximumSize("1M");
+        createEngine(options).execute();
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.cached.Foo"));
+
+        // The recompiled class is restored from the cache without processing
+        writeClass(directory, "com.example.cached.Foo", false);
+        Assert.assertFalse(isProcessed(directory, "com.example.cached.Foo"));
+        createEngine(options).execute();
+        Assert.assertEquals(1, RecordingProcessor.getProcessCount("com.example.cached.Foo"));
+        Assert.assertTrue(isProcessed(directory, "com.example.cached.Foo"));
+    }
+
+    private static ProcessingOptions createOptions(final Path directory, final boolean incremental) {
+        final ProcessingOptions options = new ProcessingOptions(directory);
+        options.setClasspathElementsToProcess(Collections.singletonList(directory.toString()));
+        options.setClasspathElementsToLoad(Collections.singletonList(directory.toString()));
+        options.setManifestFile(directory.resolve(MANIFEST_FILE));
+        options.setProcessors(Collections.singletonList(createConfiguration(RecordingProcessor.class)));
+        options.setThreads("2");
+        options.setIncremental(incremental);
+        return options;
+    }
+
+    private static ProcessingEngine createEngine(final ProcessingOptions options) {
+        return new ProcessingEngine(options, BuildChanges.FULL, new PrintStreamLog(System.err, false));
+    }
+
+    private static ProcessorConfiguration createConfiguration(final Class<? extends ClassProcessor> processorClass) {
+        final ProcessorConfiguration configuration = new ProcessorConfiguration();
+        configuration.setClassName(processorClass.getName());
+        return configuration;
+    }
+
+    private static Path writeClass(final Path directory, final String className, final boolean modified)
+            throws CannotCompileException, IOException {
+        final CtClass ctClass = new ClassPool(true).makeClass(className);
+        if (modified) {
+            ctClass.addField(CtField.make("private int _modified;", ctClass));
+        }
+        ctClass.writeFile(directory.toString());
+        return directory.resolve(className.replace('.', '/') + ".class");
+    }
+
+    private static boolean isProcessed(final Path directory, final String className) throws IOException {
+        final Path file = directory.resolve(className.replace('.', '/') + ".class");
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            final ClassFile classFile = new ClassFile(new DataInputStream(inputStream));
+            final AttributeInfo attribute = classFile.getAttribute(AnnotationsAttribute.invisibleTag);
+            return attribute instanceof AnnotationsAttribute
+                    && ((AnnotationsAttribute) attribute).getAnnotation(Processed.class.getName()) != null;
+        }
+    }
+
+    private static List<String> getProcessors(final Path directory, final String className)
+            throws ClassNotFoundException, IOException {
+        final Path file = directory.resolve(className.replace('.', '/') + ".class");
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            final CtClass ctClass = new ClassPool(true).makeClass(inputStream);
+            final Object processed = ctClass.getAnnotation(Processed.class);
+            if (processed instanceof Processed) {
+                return Arrays.asList(((Processed) processed).value());
+            }
+            return Collections.emptyList();
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private static final String MANIFEST_FILE = "manifest/test.manifest";
+
+    /**
+     * {@link ClassProcessor} that accepts every class and records how often
+     * each class is processed.
+     */
+    public static final class RecordingProcessor implements ClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            PROCESS_COUNTS.computeIfAbsent(ctClass.getName(), k -> new AtomicInteger()).incrementAndGet();
+        }
+
+        static int getProcessCount(final String className) {
+            final AtomicInteger count = PROCESS_COUNTS.get(className);
+            if (count == null) {
+                return 0;
+            }
+            return count.get();
+        }
+
+        private static final Map<String, AtomicInteger> PROCESS_COUNTS = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * {@link ClassProcessor} that accepts every class and records how often
+     * each class is processed; configured with its own scope.
+     */
+    public static final class ScopedRecordingProcessor implements ClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            PROCESS_COUNTS.computeIfAbsent(ctClass.getName(), k -> new AtomicInteger()).incrementAndGet();
+        }
+
+        static int getProcessCount(final String className) {
+            final AtomicInteger count = PROCESS_COUNTS.get(className);
+            if (count == null) {
+                return 0;
+            }
+            return count.get();
+        }
+
+        private static final Map<String, AtomicInteger> PROCESS_COUNTS = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * {@link ClassProcessor} that adds a field to the superclass of every
+     * class it processes.
+     */
+    public static final class SuperclassModifyingProcessor implements ClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            try {
+                final CtClass superclass = ctClass.getSuperclass();
+                if (superclass.getName().startsWith("com.example.")) {
+                    superclass.addField(CtField.make("private int _" + ctClass.getSimpleName() + ";", superclass));
+                }
+            } catch (final NotFoundException | CannotCompileException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * {@link ClassProcessor} that declares it modifies supertypes.
+     */
+    @ModifiesSupertypes
+    public static final class DeclaredSuperclassModifyingProcessor implements ClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            // Nothing to do
+        }
+    }
+
+    /**
+     * {@link ClassProcessor} that fails to process every class.
+     */
+    public static final class FailingProcessor implements ClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            throw new IllegalStateException("Unable to process: " + ctClass.getName());
+        }
+    }
+
+    /**
+     * {@link ClassProcessor} that sleeps until interrupted when processing
+     * a class.
+     */
+    public static final class SleepingProcessor implements ClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            try {
+                Thread.sleep(60000);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * {@link LifecycleClassProcessor} that records its lifecycle and the
+     * classes of each batch.
+     */
+    public static final class LifecycleRecordingProcessor implements LifecycleClassProcessor {
+
+        @Override
+        public void begin(final ProcessingContext context) {
+            Assert.assertNotNull(context.getClassPool());
+            Assert.assertEquals(2, context.getThreadCount());
+            BEGIN_COUNT.incrementAndGet();
+        }
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void processBatch(final Collection<CtClass> ctClasses) {
+            BATCHES.add(ctClasses.stream().map(CtClass::getName).collect(Collectors.toList()));
+        }
+
+        @Override
+        public void end() {
+            END_COUNT.incrementAndGet();
+        }
+
+        private static final AtomicInteger BEGIN_COUNT = new AtomicInteger();
+        private static final AtomicInteger END_COUNT = new AtomicInteger();
+        private static final List<List<String>> BATCHES = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * {@link LifecycleClassProcessor} that fails to end.
+     */
+    public static final class FailingEndProcessor implements LifecycleClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+        }
+
+        @Override
+        public void end() {
+            throw new IllegalStateException("Unable to end");
+        }
+    }
+
+    private static final class BrokenProcessor implements ClassProcessor {
+
+        BrokenProcessor() {
+            throw new IllegalStateException("This processor is always in an illegal state.");
+        }
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return false;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            // Nothing to do
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import com.arpnetworking.commons.maven.javassist.Processed;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.ClassFile;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * Tests for {@link ProcessingTransformer}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessingTransformerTest {
+
+    @After
+    public void tearDown() throws IOException {
+        _loader.close();
+    }
+
+    @Test
+    public void testTransform() throws IOException, CannotCompileException {
+        final ProcessingTransformer transformer = createTransformer(
+                new ProcessingEngineTest.RecordingProcessor(),
+                null);
+        final byte[] output = transformer.transform(_loader, "com/example/agent/Foo", null, null, createClass());
+
+        Assert.assertNotNull(output);
+        Assert.assertTrue(isProcessed(output));
+
+        // The marker prevents the class from being processed again
+        Assert.assertNull(transformer.transform(_loader, "com/example/agent/Foo", null, null, output));
+    }
+
+    @Test
+    public void testTransformSkipped() throws IOException, CannotCompileException {
+        final ProcessingTransformer transformer = new ProcessingTransformer(
+                Collections.singletonList(new ScopedProcessor(
+                        new ProcessingEngineTest.RecordingProcessor(),
+                        className -> true,
+                        Predicate.isEqual("com.example.agent.Foo"))),
+                null,
+                _log);
+        final byte[] classFile = createClass();
+
+        Assert.assertNull(transformer.transform(null, "com/example/agent/Foo", null, null, classFile));
+        final ClassLoader platformLoader = ClassLoader.getPlatformClassLoader();
+        Assert.assertNull(transformer.transform(platformLoader, "com/example/agent/Foo", null, null, classFile));
+        Assert.assertNull(transformer.transform(_loader, null, null, null, classFile));
+        Assert.assertNull(transformer.transform(_loader, "com/example/agent/Foo", Object.class, null, classFile));
+        Assert.assertNull(transformer.transform(_loader, "com/example/agent/Foo", null, null, classFile));
+    }
+
+    @Test
+    public void testTransformCached() throws IOException, CannotCompileException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        final byte[] classFile = createClass();
+        final byte[] output = createTransformer(
+                new ProcessingEngineTest.RecordingProcessor(),
+                createCache(cacheDirectory))
+                .transform(_loader, "com/example/agent/Foo", null, null, classFile);
+        Assert.assertNotNull(output);
+        Assert.assertEquals(1, countEntries(cacheDirectory));
+
+        // A later virtual machine is served from the cache without processing
+        final ProcessingTransformer cachedTransformer = createTransformer(
+                new FailingProcessor(),
+                createCache(cacheDirectory));
+        Assert.assertArrayEquals(
+                output,
+                cachedTransformer.transform(_loader, "com/example/agent/Foo", null, null, classFile));
+    }
+
+    @Test
+    public void testTransformCachedUnchanged() throws IOException, CannotCompileException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        final byte[] classFile = createClass();
+        final ProcessingTransformer transformer = createTransformer(
+                new RejectingProcessor(),
+                createCache(cacheDirectory));
+        Assert.assertNull(transformer.transform(_loader, "com/example/agent/Foo", null, null, classFile));
+        Assert.assertEquals(1, countEntries(cacheDirectory));
+
+        final ProcessingTransformer cachedTransformer = createTransformer(
+                new FailingProcessor(),
+                createCache(cacheDirectory));
+        Assert.assertNull(cachedTransformer.transform(_loader, "com/example/agent/Foo", null, null, classFile));
+        Assert.assertEquals("", _output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTransformFailure() throws IOException, CannotCompileException {
+        final ProcessingTransformer transformer = createTransformer(new FailingProcessor(), null);
+
+        Assert.assertNull(transformer.transform(_loader, "com/example/agent/Foo", null, null, createClass()));
+        MatcherAssert.assertThat(
+                _output.toString(StandardCharsets.UTF_8),
+                Matchers.containsString("[ERROR] Unable to process class: com.example.agent.Foo"));
+    }
+
+    @Test
+    public void testTransformCacheFailure() throws IOException, CannotCompileException {
+        final Path cacheFile = _temporaryFolder.newFile("cache").toPath();
+        final ProcessingTransformer transformer = createTransformer(
+                new ProcessingEngineTest.RecordingProcessor(),
+                createCache(cacheFile));
+
+        Assert.assertNull(transformer.transform(_loader, "com/example/agent/Foo", null, null, createClass()));
+        MatcherAssert.assertThat(
+                _output.toString(StandardCharsets.UTF_8),
+                Matchers.containsString("[ERROR] Unable to process class: com.example.agent.Foo"));
+    }
+
+    @Test
+    public void testEnd() throws IOException, CannotCompileException {
+        final Path cacheDirectory = _temporaryFolder.newFolder("cache").toPath();
+        final ProcessingTransformer transformer = createTransformer(
+                new ProcessingEngineTest.RecordingProcessor(),
+                new ClassCache(cacheDirectory, "processor", 0));
+        Assert.assertNotNull(transformer.transform(_loader, "com/example/agent/Foo", null, null, createClass()));
+        Assert.assertEquals(1, countEntries(cacheDirectory));
+
+        transformer.end();
+        Assert.assertEquals(0, countEntries(cacheDirectory));
+    }
+
+    private ProcessingTransformer createTransformer(final ClassProcessor processor, @Nullable final ClassCache cache) {
+        return new ProcessingTransformer(
+                Collections.singletonList(new ScopedProcessor(processor, className -> true, className -> false)),
+                cache,
+                _log);
+    }
+
+    private static ClassCache createCache(final Path cacheDirectory) {
+        return new ClassCache(cacheDirectory, "processor", Long.MAX_VALUE);
+    }
+
+    private static byte[] createClass() throws IOException, CannotCompileException {
+        final CtClass ctClass = new ClassPool(true).makeClass("com.example.agent.Foo");
+        return ctClass.toBytecode();
+    }
+
+    private static boolean isProcessed(final byte[] bytecode) throws IOException {
+        final ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(bytecode)));
+        final AttributeInfo attribute = classFile.getAttribute(AnnotationsAttribute.invisibleTag);
+        return attribute instanceof AnnotationsAttribute
+                && ((AnnotationsAttribute) attribute).getAnnotation(Processed.class.getName()) != null;
+    }
+
+    private static long countEntries(final Path cacheDirectory) throws IOException {
+        try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+            return paths.filter(path -> path.toString().endsWith(".class")).count();
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private final URLClassLoader _loader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+    private final ByteArrayOutputStream _output = new ByteArrayOutputStream();
+    private final PrintStreamLog _log = new PrintStreamLog(
+            new PrintStream(_output, true, StandardCharsets.UTF_8),
+            false);
+
+    private static final class FailingProcessor implements ClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            throw new IllegalStateException("Unexpected class: " + ctClass.getName());
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            throw new IllegalStateException("Unexpected class: " + ctClass.getName());
+        }
+    }
+
+    private static final class RejectingProcessor implements ClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return false;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            throw new IllegalStateException("Unexpected class: " + ctClass.getName());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Tests for {@link ProcessingWatchdog}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessingWatchdogTest {
+
+    @Test
+    public void testSlowClass() {
+        final ProcessingWatchdog watchdog = new ProcessingWatchdog(
+                Duration.ofSeconds(10),
+                Duration.ZERO,
+                _log,
+                _ticker::get);
+        watchdog.watch(createTask("com.example.Slow"), () -> {
+            _ticker.addAndGet(Duration.ofSeconds(5).toNanos());
+            watchdog.check();
+            Mockito.verifyNoInteractions(_log);
+
+            _ticker.addAndGet(Duration.ofSeconds(5).toNanos());
+            watchdog.check();
+            watchdog.check();
+        }).run();
+
+        final ArgumentCaptor<CharSequence> message = ArgumentCaptor.forClass(CharSequence.class);
+        Mockito.verify(_log).warn(message.capture());
+        MatcherAssert.assertThat(
+                message.getValue().toString(),
+                Matchers.startsWith("Class processing slow after 10000 ms: com.example.Slow"));
+        MatcherAssert.assertThat(message.getValue().toString(), Matchers.containsString("ProcessingWatchdogTest"));
+        Assert.assertFalse(watchdog.getTimeout().isDone());
+    }
+
+    @Test
+    public void testSlowClassInBatch() {
+        final ProcessingWatchdog watchdog = new ProcessingWatchdog(
+                Duration.ofSeconds(10),
+                Duration.ZERO,
+                _log,
+                _ticker::get);
+        final ClassProcessorTask task = createBatchTask(className -> {
+            // The batch takes longer than the threshold but neither class does
+            _ticker.addAndGet(Duration.ofSeconds(6).toNanos());
+            watchdog.check();
+        });
+        watchdog.watch(task, task).run();
+
+        Mockito.verify(_log, Mockito.never()).warn(Mockito.any(CharSequence.class));
+    }
+
+    @Test
+    public void testSlowClassInBatchNamed() {
+        final ProcessingWatchdog watchdog = new ProcessingWatchdog(
+                Duration.ofSeconds(10),
+                Duration.ZERO,
+                _log,
+                _ticker::get);
+        final ClassProcessorTask task = createBatchTask(className -> {
+            if (className.endsWith("Second")) {
+                _ticker.addAndGet(Duration.ofSeconds(10).toNanos());
+                watchdog.check();
+            } else {
+                _ticker.addAndGet(Duration.ofSeconds(6).toNanos());
+            }
+        });
+        watchdog.watch(task, task).run();
+
+        final ArgumentCaptor<CharSequence> message = ArgumentCaptor.forClass(CharSequence.class);
+        Mockito.verify(_log).warn(message.capture());
+        MatcherAssert.assertThat(
+                message.getValue().toString(),
+                Matchers.startsWith("Class processing slow after 10000 ms: com.example.batch.Second with "
+                        + TickingProcessor.class.getName()));
+    }
+
+    @Test
+    public void testTimeout() {
+        final ProcessingWatchdog watchdog = new ProcessingWatchdog(
+                Duration.ofSeconds(10),
+                Duration.ofSeconds(30),
+                _log,
+                _ticker::get);
+        watchdog.watch(createTask("com.example.Stuck"), () -> {
+            _ticker.addAndGet(Duration.ofSeconds(30).toNanos());
+            watchdog.check();
+            watchdog.check();
+        }).run();
+
+        Mockito.verify(_log).error(Mockito.any(CharSequence.class));
+        Mockito.verify(_log, Mockito.never()).warn(Mockito.any(CharSequence.class));
+        try {
+            watchdog.getTimeout().join();
+            Assert.fail("Expected exception not thrown");
+        } catch (final CompletionException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(TimeoutException.class));
+            Assert.assertEquals(
+                    "Class processing timed out after 30000 ms: com.example.Stuck",
+                    e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testTimeoutAcrossProcessors() {
+        final ProcessingWatchdog watchdog = new ProcessingWatchdog(
+                Duration.ZERO,
+                Duration.ofSeconds(60),
+                _log,
+                _ticker::get);
+        final ClassPool classPool = new ClassPool(true);
+        classPool.makeClass("com.example.Processors");
+        final Consumer<String> onProcess = className -> {
+            // No processor takes longer than the timeout but the class does
+            _ticker.addAndGet(Duration.ofSeconds(40).toNanos());
+            watchdog.check();
+        };
+        final ClassProcessorTask task = new ClassProcessorTask(
+                classPool,
+                Collections.singletonList("com.example.Processors"),
+                Arrays.asList(
+                        createScopedProcessor(new TickingProcessor(onProcess) { }),
+                        createScopedProcessor(new TickingProcessor(onProcess) { }),
+                        createScopedProcessor(new TickingProcessor(onProcess) { })),
+                ctClass -> { },
+                Mockito.mock(ProcessingLog.class),
+                PerformanceReport.DISABLED);
+        watchdog.watch(task, task).run();
+
+        Mockito.verify(_log).error(Mockito.any(CharSequence.class));
+        MatcherAssert.assertThat(
+                watchdog.getTimeout().handle((result, e) -> e).join(),
+                Matchers.instanceOf(TimeoutException.class));
+    }
+
+    @Test
+    public void testFinishedTask() {
+        final ProcessingWatchdog watchdog = new ProcessingWatchdog(
+                Duration.ofSeconds(10),
+                Duration.ofSeconds(30),
+                _log,
+                _ticker::get);
+        watchdog.watch(createTask("com.example.Fast"), () -> { }).run();
+
+        _ticker.addAndGet(Duration.ofMinutes(1).toNanos());
+        watchdog.check();
+        Mockito.verifyNoInteractions(_log);
+        Assert.assertFalse(watchdog.getTimeout().isDone());
+    }
+
+    @Test
+    public void testDisabled() {
+        final Runnable runnable = () -> { };
+        try (ProcessingWatchdog watchdog = ProcessingWatchdog.start(Duration.ZERO, Duration.ZERO, _log)) {
+            Assert.assertSame(runnable, watchdog.watch(createTask("com.example.Foo"), runnable));
+        }
+    }
+
+    @Test
+    public void testStart() throws Exception {
+        try (ProcessingWatchdog watchdog = ProcessingWatchdog.start(Duration.ZERO, Duration.ofMillis(100), _log)) {
+            watchdog.watch(
+                    createTask("com.example.Stuck"),
+                    () -> watchdog.getTimeout().handle((result, e) -> e).join())
+                    .run();
+            MatcherAssert.assertThat(
+                    watchdog.getTimeout().handle((result, e) -> e).get(),
+                    Matchers.instanceOf(TimeoutException.class));
+        }
+    }
+
+    private static ClassProcessorTask createTask(final String className) {
+        return new ClassProcessorTask(
+                new ClassPool(),
+                className,
+                Collections.emptyList(),
+                ctClass -> { },
+                Mockito.mock(ProcessingLog.class),
+                PerformanceReport.DISABLED);
+    }
+
+    private static ClassProcessorTask createBatchTask(final Consumer<String> onProcess) {
+        final ClassPool classPool = new ClassPool(true);
+        classPool.makeClass("com.example.batch.First");
+        classPool.makeClass("com.example.batch.Second");
+        return new ClassProcessorTask(
+                classPool,
+                Arrays.asList("com.example.batch.First", "com.example.batch.Second"),
+                Collections.singletonList(createScopedProcessor(new TickingProcessor(onProcess))),
+                ctClass -> { },
+                Mockito.mock(ProcessingLog.class),
+                PerformanceReport.DISABLED);
+    }
+
+    private static ScopedProcessor createScopedProcessor(final ClassProcessor processor) {
+        return new ScopedProcessor(processor, className -> true, className -> false);
+    }
+
+    private final ProcessingLog _log = Mockito.mock(ProcessingLog.class);
+    private final AtomicLong _ticker = new AtomicLong();
+
+    private static class TickingProcessor implements ClassProcessor {
+
+        TickingProcessor(final Consumer<String> onProcess) {
+            _onProcess = onProcess;
+        }
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            _onProcess.accept(ctClass.getName());
+        }
+
+        private final Consumer<String> _onProcess;
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Tests for {@link ProcessorCache}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ProcessorCacheTest {
+
+    @Test
+    public void testGet() throws IOException {
+        final Path jar = _temporaryFolder.newFile("processor.jar").toPath();
+        final List<String> classpath = Arrays.asList(jar.toString(), "does-not-exist.jar");
+        final ProcessorCache processorCache = new ProcessorCache();
+        final ClassLoader parent = getClass().getClassLoader();
+
+        final ProcessorCache.Entry entry = processorCache.get(classpath, parent);
+        Assert.assertSame(parent, entry.getClassLoader().getParent());
+        Assert.assertSame(entry, processorCache.get(classpath, parent));
+        Assert.assertNotSame(entry, processorCache.get(Collections.singletonList(jar.toString()), parent));
+
+        // A rebuilt jar gets a new class loader
+        Files.write(jar, new byte[]{1});
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(0));
+        Assert.assertNotSame(entry, processorCache.get(classpath, parent));
+    }
+
+    @Test
+    public void testGetEvicts() throws IOException {
+        final ProcessorCache processorCache = new ProcessorCache();
+        final ClassLoader parent = getClass().getClassLoader();
+        final List<String> classpath = Collections.singletonList(createJar("0.jar").toString());
+        final ProcessorCache.Entry entry = processorCache.get(classpath, parent);
+        Assert.assertNotNull(entry.getClassLoader().getResource(RESOURCE));
+        for (int i = 1; i <= 4; ++i) {
+            processorCache.get(Collections.singletonList(i + ".jar"), parent);
+        }
+        Assert.assertNotSame(entry, processorCache.get(classpath, parent));
+
+        // The class loader of the evicted entry is closed
+        Assert.assertNull(entry.getClassLoader().getResource(RESOURCE));
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        final ProcessorCache processorCache = new ProcessorCache();
+        final ProcessorCache.Entry entry = processorCache.get(
+                Collections.singletonList(createJar("processor.jar").toString()),
+                getClass().getClassLoader());
+        Assert.assertNotNull(entry.getClassLoader().getResource(RESOURCE));
+        processorCache.close();
+        Assert.assertNull(entry.getClassLoader().getResource(RESOURCE));
+    }
+
+    @Test
+    public void testCloseEntryNotOwned() throws IOException {
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[]{createJar("application.jar").toUri().toURL()},
+                getClass().getClassLoader())) {
+            new ProcessorCache.Entry(classLoader).close();
+            Assert.assertNotNull(classLoader.getResource(RESOURCE));
+        }
+    }
+
+    @Test
+    public void testProcessors() throws IOException {
+        final ProcessorCache.Entry entry = new ProcessorCache().get(
+                Collections.emptyList(),
+                getClass().getClassLoader());
+        Assert.assertNull(entry.getProcessors("digest"));
+        final List<ScopedProcessor> processors = Collections.singletonList(
+                new ScopedProcessor(new TestProcessor(), className -> true, className -> false));
+        entry.putProcessors("digest", processors);
+        Assert.assertSame(processors, entry.getProcessors("digest"));
+    }
+
+    private Path createJar(final String name) throws IOException {
+        final Path jar = _temporaryFolder.getRoot().toPath().resolve(name);
+        try (OutputStream outputStream = Files.newOutputStream(jar);
+             JarOutputStream jarOutputStream = new JarOutputStream(outputStream)) {
+            jarOutputStream.putNextEntry(new JarEntry(RESOURCE));
+            jarOutputStream.write(new byte[]{1});
+            jarOutputStream.closeEntry();
+        }
+        return jar;
+    }
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    private static final String RESOURCE = "processor-cache-test.txt";
+}
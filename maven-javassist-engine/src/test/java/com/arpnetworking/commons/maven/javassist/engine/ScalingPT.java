@@ -0,0 +1,467 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import javassist.CannotCompileException;
+import javassist.CtClass;
+import javassist.CtField;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * Scaling regression suite which runs the engine end-to-end over synthetic
+ * projects of 1k, 10k and 100k classes with 1, 2, 4 and as many threads as
+ * there are processors. At each thread count the engine is first run
+ * {@code scaling.warmUpIterations} times (default 1) without being measured
+ * and then measured over {@code scaling.iterations} runs (default 5), each
+ * on a fresh copy of the project; the median run time is used so that a
+ * single run disturbed by the machine does not fail the suite. The median
+ * throughput, speedup and scaling efficiency together with the fastest and
+ * slowest run are appended to {@code target/scaling/scaling-report.csv} and
+ * to the log of the suite, {@code target/scaling/scaling.log}, which also
+ * receives the output of the engine. The suite fails if the median
+ * single thread throughput or the median scaling efficiency falls below the
+ * baseline recorded in {@code scaling-baseline.properties} by more than the
+ * tolerance stated there; efficiency is only checked for thread counts with
+ * a recorded baseline which do not exceed the available processors, since
+ * it is only recorded for those. The suite runs with
+ * {@code -P performanceTest}; specify {@code -Dscaling.recordBaseline=true}
+ * to write the medians as a new baseline to
+ * {@code target/scaling/scaling-baseline.properties}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ScalingPT {
+
+    /**
+     * Open the log and warm up the engine.
+     *
+     * @throws IOException if the project cannot be generated.
+     * @throws ProcessingException if the engine fails.
+     */
+    @BeforeClass
+    public static void setUpClass()
+            throws IOException, ProcessingException {
+        Files.createDirectories(OUTPUT_DIRECTORY);
+        gLogStream = new PrintStream(
+                Files.newOutputStream(
+                        OUTPUT_DIRECTORY.resolve("scaling.log"),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND),
+                true,
+                StandardCharsets.UTF_8);
+        gLog = new PrintStreamLog(gLogStream, false);
+
+        // Warm up the JIT on a small project so the first size measured is
+        // not penalized
+        final Path template = WARM_UP_FOLDER.newFolder("warm-up").toPath();
+        SyntheticProject.generate(template, 1000, SEED);
+        final Path directory = WARM_UP_FOLDER.newFolder("warm-up-run").toPath();
+        for (final int threads : getThreadCounts()) {
+            copy(template, directory);
+            execute(directory, threads);
+        }
+    }
+
+    /**
+     * Close the log.
+     */
+    @AfterClass
+    public static void tearDownClass() {
+        if (gLogStream != null) {
+            gLogStream.close();
+        }
+    }
+
+    /**
+     * Measure scaling on a project of 1k classes.
+     *
+     * @throws IOException if the project cannot be generated.
+     * @throws ProcessingException if the engine fails.
+     */
+    @Test
+    public void testScaling1k()
+            throws IOException, ProcessingException {
+        assertScaling(1_000);
+    }
+
+    /**
+     * Measure scaling on a project of 10k classes.
+     *
+     * @throws IOException if the project cannot be generated.
+     * @throws ProcessingException if the engine fails.
+     */
+    @Test
+    public void testScaling10k()
+            throws IOException, ProcessingException {
+        assertScaling(10_000);
+    }
+
+    /**
+     * Measure scaling on a project of 100k classes.
+     *
+     * @throws IOException if the project cannot be generated.
+     * @throws ProcessingException if the engine fails.
+     */
+    @Test
+    public void testScaling100k()
+            throws IOException, ProcessingException {
+        assertScaling(100_000);
+    }
+
+    private void assertScaling(final int size)
+            throws IOException, ProcessingException {
+        final Path template = _temporaryFolder.newFolder("template").toPath();
+        final int classCount = SyntheticProject.generate(template, size, SEED);
+
+        // Process a fresh copy of the project for each run
+        final List<Measurement> measurements = new ArrayList<>();
+        for (final int threads : getThreadCounts()) {
+            for (int i = 0; i < WARM_UP_ITERATIONS; ++i) {
+                run(template, threads);
+            }
+            final List<Long> samples = new ArrayList<>(ITERATIONS);
+            for (int i = 0; i < ITERATIONS; ++i) {
+                samples.add(run(template, threads));
+            }
+            measurements.add(new Measurement(size, classCount, threads, samples));
+        }
+        final Measurement baseline = measurements.get(0);
+        report(measurements, baseline);
+
+        // Compare the measurements to the recorded baseline
+        final Properties baselines = loadBaseline();
+        final double tolerance = Double.parseDouble(baselines.getProperty("tolerance"));
+        final List<String> regressions = new ArrayList<>();
+        final double minimumClassesPerSecond = getBaseline(baselines, "classesPerSecond." + size) * (1 - tolerance);
+        if (baseline.getClassesPerSecond() < minimumClassesPerSecond) {
+            regressions.add(String.format(
+                    Locale.ROOT,
+                    "%d classes: %.0f classes/sec is below the baseline minimum of %.0f",
+                    size,
+                    baseline.getClassesPerSecond(),
+                    minimumClassesPerSecond));
+        }
+        for (final Measurement measurement : measurements) {
+            final String efficiencyBaseline = baselines.getProperty("efficiency." + measurement.getThreads());
+            if (isParallel(measurement) && efficiencyBaseline != null) {
+                final double minimumEfficiency = Double.parseDouble(efficiencyBaseline) * (1 - tolerance);
+                final double efficiency = measurement.getEfficiency(baseline);
+                if (efficiency < minimumEfficiency) {
+                    regressions.add(String.format(
+                            Locale.ROOT,
+                            "%d classes on %d threads: scaling efficiency %.2f is below the baseline minimum of %.2f",
+                            size,
+                            measurement.getThreads(),
+                            efficiency,
+                            minimumEfficiency));
+                }
+            }
+        }
+        Assert.assertTrue(String.join("\n", regressions), regressions.isEmpty());
+    }
+
+    private long run(final Path template, final int threads)
+            throws IOException, ProcessingException {
+        final Path directory = _temporaryFolder.newFolder().toPath();
+        try {
+            copy(template, directory);
+            final long start = System.nanoTime();
+            execute(directory, threads);
+            return System.nanoTime() - start;
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static void execute(final Path directory, final int threads) throws ProcessingException {
+        final ProcessorConfiguration configuration = new ProcessorConfiguration();
+        configuration.setClassName(ScalingProcessor.class.getName());
+        final ProcessingOptions options = new ProcessingOptions(directory);
+        options.setClasspathElementsToProcess(Collections.singletonList(directory.toString()));
+        options.setClasspathElementsToLoad(Collections.singletonList(directory.toString()));
+        options.setManifestFile(directory.resolve("manifest/scaling.manifest"));
+        options.setProcessors(Collections.singletonList(configuration));
+        options.setThreads(String.valueOf(threads));
+        new ProcessingEngine(options, BuildChanges.FULL, gLog).execute();
+    }
+
+    private static void report(final List<Measurement> measurements, final Measurement baseline) throws IOException {
+        final Path reportFile = OUTPUT_DIRECTORY.resolve("scaling-report.csv");
+        if (!Files.exists(reportFile)) {
+            Files.write(reportFile, REPORT_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        final StringBuilder report = new StringBuilder();
+        for (final Measurement measurement : measurements) {
+            report.append(String.format(
+                    Locale.ROOT,
+                    "%d,%d,%d,%d,%.3f,%.3f,%.3f,%.0f,%.2f,%.2f%n",
+                    measurement.getSize(),
+                    measurement.getClassCount(),
+                    measurement.getThreads(),
+                    measurement.getIterations(),
+                    measurement.getNanos() / 1_000_000_000.0,
+                    measurement.getMinimumNanos() / 1_000_000_000.0,
+                    measurement.getMaximumNanos() / 1_000_000_000.0,
+                    measurement.getClassesPerSecond(),
+                    measurement.getSpeedup(baseline),
+                    measurement.getEfficiency(baseline)));
+        }
+        gLog.info("Scaling report:\n" + REPORT_HEADER + report);
+        Files.write(reportFile, report.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        if (Boolean.getBoolean("scaling.recordBaseline")) {
+            recordBaseline(measurements, baseline);
+        }
+    }
+
+    private static synchronized void recordBaseline(final List<Measurement> measurements, final Measurement baseline)
+            throws IOException {
+        final Path baselineFile = OUTPUT_DIRECTORY.resolve(BASELINE_RESOURCE);
+        // Only the tolerance is kept from the current baseline; the values
+        // are those measured by this run
+        final Properties baselines = new Properties();
+        baselines.setProperty("tolerance", loadBaseline().getProperty("tolerance"));
+        if (Files.exists(baselineFile)) {
+            try (InputStream inputStream = Files.newInputStream(baselineFile)) {
+                baselines.load(inputStream);
+            }
+        }
+        baselines.setProperty(
+                "classesPerSecond." + baseline.getSize(),
+                String.format(Locale.ROOT, "%.0f", baseline.getClassesPerSecond()));
+        for (final Measurement measurement : measurements) {
+            // Threads sharing a processor do not measure scaling
+            if (isParallel(measurement)) {
+                baselines.setProperty(
+                        "efficiency." + measurement.getThreads(),
+                        String.format(Locale.ROOT, "%.2f", measurement.getEfficiency(baseline)));
+            }
+        }
+
+        // Write the keys in order under a header stating how they were measured
+        final StringBuilder contents = new StringBuilder(BASELINE_HEADER);
+        contents.append(String.format(
+                Locale.ROOT,
+                "# Recorded %s from the medians of %d runs after %d warm up runs on %d processors%n"
+                        + "# with Java %s (%s) on %s %s%n",
+                LocalDate.now(ZoneOffset.UTC),
+                ITERATIONS,
+                WARM_UP_ITERATIONS,
+                Runtime.getRuntime().availableProcessors(),
+                System.getProperty("java.version"),
+                System.getProperty("java.vendor"),
+                System.getProperty("os.name"),
+                System.getProperty("os.arch")));
+        for (final String key : new TreeSet<>(baselines.stringPropertyNames())) {
+            contents.append(key).append('=').append(baselines.getProperty(key)).append(System.lineSeparator());
+        }
+        Files.write(baselineFile, contents.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static boolean isParallel(final Measurement measurement) {
+        return measurement.getThreads() > 1 && measurement.getThreads() <= Runtime.getRuntime().availableProcessors();
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        final Properties baselines = new Properties();
+        try (InputStream inputStream = ScalingPT.class.getResourceAsStream("/" + BASELINE_RESOURCE)) {
+            Assert.assertNotNull("Missing baseline resource: " + BASELINE_RESOURCE, inputStream);
+            baselines.load(inputStream);
+        }
+        return baselines;
+    }
+
+    private static double getBaseline(final Properties baselines, final String key) {
+        final String value = baselines.getProperty(key);
+        Assert.assertNotNull("Missing baseline: " + key, value);
+        return Double.parseDouble(value);
+    }
+
+    private static SortedSet<Integer> getThreadCounts() {
+        final SortedSet<Integer> threadCounts = new TreeSet<>();
+        threadCounts.add(1);
+        threadCounts.add(2);
+        threadCounts.add(4);
+        threadCounts.add(Runtime.getRuntime().availableProcessors());
+        return threadCounts;
+    }
+
+    private static void delete(final Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (final Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static void copy(final Path source, final Path target) throws IOException {
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (final Path path : (Iterable<Path>) paths::iterator) {
+                final Path targetPath = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(targetPath);
+                } else {
+                    Files.copy(path, targetPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    /**
+     * Folder for the projects of each test.
+     */
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Folder for the warm up project.
+     */
+    @ClassRule
+    public static final TemporaryFolder WARM_UP_FOLDER = new TemporaryFolder();
+
+    @Nullable
+    private static PrintStream gLogStream;
+    @Nullable
+    private static PrintStreamLog gLog;
+
+    private static final long SEED = 42;
+    private static final String BASELINE_RESOURCE = "scaling-baseline.properties";
+    private static final String BASELINE_HEADER = String.join(
+            System.lineSeparator(),
+            "# Baseline of the scaling regression suite (ScalingPT) written with",
+            "# -Dscaling.recordBaseline=true; see the README to run the suite and record a",
+            "# new baseline on the build agent it runs on. The suite fails if a median",
+            "# falls below its value by more than the tolerance, a fraction leaving room",
+            "# for the noise of shared build agents. Scaling efficiency is recorded and",
+            "# checked only for thread counts up to the number of processors.",
+            "#",
+            "");
+    private static final Path OUTPUT_DIRECTORY = Paths.get("target", "scaling");
+    private static final int WARM_UP_ITERATIONS = Integer.getInteger("scaling.warmUpIterations", 1);
+    private static final int ITERATIONS = Integer.getInteger("scaling.iterations", 5);
+    private static final String REPORT_HEADER = "size,classes,threads,iterations,seconds,minimumSeconds,"
+            + "maximumSeconds,classesPerSecond,speedup,efficiency\n";
+
+    /**
+     * {@link ClassProcessor} which adds a field to every class.
+     */
+    public static final class ScalingProcessor implements ClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            try {
+                ctClass.addField(CtField.make("private transient int _scaled;", ctClass));
+            } catch (final CannotCompileException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final class Measurement {
+
+        Measurement(final int size, final int classCount, final int threads, final List<Long> samples) {
+            _size = size;
+            _classCount = classCount;
+            _threads = threads;
+            _samples = new ArrayList<>(samples);
+            Collections.sort(_samples);
+        }
+
+        int getSize() {
+            return _size;
+        }
+
+        int getClassCount() {
+            return _classCount;
+        }
+
+        int getThreads() {
+            return _threads;
+        }
+
+        int getIterations() {
+            return _samples.size();
+        }
+
+        long getNanos() {
+            // The median run time
+            final int middle = _samples.size() / 2;
+            if (_samples.size() % 2 == 0) {
+                return (_samples.get(middle - 1) + _samples.get(middle)) / 2;
+            }
+            return _samples.get(middle);
+        }
+
+        long getMinimumNanos() {
+            return _samples.get(0);
+        }
+
+        long getMaximumNanos() {
+            return _samples.get(_samples.size() - 1);
+        }
+
+        double getClassesPerSecond() {
+            return _classCount * 1_000_000_000.0 / getNanos();
+        }
+
+        double getSpeedup(final Measurement baseline) {
+            return (double) baseline.getNanos() / getNanos();
+        }
+
+        double getEfficiency(final Measurement baseline) {
+            return getSpeedup(baseline) / _threads;
+        }
+
+        private final int _size;
+        private final int _classCount;
+        private final int _threads;
+        private final List<Long> _samples;
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import com.arpnetworking.commons.maven.javassist.Concurrency;
+import com.arpnetworking.commons.maven.javassist.LifecycleClassProcessor;
+import com.arpnetworking.commons.maven.javassist.ProcessingContext;
+import javassist.ClassPool;
+import javassist.CtClass;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
+
+/**
+ * Tests for {@link ScopedProcessor}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class ScopedProcessorTest {
+
+    @Test
+    public void testAcquireThreadSafe() {
+        final ClassProcessor processor = new ThreadSafeProcessor();
+        final ScopedProcessor scopedProcessor = createScopedProcessor(processor);
+        Assert.assertEquals(Concurrency.Model.THREAD_SAFE, scopedProcessor.getConcurrencyModel());
+
+        final ClassProcessor first = scopedProcessor.acquire();
+        final ClassProcessor second = scopedProcessor.acquire();
+        Assert.assertSame(processor, first);
+        Assert.assertSame(processor, second);
+        scopedProcessor.release(first);
+        scopedProcessor.release(second);
+    }
+
+    @Test
+    public void testAcquireDefault() {
+        final ClassProcessor processor = new TestProcessor();
+        Assert.assertEquals(Concurrency.Model.THREAD_SAFE, createScopedProcessor(processor).getConcurrencyModel());
+    }
+
+    @Test
+    public void testAcquirePerThread() {
+        final ClassProcessor processor = new PerThreadProcessor();
+        final ScopedProcessor scopedProcessor = createScopedProcessor(processor);
+        Assert.assertEquals(Concurrency.Model.PER_THREAD, scopedProcessor.getConcurrencyModel());
+
+        final ClassProcessor first = scopedProcessor.acquire();
+        final ClassProcessor second = scopedProcessor.acquire();
+        Assert.assertSame(processor, first);
+        Assert.assertNotSame(first, second);
+        MatcherAssert.assertThat(second, Matchers.instanceOf(PerThreadProcessor.class));
+
+        // Released instances are reused
+        scopedProcessor.release(second);
+        Assert.assertSame(second, scopedProcessor.acquire());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAcquirePerThreadInstantiationFailure() {
+        final ScopedProcessor scopedProcessor = createScopedProcessor(new NoDefaultConstructorProcessor("value"));
+        scopedProcessor.acquire();
+        scopedProcessor.acquire();
+    }
+
+    @Test
+    public void testAcquireSerialized() throws InterruptedException {
+        final ClassProcessor processor = new SerializedProcessor();
+        final ScopedProcessor scopedProcessor = createScopedProcessor(processor);
+        Assert.assertEquals(Concurrency.Model.SERIALIZED, scopedProcessor.getConcurrencyModel());
+
+        final ClassProcessor instance = scopedProcessor.acquire();
+        Assert.assertSame(processor, instance);
+
+        // Another thread waits until the instance is released
+        final AtomicBoolean acquired = new AtomicBoolean();
+        final Thread thread = new Thread(() -> {
+            scopedProcessor.release(scopedProcessor.acquire());
+            acquired.set(true);
+        });
+        thread.start();
+        thread.join(100);
+        Assert.assertFalse(acquired.get());
+
+        scopedProcessor.release(instance);
+        thread.join();
+        Assert.assertTrue(acquired.get());
+    }
+
+    @Test
+    public void testBeginEnd() {
+        final LifecycleProcessor processor = new LifecycleProcessor();
+        final ScopedProcessor scopedProcessor = createScopedProcessor(processor);
+        final ProcessingContext context = new DefaultProcessingContext(new ClassPool(), Paths.get("target"), 2);
+        scopedProcessor.begin(context);
+        Assert.assertSame(context, processor.getContext());
+
+        // Instances created for other threads are begun and ended too
+        final ClassProcessor first = scopedProcessor.acquire();
+        final LifecycleProcessor second = (LifecycleProcessor) scopedProcessor.acquire();
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(context, second.getContext());
+
+        scopedProcessor.end();
+        Assert.assertTrue(processor.isEnded());
+        Assert.assertTrue(second.isEnded());
+    }
+
+    @Test
+    public void testBeginEndReused() {
+        final LifecycleProcessor processor = new LifecycleProcessor();
+        final ScopedProcessor scopedProcessor = createScopedProcessor(processor);
+        scopedProcessor.begin(new DefaultProcessingContext(new ClassPool(), Paths.get("target"), 2));
+        scopedProcessor.end();
+
+        // The context of the previous execution is not retained
+        Assert.assertSame(processor, scopedProcessor.acquire());
+        final LifecycleProcessor created = (LifecycleProcessor) scopedProcessor.acquire();
+        Assert.assertNull(created.getContext());
+
+        // Another execution begins every instance with its own context
+        final ProcessingContext context = new DefaultProcessingContext(new ClassPool(), Paths.get("target"), 2);
+        scopedProcessor.begin(context);
+        Assert.assertSame(context, processor.getContext());
+        Assert.assertSame(context, created.getContext());
+    }
+
+    @Test
+    public void testEndNotBegun() {
+        final LifecycleProcessor processor = new LifecycleProcessor();
+        createScopedProcessor(processor).end();
+        Assert.assertFalse(processor.isEnded());
+    }
+
+    private static ScopedProcessor createScopedProcessor(final ClassProcessor processor) {
+        return new ScopedProcessor(processor, className -> true, className -> false);
+    }
+
+    /**
+     * {@link ClassProcessor} without state.
+     */
+    @Concurrency(Concurrency.Model.THREAD_SAFE)
+    public static final class ThreadSafeProcessor extends AbstractTestProcessor {}
+
+    /**
+     * {@link ClassProcessor} requiring an instance per thread.
+     */
+    @Concurrency(Concurrency.Model.PER_THREAD)
+    public static final class PerThreadProcessor extends AbstractTestProcessor {}
+
+    /**
+     * {@link ClassProcessor} requiring serialized calls.
+     */
+    @Concurrency(Concurrency.Model.SERIALIZED)
+    public static final class SerializedProcessor extends AbstractTestProcessor {}
+
+    /**
+     * {@link ClassProcessor} requiring an instance per thread which cannot
+     * be instantiated by the plugin.
+     */
+    @Concurrency(Concurrency.Model.PER_THREAD)
+    public static final class NoDefaultConstructorProcessor extends AbstractTestProcessor {
+
+        /**
+         * Constructor.
+         *
+         * @param value An arbitrary value.
+         */
+        public NoDefaultConstructorProcessor(final String value) {
+            _value = value;
+        }
+
+        String getValue() {
+            return _value;
+        }
+
+        private final String _value;
+    }
+
+    /**
+     * {@link LifecycleClassProcessor} requiring an instance per thread which
+     * records its lifecycle.
+     */
+    @Concurrency(Concurrency.Model.PER_THREAD)
+    public static final class LifecycleProcessor extends AbstractTestProcessor implements LifecycleClassProcessor {
+
+        @Override
+        public void begin(final ProcessingContext context) {
+            _context = context;
+        }
+
+        @Override
+        public void end() {
+            _ended = true;
+        }
+
+        @Nullable
+        ProcessingContext getContext() {
+            return _context;
+        }
+
+        boolean isEnded() {
+            return _ended;
+        }
+
+        @Nullable
+        private ProcessingContext _context;
+        private boolean _ended;
+    }
+
+    private abstract static class AbstractTestProcessor implements ClassProcessor {
+
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
+
+        @Override
+        public void process(final CtClass ctClass) {
+            // Nothing to do
+        }
+    }
+}
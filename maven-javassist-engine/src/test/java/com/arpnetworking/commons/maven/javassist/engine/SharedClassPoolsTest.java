@@ -0,0 +1,176 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.NotFoundException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Tests for {@link SharedClassPools}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class SharedClassPoolsTest {
+
+    @Test
+    public void testGetEmpty() throws IOException {
+        Assert.assertSame(ClassPool.getDefault(), _sharedClassPools.get(Collections.emptyList()));
+    }
+
+    @Test
+    public void testGetShared() throws Exception {
+        final Path fooJar = writeJar("foo.jar", "com.example.pools.Foo");
+        final Path barJar = writeJar("bar.jar", "com.example.pools.Bar");
+
+        final ClassPool classPool = _sharedClassPools.get(Arrays.asList(fooJar, barJar));
+        final CtClass foo = classPool.get("com.example.pools.Foo");
+        Assert.assertNotNull(classPool.get("com.example.pools.Bar"));
+
+        Assert.assertSame(classPool, _sharedClassPools.get(Arrays.asList(fooJar, barJar)));
+        Assert.assertSame(foo, _sharedClassPools.get(Arrays.asList(fooJar, barJar)).get("com.example.pools.Foo"));
+        Assert.assertNotSame(classPool, _sharedClassPools.get(Arrays.asList(barJar, fooJar)));
+    }
+
+    @Test
+    public void testGetAcrossJars() throws Exception {
+        final ClassPool sourcePool = new ClassPool(true);
+        // The superclass is written first so that the subclass inherits its
+        // default constructor
+        final CtClass base = sourcePool.makeClass("com.example.across.Base");
+        final Path baseJar = writeJar("base.jar", base);
+        final Path subJar = writeJar("sub.jar", sourcePool.makeClass("com.example.across.Sub", base));
+
+        // A class resolves its supertypes from any jar of the pool
+        final ClassPool classPool = _sharedClassPools.get(Arrays.asList(subJar, baseJar));
+        Assert.assertEquals(
+                "com.example.across.Base",
+                classPool.get("com.example.across.Sub").getSuperclass().getName());
+    }
+
+    @Test
+    public void testGetFirstJar() throws Exception {
+        final ClassPool sourcePool = new ClassPool(true);
+        final CtClass first = sourcePool.makeClass("com.example.first.Foo");
+        final Path firstJar = writeJar("first.jar", first);
+        first.defrost();
+        first.addField(CtField.make("private int _second;", first));
+        final Path secondJar = writeJar("second.jar", first);
+
+        // A class is resolved from the first jar containing it
+        final ClassPool classPool = _sharedClassPools.get(Arrays.asList(firstJar, secondJar));
+        Assert.assertEquals(0, classPool.get("com.example.first.Foo").getDeclaredFields().length);
+    }
+
+    @Test(expected = NotFoundException.class)
+    public void testGetPrefix() throws Exception {
+        final Path fooJar = writeJar("prefixFoo.jar", "com.example.prefix.Foo");
+        final Path barJar = writeJar("prefixBar.jar", "com.example.prefix.Bar");
+        _sharedClassPools.get(Arrays.asList(fooJar, barJar));
+
+        _sharedClassPools.get(Collections.singletonList(fooJar)).get("com.example.prefix.Bar");
+    }
+
+    @Test
+    public void testGetFrozen() throws Exception {
+        final Path jar = writeJar("frozen.jar", "com.example.frozen.Foo");
+        final ClassPool firstExecution = new ClassPool(_sharedClassPools.get(Collections.singletonList(jar)));
+        final ClassPool secondExecution = new ClassPool(_sharedClassPools.get(Collections.singletonList(jar)));
+
+        final CtClass foo = firstExecution.get("com.example.frozen.Foo");
+        Assert.assertTrue(foo.isFrozen());
+        try {
+            foo.addField(CtField.make("private int _modified;", foo));
+            Assert.fail("Expected exception not thrown");
+            // CHECKSTYLE.OFF: IllegalCatch
+        } catch (final RuntimeException e) {
+            // CHECKSTYLE.ON: IllegalCatch
+            // Expected
+        }
+
+        // The attempted modification is not visible to another execution
+        Assert.assertEquals(0, secondExecution.get("com.example.frozen.Foo").getDeclaredFields().length);
+    }
+
+    @Test
+    public void testGetModified() throws Exception {
+        final Path jar = writeJar("modified.jar", "com.example.modified.Foo");
+        final ClassPool classPool = _sharedClassPools.get(Collections.singletonList(jar));
+
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 1000));
+
+        Assert.assertNotSame(classPool, _sharedClassPools.get(Collections.singletonList(jar)));
+    }
+
+    @Test
+    public void testGetOtherSession() throws Exception {
+        final Path jar = writeJar("session.jar", "com.example.session.Foo");
+        final ClassPool classPool = _sharedClassPools.get(Collections.singletonList(jar));
+
+        try (SharedClassPools otherSharedClassPools = new SharedClassPools()) {
+            Assert.assertNotSame(classPool, otherSharedClassPools.get(Collections.singletonList(jar)));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testGetMissing() throws IOException {
+        _sharedClassPools.get(Collections.singletonList(_temporaryFolder.getRoot().toPath().resolve("missing.jar")));
+    }
+
+    @Test(expected = IOException.class)
+    public void testGetInvalid() throws IOException {
+        _sharedClassPools.get(Collections.singletonList(_temporaryFolder.newFolder("invalid.jar").toPath()));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        _sharedClassPools.close();
+    }
+
+    private Path writeJar(final String name, final String className) throws Exception {
+        return writeJar(name, new ClassPool(true).makeClass(className));
+    }
+
+    private Path writeJar(final String name, final CtClass ctClass) throws Exception {
+        final Path jar = _temporaryFolder.getRoot().toPath().resolve(name);
+        try (ZipOutputStream outputStream = new ZipOutputStream(Files.newOutputStream(jar))) {
+            outputStream.putNextEntry(new ZipEntry(ctClass.getName().replace('.', '/') + ".class"));
+            outputStream.write(ctClass.toBytecode());
+            outputStream.closeEntry();
+        }
+        return jar;
+    }
+
+    private final SharedClassPools _sharedClassPools = new SharedClassPools();
+
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
+}
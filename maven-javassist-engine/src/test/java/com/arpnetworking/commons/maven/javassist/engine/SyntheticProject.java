@@ -0,0 +1,158 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewMethod;
+import javassist.Modifier;
+import javassist.NotFoundException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates the class directory of a synthetic project for tests at scale.
+ * Packages are nested between three and six levels deep and each declares
+ * an interface and an abstract base class which most of its classes
+ * implement and extend; a share of the classes declares one or two nested
+ * classes. Generation is deterministic for a given seed.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class SyntheticProject {
+
+    /**
+     * Generate the project.
+     *
+     * @param directory The class directory to write to.
+     * @param classCount The number of classes to generate including nested classes.
+     * @param seed The seed of the generator.
+     * @return The number of classes generated.
+     * @throws IOException if the classes cannot be generated or written.
+     */
+    static int generate(final Path directory, final int classCount, final long seed) throws IOException {
+        final SyntheticProject project = new SyntheticProject(directory, seed);
+        try {
+            while (project._classCount < classCount) {
+                project.generatePackage(classCount - project._classCount);
+            }
+        } catch (final CannotCompileException | NotFoundException e) {
+            throw new IOException("Unable to generate synthetic project", e);
+        }
+        return project._classCount;
+    }
+
+    private void generatePackage(final int remainingClassCount)
+            throws CannotCompileException, IOException, NotFoundException {
+        final String packageName = createPackageName();
+        final List<CtClass> classes = new ArrayList<>();
+
+        // Each package declares a contract and a base class implementing it
+        final CtClass contract = _classPool.makeInterface(packageName + ".Contract");
+        contract.addMethod(CtMethod.make("public abstract int compute(int value);", contract));
+        classes.add(contract);
+        final CtClass base = _classPool.makeClass(packageName + ".AbstractBase");
+        base.setModifiers(Modifier.PUBLIC | Modifier.ABSTRACT);
+        base.addInterface(contract);
+        addMembers(base, 2);
+        classes.add(base);
+
+        final int classesInPackage = Math.min(
+                remainingClassCount,
+                MINIMUM_CLASSES_PER_PACKAGE + _random.nextInt(CLASSES_PER_PACKAGE_RANGE));
+        while (classes.size() < classesInPackage) {
+            final CtClass ctClass = _classPool.makeClass(packageName + ".Generated" + _classIndex++);
+            if (_random.nextInt(10) < 7) {
+                ctClass.setSuperclass(base);
+            } else {
+                ctClass.addInterface(contract);
+            }
+            addMembers(ctClass, 2 + _random.nextInt(6));
+            ctClass.addMethod(CtNewMethod.make(
+                    "public int compute(int value) { int result = value; for (int i = 0; i < _field0; ++i) {"
+                            + " result = result * 31 + i; } return result; }",
+                    ctClass));
+            classes.add(ctClass);
+
+            // Declare nested classes for a share of the classes
+            if (_random.nextInt(4) == 0 && classes.size() < classesInPackage) {
+                final CtClass nested = ctClass.makeNestedClass("Builder", true);
+                addMembers(nested, 2);
+                classes.add(nested);
+            }
+            if (_random.nextInt(8) == 0 && classes.size() < classesInPackage) {
+                final CtClass inner = ctClass.makeNestedClass("Entry", true);
+                addMembers(inner, 1);
+                classes.add(inner);
+            }
+        }
+
+        for (final CtClass ctClass : classes) {
+            ctClass.writeFile(_directory.toString());
+        }
+        for (final CtClass ctClass : classes) {
+            ctClass.detach();
+        }
+        _classCount += classes.size();
+    }
+
+    private String createPackageName() {
+        final StringBuilder packageName = new StringBuilder("com.example.synthetic");
+        final int depth = MINIMUM_PACKAGE_DEPTH + _random.nextInt(MAXIMUM_PACKAGE_DEPTH - MINIMUM_PACKAGE_DEPTH + 1);
+        for (int i = 2; i < depth; ++i) {
+            packageName.append('.').append(PACKAGE_SEGMENTS[_random.nextInt(PACKAGE_SEGMENTS.length)]);
+        }
+        return packageName.append(".p").append(_packageIndex++).toString();
+    }
+
+    private void addMembers(final CtClass ctClass, final int fieldCount) throws CannotCompileException {
+        for (int i = 0; i < fieldCount; ++i) {
+            final CtField field = CtField.make(
+                    "private " + FIELD_TYPES[i % FIELD_TYPES.length] + " _field" + i + ";",
+                    ctClass);
+            ctClass.addField(field);
+            ctClass.addMethod(CtNewMethod.getter("getField" + i, field));
+            ctClass.addMethod(CtNewMethod.setter("setField" + i, field));
+        }
+    }
+
+    private SyntheticProject(final Path directory, final long seed) {
+        _directory = directory;
+        _random = new Random(seed);
+    }
+
+    private final Path _directory;
+    private final Random _random;
+    private final ClassPool _classPool = new ClassPool(true);
+    private int _classCount;
+    private int _classIndex;
+    private int _packageIndex;
+
+    private static final int MINIMUM_PACKAGE_DEPTH = 3;
+    private static final int MAXIMUM_PACKAGE_DEPTH = 6;
+    private static final int MINIMUM_CLASSES_PER_PACKAGE = 10;
+    private static final int MAXIMUM_CLASSES_PER_PACKAGE = 60;
+    private static final int CLASSES_PER_PACKAGE_RANGE = MAXIMUM_CLASSES_PER_PACKAGE - MINIMUM_CLASSES_PER_PACKAGE;
+    private static final String[] PACKAGE_SEGMENTS = {"api", "impl", "model", "service", "internal", "util", "client"};
+    private static final String[] FIELD_TYPES = {"int", "java.lang.String", "long", "java.util.List", "boolean"};
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.engine;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link TaskFailures}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class TaskFailuresTest {
+
+    @Test
+    public void testFailFast() {
+        final TaskFailures failures = new TaskFailures(true);
+        final AtomicInteger runCount = new AtomicInteger();
+        failures.guard("com.example.Foo", runCount::incrementAndGet).run();
+        Assert.assertFalse(failures.isCancelled());
+        failures.checkCancelled();
+
+        try {
+            failures.guard("com.example.Bar", () -> {
+                throw new IllegalStateException("Simulated Failure");
+            }).run();
+            Assert.fail("Expected exception not thrown");
+        } catch (final IllegalStateException e) {
+            Assert.assertEquals("Simulated Failure", e.getMessage());
+        }
+        Assert.assertTrue(failures.isCancelled());
+        Assert.assertTrue(failures.getFirstFailure().isCompletedExceptionally());
+
+        // Remaining tasks are skipped
+        failures.guard("com.example.Baz", runCount::incrementAndGet).run();
+        Assert.assertEquals(1, runCount.get());
+        Assert.assertEquals(Arrays.asList("com.example.Bar"), new ArrayList<>(failures.getFailures().keySet()));
+        try {
+            failures.checkCancelled();
+            Assert.fail("Expected exception not thrown");
+        } catch (final CompletionException e) {
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IllegalStateException.class));
+        }
+    }
+
+    @Test
+    public void testFailFastInterruptsRunning() throws InterruptedException {
+        final TaskFailures failures = new TaskFailures(true);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final Thread thread = new Thread(failures.guard("com.example.Foo", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(60000);
+            } catch (final InterruptedException e) {
+                interrupted.set(true);
+            }
+        }));
+        thread.start();
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        try {
+            failures.guard("com.example.Bar", () -> {
+                throw new IllegalStateException("Simulated Failure");
+            }).run();
+            Assert.fail("Expected exception not thrown");
+        } catch (final IllegalStateException e) {
+            // Expected
+        }
+
+        thread.join(10000);
+        Assert.assertTrue(interrupted.get());
+    }
+
+    @Test
+    public void testFailFastInterruptsRunningAfterNested() throws InterruptedException {
+        final TaskFailures failures = new TaskFailures(true);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final Thread thread = new Thread(failures.guard("com.example.Foo", () -> {
+            // The nested task completing must not deregister the outer one
+            failures.guard("com.example.Nested", () -> { }).run();
+            started.countDown();
+            try {
+                Thread.sleep(60000);
+            } catch (final InterruptedException e) {
+                interrupted.set(true);
+            }
+        }));
+        thread.start();
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        try {
+            failures.guard("com.example.Bar", () -> {
+                throw new IllegalStateException("Simulated Failure");
+            }).run();
+            Assert.fail("Expected exception not thrown");
+        } catch (final IllegalStateException e) {
+            // Expected
+        }
+
+        thread.join(10000);
+        Assert.assertTrue(interrupted.get());
+    }
+
+    @Test
+    public void testAggregate() {
+        final TaskFailures failures = new TaskFailures(false);
+        final AtomicInteger runCount = new AtomicInteger();
+
+        failures.guard("com.example.Foo", () -> {
+            throw new IllegalStateException("Simulated Failure");
+        }).run();
+        failures.guard("com.example.Bar", runCount::incrementAndGet).run();
+        failures.guard("com.example.Baz", () -> {
+            throw new IllegalArgumentException("Simulated Failure");
+        }).run();
+        failures.checkCancelled();
+
+        Assert.assertEquals(1, runCount.get());
+        Assert.assertFalse(failures.isCancelled());
+        Assert.assertFalse(failures.getFirstFailure().isDone());
+        Assert.assertEquals(
+                Arrays.asList("com.example.Foo", "com.example.Baz"),
+                new ArrayList<>(failures.getFailures().keySet()));
+    }
+
+    @Test(expected = AssertionError.class)
+    public void testAggregateError() {
+        new TaskFailures(false).guard("com.example.Foo", () -> {
+            throw new AssertionError("Simulated Failure");
+        }).run();
+    }
+}
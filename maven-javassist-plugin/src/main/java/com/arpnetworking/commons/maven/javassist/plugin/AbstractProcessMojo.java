@@ -15,47 +15,40 @@
  */
 package com.arpnetworking.commons.maven.javassist.plugin;
 
-import com.arpnetworking.commons.maven.javassist.ClassProcessor;
-import javassist.ClassPool;
-import javassist.CtClass;
-import javassist.NotFoundException;
+import com.arpnetworking.commons.maven.javassist.engine.BuildChanges;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingEngine;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingException;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingLog;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingOptions;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessorConfiguration;
+import com.arpnetworking.commons.maven.javassist.engine.SharedClassPools;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.SessionData;
 import org.sonatype.plexus.build.incremental.BuildContext;
 
 import java.io.File;
-import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.nio.file.FileSystems;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
 /**
- * Abstract mojo implementation for processing classes using Javassist.
+ * Abstract mojo implementation for processing classes using Javassist. The
+ * mojo maps its configuration to the Maven independent
+ * {@link ProcessingEngine} which processes the classes.
  *
  * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
  */
@@ -63,46 +56,54 @@ public abstract class AbstractProcessMojo extends AbstractMojo {
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
-        final ClassLoader originalContextClassLoader = Thread.currentThread().getContextClassLoader();
-
+        final ProcessingEngine engine = new ProcessingEngine(
+                createOptions(),
+                new MavenBuildChanges(buildContext),
+                new MavenProcessingLog(getLog()));
         try {
-            final Path outputDirectory = getOutputDirectory(project);
-            final List<String> classpathElementsToLoad = getClasspathElementsToLoad(project);
-            final ClassPool classPool = createClassPool(classpathElementsToLoad);
-            final URLClassLoader pluginClassLoader = createUrlClassLoader(
-                    classpathElementsToLoad,
-                    originalContextClassLoader);
-            Thread.currentThread().setContextClassLoader(pluginClassLoader);
-
-            final ClassProcessor classProcessor = createProcessor(pluginClassLoader, processor);
-            final Predicate<CtClass> includePredicate = createIncludePredicate(includes);
-            final Predicate<CtClass> excludePredicate = createExcludePredicate(excludes);
-            final ExecutorService executorService = createExecutorService(threads);
-
-            final CompletableFuture<?>[] completableFutures = getClasspathElementsToProcess(project).stream()
-                    .flatMap(classpathElement -> findClasses(classPool, classpathElement).stream())
-                    .map(ctClass -> CompletableFuture.runAsync(
-                            new ClassProcessorTask(
-                                    buildContext,
-                                    ctClass,
-                                    classProcessor,
-                                    includePredicate,
-                                    excludePredicate,
-                                    outputDirectory,
-                                    getLog()),
-                            executorService))
-                    .toArray(CompletableFuture[]::new);
-
-            try {
-                CompletableFuture.allOf(completableFutures).get();
-            } catch (final InterruptedException e) {
-                throw new MojoExecutionException("Class processing interrupted", e);
-            } catch (final CompletionException | ExecutionException e) {
-                throw unwrapTaskException(e, e.getCause());
-            }
-        } finally {
-            Thread.currentThread().setContextClassLoader(originalContextClassLoader);
+            engine.execute();
+        } catch (final ProcessingException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /* package private */ ProcessingOptions createOptions() throws MojoExecutionException {
+        final ProcessingOptions options = new ProcessingOptions(getOutputDirectory(project));
+        options.setClasspathElementsToProcess(getClasspathElementsToProcess(project));
+        options.setClasspathElementsToLoad(getClasspathElementsToLoad(project));
+        options.setManifestFile(getManifestFile(project));
+        options.setProcessors(createProcessorConfigurations());
+        options.setIncludes(toList(includes));
+        options.setExcludes(toList(excludes));
+        options.setThreads(threads);
+        options.setOrderByHierarchy(orderByHierarchy);
+        options.setAggregateFailures(aggregateFailures);
+        options.setSlowClassThreshold(Duration.ofSeconds(slowClassThreshold));
+        options.setClassTimeout(Duration.ofSeconds(classTimeout));
+        if (shareDependencyClassPool) {
+            options.setSharedClassPools(getSharedClassPools());
+        }
+        options.setPerformanceReport(performanceReport);
+        options.setIncremental(incremental);
+        options.setProcessedManifest(processedManifest);
+        if (cacheDirectory != null) {
+            options.setCacheDirectory(cacheDirectory.toPath());
         }
+        options.setCacheMaximumSize(cacheMaximumSize);
+        options.setJars(toList(jars).stream().map(File::toPath).collect(Collectors.toList()));
+        return options;
+    }
+
+    /* package private */ SharedClassPools getSharedClassPools() {
+        // The pools are kept with the session so that they are shared by the
+        // executions of this build only and closed when it ends; keyed by the
+        // class so that each plugin realm has its own
+        final SessionData data = session.getRepositorySession().getData();
+        final SharedClassPools sharedClassPools = new SharedClassPools();
+        if (data.set(SharedClassPools.class, null, sharedClassPools)) {
+            SessionEndListener.register(session.getRequest(), sharedClassPools, getLog());
+        }
+        return (SharedClassPools) data.get(SharedClassPools.class);
     }
 
     /**
@@ -131,142 +132,47 @@ public abstract class AbstractProcessMojo extends AbstractMojo {
      */
     protected abstract List<String> getClasspathElementsToLoad(MavenProject mavenProject) throws MojoExecutionException;
 
-    /* package private */ URLClassLoader createUrlClassLoader(
-            final List<String> classpathElements,
-            final ClassLoader contextClassLoader)
-            throws MojoExecutionException {
-        try {
-            final URL[] urls = new URL[classpathElements.size()];
-            int i = 0;
-            for (final String classpathElement : classpathElements) {
-                urls[i++] = new File(classpathElement).toURI().toURL();
-            }
-            return URLClassLoader.newInstance(urls, contextClassLoader);
-        } catch (final MalformedURLException e) {
-            throw new MojoExecutionException("Unable to instantiate class loader", e);
-        }
-    }
-
-    /* package private */ ClassPool createClassPool(final List<String> classpathElements) throws MojoExecutionException {
-        final ClassPool classPool = new ClassPool(ClassPool.getDefault());
-        for (final String classPathElement : classpathElements) {
-            try {
-                classPool.appendClassPath(classPathElement);
-            } catch (final NotFoundException e) {
-                throw new MojoExecutionException("Unable to add class path to pool: " + classPathElement, e);
-            }
-        }
-        return classPool;
-    }
-
-    /* package private */ List<CtClass> findClasses(
-            final ClassPool classPool,
-            final String classPathElement) {
-
-        // TODO(ville): If we ever support finding classes in other ways extract this method into a strategy.
-        getLog().debug(String.format("Searching classpath element: %s", classPathElement));
-        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:**.{class}");
-        final Path basePath = Paths.get(classPathElement);
-        final List<CtClass> ctClasses = new ArrayList<>();
-
-        try {
-            Files.walkFileTree(
-                    basePath,
-                    new ClasspathSimpleFileVisitor(matcher, ctClasses, classPool, basePath));
-        } catch (final IOException e) {
-            throw new CompletionException("Unable to resolve compile classpath elements", e);
-        }
-
-        return ctClasses;
-    }
-
-    /* package private */ static ExecutorService createExecutorService(final String threads) {
-        final int threadCount;
-        if (threads.endsWith("C")) {
-            threadCount = Integer.parseInt(threads.substring(0, threads.length() - 1))
-                    * Runtime.getRuntime().availableProcessors();
-        } else {
-            threadCount = Integer.parseInt(threads);
-        }
-        final ClassLoader currentThreadContextClassloader = Thread.currentThread().getContextClassLoader();
-        final AtomicInteger threadIndex = new AtomicInteger(1);
-        return Executors.newFixedThreadPool(
-                threadCount,
-                r -> {
-                    final Thread thread = new Thread(r);
-                    thread.setName("javassist-processor-" + threadIndex.getAndIncrement());
-                    thread.setContextClassLoader(currentThreadContextClassloader);
-                    return thread;
-                });
-    }
-
-    /* package private */ static ClassProcessor createProcessor(
-            final ClassLoader classLoader,
-            final String processorClassName)
-            throws MojoExecutionException {
-        try {
-            final Object classProcessor = classLoader.loadClass(processorClassName).getDeclaredConstructor().newInstance();
-            if (classProcessor instanceof ClassProcessor) {
-                return (ClassProcessor) classProcessor;
-            }
-            throw new MojoExecutionException("Invalid class processor: " + processorClassName);
-        } catch (final ClassNotFoundException e) {
-            throw new MojoExecutionException("Class processor not found: " + processorClassName, e);
-            // CHECKSTYLE.OFF: IllegalCatch
-        } catch (final Exception e) {
-            // CHECKSTYLE.ON: IllegalCatch
-            throw new MojoExecutionException("Unable to instantiate processor: " + processorClassName, e);
+    /**
+     * Return the file used to persist the class manifest for incremental
+     * processing in this goal. By default the manifest is kept in the
+     * build directory and named after the goal and the execution so that
+     * executions do not share a manifest; for example,
+     * "target/javassist/process-default.manifest".
+     *
+     * @param mavenProject the {@code MavenProject} instance.
+     * @return Manifest file.
+     */
+    protected Path getManifestFile(final MavenProject mavenProject) {
+        String name = DEFAULT_MANIFEST_NAME;
+        if (mojoExecution != null) {
+            name = mojoExecution.getGoal() + "-" + mojoExecution.getExecutionId();
         }
+        return Paths.get(mavenProject.getBuild().getDirectory(), "javassist", name + ".manifest");
     }
 
-    /* package private */ static MojoExecutionException unwrapTaskException(
-            final Exception exception,
-            @Nullable final Throwable cause) {
-        if (cause instanceof CompletionException || cause instanceof ExecutionException) {
-            return unwrapTaskException((Exception) cause, cause.getCause());
-        } else if (cause != null) {
-            return new MojoExecutionException("Class processing failed", cause);
-        } else {
-            return new MojoExecutionException("Unknown class processing exception", exception);
+    private List<ProcessorConfiguration> createProcessorConfigurations() {
+        // The processor is scoped by the plugin level includes and excludes
+        // only and is applied ahead of the chained processors
+        final List<ProcessorConfiguration> configurations = new ArrayList<>();
+        if (processor != null) {
+            final ProcessorConfiguration configuration = new ProcessorConfiguration();
+            configuration.setClassName(processor);
+            configurations.add(configuration);
         }
-    }
-
-    /* package private */ static Predicate<CtClass> createIncludePredicate(@Nullable final String[] classes) {
-        final Set<PathMatcher> includeSet;
-        if (classes != null && classes.length != 0) {
-            includeSet = createPathMatcherSet(classes);
-        } else {
-            return ctClass -> true;
+        if (processors != null) {
+            configurations.addAll(processors);
         }
-        return createMatchingPredicate(includeSet);
+        return configurations;
     }
 
-    /* package private */ static Predicate<CtClass> createExcludePredicate(@Nullable final String[] classes) {
-        final Set<PathMatcher> excludeSet;
-        if (classes != null && classes.length != 0) {
-            excludeSet = createPathMatcherSet(classes);
-        } else {
-            return ctClass -> false;
+    private static <T> List<T> toList(@Nullable final T[] values) {
+        if (values == null) {
+            return Collections.emptyList();
         }
-        return createMatchingPredicate(excludeSet);
+        return Arrays.asList(values);
     }
 
-    /* package private */ static Predicate<CtClass> createMatchingPredicate(final Set<PathMatcher> pathMatchers) {
-        return ctClass -> {
-            for (final PathMatcher pathMatcher : pathMatchers) {
-                if (pathMatcher.matches(Paths.get(ctClass.getName()))) {
-                    return true;
-                }
-            }
-            return false;
-        };
-    }
-
-    /* package private */ static Set<PathMatcher> createPathMatcherSet(final String[] targets) {
-        return Arrays.stream(targets)
-                .map(inclusion -> FileSystems.getDefault().getPathMatcher("glob:" + inclusion))
-                .collect(Collectors.toSet());
-    }
+    private static final String DEFAULT_MANIFEST_NAME = "default";
 
     // CHECKSTYLE.OFF: MemberName - Member names are mapped to plugin configuration.
 
@@ -278,9 +184,16 @@ public abstract class AbstractProcessMojo extends AbstractMojo {
     private BuildContext buildContext;
 
     // Implementation of {@code com.arpnetworking.commons.maven.javassist.ClassProcessor}
-    @Parameter(property = "processor", required = true)
+    @Parameter(property = "processor")
     private String processor;
 
+    // Ordered list of additional {@code ClassProcessor} implementations each
+    // with optional includes and excludes narrowing the plugin level ones.
+    // All accepting processors are applied to a class in a single pass so
+    // each class is parsed and written only once.
+    @Parameter(property = "processors")
+    private List<ProcessorConfiguration> processors;
+
     // List of {@code Class} names to be included; by default all classes
     // within the goal scope are included. Use this property to select the
     // desired classes.
@@ -293,47 +206,168 @@ public abstract class AbstractProcessMojo extends AbstractMojo {
     private String[] excludes;
 
     // The number of threads to use for class processing. Suffix the number
-    // with "C" to indicate the number of threads per core.
+    // with "C" to indicate the number of threads per core. Specify "virtual"
+    // to process each class on its own virtual thread, optionally followed
+    // by ":" and the maximum number of classes to process concurrently (for
+    // example, "virtual:256" or "virtual:16C"); requires Java 21 or later.
     @Parameter(property = "threads", defaultValue = "1")
     private String threads;
 
+    // Process a class only after the classes it directly extends or
+    // implements within the goal's class directories; classes in separate
+    // branches of the hierarchy are still processed concurrently. Enable for
+    // processors which inspect supertypes to use multiple threads. Processing
+    // fails if a processor modifies any class other than the one it is given,
+    // such as a supertype shared by subtypes processed concurrently. All
+    // classes are discovered before processing starts.
+    @Parameter(property = "orderByHierarchy", defaultValue = "false")
+    private boolean orderByHierarchy;
+
+    // Collect the failures of all classes and report them together instead
+    // of cancelling the remaining classes at the first failure.
+    @Parameter(property = "aggregateFailures", defaultValue = "false")
+    private boolean aggregateFailures;
+
+    // Log a class still being processed after this many seconds together
+    // with a stack sample of its thread; zero disables the warning. Each
+    // class of a batch is timed separately, except for a batch passed to a
+    // lifecycle processor at once, which is timed as a whole.
+    @Parameter(property = "slowClassThreshold", defaultValue = "60")
+    private long slowClassThreshold;
+
+    // Fail processing once a class is still being processed after this many
+    // seconds naming the class and processor; zero disables the timeout.
+    @Parameter(property = "classTimeout", defaultValue = "0")
+    private long classTimeout;
+
+    // Resolve dependency jars from class pools shared by all executions of
+    // the plugin in the build session so that each jar is opened once and
+    // the classes of the same dependencies are parsed once; classes in the
+    // module's own directories are resolved first. Shared dependency classes
+    // are frozen so processors cannot modify them.
+    @Parameter(property = "shareDependencyClassPool", defaultValue = "false")
+    private boolean shareDependencyClassPool;
+
+    // Write a JSON report of where class processing time was spent next to
+    // the goal's manifest in the build directory; for example,
+    // "target/javassist/process-default.performance.json".
+    @Parameter(property = "performanceReport", defaultValue = "false")
+    private boolean performanceReport;
+
+    // Process only classes which changed since the last build. A manifest
+    // of class digests and the processor applied is kept with the goal's
+    // build output and is consulted together with the build context deltas.
+    @Parameter(property = "incremental", defaultValue = "false")
+    private boolean incremental;
+
+    // Record the processors applied to and rejecting each class in a binary
+    // manifest next to the output directory instead of a {@code Processed}
+    // annotation in the class file so that processed classes are skipped
+    // before being parsed; for example, "target/classes.processed". The
+    // manifest is shared by all executions processing the same directory.
+    // Not applied to jars. Rebuild the classes if the manifest is disabled.
+    @Parameter(property = "processedManifest", defaultValue = "false")
+    private boolean processedManifest;
+
+    // Directory of a content addressed cache of processed classes. The
+    // directory may be shared between checkouts and build agents. By default
+    // no cache is used.
+    @Parameter(property = "cacheDirectory")
+    private File cacheDirectory;
+
+    // The maximum size of the cache in bytes; suffix the number with "K",
+    // "M" or "G" for the respective binary unit. The least recently used
+    // entries are evicted once the cache exceeds this size.
+    @Parameter(property = "cacheMaximumSize", defaultValue = "1G")
+    private String cacheMaximumSize;
+
+    // Jar files to process in place instead of the goal's class directory;
+    // for example, a packaged or shaded artifact. Each jar is rewritten in a
+    // single pass copying entries which are not processed as-is. Jars are
+    // not tracked by the incremental manifest or the cache.
+    @Parameter(property = "jars")
+    private File[] jars;
+
+    // The {@code MojoExecution} of the goal; names the goal's manifest.
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true)
+    private MojoExecution mojoExecution;
+
+    // The {@code MavenSession} of the build; holds the shared class pools.
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
     // The {@code MavenProject} being built.
     @Parameter(property = "project", defaultValue = "${project}", readonly =  true)
     private MavenProject project;
 
     // CHECKSTYLE.ON: MemberName
 
-    private static class ClasspathSimpleFileVisitor extends SimpleFileVisitor<Path> {
-
-        ClasspathSimpleFileVisitor(
-                final PathMatcher matcher,
-                final List<CtClass> ctClasses,
-                final ClassPool classPool,
-                final Path basePath) {
-            _matcher = matcher;
-            _ctClasses = ctClasses;
-            _classPool = classPool;
-            _basePath = basePath;
+    /**
+     * The {@code BuildChanges} of the Maven {@code BuildContext}.
+     */
+    private static final class MavenBuildChanges implements BuildChanges {
+
+        MavenBuildChanges(final BuildContext buildContext) {
+            _buildContext = buildContext;
+        }
+
+        @Override
+        public boolean isIncremental() {
+            return _buildContext.isIncremental();
+        }
+
+        @Override
+        public boolean hasDelta(final Path file) {
+            return _buildContext.hasDelta(file.toFile());
+        }
+
+        @Override
+        public void refresh(final Path file) {
+            _buildContext.refresh(file.toFile());
+        }
+
+        private final BuildContext _buildContext;
+    }
+
+    /**
+     * The {@code ProcessingLog} of the Maven {@code Log}.
+     */
+    private static final class MavenProcessingLog implements ProcessingLog {
+
+        MavenProcessingLog(final Log log) {
+            _log = log;
+        }
+
+        @Override
+        public void debug(final CharSequence content) {
+            _log.debug(content);
+        }
+
+        @Override
+        public void info(final CharSequence content) {
+            _log.info(content);
+        }
+
+        @Override
+        public void warn(final CharSequence content) {
+            _log.warn(content);
+        }
+
+        @Override
+        public void warn(final CharSequence content, final Throwable error) {
+            _log.warn(content, error);
+        }
+
+        @Override
+        public void error(final CharSequence content) {
+            _log.error(content);
         }
 
         @Override
-        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
-            if (_matcher.matches(file)) {
-                final String relativeFileName = _basePath.relativize(file).toString();
-                final String className = relativeFileName.substring(0, relativeFileName.lastIndexOf("."))
-                        .replace(File.separator, ".");
-                try {
-                    _ctClasses.add(_classPool.get(className));
-                } catch (final NotFoundException e) {
-                    throw new IOException("Unable to load class: " + file + " (" + className + ")", e);
-                }
-            }
-            return FileVisitResult.CONTINUE;
+        public void error(final CharSequence content, final Throwable error) {
+            _log.error(content, error);
         }
 
-        private final PathMatcher _matcher;
-        private final List<CtClass> _ctClasses;
-        private final ClassPool _classPool;
-        private final Path _basePath;
+        private final Log _log;
     }
 }
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.plugin;
+
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import javax.annotation.Nullable;
+
+/**
+ * {@code ExecutionListener} closing a resource kept with the build session
+ * once the session ends. It wraps the listener of the request, to which it
+ * forwards every event, since a plugin cannot otherwise observe the end of
+ * the session.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+/* package private */ final class SessionEndListener implements ExecutionListener {
+
+    /**
+     * Close a resource when the session of a request ends.
+     *
+     * @param request The {@code MavenExecutionRequest} of the session.
+     * @param resource The resource to close.
+     * @param log The {@code Log} to report a failure to close to.
+     */
+    static void register(final MavenExecutionRequest request, final Closeable resource, final Log log) {
+        synchronized (request) {
+            request.setExecutionListener(new SessionEndListener(request.getExecutionListener(), resource, log));
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delegate The {@code ExecutionListener} to forward events to.
+     * @param resource The resource to close.
+     * @param log The {@code Log} to report a failure to close to.
+     */
+    SessionEndListener(@Nullable final ExecutionListener delegate, final Closeable resource, final Log log) {
+        _delegate = delegate;
+        _resource = resource;
+        _log = log;
+    }
+
+    @Override
+    public void projectDiscoveryStarted(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.projectDiscoveryStarted(event);
+        }
+    }
+
+    @Override
+    public void sessionStarted(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.sessionStarted(event);
+        }
+    }
+
+    @Override
+    public void sessionEnded(final ExecutionEvent event) {
+        try {
+            _resource.close();
+        } catch (final IOException e) {
+            _log.warn("Unable to close resource at end of session", e);
+        }
+        if (_delegate != null) {
+            _delegate.sessionEnded(event);
+        }
+    }
+
+    @Override
+    public void projectSkipped(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.projectSkipped(event);
+        }
+    }
+
+    @Override
+    public void projectStarted(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.projectStarted(event);
+        }
+    }
+
+    @Override
+    public void projectSucceeded(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.projectSucceeded(event);
+        }
+    }
+
+    @Override
+    public void projectFailed(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.projectFailed(event);
+        }
+    }
+
+    @Override
+    public void mojoSkipped(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.mojoSkipped(event);
+        }
+    }
+
+    @Override
+    public void mojoStarted(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.mojoStarted(event);
+        }
+    }
+
+    @Override
+    public void mojoSucceeded(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.mojoSucceeded(event);
+        }
+    }
+
+    @Override
+    public void mojoFailed(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.mojoFailed(event);
+        }
+    }
+
+    @Override
+    public void forkStarted(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.forkStarted(event);
+        }
+    }
+
+    @Override
+    public void forkSucceeded(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.forkSucceeded(event);
+        }
+    }
+
+    @Override
+    public void forkFailed(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.forkFailed(event);
+        }
+    }
+
+    @Override
+    public void forkedProjectStarted(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.forkedProjectStarted(event);
+        }
+    }
+
+    @Override
+    public void forkedProjectSucceeded(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.forkedProjectSucceeded(event);
+        }
+    }
+
+    @Override
+    public void forkedProjectFailed(final ExecutionEvent event) {
+        if (_delegate != null) {
+            _delegate.forkedProjectFailed(event);
+        }
+    }
+
+    @Nullable
+    private final ExecutionListener _delegate;
+    private final Closeable _resource;
+    private final Log _log;
+}
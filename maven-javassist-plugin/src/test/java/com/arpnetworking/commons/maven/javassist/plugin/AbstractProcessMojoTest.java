@@ -16,19 +16,39 @@
 package com.arpnetworking.commons.maven.javassist.plugin;
 
 import com.arpnetworking.commons.maven.javassist.ClassProcessor;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessingOptions;
+import com.arpnetworking.commons.maven.javassist.engine.ProcessorConfiguration;
+import com.arpnetworking.commons.maven.javassist.engine.SharedClassPools;
+import javassist.ClassPool;
 import javassist.CtClass;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.MojoDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
-
-import java.util.concurrent.CompletionException;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.function.Predicate;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * Tests for {@link AbstractProcessMojo}.
@@ -38,167 +58,172 @@ import java.util.function.Predicate;
 public final class AbstractProcessMojoTest {
 
     @Test
-    public void testCreateExecutorServiceSingleThread() {
-        final ExecutorService executorService = AbstractProcessMojo.createExecutorService("1");
-        MatcherAssert.assertThat(executorService, Matchers.instanceOf(ThreadPoolExecutor.class));
-        final ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executorService;
-        Assert.assertEquals(1, threadPoolExecutor.getCorePoolSize());
-        Assert.assertEquals(1, threadPoolExecutor.getMaximumPoolSize());
-    }
+    public void testGetManifestFileDefault() throws ReflectiveOperationException {
+        final MavenProject project = new MavenProject();
+        project.getBuild().setDirectory("target");
+        final AbstractProcessMojo mojo = new ProcessSourceMojo();
+        Assert.assertEquals(Paths.get("target", "javassist", "default.manifest"), mojo.getManifestFile(project));
 
-    @Test
-    public void testCreateExecutorServiceMultiThread() {
-        final ExecutorService executorService = AbstractProcessMojo.createExecutorService("4");
-        MatcherAssert.assertThat(executorService, Matchers.instanceOf(ThreadPoolExecutor.class));
-        final ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executorService;
-        Assert.assertEquals(4, threadPoolExecutor.getCorePoolSize());
-        Assert.assertEquals(4, threadPoolExecutor.getMaximumPoolSize());
+        final MojoDescriptor descriptor = new MojoDescriptor();
+        descriptor.setGoal("process");
+        setField(mojo, "mojoExecution", new MojoExecution(descriptor, "instrument"));
+        Assert.assertEquals(
+                Paths.get("target", "javassist", "process-instrument.manifest"),
+                mojo.getManifestFile(project));
     }
 
     @Test
-    public void testCreateExecutorServicePerCoreThread() {
-        final int cores = Runtime.getRuntime().availableProcessors();
-        final ExecutorService executorService = AbstractProcessMojo.createExecutorService("2C");
-        MatcherAssert.assertThat(executorService, Matchers.instanceOf(ThreadPoolExecutor.class));
-        final ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executorService;
-        Assert.assertEquals(2 * cores, threadPoolExecutor.getCorePoolSize());
-        Assert.assertEquals(2 * cores, threadPoolExecutor.getMaximumPoolSize());
-    }
-
-    @Test(expected = NumberFormatException.class)
-    public void testCreateExecutorServiceInvalid() {
-        AbstractProcessMojo.createExecutorService("Foo");
-    }
-
-    @Test(expected = NumberFormatException.class)
-    public void testCreateExecutorServiceInvalidPerCore() {
-        AbstractProcessMojo.createExecutorService("FooC");
+    public void testCreateOptions() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("options").toPath();
+        final ProcessorConfiguration configuration = new ProcessorConfiguration();
+        configuration.setClassName(FailingProcessor.class.getName());
+        final TestProcessMojo mojo = createMojo(directory);
+        setField(mojo, "processors", Collections.singletonList(configuration));
+        setField(mojo, "includes", new String[]{"com.example.*"});
+        setField(mojo, "classTimeout", 5L);
+        setField(mojo, "cacheDirectory", directory.resolve("cache").toFile());
+        setField(mojo, "jars", new File[]{directory.resolve("test.jar").toFile()});
+
+        final ProcessingOptions options = mojo.createOptions();
+        Assert.assertEquals(directory, options.getOutputDirectory());
+        Assert.assertEquals(Collections.singletonList(directory.toString()), options.getClasspathElementsToProcess());
+        Assert.assertEquals(directory.resolve(MANIFEST_FILE), options.getManifestFile());
+        Assert.assertEquals(
+                List.of(TestProcessor.class.getName(), FailingProcessor.class.getName()),
+                options.getProcessors().stream()
+                        .map(ProcessorConfiguration::getClassName)
+                        .collect(Collectors.toList()));
+        Assert.assertEquals(Collections.singletonList("com.example.*"), options.getIncludes());
+        Assert.assertEquals(Collections.emptyList(), options.getExcludes());
+        Assert.assertEquals(Duration.ofSeconds(5), options.getClassTimeout());
+        Assert.assertEquals(directory.resolve("cache"), options.getCacheDirectory());
+        Assert.assertEquals(Collections.singletonList(directory.resolve("test.jar")), options.getJars());
     }
 
     @Test
-    public void testCreateProcessor() throws MojoExecutionException {
-        final ClassProcessor processor = AbstractProcessMojo.createProcessor(
-                Thread.currentThread().getContextClassLoader(),
-                "com.arpnetworking.commons.maven.javassist.plugin.TestProcessor");
-        MatcherAssert.assertThat(processor, Matchers.instanceOf(TestProcessor.class));
-    }
-
-    @Test(expected = MojoExecutionException.class)
-    public void testCreateProcessorNonProcessor() throws MojoExecutionException {
-        AbstractProcessMojo.createProcessor(
-                Thread.currentThread().getContextClassLoader(),
-                "java.lang.String");
-    }
-
-    @Test(expected = MojoExecutionException.class)
-    public void testCreateProcessorNotFound() throws MojoExecutionException {
-        AbstractProcessMojo.createProcessor(
-                Thread.currentThread().getContextClassLoader(),
-                "com.example.NotFound");
-    }
-
-    @Test(expected = MojoExecutionException.class)
-    public void testCreateProcessorConstructionFailure() throws MojoExecutionException {
-        AbstractProcessMojo.createProcessor(
-                Thread.currentThread().getContextClassLoader(),
-                "com.arpnetworking.commons.maven.javassist.plugin.AbstractProcessMojoTest$BrokenProcessor");
+    public void testGetSharedClassPools() throws Exception {
+        final ExecutionListener listener = Mockito.mock(ExecutionListener.class);
+        final MavenExecutionRequest request = new DefaultMavenExecutionRequest().setExecutionListener(listener);
+        final MavenSession session = Mockito.mock(MavenSession.class);
+        Mockito.when(session.getRepositorySession()).thenReturn(new DefaultRepositorySystemSession());
+        Mockito.when(session.getRequest()).thenReturn(request);
+        final MavenSession otherSession = Mockito.mock(MavenSession.class);
+        Mockito.when(otherSession.getRepositorySession()).thenReturn(new DefaultRepositorySystemSession());
+        Mockito.when(otherSession.getRequest()).thenReturn(new DefaultMavenExecutionRequest());
+        final TestProcessMojo mojo = createMojo(_temporaryFolder.newFolder("sharedFirst").toPath());
+        final TestProcessMojo otherMojo = createMojo(_temporaryFolder.newFolder("sharedSecond").toPath());
+        setField(mojo, "session", session);
+        setField(otherMojo, "session", session);
+
+        // The executions of a session share the pools; another session does not
+        final SharedClassPools sharedClassPools = mojo.getSharedClassPools();
+        Assert.assertSame(sharedClassPools, otherMojo.getSharedClassPools());
+        setField(otherMojo, "session", otherSession);
+
+        // The pools are closed with the session by a listener wrapping the existing one
+        MatcherAssert.assertThat(request.getExecutionListener(), Matchers.instanceOf(SessionEndListener.class));
+        request.getExecutionListener().sessionEnded(null);
+        Mockito.verify(listener).sessionEnded(null);
+        Assert.assertNotSame(sharedClassPools, otherMojo.getSharedClassPools());
+
+        setField(mojo, "shareDependencyClassPool", true);
+        Assert.assertSame(sharedClassPools, mojo.createOptions().getSharedClassPools());
     }
 
     @Test
-    public void testUnwrapTaskExceptionNoOp() {
-        final NullPointerException exception = new NullPointerException("Exception");
-        final MojoExecutionException mee = AbstractProcessMojo.unwrapTaskException(exception, null);
-        Assert.assertSame(exception, mee.getCause());
-    }
+    public void testExecute() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("execute").toPath();
+        new ClassPool(true).makeClass("com.example.execute.Foo").writeFile(directory.toString());
 
-    @Test
-    public void testUnwrapTaskExceptionCause() {
-        final NullPointerException cause = new NullPointerException("Cause");
-        final NullPointerException exception = new NullPointerException("Exception");
-        final MojoExecutionException mee = AbstractProcessMojo.unwrapTaskException(exception, cause);
-        Assert.assertSame(cause, mee.getCause());
-    }
+        final TestProcessMojo mojo = createMojo(directory);
+        setField(mojo, "performanceReport", true);
+        mojo.execute();
 
-    @Test
-    public void testUnwrapTaskExceptionUnwrapCompletionException() {
-        final NullPointerException wrappedCause = new NullPointerException("WrappedCause");
-        final CompletionException cause = new CompletionException("Cause", wrappedCause);
-        final Exception exception = new Exception("Exception", cause);
-        final MojoExecutionException mee = AbstractProcessMojo.unwrapTaskException(exception, cause);
-        Assert.assertSame(wrappedCause, mee.getCause());
+        Assert.assertTrue(Files.exists(directory.resolve("manifest/test.performance.json")));
     }
 
     @Test
-    public void testUnwrapTaskExceptionUnwrapExecutionException() {
-        final NullPointerException wrappedCause = new NullPointerException("WrappedCause");
-        final ExecutionException cause = new ExecutionException("Cause", wrappedCause);
-        final Exception exception = new Exception("Exception", cause);
-        final MojoExecutionException mee = AbstractProcessMojo.unwrapTaskException(exception, cause);
-        Assert.assertSame(wrappedCause, mee.getCause());
+    public void testExecuteFailure() throws Exception {
+        final Path directory = _temporaryFolder.newFolder("failure").toPath();
+        new ClassPool(true).makeClass("com.example.failure.Foo").writeFile(directory.toString());
+
+        final TestProcessMojo mojo = createMojo(directory);
+        setField(mojo, "processor", FailingProcessor.class.getName());
+        try {
+            mojo.execute();
+            Assert.fail("Expected exception not thrown");
+        } catch (final MojoExecutionException e) {
+            MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("Class processing failed"));
+            MatcherAssert.assertThat(e.getCause().getCause(), Matchers.instanceOf(IllegalStateException.class));
+        }
     }
 
-    @Test
-    public void testCreateIncludePredicateNullClasses() {
-        final Predicate<CtClass> predicate = AbstractProcessMojo.createIncludePredicate(null);
-        Assert.assertTrue(predicate.test(null));
+    private TestProcessMojo createMojo(final Path directory) throws ReflectiveOperationException {
+        final TestProcessMojo mojo = new TestProcessMojo(directory);
+        setField(mojo, "buildContext", new DefaultBuildContext());
+        setField(mojo, "processor", TestProcessor.class.getName());
+        setField(mojo, "threads", "2");
+        setField(mojo, "cacheMaximumSize", "1G");
+        return mojo;
     }
 
-    @Test
-    public void testCreateIncludePredicateEmptyClasses() {
-        final Predicate<CtClass> predicate = AbstractProcessMojo.createIncludePredicate(new String[0]);
-        Assert.assertTrue(predicate.test(null));
+    private static void setField(
+            final AbstractProcessMojo mojo,
+            final String name,
+            @Nullable final Object value)
+            throws ReflectiveOperationException {
+        final Field field = AbstractProcessMojo.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(mojo, value);
     }
 
-    @Test
-    public void testCreateIncludePredicate() {
-        final CtClass ctClass = Mockito.mock(CtClass.class);
-        final Predicate<CtClass> predicate = AbstractProcessMojo.createIncludePredicate(new String[]{"Foo*"});
+    @Rule
+    public final TemporaryFolder _temporaryFolder = new TemporaryFolder();
 
-        Mockito.doReturn("FooWidget").when(ctClass).getName();
-        Assert.assertTrue(predicate.test(ctClass));
+    private static final String MANIFEST_FILE = "manifest/test.manifest";
 
-        Mockito.doReturn("BarWidget").when(ctClass).getName();
-        Assert.assertFalse(predicate.test(ctClass));
-    }
+    /**
+     * {@link ClassProcessor} that fails to process every class.
+     */
+    public static final class FailingProcessor implements ClassProcessor {
 
-    @Test
-    public void testCreateExcludePredicateNullClasses() {
-        final Predicate<CtClass> predicate = AbstractProcessMojo.createExcludePredicate(null);
-        Assert.assertFalse(predicate.test(null));
-    }
+        @Override
+        public boolean accept(final CtClass ctClass) {
+            return true;
+        }
 
-    @Test
-    public void testCreateExcludePredicateEmptyClasses() {
-        final Predicate<CtClass> predicate = AbstractProcessMojo.createExcludePredicate(new String[0]);
-        Assert.assertFalse(predicate.test(null));
+        @Override
+        public void process(final CtClass ctClass) {
+            throw new IllegalStateException("Unable to process: " + ctClass.getName());
+        }
     }
 
-    @Test
-    public void testCreateExcludePredicate() {
-        final CtClass ctClass = Mockito.mock(CtClass.class);
-        final Predicate<CtClass> predicate = AbstractProcessMojo.createExcludePredicate(new String[]{"Foo*"});
-
-        Mockito.doReturn("FooWidget").when(ctClass).getName();
-        Assert.assertTrue(predicate.test(ctClass));
+    private static final class TestProcessMojo extends AbstractProcessMojo {
 
-        Mockito.doReturn("BarWidget").when(ctClass).getName();
-        Assert.assertFalse(predicate.test(ctClass));
-    }
+        TestProcessMojo(final Path directory) {
+            _directory = directory;
+        }
 
-    private static final class BrokenProcessor implements ClassProcessor {
+        @Override
+        protected Path getOutputDirectory(final MavenProject mavenProject) {
+            return _directory;
+        }
 
-        BrokenProcessor() {
-            throw new IllegalStateException("This processor is always in an illegal state.");
+        @Override
+        protected List<String> getClasspathElementsToProcess(final MavenProject mavenProject) {
+            return Collections.singletonList(_directory.toString());
         }
 
         @Override
-        public boolean accept(final CtClass ctClass) {
-            return false;
+        protected List<String> getClasspathElementsToLoad(final MavenProject mavenProject) {
+            return Collections.singletonList(_directory.toString());
         }
 
         @Override
-        public void process(final CtClass ctClass) {
-            // Nothing to do
+        protected Path getManifestFile(final MavenProject mavenProject) {
+            return _directory.resolve(MANIFEST_FILE);
         }
+
+        private final Path _directory;
     }
 }
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2026 Inscope Metrics, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arpnetworking.commons.maven.javassist.plugin;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Tests for {@link SessionEndListener}.
+ *
+ * @author Ville Koskela (ville dot koskela at inscopemetrics dot com)
+ */
+public final class SessionEndListenerTest {
+
+    @Test
+    public void testForwardsEvents() {
+        final ExecutionListener delegate = Mockito.mock(ExecutionListener.class);
+        final ExecutionListener listener = new SessionEndListener(delegate, _resource, _log);
+
+        listener.projectDiscoveryStarted(_event);
+        listener.sessionStarted(_event);
+        listener.projectSkipped(_event);
+        listener.projectStarted(_event);
+        listener.projectSucceeded(_event);
+        listener.projectFailed(_event);
+        listener.mojoSkipped(_event);
+        listener.mojoStarted(_event);
+        listener.mojoSucceeded(_event);
+        listener.mojoFailed(_event);
+        listener.forkStarted(_event);
+        listener.forkSucceeded(_event);
+        listener.forkFailed(_event);
+        listener.forkedProjectStarted(_event);
+        listener.forkedProjectSucceeded(_event);
+        listener.forkedProjectFailed(_event);
+        listener.sessionEnded(_event);
+
+        Mockito.verify(delegate).projectDiscoveryStarted(_event);
+        Mockito.verify(delegate).sessionStarted(_event);
+        Mockito.verify(delegate).projectSkipped(_event);
+        Mockito.verify(delegate).projectStarted(_event);
+        Mockito.verify(delegate).projectSucceeded(_event);
+        Mockito.verify(delegate).projectFailed(_event);
+        Mockito.verify(delegate).mojoSkipped(_event);
+        Mockito.verify(delegate).mojoStarted(_event);
+        Mockito.verify(delegate).mojoSucceeded(_event);
+        Mockito.verify(delegate).mojoFailed(_event);
+        Mockito.verify(delegate).forkStarted(_event);
+        Mockito.verify(delegate).forkSucceeded(_event);
+        Mockito.verify(delegate).forkFailed(_event);
+        Mockito.verify(delegate).forkedProjectStarted(_event);
+        Mockito.verify(delegate).forkedProjectSucceeded(_event);
+        Mockito.verify(delegate).forkedProjectFailed(_event);
+        Mockito.verify(delegate).sessionEnded(_event);
+    }
+
+    @Test
+    public void testWithoutDelegate() throws IOException {
+        final ExecutionListener listener = new SessionEndListener(null, _resource, _log);
+
+        listener.projectDiscoveryStarted(_event);
+        listener.sessionStarted(_event);
+        listener.projectSkipped(_event);
+        listener.projectStarted(_event);
+        listener.projectSucceeded(_event);
+        listener.projectFailed(_event);
+        listener.mojoSkipped(_event);
+        listener.mojoStarted(_event);
+        listener.mojoSucceeded(_event);
+        listener.mojoFailed(_event);
+        listener.forkStarted(_event);
+        listener.forkSucceeded(_event);
+        listener.forkFailed(_event);
+        listener.forkedProjectStarted(_event);
+        listener.forkedProjectSucceeded(_event);
+        listener.forkedProjectFailed(_event);
+        Mockito.verify(_resource, Mockito.never()).close();
+
+        listener.sessionEnded(_event);
+        Mockito.verify(_resource).close();
+    }
+
+    @Test
+    public void testRegister() throws IOException {
+        final ExecutionListener delegate = Mockito.mock(ExecutionListener.class);
+        final MavenExecutionRequest request = new DefaultMavenExecutionRequest().setExecutionListener(delegate);
+        SessionEndListener.register(request, _resource, _log);
+
+        request.getExecutionListener().sessionEnded(_event);
+        Mockito.verify(_resource).close();
+        Mockito.verify(delegate).sessionEnded(_event);
+    }
+
+    @Test
+    public void testCloseFailure() throws IOException {
+        final IOException failure = new IOException("Simulated Failure");
+        Mockito.doThrow(failure).when(_resource).close();
+        final ExecutionListener delegate = Mockito.mock(ExecutionListener.class);
+
+        new SessionEndListener(delegate, _resource, _log).sessionEnded(_event);
+        Mockito.verify(_log).warn(Mockito.anyString(), Mockito.same(failure));
+        Mockito.verify(delegate).sessionEnded(_event);
+    }
+
+    private final Closeable _resource = Mockito.mock(Closeable.class);
+    private final Log _log = Mockito.mock(Log.class);
+    private final ExecutionEvent _event = Mockito.mock(ExecutionEvent.class);
+}